@@ -0,0 +1,116 @@
+package dk.dbc.dataio.cli.backfill;
+
+import dk.dbc.dataio.commons.partioner.entity.ChunkItemConverter;
+import dk.dbc.dataio.commons.types.ChunkItem;
+import org.postgresql.util.PGobject;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Rewrites the chunk item columns of the job-store item table from the legacy
+ * JSON format into the binary format of {@link ChunkItemConverter}.
+ * <p>
+ * Jobs are converted one at a time, each in its own transaction, and rows
+ * already in the binary format are left untouched, so the backfill can be
+ * stopped and restarted at any point.
+ * </p>
+ * <pre>
+ *  java -jar dataio-cli-chunk-item-backfill.jar jdbc:postgresql://host/jobstore?user=...&amp;password=... FROM_JOB_ID TO_JOB_ID
+ * </pre>
+ */
+public class ChunkItemStorageBackfill {
+    private static final String[] COLUMNS = {
+            "partitioningoutcome", "processingoutcome", "nextprocessingoutcome", "deliveringoutcome"};
+    private static final String SELECT_ITEMS = "SELECT chunkid, id, " + String.join(", ", COLUMNS)
+            + " FROM item WHERE jobid = ?";
+    private static final String UPDATE_ITEM = "UPDATE item SET "
+            + String.join(" = ?, ", COLUMNS) + " = ? WHERE jobid = ? AND chunkid = ? AND id = ?";
+    private static final int BATCH_SIZE = 1000;
+
+    private final Connection connection;
+    private final ChunkItemConverter jsonConverter = new ChunkItemConverter(ChunkItemConverter.StorageFormat.JSON);
+    private final ChunkItemConverter binaryConverter = new ChunkItemConverter(ChunkItemConverter.StorageFormat.BINARY);
+
+    public ChunkItemStorageBackfill(Connection connection) {
+        this.connection = connection;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length != 3) {
+            System.err.println("usage: ChunkItemStorageBackfill JDBC_URL FROM_JOB_ID TO_JOB_ID");
+            System.exit(1);
+        }
+        try (Connection connection = DriverManager.getConnection(args[0])) {
+            final ChunkItemStorageBackfill backfill = new ChunkItemStorageBackfill(connection);
+            for (int jobId = Integer.parseInt(args[1]); jobId <= Integer.parseInt(args[2]); jobId++) {
+                final int converted = backfill.convertJob(jobId);
+                if (converted > 0) {
+                    System.out.println(String.format("Converted %d items of job %d", converted, jobId));
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts all items of given job still stored in the legacy JSON format
+     *
+     * @param jobId ID of job to convert
+     * @return number of converted items
+     * @throws SQLException on failure to read or update items
+     */
+    public int convertJob(int jobId) throws SQLException {
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        int converted = 0;
+        try (PreparedStatement select = connection.prepareStatement(SELECT_ITEMS);
+             PreparedStatement update = connection.prepareStatement(UPDATE_ITEM)) {
+            select.setFetchSize(BATCH_SIZE);
+            select.setInt(1, jobId);
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    if (bindConvertedItem(update, resultSet, jobId)) {
+                        update.addBatch();
+                        if (++converted % BATCH_SIZE == 0) {
+                            update.executeBatch();
+                        }
+                    }
+                }
+            }
+            if (converted % BATCH_SIZE != 0) {
+                update.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return converted;
+    }
+
+    private boolean bindConvertedItem(PreparedStatement update, ResultSet resultSet, int jobId) throws SQLException {
+        boolean needsConversion = false;
+        for (int i = 0; i < COLUMNS.length; i++) {
+            final PGobject value = (PGobject) resultSet.getObject(COLUMNS[i]);
+            if (value == null) {
+                update.setNull(i + 1, Types.OTHER);
+            } else if (ChunkItemConverter.isBinary(value.getValue())) {
+                update.setObject(i + 1, value);
+            } else {
+                final ChunkItem chunkItem = jsonConverter.convertToEntityAttribute(value);
+                update.setObject(i + 1, binaryConverter.convertToDatabaseColumn(chunkItem));
+                needsConversion = true;
+            }
+        }
+        update.setInt(COLUMNS.length + 1, jobId);
+        update.setInt(COLUMNS.length + 2, resultSet.getInt("chunkid"));
+        update.setShort(COLUMNS.length + 3, resultSet.getShort("id"));
+        return needsConversion;
+    }
+}
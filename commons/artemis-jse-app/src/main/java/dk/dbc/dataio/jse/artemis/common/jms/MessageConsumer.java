@@ -6,9 +6,11 @@ import dk.dbc.dataio.commons.types.Chunk;
 import dk.dbc.dataio.commons.types.ConsumedMessage;
 import dk.dbc.dataio.commons.types.Priority;
 import dk.dbc.dataio.commons.types.exceptions.InvalidMessageException;
+import dk.dbc.dataio.commons.types.jms.ChunkBinaryCodec;
 import dk.dbc.dataio.commons.types.jms.JMSHeader;
 import dk.dbc.dataio.jse.artemis.common.Metric;
 import dk.dbc.dataio.jse.artemis.common.service.ZombieWatch;
+import jakarta.jms.BytesMessage;
 import jakarta.jms.JMSException;
 import jakarta.jms.Message;
 import jakarta.jms.MessageListener;
@@ -57,6 +59,15 @@ public interface MessageConsumer extends MessageListener {
         try {
             String messageId = message.getJMSMessageID();
             LOGGER.debug("Validating message<{}> with deliveryCount={}", messageId, message.getIntProperty(DELIVERY_COUNT_PROPERTY));
+            if (message instanceof BytesMessage) {
+                // Binary chunk payload, see ChunkBinaryCodec
+                byte[] binaryPayload = message.getBody(byte[].class);
+                if (binaryPayload == null || binaryPayload.length == 0) {
+                    throw new InvalidMessageException(String.format("Message<%s> payload was empty", messageId));
+                }
+                validatePayloadType(message, messageId);
+                return new ConsumedMessage(messageId, getHeaders(message), binaryPayload, Priority.of(message.getJMSPriority()));
+            }
             if (!(message instanceof TextMessage)) {
                 throw new InvalidMessageException(String.format("Message<%s> was not of type TextMessage", messageId));
             }
@@ -67,10 +78,7 @@ public interface MessageConsumer extends MessageListener {
             if (messagePayload.isEmpty()) {
                 throw new InvalidMessageException(String.format("Message<%s> payload is empty string", messageId));
             }
-            String payloadType = JMSHeader.payload.getHeader(message);
-            if (payloadType == null || payloadType.trim().isEmpty()) {
-                throw new InvalidMessageException(String.format("Message <%s> has no %s property", messageId, payloadType));
-            }
+            validatePayloadType(message, messageId);
             return new ConsumedMessage(messageId, getHeaders(message), messagePayload, Priority.of(message.getJMSPriority()));
         } catch (JMSException e) {
             throw new InvalidMessageException("Unexpected exception during message validation");
@@ -136,25 +144,51 @@ public interface MessageConsumer extends MessageListener {
     }
 
     default Chunk unmarshallPayload(ConsumedMessage consumedMessage) throws NullPointerException, InvalidMessageException {
+        Chunk processedChunk = readChunk(consumedMessage);
+        if (processedChunk.isEmpty()) {
+            throw new InvalidMessageException(String.format("Message<%s> processed chunk payload contains no results", consumedMessage.getMessageId()));
+        }
+        confirmLegalChunkTypeOrThrow(processedChunk, Chunk.Type.PROCESSED);
+        return processedChunk;
+    }
+
+    /**
+     * Reads chunk payload of consumed message, which is either a JSON encoded chunk
+     * with payload type {@value JMSHeader#CHUNK_PAYLOAD_TYPE} or a binary encoded
+     * chunk with payload type {@value JMSHeader#CHUNK_BINARY_PAYLOAD_TYPE}
+     *
+     * @param consumedMessage consumed message
+     * @return chunk
+     * @throws InvalidMessageException if message payload is not a valid chunk
+     */
+    default Chunk readChunk(ConsumedMessage consumedMessage) throws InvalidMessageException {
         String payloadType = JMSHeader.payload.getHeader(consumedMessage, String.class);
-        if (!JMSHeader.CHUNK_PAYLOAD_TYPE.equals(payloadType)) {
+        if (JMSHeader.CHUNK_BINARY_PAYLOAD_TYPE.equals(payloadType) && consumedMessage.getBinaryPayload() != null) {
+            try {
+                return ChunkBinaryCodec.decode(consumedMessage.getBinaryPayload());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidMessageException(String.format("Message<%s> payload was not valid binary Chunk type", consumedMessage.getMessageId()), e);
+            }
+        }
+        if (!JMSHeader.CHUNK_PAYLOAD_TYPE.equals(payloadType) || consumedMessage.getMessagePayload() == null) {
             throw new InvalidMessageException(String.format("Message.headers<%s> payload type %s != %s", consumedMessage.getMessageId(), payloadType, JMSHeader.CHUNK_PAYLOAD_TYPE));
         }
-        Chunk processedChunk;
         try {
-            processedChunk = MAPPER.readValue(consumedMessage.getMessagePayload(), Chunk.class);
+            return MAPPER.readValue(consumedMessage.getMessagePayload(), Chunk.class);
         } catch (JsonProcessingException e) {
             throw new InvalidMessageException(String.format("Message<%s> payload was not valid Chunk type", consumedMessage.getMessageId()), e);
         }
-        if (processedChunk.isEmpty()) {
-            throw new InvalidMessageException(String.format("Message<%s> processed chunk payload contains no results", consumedMessage.getMessageId()));
-        }
-        confirmLegalChunkTypeOrThrow(processedChunk, Chunk.Type.PROCESSED);
-        return processedChunk;
     }
 
     void handleConsumedMessage(ConsumedMessage consumedMessage) throws InvalidMessageException;
 
+    private static void validatePayloadType(Message message, String messageId) throws JMSException, InvalidMessageException {
+        String payloadType = JMSHeader.payload.getHeader(message);
+        if (payloadType == null || payloadType.trim().isEmpty()) {
+            throw new InvalidMessageException(String.format("Message <%s> has no %s property", messageId, payloadType));
+        }
+    }
+
     private Map<String, Object> getHeaders(Message message) throws JMSException {
         Map<String, Object> headers = new HashMap<>();
         Enumeration<?> messagePropertyNames = message.getPropertyNames();
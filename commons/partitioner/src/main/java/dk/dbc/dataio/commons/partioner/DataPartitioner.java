@@ -31,4 +31,26 @@ public interface DataPartitioner extends Iterable<DataPartitionerResult> {
     default int getAndResetSkippedCount() {
         return 0;
     }
+
+    /**
+     * @return true if a new instance of this partitioner, reading the data from the byte
+     * offset given by {@link #getBytesRead()} after any returned result and positioned by
+     * {@link #resumeFrom(long, int)}, continues exactly where this instance left off,
+     * otherwise false, in which case a resumed partitioning must drain already partitioned items
+     */
+    default boolean isResumableFromByteOffset() {
+        return false;
+    }
+
+    /**
+     * Positions this partitioner, reading from a stream starting at given byte offset of the
+     * data, as if all data before the offset had already been partitioned
+     *
+     * @param byteOffset         byte offset of the data where the input stream of this partitioner starts
+     * @param positionInDatafile position in datafile of the first record at the byte offset
+     * @throws UnsupportedOperationException if not {@link #isResumableFromByteOffset()}
+     */
+    default void resumeFrom(long byteOffset, int positionInDatafile) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " can not resume from a byte offset");
+    }
 }
@@ -50,6 +50,16 @@ public class IncludeFilterDataPartitioner implements DataPartitioner {
         wrappedDataPartitioner.drainItems(itemsToRemove);
     }
 
+    @Override
+    public boolean isResumableFromByteOffset() {
+        return wrappedDataPartitioner.isResumableFromByteOffset();
+    }
+
+    @Override
+    public void resumeFrom(long byteOffset, int positionInDatafile) {
+        wrappedDataPartitioner.resumeFrom(byteOffset, positionInDatafile);
+    }
+
     @Override
     public int getAndResetSkippedCount() {
         final int valueBeforeReset = skippedCount;
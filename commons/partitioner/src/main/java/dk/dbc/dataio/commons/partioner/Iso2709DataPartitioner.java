@@ -41,6 +41,7 @@ public class Iso2709DataPartitioner implements DataPartitioner {
     Charset inputEncoding;
 
     int positionInDatafile = 0;
+    long byteOffset = 0;
 
     /**
      * Creates new instance of Iso2709 DataPartitioner
@@ -96,7 +97,22 @@ public class Iso2709DataPartitioner implements DataPartitioner {
 
     @Override
     public long getBytesRead() {
-        return inputStream.getTotalBytesRead();
+        return byteOffset + inputStream.getTotalBytesRead();
+    }
+
+    /**
+     * Records are self-delimiting and converted independently of each other,
+     * so partitioning can be resumed at the byte offset following any record
+     */
+    @Override
+    public boolean isResumableFromByteOffset() {
+        return true;
+    }
+
+    @Override
+    public void resumeFrom(long byteOffset, int positionInDatafile) {
+        this.byteOffset = byteOffset;
+        this.positionInDatafile = positionInDatafile;
     }
 
     @Override
@@ -49,6 +49,12 @@ public class Iso2709ReorderingDataPartitioner extends Iso2709DataPartitioner {
         super.drainItems(itemsToRemove);
     }
 
+    /* Records are held back by the reorderer, so the bytes read do not correspond to the items returned */
+    @Override
+    public boolean isResumableFromByteOffset() {
+        return false;
+    }
+
     protected Iso2709ReorderingDataPartitioner(InputStream inputStream, String specifiedEncoding, JobItemReorderer reorderer) {
         super(inputStream, specifiedEncoding);
         this.reorderer = reorderer;
@@ -0,0 +1,314 @@
+package dk.dbc.dataio.commons.partioner.entity;
+
+import dk.dbc.dataio.commons.types.ChunkItem;
+import dk.dbc.dataio.commons.types.Diagnostic;
+import org.apache.commons.compress.compressors.lz4.BlockLZ4CompressorInputStream;
+import org.apache.commons.compress.compressors.lz4.BlockLZ4CompressorOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of {@link ChunkItem}.
+ * <p>
+ * An encoded item consists of an uncompressed header holding everything but
+ * the item data (id, status, types, encoding, tracking ID and diagnostics)
+ * followed by the item data, optionally LZ4 compressed. Since the data is
+ * placed last, callers only interested in status and diagnostics can use
+ * {@link #decodeHeader(byte[])} which never touches the data section.
+ * </p>
+ * <pre>
+ *  magic (2 bytes) | version (1 byte) | compression (1 byte) | header | data
+ * </pre>
+ * Enum values are written as explicit stable codes, never by ordinal, so that
+ * reordering or adding enum constants does not change the meaning of items
+ * already stored.
+ * This class is thread safe.
+ */
+public class ChunkItemBinaryCodec {
+    public enum Compression {NONE, LZ4}
+
+    static final byte[] MAGIC = {'C', 'I'};
+    static final byte VERSION = 1;
+
+    /* Items with less data than this are not worth compressing */
+    private static final int COMPRESSION_THRESHOLD = 256;
+
+    /* Stable codes of enum values, the code of a value is its position in the
+       table. Codes are persisted, so new values must only ever be appended. */
+    private static final EnumCodes<Compression> COMPRESSION_CODES = new EnumCodes<>(Compression.class,
+            Compression.NONE,
+            Compression.LZ4);
+    private static final EnumCodes<ChunkItem.Status> STATUS_CODES = new EnumCodes<>(ChunkItem.Status.class,
+            ChunkItem.Status.SUCCESS,
+            ChunkItem.Status.FAILURE,
+            ChunkItem.Status.IGNORE);
+    private static final EnumCodes<ChunkItem.Type> TYPE_CODES = new EnumCodes<>(ChunkItem.Type.class,
+            ChunkItem.Type.UNKNOWN,
+            ChunkItem.Type.ADDI,
+            ChunkItem.Type.DANMARC2_LINEFORMAT,
+            ChunkItem.Type.MARC21_LINEFORMAT,
+            ChunkItem.Type.LINEFORMAT,
+            ChunkItem.Type.GENERICXML,
+            ChunkItem.Type.DATACONTAINER,
+            ChunkItem.Type.MARCXCHANGE,
+            ChunkItem.Type.STRING,
+            ChunkItem.Type.BYTES,
+            ChunkItem.Type.JOB_END,
+            ChunkItem.Type.JSON);
+    private static final EnumCodes<Diagnostic.Level> LEVEL_CODES = new EnumCodes<>(Diagnostic.Level.class,
+            Diagnostic.Level.ERROR,
+            Diagnostic.Level.FATAL,
+            Diagnostic.Level.ABORTED,
+            Diagnostic.Level.WARNING);
+
+    private final Compression compression;
+
+    public ChunkItemBinaryCodec(Compression compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * @param bytes bytes to test
+     * @return true if given bytes start with the magic marker of this encoding, otherwise false
+     */
+    public static boolean isEncoded(byte[] bytes) {
+        return bytes != null && bytes.length > 3 && bytes[0] == MAGIC[0] && bytes[1] == MAGIC[1];
+    }
+
+    /**
+     * Encodes given chunk item
+     *
+     * @param chunkItem chunk item to encode
+     * @return binary representation of chunk item
+     * @throws IllegalArgumentException if chunk item holds an enum value without a binary code
+     * @throws UncheckedIOException     on failure to encode
+     */
+    public byte[] encode(ChunkItem chunkItem) throws IllegalArgumentException, UncheckedIOException {
+        final byte[] data = chunkItem.getData();
+        final Compression dataCompression = data != null && data.length >= COMPRESSION_THRESHOLD
+                ? compression : Compression.NONE;
+        try {
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream(
+                    128 + (data == null ? 0 : data.length));
+            final DataOutputStream out = new DataOutputStream(buffer);
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(COMPRESSION_CODES.encode(dataCompression));
+            writeHeader(out, chunkItem);
+            if (data == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(data.length);
+                writeData(out, data, dataCompression);
+            }
+            out.flush();
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes chunk item including its data
+     *
+     * @param bytes binary representation of chunk item
+     * @return decoded chunk item
+     * @throws IllegalArgumentException if given bytes are not in the expected format
+     * @throws UncheckedIOException     on failure to decode
+     */
+    public static ChunkItem decode(byte[] bytes) throws IllegalArgumentException, UncheckedIOException {
+        return decode(bytes, true);
+    }
+
+    /**
+     * Decodes chunk item leaving out its data, which is neither read nor decompressed
+     *
+     * @param bytes binary representation of chunk item
+     * @return decoded chunk item without data
+     * @throws IllegalArgumentException if given bytes are not in the expected format
+     * @throws UncheckedIOException     on failure to decode
+     */
+    public static ChunkItem decodeHeader(byte[] bytes) throws IllegalArgumentException, UncheckedIOException {
+        return decode(bytes, false);
+    }
+
+    private static ChunkItem decode(byte[] bytes, boolean includeData) {
+        if (!isEncoded(bytes)) {
+            throw new IllegalArgumentException("Not a binary encoded chunk item");
+        }
+        if (bytes[2] != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary chunk item version " + bytes[2]);
+        }
+        final Compression dataCompression = COMPRESSION_CODES.decode(bytes[3]);
+        try {
+            final DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(bytes, 4, bytes.length - 4));
+            final ChunkItem chunkItem = readHeader(in);
+            if (includeData) {
+                final int length = in.readInt();
+                if (length >= 0) {
+                    chunkItem.withData(readData(in, length, dataCompression));
+                }
+            }
+            return chunkItem;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, ChunkItem chunkItem) throws IOException {
+        out.writeLong(chunkItem.getId());
+        out.writeByte(chunkItem.getStatus() == null ? -1 : STATUS_CODES.encode(chunkItem.getStatus()));
+        final List<ChunkItem.Type> types = chunkItem.getType();
+        out.writeShort(types == null ? -1 : types.size());
+        if (types != null) {
+            for (ChunkItem.Type type : types) {
+                out.writeByte(TYPE_CODES.encode(type));
+            }
+        }
+        final Charset encoding = chunkItem.getEncoding();
+        writeString(out, encoding == null ? null : encoding.name());
+        writeString(out, chunkItem.getTrackingId());
+        final List<Diagnostic> diagnostics = chunkItem.getDiagnostics();
+        out.writeShort(diagnostics == null ? -1 : diagnostics.size());
+        if (diagnostics != null) {
+            for (Diagnostic diagnostic : diagnostics) {
+                out.writeByte(LEVEL_CODES.encode(diagnostic.getLevel()));
+                writeString(out, diagnostic.getMessage());
+                writeString(out, diagnostic.getStacktrace());
+                writeString(out, diagnostic.getTag());
+                writeString(out, diagnostic.getAttribute());
+            }
+        }
+    }
+
+    private static ChunkItem readHeader(DataInputStream in) throws IOException {
+        final ChunkItem chunkItem = new ChunkItem().withId(in.readLong());
+        final byte status = in.readByte();
+        if (status >= 0) {
+            chunkItem.withStatus(STATUS_CODES.decode(status));
+        }
+        final short numberOfTypes = in.readShort();
+        if (numberOfTypes >= 0) {
+            final ChunkItem.Type[] types = new ChunkItem.Type[numberOfTypes];
+            for (int i = 0; i < numberOfTypes; i++) {
+                types[i] = TYPE_CODES.decode(in.readByte());
+            }
+            chunkItem.withType(types);
+        }
+        final String encoding = readString(in);
+        chunkItem.withEncoding(encoding == null ? null : Charset.forName(encoding));
+        chunkItem.withTrackingId(readString(in));
+        final short numberOfDiagnostics = in.readShort();
+        if (numberOfDiagnostics >= 0) {
+            // Diagnostics are set directly to avoid the status
+            // side effects of ChunkItem.withDiagnostics()
+            final List<Diagnostic> diagnostics = new ArrayList<>(numberOfDiagnostics);
+            for (int i = 0; i < numberOfDiagnostics; i++) {
+                final Diagnostic.Level level = LEVEL_CODES.decode(in.readByte());
+                diagnostics.add(new Diagnostic(level, readString(in), readString(in), readString(in), readString(in)));
+            }
+            final ChunkItem.Status decodedStatus = chunkItem.getStatus();
+            chunkItem.appendDiagnostics(diagnostics);
+            if (decodedStatus != null) {
+                chunkItem.withStatus(decodedStatus);
+            }
+        }
+        return chunkItem;
+    }
+
+    private static void writeData(DataOutputStream out, byte[] data, Compression dataCompression) throws IOException {
+        if (dataCompression == Compression.LZ4) {
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 2);
+            try (OutputStream lz4 = new BlockLZ4CompressorOutputStream(compressed)) {
+                lz4.write(data);
+            }
+            out.writeInt(compressed.size());
+            compressed.writeTo(out);
+        } else {
+            out.write(data);
+        }
+    }
+
+    private static byte[] readData(DataInputStream in, int length, Compression dataCompression) throws IOException {
+        if (dataCompression == Compression.LZ4) {
+            final byte[] compressed = new byte[in.readInt()];
+            in.readFully(compressed);
+            try (InputStream lz4 = new BlockLZ4CompressorInputStream(new ByteArrayInputStream(compressed))) {
+                final byte[] data = new byte[length];
+                new DataInputStream(lz4).readFully(data);
+                return data;
+            }
+        }
+        final byte[] data = new byte[length];
+        in.readFully(data);
+        return data;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /* Maps the values of an enum to and from their stable binary codes */
+    private static final class EnumCodes<E extends Enum<E>> {
+        private final Class<E> enumClass;
+        private final List<E> values;
+        private final Map<E, Byte> codes;
+
+        @SafeVarargs
+        EnumCodes(Class<E> enumClass, E... values) {
+            this.enumClass = enumClass;
+            this.values = List.of(values);
+            this.codes = new EnumMap<>(enumClass);
+            for (byte code = 0; code < values.length; code++) {
+                codes.put(values[code], code);
+            }
+        }
+
+        byte encode(E value) throws IllegalArgumentException {
+            final Byte code = codes.get(value);
+            if (code == null) {
+                throw new IllegalArgumentException(String.format("No binary code for %s.%s",
+                        enumClass.getSimpleName(), value));
+            }
+            return code;
+        }
+
+        E decode(byte code) throws IllegalArgumentException {
+            if (code < 0 || code >= values.size()) {
+                throw new IllegalArgumentException(String.format("Unknown binary %s code %d",
+                        enumClass.getSimpleName(), code));
+            }
+            return values.get(code);
+        }
+    }
+}
@@ -7,15 +7,58 @@ import jakarta.persistence.Converter;
 import org.postgresql.util.PGobject;
 
 import java.sql.SQLException;
+import java.util.Base64;
 
+/**
+ * Converts {@link ChunkItem} to and from jsonb columns.
+ * <p>
+ * By default chunk items are stored as plain JSON documents. If the environment
+ * variable CHUNK_ITEM_STORAGE_FORMAT is set to BINARY, chunk items are instead
+ * written using the {@link ChunkItemBinaryCodec} with LZ4 compressed data wrapped
+ * in a single field jsonb envelope ({"binary": "base64..."}). Both representations
+ * are always accepted when reading, so rows written in the legacy JSON format stay
+ * readable and can be converted at leisure.
+ * </p>
+ * <p>
+ * Queries only interested in item metadata can select a binary column as
+ * {"binaryHeader": "base64..."}, in which case only the header is decoded
+ * and the data section is neither read nor decompressed. Header-only items
+ * are given empty data, mirroring how legacy JSON columns with their data
+ * field stripped are read.
+ * </p>
+ */
 @Converter
 public class ChunkItemConverter implements AttributeConverter<ChunkItem, PGobject> {
+    public enum StorageFormat {JSON, BINARY}
+
+    static final String BINARY_FIELD = "binary";
+    static final String BINARY_HEADER_FIELD = "binaryHeader";
+
+    private static final StorageFormat STORAGE_FORMAT = StorageFormat.valueOf(
+            System.getenv().getOrDefault("CHUNK_ITEM_STORAGE_FORMAT", StorageFormat.JSON.name()));
+    private static final ChunkItemBinaryCodec BINARY_CODEC =
+            new ChunkItemBinaryCodec(ChunkItemBinaryCodec.Compression.LZ4);
+
+    private final StorageFormat storageFormat;
+
+    public ChunkItemConverter() {
+        this(STORAGE_FORMAT);
+    }
+
+    public ChunkItemConverter(StorageFormat storageFormat) {
+        this.storageFormat = storageFormat;
+    }
+
     @Override
     public PGobject convertToDatabaseColumn(ChunkItem chunkItem) throws IllegalStateException {
         final PGobject pgObject = new PGobject();
         pgObject.setType("jsonb");
         try {
-            pgObject.setValue(ConverterJSONBContext.getInstance().marshall(chunkItem));
+            if (storageFormat == StorageFormat.BINARY) {
+                pgObject.setValue(toBinaryEnvelope(chunkItem));
+            } else {
+                pgObject.setValue(ConverterJSONBContext.getInstance().marshall(chunkItem));
+            }
         } catch (SQLException | JSONBException e) {
             throw new IllegalStateException(e);
         }
@@ -26,11 +69,52 @@ public class ChunkItemConverter implements AttributeConverter<ChunkItem, PGobjec
     public ChunkItem convertToEntityAttribute(PGobject pgObject) throws IllegalStateException {
         try {
             if (pgObject != null) {
-                return ConverterJSONBContext.getInstance().unmarshall(pgObject.getValue(), ChunkItem.class);
+                final String value = pgObject.getValue();
+                final byte[] binary = fromBinaryEnvelope(value);
+                if (binary != null) {
+                    return ChunkItemBinaryCodec.decode(binary);
+                }
+                final byte[] binaryHeader = fromEnvelope(value, BINARY_HEADER_FIELD);
+                if (binaryHeader != null) {
+                    return ChunkItemBinaryCodec.decodeHeader(binaryHeader).withData(new byte[0]);
+                }
+                return ConverterJSONBContext.getInstance().unmarshall(value, ChunkItem.class);
             }
-        } catch (JSONBException e) {
+        } catch (JSONBException | RuntimeException e) {
             throw new IllegalStateException(e);
         }
         return null;
     }
+
+    /**
+     * @param value jsonb column value
+     * @return true if given value is stored in the binary format, otherwise false
+     */
+    public static boolean isBinary(String value) {
+        return fromBinaryEnvelope(value) != null;
+    }
+
+    static String toBinaryEnvelope(ChunkItem chunkItem) {
+        return "{\"" + BINARY_FIELD + "\": \""
+                + Base64.getEncoder().encodeToString(BINARY_CODEC.encode(chunkItem)) + "\"}";
+    }
+
+    /* Extracts the binary encoding from an envelope without
+       going through a JSON parser, returns null for legacy JSON */
+    static byte[] fromBinaryEnvelope(String value) {
+        return fromEnvelope(value, BINARY_FIELD);
+    }
+
+    private static byte[] fromEnvelope(String value, String field) {
+        if (value == null || !value.startsWith("{\"" + field + "\"")) {
+            return null;
+        }
+        final int colon = value.indexOf(':', field.length() + 3);
+        final int begin = value.indexOf('"', colon);
+        final int end = value.lastIndexOf('"');
+        if (colon < 0 || begin < 0 || end <= begin) {
+            return null;
+        }
+        return Base64.getDecoder().decode(value.substring(begin + 1, end));
+    }
 }
@@ -9,8 +9,12 @@ import org.junit.jupiter.api.Timeout;
 import org.xmlunit.matchers.CompareMatcher;
 
 import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -129,6 +133,36 @@ public class Iso2709DataPartitionerTest extends AbstractPartitionerTestBase {
         assertThat("dataPartitioner.getBytesRead()", dataPartitioner.getBytesRead(), is((long) isoRecords.length));
     }
 
+    @Test
+    @Timeout(5)
+    public void iso2709DataPartitioner_resumeFromByteOffset() throws IOException {
+        byte[] isoRecords = getResourceAsByteArray("test-records-74-danmarc2.iso");
+        DataPartitioner dataPartitioner = Iso2709DataPartitioner.newInstance(getResourceAsStream("test-records-74-danmarc2.iso"), "LATIN-1");
+        Iterator<DataPartitionerResult> iterator = dataPartitioner.iterator();
+        for (int i = 0; i < 14; i++) {
+            iterator.next();
+        }
+        long byteOffset = dataPartitioner.getBytesRead();
+        List<String> remainingIds = new ArrayList<>();
+        iterator.forEachRemaining(result -> remainingIds.add(recordId(result)));
+
+        InputStream inputStream = getResourceAsStream("test-records-74-danmarc2.iso");
+        inputStream.skipNBytes(byteOffset);
+        DataPartitioner resumedDataPartitioner = Iso2709DataPartitioner.newInstance(inputStream, "LATIN-1");
+        assertThat("resumable", resumedDataPartitioner.isResumableFromByteOffset(), is(true));
+        resumedDataPartitioner.resumeFrom(byteOffset, 14);
+
+        int positionInDatafile = 14;
+        List<String> resumedIds = new ArrayList<>();
+        for (DataPartitionerResult dataPartitionerResult : resumedDataPartitioner) {
+            assertThat("result" + positionInDatafile + " position in datafile",
+                    dataPartitionerResult.getPositionInDatafile(), is(positionInDatafile++));
+            resumedIds.add(recordId(dataPartitionerResult));
+        }
+        assertThat("record ids", resumedIds, is(remainingIds));
+        assertThat("dataPartitioner.getBytesRead()", resumedDataPartitioner.getBytesRead(), is((long) isoRecords.length));
+    }
+
     @Test
     public void iso2709DataPartitioner_fourRecordsWithErrorInRecordTwo_returnsExpectedDataPartitionerResults() {
         DataPartitioner dataPartitioner = Iso2709DataPartitioner.newInstance(getResourceAsStream(INPUT_RECORDS_4_ERROR_IN_RECORD2), "LATIN-1");
@@ -174,6 +208,10 @@ public class Iso2709DataPartitionerTest extends AbstractPartitionerTestBase {
         assertThat(count, is(323));
     }
 
+    private static String recordId(DataPartitionerResult result) {
+        return result.getRecordInfo() != null ? result.getRecordInfo().getId() : null;
+    }
+
     private static CompareMatcher isEquivalentTo(Object control) {
         return CompareMatcher.isSimilarTo(control)
                 .throwComparisonFailure()
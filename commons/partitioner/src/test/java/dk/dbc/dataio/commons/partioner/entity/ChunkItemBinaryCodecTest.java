@@ -0,0 +1,158 @@
+package dk.dbc.dataio.commons.partioner.entity;
+
+import dk.dbc.commons.jsonb.JSONBException;
+import dk.dbc.dataio.commons.types.ChunkItem;
+import dk.dbc.dataio.commons.types.Diagnostic;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ChunkItemBinaryCodecTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkItemBinaryCodecTest.class);
+
+    private final ChunkItemBinaryCodec lz4Codec = new ChunkItemBinaryCodec(ChunkItemBinaryCodec.Compression.LZ4);
+    private final ChunkItemBinaryCodec uncompressedCodec = new ChunkItemBinaryCodec(ChunkItemBinaryCodec.Compression.NONE);
+
+    @Test
+    public void roundTrip() {
+        final ChunkItem chunkItem = newChunkItem(largeRecord());
+        assertThat("LZ4", ChunkItemBinaryCodec.decode(lz4Codec.encode(chunkItem)), is(chunkItem));
+        assertThat("uncompressed", ChunkItemBinaryCodec.decode(uncompressedCodec.encode(chunkItem)), is(chunkItem));
+    }
+
+    @Test
+    public void roundTrip_keepsStatusOfItemWithDiagnostics() {
+        final ChunkItem chunkItem = newChunkItem("data")
+                .withDiagnostics(new Diagnostic(Diagnostic.Level.ERROR, "error", "stacktrace", "tag", "attribute"))
+                .withStatus(ChunkItem.Status.IGNORE);
+        final ChunkItem decoded = ChunkItemBinaryCodec.decode(lz4Codec.encode(chunkItem));
+        assertThat("status", decoded.getStatus(), is(ChunkItem.Status.IGNORE));
+        assertThat("diagnostics", decoded.getDiagnostics(), is(chunkItem.getDiagnostics()));
+    }
+
+    @Test
+    public void roundTrip_minimalItem() {
+        final ChunkItem chunkItem = new ChunkItem();
+        assertThat(ChunkItemBinaryCodec.decode(lz4Codec.encode(chunkItem)), is(chunkItem));
+    }
+
+    @Test
+    public void decodeHeader_leavesOutData() {
+        final ChunkItem chunkItem = newChunkItem(largeRecord());
+        final ChunkItem header = ChunkItemBinaryCodec.decodeHeader(lz4Codec.encode(chunkItem));
+        assertThat("data", header.getData(), is(nullValue()));
+        assertThat("id", header.getId(), is(chunkItem.getId()));
+        assertThat("status", header.getStatus(), is(chunkItem.getStatus()));
+        assertThat("type", header.getType(), is(chunkItem.getType()));
+        assertThat("trackingId", header.getTrackingId(), is(chunkItem.getTrackingId()));
+        assertThat("encoding", header.getEncoding(), is(chunkItem.getEncoding()));
+    }
+
+    @Test
+    public void decode_notEncoded_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ChunkItemBinaryCodec.decode("{\"id\":0}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void encode_writesStableEnumCodes() {
+        final ChunkItem chunkItem = new ChunkItem()
+                .withStatus(ChunkItem.Status.IGNORE)
+                .withType(ChunkItem.Type.JSON);
+        final byte[] bytes = lz4Codec.encode(chunkItem);
+        // magic, version and compression are followed by the 8 byte id
+        assertThat("compression", bytes[3], is((byte) 0));
+        assertThat("status", bytes[12], is((byte) 2));
+        assertThat("number of types", bytes[14], is((byte) 1));
+        assertThat("type", bytes[15], is((byte) 11));
+    }
+
+    @Test
+    public void decode_unknownCompressionCode_throws() {
+        final byte[] bytes = lz4Codec.encode(newChunkItem("data"));
+        bytes[3] = 42;
+        assertThrows(IllegalArgumentException.class, () -> ChunkItemBinaryCodec.decode(bytes));
+    }
+
+    @Test
+    public void decode_unknownStatusCode_throws() {
+        final byte[] bytes = lz4Codec.encode(newChunkItem("data"));
+        bytes[12] = 42;
+        assertThrows(IllegalArgumentException.class, () -> ChunkItemBinaryCodec.decodeHeader(bytes));
+    }
+
+    @Test
+    public void encode_base64EnvelopeIsSmallerThanJson() throws JSONBException {
+        final ChunkItem chunkItem = newChunkItem(largeRecord());
+        final String json = ConverterJSONBContext.getInstance().marshall(chunkItem);
+        final String envelope = "{\"binary\": \"" + Base64.getEncoder().encodeToString(lz4Codec.encode(chunkItem)) + "\"}";
+        assertThat(envelope.length(), lessThan(json.length()));
+    }
+
+    /*
+     * Compares decode throughput with JSON, run manually with
+     * mvn test -Dtest=ChunkItemBinaryCodecTest -Dchunkitem.benchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "chunkitem.benchmark", matches = "true")
+    public void throughputComparedToJson() throws JSONBException {
+        final ChunkItem chunkItem = newChunkItem(largeRecord());
+        final String json = ConverterJSONBContext.getInstance().marshall(chunkItem);
+        final byte[] binary = lz4Codec.encode(chunkItem);
+
+        final int iterations = 2000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            ConverterJSONBContext.getInstance().unmarshall(json, ChunkItem.class);
+        }
+        final long jsonNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            ChunkItemBinaryCodec.decode(binary);
+        }
+        final long binaryNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            ChunkItemBinaryCodec.decodeHeader(binary);
+        }
+        final long headerNanos = System.nanoTime() - start;
+
+        LOGGER.info("json: {} bytes, {} decodes/sec - binary: {} bytes, {} decodes/sec, {} header decodes/sec",
+                json.length(), perSecond(iterations, jsonNanos),
+                binary.length, perSecond(iterations, binaryNanos), perSecond(iterations, headerNanos));
+    }
+
+    private static long perSecond(int iterations, long nanos) {
+        return iterations * 1_000_000_000L / Math.max(1, nanos);
+    }
+
+    private static ChunkItem newChunkItem(String data) {
+        return new ChunkItem()
+                .withId(3)
+                .withStatus(ChunkItem.Status.SUCCESS)
+                .withType(ChunkItem.Type.MARCXCHANGE)
+                .withEncoding(StandardCharsets.UTF_8)
+                .withTrackingId("trackingId")
+                .withData(data);
+    }
+
+    private static String largeRecord() {
+        final StringBuilder record = new StringBuilder("<record xmlns=\"info:lc/xmlns/marcxchange-v1\">");
+        for (int i = 0; i < 100; i++) {
+            record.append("<datafield ind1=\"0\" ind2=\"0\" tag=\"245\"><subfield code=\"a\">title ")
+                    .append(i)
+                    .append("</subfield></datafield>");
+        }
+        return record.append("</record>").toString();
+    }
+}
@@ -0,0 +1,61 @@
+package dk.dbc.dataio.commons.partioner.entity;
+
+import dk.dbc.dataio.commons.types.ChunkItem;
+import org.junit.jupiter.api.Test;
+import org.postgresql.util.PGobject;
+
+import java.sql.SQLException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ChunkItemConverterTest {
+    private final ChunkItemConverter jsonConverter = new ChunkItemConverter(ChunkItemConverter.StorageFormat.JSON);
+    private final ChunkItemConverter binaryConverter = new ChunkItemConverter(ChunkItemConverter.StorageFormat.BINARY);
+    private final ChunkItem chunkItem = new ChunkItem()
+            .withId(1)
+            .withStatus(ChunkItem.Status.SUCCESS)
+            .withType(ChunkItem.Type.STRING)
+            .withTrackingId("trackingId")
+            .withData("data");
+
+    @Test
+    public void binaryFormat() {
+        final PGobject pgObject = binaryConverter.convertToDatabaseColumn(chunkItem);
+        assertThat("isBinary", ChunkItemConverter.isBinary(pgObject.getValue()), is(true));
+        assertThat("read by binary converter", binaryConverter.convertToEntityAttribute(pgObject), is(chunkItem));
+        assertThat("read by json converter", jsonConverter.convertToEntityAttribute(pgObject), is(chunkItem));
+    }
+
+    @Test
+    public void legacyJsonFormat() {
+        final PGobject pgObject = jsonConverter.convertToDatabaseColumn(chunkItem);
+        assertThat("isBinary", ChunkItemConverter.isBinary(pgObject.getValue()), is(false));
+        assertThat("read by binary converter", binaryConverter.convertToEntityAttribute(pgObject), is(chunkItem));
+    }
+
+    @Test
+    public void binaryFormat_asNormalizedByJsonb() throws SQLException {
+        // jsonb output removes the optional whitespace of its input
+        final PGobject pgObject = binaryConverter.convertToDatabaseColumn(chunkItem);
+        pgObject.setValue(pgObject.getValue().replace("\": \"", "\":\""));
+        assertThat(binaryConverter.convertToEntityAttribute(pgObject), is(chunkItem));
+    }
+
+    @Test
+    public void binaryHeaderFormat_decodesHeaderOnly() throws SQLException {
+        // as selected by header-only item listings
+        final PGobject pgObject = binaryConverter.convertToDatabaseColumn(chunkItem);
+        pgObject.setValue(pgObject.getValue().replace("\"binary\"", "\"binaryHeader\""));
+        final ChunkItem header = binaryConverter.convertToEntityAttribute(pgObject);
+        assertThat("trackingId", header.getTrackingId(), is(chunkItem.getTrackingId()));
+        assertThat("status", header.getStatus(), is(chunkItem.getStatus()));
+        assertThat("data", header.getData().length, is(0));
+    }
+
+    @Test
+    public void nullValue_returnsNull() {
+        assertThat(binaryConverter.convertToEntityAttribute(null), is(nullValue()));
+    }
+}
@@ -6,6 +6,7 @@ public class ConsumedMessage {
     private final String messageId;
     private final Map<String, Object> headers;
     private final String messagePayload;
+    private final byte[] binaryPayload;
     private final Priority priority;
 
     public ConsumedMessage(String messageId, Map<String, Object> headers, String messagePayload) {
@@ -14,9 +15,28 @@ public class ConsumedMessage {
 
     public ConsumedMessage(String messageId, Map<String, Object> headers,
                            String messagePayload, Priority priority) {
+        this(messageId, headers, messagePayload, null, priority);
+    }
+
+    /**
+     * Creates consumed message with binary payload, as received in a BytesMessage
+     *
+     * @param messageId     message ID
+     * @param headers       message headers
+     * @param binaryPayload message payload
+     * @param priority      message priority
+     */
+    public ConsumedMessage(String messageId, Map<String, Object> headers,
+                           byte[] binaryPayload, Priority priority) {
+        this(messageId, headers, null, binaryPayload, priority);
+    }
+
+    private ConsumedMessage(String messageId, Map<String, Object> headers,
+                            String messagePayload, byte[] binaryPayload, Priority priority) {
         this.messageId = messageId;
         this.headers = headers;
         this.messagePayload = messagePayload;
+        this.binaryPayload = binaryPayload;
         this.priority = priority;
     }
 
@@ -29,10 +49,20 @@ public class ConsumedMessage {
         return returnTypeClass.cast(headers.get(headerName));
     }
 
+    /**
+     * @return text payload, null if message has binary payload
+     */
     public String getMessagePayload() {
         return messagePayload;
     }
 
+    /**
+     * @return binary payload, null if message has text payload
+     */
+    public byte[] getBinaryPayload() {
+        return binaryPayload;
+    }
+
     public Priority getPriority() {
         return priority;
     }
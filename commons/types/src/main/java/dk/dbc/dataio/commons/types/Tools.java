@@ -1,5 +1,8 @@
 package dk.dbc.dataio.commons.types;
 
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 
 public class Tools {
@@ -14,4 +17,16 @@ public class Tools {
             Thread.currentThread().interrupt();
         }
     }
+
+    /**
+     * @param bytes bytes to digest
+     * @return SHA-256 digest of given bytes as 64 lowercase hex digits
+     */
+    public static String sha256(byte[] bytes) {
+        try {
+            return String.format("%064x", new BigInteger(1, MessageDigest.getInstance("SHA-256").digest(bytes)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,283 @@
+package dk.dbc.dataio.commons.types.jms;
+
+import dk.dbc.dataio.commons.types.Chunk;
+import dk.dbc.dataio.commons.types.ChunkItem;
+import dk.dbc.dataio.commons.types.Diagnostic;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact binary encoding of {@link Chunk} used as payload of JMS BytesMessages
+ * with payload type {@value JMSHeader#CHUNK_BINARY_PAYLOAD_TYPE}.
+ * <p>
+ * Compared to the JSON encoding, item data is carried as raw bytes instead of
+ * base64 encoded text, and field names are not repeated for every item.
+ * The encoding is:
+ * </p>
+ * <pre>
+ *   format version  byte
+ *   flags           byte (bit 0 set if body is deflate compressed)
+ *   body:
+ *     jobId         int
+ *     chunkId       long
+ *     type          string
+ *     items         int count (-1 for null) followed by count items
+ *     next          int count (-1 for null) followed by count items
+ *   item:
+ *     id            long
+ *     data          int length (-1 for null) followed by length bytes
+ *     status        string
+ *     type          int count (-1 for null) followed by count strings
+ *     encoding      string
+ *     trackingId    string
+ *     diagnostics   int count (-1 for null) followed by count diagnostics
+ *   diagnostic:
+ *     level, message, stacktrace, tag, attribute  strings
+ *   string:         int length (-1 for null) followed by length UTF-8 bytes
+ * </pre>
+ * <p>
+ * Enum values are encoded by name, so that producers and consumers built with
+ * different versions of the enums can still exchange chunks. The body is
+ * compressed when at least {@value #COMPRESSION_THRESHOLD} bytes and only if
+ * this actually reduces its size.
+ * </p>
+ */
+public final class ChunkBinaryCodec {
+    static final int COMPRESSION_THRESHOLD = 1024;
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte FLAG_DEFLATED = 1;
+
+    private ChunkBinaryCodec() {
+    }
+
+    /**
+     * Encodes given chunk
+     *
+     * @param chunk chunk to encode
+     * @return binary encoding of chunk
+     * @throws IllegalStateException on failure to encode
+     */
+    public static byte[] encode(Chunk chunk) throws IllegalStateException {
+        try {
+            final byte[] body = encodeBody(chunk);
+            if (body.length >= COMPRESSION_THRESHOLD) {
+                final byte[] deflated = deflate(body);
+                if (deflated.length < body.length) {
+                    return withPreamble(FLAG_DEFLATED, deflated);
+                }
+            }
+            return withPreamble((byte) 0, body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to encode chunk " + chunk.getTrackingId(), e);
+        }
+    }
+
+    /**
+     * Decodes chunk
+     *
+     * @param bytes binary encoding of chunk
+     * @return decoded chunk
+     * @throws IllegalArgumentException if given bytes are not a valid chunk encoding
+     */
+    public static Chunk decode(byte[] bytes) throws IllegalArgumentException {
+        if (bytes == null || bytes.length < 2) {
+            throw new IllegalArgumentException("Invalid binary chunk encoding: missing preamble");
+        }
+        if (bytes[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported binary chunk format version " + bytes[0]);
+        }
+        InputStream body = new ByteArrayInputStream(bytes, 2, bytes.length - 2);
+        if ((bytes[1] & FLAG_DEFLATED) != 0) {
+            body = new InflaterInputStream(body);
+        }
+        try (DataInputStream in = new DataInputStream(body)) {
+            final Chunk chunk = new Chunk(in.readInt(), in.readLong(), readEnum(in, Chunk.Type.class));
+            final List<ChunkItem> items = readItems(in);
+            final List<ChunkItem> next = readItems(in);
+            chunk.addAllItems(items == null ? new ArrayList<>(0) : items, next);
+            return chunk;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid binary chunk encoding", e);
+        }
+    }
+
+    private static byte[] encodeBody(Chunk chunk) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(estimateSize(chunk));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(chunk.getJobId());
+            out.writeLong(chunk.getChunkId());
+            writeEnum(out, chunk.getType());
+            writeItems(out, chunk.getItems());
+            writeItems(out, chunk.getNext());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int estimateSize(Chunk chunk) {
+        long size = 64;
+        for (ChunkItem item : chunk.getItems()) {
+            size += 64 + (item.getData() == null ? 0 : item.getData().length);
+        }
+        for (ChunkItem item : chunk.getNext()) {
+            size += 64 + (item.getData() == null ? 0 : item.getData().length);
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE - 8);
+    }
+
+    private static byte[] deflate(byte[] body) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 2);
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+            out.write(body);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] withPreamble(byte flags, byte[] body) {
+        final byte[] bytes = new byte[body.length + 2];
+        bytes[0] = FORMAT_VERSION;
+        bytes[1] = flags;
+        System.arraycopy(body, 0, bytes, 2, body.length);
+        return bytes;
+    }
+
+    private static void writeItems(DataOutputStream out, List<ChunkItem> items) throws IOException {
+        if (items == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(items.size());
+        for (ChunkItem item : items) {
+            writeItem(out, item);
+        }
+    }
+
+    private static void writeItem(DataOutputStream out, ChunkItem item) throws IOException {
+        out.writeLong(item.getId());
+        writeBytes(out, item.getData());
+        writeEnum(out, item.getStatus());
+        final List<ChunkItem.Type> types = item.getType();
+        if (types == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(types.size());
+            for (ChunkItem.Type type : types) {
+                writeEnum(out, type);
+            }
+        }
+        final Charset encoding = item.getEncoding();
+        writeString(out, encoding == null ? null : encoding.name());
+        writeString(out, item.getTrackingId());
+        final List<Diagnostic> diagnostics = item.getDiagnostics();
+        if (diagnostics == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(diagnostics.size());
+            for (Diagnostic diagnostic : diagnostics) {
+                writeEnum(out, diagnostic.getLevel());
+                writeString(out, diagnostic.getMessage());
+                writeString(out, diagnostic.getStacktrace());
+                writeString(out, diagnostic.getTag());
+                writeString(out, diagnostic.getAttribute());
+            }
+        }
+    }
+
+    private static List<ChunkItem> readItems(DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            return null;
+        }
+        final List<ChunkItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(readItem(in));
+        }
+        return items;
+    }
+
+    private static ChunkItem readItem(DataInputStream in) throws IOException {
+        final ChunkItem item = new ChunkItem().withId(in.readLong());
+        final byte[] data = readBytes(in);
+        if (data != null) {
+            item.withData(data);
+        }
+        final ChunkItem.Status status = readEnum(in, ChunkItem.Status.class);
+        final int typeCount = in.readInt();
+        if (typeCount >= 0) {
+            final ChunkItem.Type[] types = new ChunkItem.Type[typeCount];
+            for (int i = 0; i < typeCount; i++) {
+                types[i] = readEnum(in, ChunkItem.Type.class);
+            }
+            item.withType(types);
+        }
+        final String encoding = readString(in);
+        item.withEncoding(encoding == null ? null : Charset.forName(encoding));
+        item.withTrackingId(readString(in));
+        final int diagnosticCount = in.readInt();
+        if (diagnosticCount >= 0) {
+            final Diagnostic[] diagnostics = new Diagnostic[diagnosticCount];
+            for (int i = 0; i < diagnosticCount; i++) {
+                diagnostics[i] = new Diagnostic(readEnum(in, Diagnostic.Level.class),
+                        readString(in), readString(in), readString(in), readString(in));
+            }
+            item.withDiagnostics(diagnostics);
+        }
+        // Status is set last, since adding diagnostics may change it
+        if (status != null) {
+            item.withStatus(status);
+        }
+        return item;
+    }
+
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        writeString(out, value == null ? null : value.name());
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, Class<E> enumClass) throws IOException {
+        final String name = readString(in);
+        return name == null ? null : Enum.valueOf(enumClass, name);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final byte[] bytes = readBytes(in);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(value.length);
+            out.write(value);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -22,6 +22,10 @@ public enum JMSHeader {
 
     public final String name;
     public static final String CHUNK_PAYLOAD_TYPE = "Chunk";
+    /**
+     * Chunk carried in a BytesMessage encoded by {@link ChunkBinaryCodec}
+     */
+    public static final String CHUNK_BINARY_PAYLOAD_TYPE = "ChunkBinary";
     public static final String ABORT_PAYLOAD_TYPE = "ABORT";
 
     JMSHeader() {
@@ -0,0 +1,83 @@
+package dk.dbc.dataio.commons.types.jms;
+
+import dk.dbc.dataio.commons.types.Chunk;
+import dk.dbc.dataio.commons.types.ChunkItem;
+import dk.dbc.dataio.commons.types.Diagnostic;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ChunkBinaryCodecTest {
+    @Test
+    public void roundTrip() {
+        final Chunk chunk = new Chunk(42, 10, Chunk.Type.PROCESSED);
+        final ChunkItem failedItem = new ChunkItem()
+                .withId(0)
+                .withData("failed")
+                .withType(ChunkItem.Type.MARCXCHANGE, ChunkItem.Type.ADDI)
+                .withEncoding(StandardCharsets.ISO_8859_1)
+                .withTrackingId("tracking-0")
+                .withDiagnostics(new Diagnostic(Diagnostic.Level.FATAL, "failure", "stacktrace", "tag", "attribute"))
+                .withStatus(ChunkItem.Status.FAILURE);
+        final ChunkItem ignoredItem = new ChunkItem()
+                .withId(1)
+                .withData(new byte[0])
+                .withEncoding(null)
+                .withDiagnostics(new Diagnostic(Diagnostic.Level.ERROR, "not a failure"))
+                .withStatus(ChunkItem.Status.IGNORE);
+        final ChunkItem nextItem0 = new ChunkItem().withId(0).withData("next 0").withStatus(ChunkItem.Status.SUCCESS);
+        final ChunkItem nextItem1 = new ChunkItem().withId(1).withData("next 1").withStatus(ChunkItem.Status.SUCCESS);
+        chunk.addAllItems(Arrays.asList(failedItem, ignoredItem), Arrays.asList(nextItem0, nextItem1));
+
+        final Chunk decoded = ChunkBinaryCodec.decode(ChunkBinaryCodec.encode(chunk));
+        assertThat("jobId", decoded.getJobId(), is(chunk.getJobId()));
+        assertThat("chunkId", decoded.getChunkId(), is(chunk.getChunkId()));
+        assertThat("type", decoded.getType(), is(chunk.getType()));
+        assertThat("items", decoded.getItems(), is(chunk.getItems()));
+        assertThat("next", decoded.getNext(), is(chunk.getNext()));
+    }
+
+    @Test
+    public void roundTrip_itemWithoutStatusAndData() {
+        final Chunk chunk = new Chunk(1, 2, Chunk.Type.PARTITIONED);
+        chunk.insertItem(new ChunkItem().withId(0));
+
+        final Chunk decoded = ChunkBinaryCodec.decode(ChunkBinaryCodec.encode(chunk));
+        assertThat(decoded.getItems(), is(chunk.getItems()));
+    }
+
+    @Test
+    public void encode_largeChunk_isCompressed() {
+        final Chunk chunk = new Chunk(1, 2, Chunk.Type.PARTITIONED);
+        final byte[] data = String.join("", Collections.nCopies(1000, "<record>data</record>"))
+                .getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 10; i++) {
+            chunk.insertItem(new ChunkItem().withId(i).withData(data).withStatus(ChunkItem.Status.SUCCESS));
+        }
+
+        final byte[] encoded = ChunkBinaryCodec.encode(chunk);
+        assertThat("compressed", encoded.length < data.length, is(true));
+        assertThat("items", ChunkBinaryCodec.decode(encoded).getItems(), is(chunk.getItems()));
+    }
+
+    @Test
+    public void decode_unknownFormatVersion_throws() {
+        assertThrows(IllegalArgumentException.class, () -> ChunkBinaryCodec.decode(new byte[]{9, 0, 0, 0}));
+    }
+
+    @Test
+    public void decode_truncated_throws() {
+        final Chunk chunk = new Chunk(1, 2, Chunk.Type.PARTITIONED);
+        chunk.insertItem(new ChunkItem().withId(0).withData("data").withStatus(ChunkItem.Status.SUCCESS));
+        final byte[] encoded = ChunkBinaryCodec.encode(chunk);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ChunkBinaryCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+    }
+}
@@ -8,6 +8,11 @@ import java.nio.file.Path;
  * Represents binary file to be read, written or deleted
  */
 public interface BinaryFile {
+    /**
+     * Compression formats recognized by content sniffing
+     */
+    enum Compression {BZIP2, GZIP, RAW}
+
     /**
      * Writes content of given input stream to this binary file representation
      *
@@ -15,6 +20,17 @@ public interface BinaryFile {
      */
     void write(final InputStream is);
 
+    /**
+     * Writes content of given input stream to this binary file representation,
+     * allowing implementations to prepare for the expected number of bytes
+     *
+     * @param is           input stream of bytes to be written
+     * @param expectedSize expected number of bytes to be written, negative if unknown
+     */
+    default void write(final InputStream is, final long expectedSize) {
+        write(is);
+    }
+
     /**
      * Appends content to this binary file representation
      *
@@ -55,6 +71,35 @@ public interface BinaryFile {
      */
     void read(final OutputStream os, final boolean decompress);
 
+    /**
+     * Reads content of this binary file representation into given output stream,
+     * decompressing it according to the given compression. Use this method when
+     * the compression of the file is already known to avoid having it detected
+     * again.
+     *
+     * @param os          output stream to which bytes are written
+     * @param compression compression of this file, {@link Compression#RAW} reads the bytes as stored
+     */
+    void read(final OutputStream os, final Compression compression);
+
+    /**
+     * Reads a range of the bytes stored in this binary file representation into
+     * given output stream without any decompression
+     *
+     * @param os     output stream to which bytes are written
+     * @param offset byte offset of first byte to read
+     * @param length number of bytes to read, reading stops at end of file
+     * @return number of bytes read
+     */
+    long read(final OutputStream os, final long offset, final long length);
+
+    /**
+     * Detects the compression of this binary file representation from its content
+     *
+     * @return compression format, {@link Compression#RAW} if not compressed
+     */
+    Compression getCompression();
+
     /**
      * @return an InputStream for reading from this file
      */
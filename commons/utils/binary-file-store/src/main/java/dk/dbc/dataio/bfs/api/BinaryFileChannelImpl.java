@@ -0,0 +1,179 @@
+package dk.dbc.dataio.bfs.api;
+
+import dk.dbc.invariant.InvariantUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File system implementation of BinaryFile writing through NIO file channels
+ * <p>
+ * Content is transferred into the file by {@link FileChannel#transferFrom}, and
+ * content read as stored is transferred out of the file by
+ * {@link FileChannel#transferTo} (see {@link BinaryFileFsImpl#read(java.io.OutputStream, long, long)}),
+ * so no intermediate buffered streams are involved. When the other end is a
+ * channel the operating system can transfer to or from directly, for example a
+ * socket channel, the transfer does not pass through the heap at all.
+ * </p>
+ * <p>
+ * Written files can optionally be preallocated to their expected size and
+ * forced to storage before a write or append returns, see {@link SyncPolicy}.
+ * </p>
+ */
+public class BinaryFileChannelImpl extends BinaryFileFsImpl {
+    /**
+     * Policy for forcing written content to storage
+     */
+    public enum SyncPolicy {
+        /**
+         * Leave it to the operating system when to write content to storage
+         */
+        NONE,
+        /**
+         * Force content to storage before returning
+         */
+        DATA,
+        /**
+         * Force content and file metadata to storage before returning
+         */
+        METADATA
+    }
+
+    private static final long MAX_TRANSFER_SIZE = 64L * 1024 * 1024;
+
+    private final SyncPolicy syncPolicy;
+    private final boolean preallocate;
+
+    /**
+     * Class constructor
+     *
+     * @param path path to binary file
+     * @throws NullPointerException if given null-valued path
+     */
+    public BinaryFileChannelImpl(Path path) throws NullPointerException {
+        this(path, SyncPolicy.NONE, false);
+    }
+
+    /**
+     * Class constructor
+     *
+     * @param path        path to binary file
+     * @param syncPolicy  policy for forcing written content to storage
+     * @param preallocate if true, files written with a known expected size
+     *                    are extended to this size before content is transferred
+     * @throws NullPointerException if given null-valued path or syncPolicy
+     */
+    public BinaryFileChannelImpl(Path path, SyncPolicy syncPolicy, boolean preallocate)
+            throws NullPointerException {
+        super(path);
+        this.syncPolicy = InvariantUtil.checkNotNullOrThrow(syncPolicy, "syncPolicy");
+        this.preallocate = preallocate;
+    }
+
+    /**
+     * Writes content of given input stream to this file creating parent directories as needed
+     *
+     * @param is input stream of bytes to be written
+     * @throws NullPointerException  if given null valued is argument
+     * @throws IllegalStateException if trying to write to a file that already exists, or
+     *                               on general failure to write file
+     */
+    @Override
+    public void write(InputStream is) throws NullPointerException, IllegalStateException {
+        write(is, -1);
+    }
+
+    /**
+     * Writes content of given input stream to this file creating parent directories as needed
+     *
+     * @param is           input stream of bytes to be written
+     * @param expectedSize expected number of bytes to be written, negative if unknown
+     * @throws NullPointerException  if given null valued is argument
+     * @throws IllegalStateException if trying to write to a file that already exists, or
+     *                               on general failure to write file
+     */
+    @Override
+    public void write(InputStream is, long expectedSize) throws NullPointerException, IllegalStateException {
+        InvariantUtil.checkNotNullOrThrow(is, "is");
+        final Path path = getPath();
+        if (Files.exists(path)) {
+            throw new IllegalStateException("File already exists " + path);
+        }
+        createPathIfNotExists(path.getParent());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            if (preallocate && expectedSize > 0) {
+                // Extend the file once up front instead of block by block while writing
+                channel.write(ByteBuffer.allocate(1), expectedSize - 1);
+            }
+            final long written = transferFrom(is, channel, 0);
+            if (channel.size() > written) {
+                // Fewer bytes than expected
+                channel.truncate(written);
+            }
+            sync(channel);
+        } catch (IOException e) {
+            String error = "Unable to write file " + path;
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ioException) {
+                error += " - filesystem not cleansed: " + ioException.getMessage();
+            }
+            throw new IllegalStateException(error, e);
+        }
+    }
+
+    /**
+     * Appends to this file
+     *
+     * @param is InputStream to be appended from
+     * @return The new file size
+     * @throws IllegalStateException if trying to append to a non-existing file,
+     *                               or on general failure to append
+     */
+    @Override
+    public long append(InputStream is) throws IllegalStateException {
+        final Path path = getPath();
+        if (!Files.exists(path)) {
+            throw new IllegalStateException("Attempt to append to non-existing file " + path);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            final long size = channel.size();
+            final long written = transferFrom(is, channel, size);
+            sync(channel);
+            return size + written;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to append to file " + path, e);
+        }
+    }
+
+    private static long transferFrom(InputStream is, FileChannel channel, long position) throws IOException {
+        final ReadableByteChannel source = Channels.newChannel(is);
+        long written = 0;
+        long transferred;
+        // A blocking source only transfers nothing when exhausted
+        while ((transferred = channel.transferFrom(source, position + written, MAX_TRANSFER_SIZE)) > 0) {
+            written += transferred;
+        }
+        return written;
+    }
+
+    private void sync(FileChannel channel) throws IOException {
+        switch (syncPolicy) {
+            case DATA:
+                channel.force(false);
+                break;
+            case METADATA:
+                channel.force(true);
+                break;
+            default:
+                break;
+        }
+    }
+}
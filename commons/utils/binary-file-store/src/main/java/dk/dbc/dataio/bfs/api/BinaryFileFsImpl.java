@@ -14,6 +14,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -27,8 +30,6 @@ import java.util.zip.GZIPInputStream;
  * </p>
  */
 public class BinaryFileFsImpl implements BinaryFile {
-    private enum Compression {BZIP2, GZIP, RAW}
-
     private final Path path;
 
     /**
@@ -165,7 +166,35 @@ public class BinaryFileFsImpl implements BinaryFile {
         if (!Files.exists(path)) {
             throw new IllegalStateException("File does not exist " + path);
         }
-        try (InputStream is = createInputStreamForReading(decompress)) {
+        read(os, decompress ? getCompression() : Compression.RAW);
+    }
+
+    /**
+     * Reads content of this file into given output stream,
+     * decompressing it according to the given compression.
+     * <p>
+     * Content read as stored is transferred directly from the file channel.
+     * </p>
+     *
+     * @param os          output stream to which bytes are written
+     * @param compression compression of this file, {@link Compression#RAW} reads the bytes as stored
+     * @throws NullPointerException  if given null-valued os or compression argument
+     * @throws IllegalStateException if trying to read a file which does not exists, or on
+     *                               general failure to read file
+     */
+    @Override
+    public void read(final OutputStream os, final Compression compression)
+            throws NullPointerException, IllegalStateException {
+        InvariantUtil.checkNotNullOrThrow(os, "os");
+        InvariantUtil.checkNotNullOrThrow(compression, "compression");
+        if (compression == Compression.RAW) {
+            read(os, 0, Long.MAX_VALUE);
+            return;
+        }
+        if (!Files.exists(path)) {
+            throw new IllegalStateException("File does not exist " + path);
+        }
+        try (InputStream is = createInputStreamForReading(compression)) {
             is.transferTo(os);
             os.flush();
         } catch (IOException e) {
@@ -173,12 +202,51 @@ public class BinaryFileFsImpl implements BinaryFile {
         }
     }
 
-    private InputStream createInputStreamForReading(final boolean decompress)
-            throws IOException {
-        final Compression compression = getCompression();
-        if (!decompress || compression == Compression.RAW) {
-            return new BufferedInputStream(new FileInputStream(path.toFile()));
+    /**
+     * Reads a range of the bytes stored in this file into given output stream
+     * without any decompression. The bytes are transferred directly from the
+     * file channel, so no part of the file before the offset is read.
+     *
+     * @param os     output stream to which bytes are written
+     * @param offset byte offset of first byte to read
+     * @param length number of bytes to read, reading stops at end of file
+     * @return number of bytes read
+     * @throws NullPointerException     if given null-valued os argument
+     * @throws IllegalArgumentException if given negative offset or length
+     * @throws IllegalStateException    if trying to read a file which does not exists, or on
+     *                                  general failure to read file
+     */
+    @Override
+    public long read(final OutputStream os, final long offset, final long length)
+            throws NullPointerException, IllegalArgumentException, IllegalStateException {
+        InvariantUtil.checkNotNullOrThrow(os, "os");
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid range offset=%d length=%d", offset, length));
         }
+        if (!Files.exists(path)) {
+            throw new IllegalStateException("File does not exist " + path);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final WritableByteChannel target = Channels.newChannel(os);
+            final long end = channel.size() - offset < length ? channel.size() : offset + length;
+            long position = offset;
+            while (position < end) {
+                final long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+            os.flush();
+            return Math.max(0, position - offset);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read file " + path, e);
+        }
+    }
+
+    private InputStream createInputStreamForReading(final Compression compression)
+            throws IOException {
         switch (compression) {
             case BZIP2:
                 return new BZip2CompressorInputStream(new FileInputStream(path.toFile()));
@@ -189,7 +257,8 @@ public class BinaryFileFsImpl implements BinaryFile {
         }
     }
 
-    private Compression getCompression() {
+    @Override
+    public Compression getCompression() {
         try {
             final ContentInfoUtil infoFinder = new ContentInfoUtil();
             final ContentInfo info = infoFinder.findMatch(
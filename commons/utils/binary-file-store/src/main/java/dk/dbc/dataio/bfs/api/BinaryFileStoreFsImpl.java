@@ -9,6 +9,9 @@ import java.nio.file.Path;
  */
 public class BinaryFileStoreFsImpl implements BinaryFileStore {
     private final Path base;
+    private final boolean channelIo;
+    private final BinaryFileChannelImpl.SyncPolicy syncPolicy;
+    private final boolean preallocate;
 
     /**
      * Class constructor
@@ -18,7 +21,26 @@ public class BinaryFileStoreFsImpl implements BinaryFileStore {
      * @throws IllegalArgumentException if given base path is non-absolute
      */
     public BinaryFileStoreFsImpl(Path base) throws NullPointerException, IllegalArgumentException {
+        this(base, false, BinaryFileChannelImpl.SyncPolicy.NONE, false);
+    }
+
+    /**
+     * Class constructor
+     *
+     * @param base        base path of file system store
+     * @param channelIo   if true, binary files are represented by {@link BinaryFileChannelImpl}
+     *                    otherwise by {@link BinaryFileFsImpl}
+     * @param syncPolicy  policy for forcing written content to storage (channel I/O only)
+     * @param preallocate preallocate files written with known expected size (channel I/O only)
+     * @throws NullPointerException     if given null-valued base or syncPolicy argument
+     * @throws IllegalArgumentException if given base path is non-absolute
+     */
+    public BinaryFileStoreFsImpl(Path base, boolean channelIo, BinaryFileChannelImpl.SyncPolicy syncPolicy,
+                                 boolean preallocate) throws NullPointerException, IllegalArgumentException {
         this.base = InvariantUtil.checkNotNullOrThrow(base, "base");
+        this.channelIo = channelIo;
+        this.syncPolicy = InvariantUtil.checkNotNullOrThrow(syncPolicy, "syncPolicy");
+        this.preallocate = preallocate;
         if (!this.base.isAbsolute()) {
             throw new IllegalArgumentException(String.format(
                     "Unable to initialize binary file store - base path is not absolute: %s", base));
@@ -39,6 +61,9 @@ public class BinaryFileStoreFsImpl implements BinaryFileStore {
         if (path.isAbsolute()) {
             throw new IllegalArgumentException("Value of path parameter can not be absolute path " + path);
         }
+        if (channelIo) {
+            return new BinaryFileChannelImpl(base.resolve(path), syncPolicy, preallocate);
+        }
         return new BinaryFileFsImpl(base.resolve(path));
     }
 }
@@ -36,7 +36,8 @@ public class BinaryFileStoreBean implements BinaryFileStore {
     @PostConstruct
     public void initializeBinaryFileStore() {
         LOGGER.debug("Initializing binary file store");
-        binaryFileStore = new BinaryFileStoreFsImpl(configuration.getBasePath());
+        binaryFileStore = new BinaryFileStoreFsImpl(configuration.getBasePath(), configuration.isChannelIo(),
+                configuration.getSyncPolicy(), configuration.isPreallocate());
     }
 
     /**
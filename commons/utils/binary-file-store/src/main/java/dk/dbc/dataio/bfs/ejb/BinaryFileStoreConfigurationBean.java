@@ -1,5 +1,6 @@
 package dk.dbc.dataio.bfs.ejb;
 
+import dk.dbc.dataio.bfs.api.BinaryFileChannelImpl;
 import jakarta.annotation.PostConstruct;
 import jakarta.ejb.EJBException;
 import jakarta.ejb.LocalBean;
@@ -18,6 +19,9 @@ public class BinaryFileStoreConfigurationBean {
     private static final Logger LOGGER = LoggerFactory.getLogger(BinaryFileStoreConfigurationBean.class);
 
     String basePath;
+    boolean channelIo = true;
+    BinaryFileChannelImpl.SyncPolicy syncPolicy = BinaryFileChannelImpl.SyncPolicy.NONE;
+    boolean preallocate;
 
     @PostConstruct
     public void initialize() {
@@ -25,10 +29,36 @@ public class BinaryFileStoreConfigurationBean {
         if (basePath == null || basePath.trim().isEmpty()) {
             throw new EJBException("BFS_ROOT must be set");
         }
-        LOGGER.info("basePath={}", basePath);
+        final String channelIoValue = System.getenv("BFS_CHANNEL_IO");
+        if (channelIoValue != null && !channelIoValue.trim().isEmpty()) {
+            channelIo = Boolean.parseBoolean(channelIoValue.trim());
+        }
+        final String syncPolicyValue = System.getenv("BFS_FSYNC");
+        if (syncPolicyValue != null && !syncPolicyValue.trim().isEmpty()) {
+            try {
+                syncPolicy = BinaryFileChannelImpl.SyncPolicy.valueOf(syncPolicyValue.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new EJBException("BFS_FSYNC must be one of NONE, DATA or METADATA, was " + syncPolicyValue);
+            }
+        }
+        preallocate = Boolean.parseBoolean(System.getenv("BFS_PREALLOCATE"));
+        LOGGER.info("basePath={} channelIo={} syncPolicy={} preallocate={}",
+                basePath, channelIo, syncPolicy, preallocate);
     }
 
     public Path getBasePath() {
         return Paths.get(basePath);
     }
+
+    public boolean isChannelIo() {
+        return channelIo;
+    }
+
+    public BinaryFileChannelImpl.SyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+
+    public boolean isPreallocate() {
+        return preallocate;
+    }
 }
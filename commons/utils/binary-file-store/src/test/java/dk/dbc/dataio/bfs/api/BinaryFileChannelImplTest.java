@@ -0,0 +1,83 @@
+package dk.dbc.dataio.bfs.api;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BinaryFileChannelImplTest {
+    private static final byte[] BYTES = "8 bytes!".getBytes();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void write_createsParentDirectoriesAndWritesData() throws IOException {
+        Path file = tempDir.resolve("a/b/file");
+        new BinaryFileChannelImpl(file).write(new ByteArrayInputStream(BYTES));
+        assertThat(Files.readAllBytes(file), is(BYTES));
+    }
+
+    @Test
+    public void write_pathAlreadyExists_throws() throws IOException {
+        Path file = Files.createFile(tempDir.resolve("file"));
+        BinaryFileChannelImpl binaryFile = new BinaryFileChannelImpl(file);
+        assertThrows(IllegalStateException.class, () -> binaryFile.write(new ByteArrayInputStream(BYTES)));
+    }
+
+    @Test
+    public void write_failingInputStream_deletesFile() {
+        Path file = tempDir.resolve("file");
+        BinaryFileChannelImpl binaryFile = new BinaryFileChannelImpl(file);
+        assertThrows(IllegalStateException.class, () -> binaryFile.write(new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        }));
+        assertThat("file exists", Files.exists(file), is(false));
+    }
+
+    @Test
+    public void write_preallocated_isTruncatedToBytesWritten() throws IOException {
+        Path file = tempDir.resolve("file");
+        new BinaryFileChannelImpl(file, BinaryFileChannelImpl.SyncPolicy.DATA, true)
+                .write(new ByteArrayInputStream(BYTES), 1024);
+        assertThat(Files.readAllBytes(file), is(BYTES));
+    }
+
+    @Test
+    public void write_emptyInputStream_createsEmptyFile() throws IOException {
+        Path file = tempDir.resolve("file");
+        new BinaryFileChannelImpl(file, BinaryFileChannelImpl.SyncPolicy.METADATA, true)
+                .write(new ByteArrayInputStream(new byte[0]), 0);
+        assertThat(Files.size(file), is(0L));
+    }
+
+    @Test
+    public void append() throws IOException {
+        Path file = tempDir.resolve("file");
+        BinaryFileChannelImpl binaryFile = new BinaryFileChannelImpl(file);
+        binaryFile.write(new ByteArrayInputStream(BYTES));
+        assertThat("size", binaryFile.append(new ByteArrayInputStream(BYTES)), is(2L * BYTES.length));
+
+        ByteArrayOutputStream bytesRead = new ByteArrayOutputStream();
+        binaryFile.read(bytesRead);
+        assertThat("content", bytesRead.toString(), is("8 bytes!8 bytes!"));
+    }
+
+    @Test
+    public void append_pathDoesNotExist_throws() {
+        BinaryFileChannelImpl binaryFile = new BinaryFileChannelImpl(tempDir.resolve("file"));
+        assertThrows(IllegalStateException.class, () -> binaryFile.append(new ByteArrayInputStream(BYTES)));
+    }
+}
@@ -243,6 +243,51 @@ public class BinaryFileFsImplTest {
                 is(BYTES));
     }
 
+    @Test
+    public void read_range() throws IOException {
+        Path sourceFile = tempPath();
+        writeFile(sourceFile);
+        BinaryFileFsImpl binaryFileFs = new BinaryFileFsImpl(sourceFile);
+
+        ByteArrayOutputStream bytesRead = new ByteArrayOutputStream();
+        assertThat("bytes read", binaryFileFs.read(bytesRead, 2, 3), is(3L));
+        assertThat("range read", bytesRead.toString(), is(DATA.substring(2, 5)));
+
+        bytesRead.reset();
+        assertThat("bytes read to end of file", binaryFileFs.read(bytesRead, 6, Long.MAX_VALUE), is(2L));
+        assertThat("range read to end of file", bytesRead.toString(), is(DATA.substring(6)));
+
+        bytesRead.reset();
+        assertThat("bytes read beyond end of file", binaryFileFs.read(bytesRead, 42, 1), is(0L));
+    }
+
+    @Test
+    public void read_rangeWithNegativeOffset_throws() throws IOException {
+        Path sourceFile = tempPath();
+        writeFile(sourceFile);
+        BinaryFileFsImpl binaryFileFs = new BinaryFileFsImpl(sourceFile);
+        assertThrows(IllegalArgumentException.class, () -> binaryFileFs.read(new ByteArrayOutputStream(), -1, 1));
+    }
+
+    @Test
+    public void getCompression() throws IOException {
+        ByteArrayOutputStream gzData = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzData)) {
+            gzipOutputStream.write(BYTES, 0, BYTES.length);
+        }
+        Path gzFile = tempPath();
+        writeFile(gzFile, gzData.toByteArray());
+        Path rawFile = tempPath();
+        writeFile(rawFile);
+
+        assertThat("gzip", new BinaryFileFsImpl(gzFile).getCompression(), is(BinaryFile.Compression.GZIP));
+        assertThat("raw", new BinaryFileFsImpl(rawFile).getCompression(), is(BinaryFile.Compression.RAW));
+
+        ByteArrayOutputStream decompressedBytesRead = new ByteArrayOutputStream();
+        new BinaryFileFsImpl(gzFile).read(decompressedBytesRead, BinaryFile.Compression.GZIP);
+        assertThat("read with known compression", decompressedBytesRead.toByteArray(), is(BYTES));
+    }
+
     @Test
     public void size_bz2() throws IOException {
         ByteArrayOutputStream bz2Data = new ByteArrayOutputStream();
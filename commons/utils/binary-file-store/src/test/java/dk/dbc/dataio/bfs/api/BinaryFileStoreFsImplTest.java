@@ -50,4 +50,14 @@ public class BinaryFileStoreFsImplTest {
         assertThat(binaryFile, is(notNullValue()));
         assertThat(binaryFile.getPath(), is(BASE_PATH.resolve(filePath)));
     }
+
+    @Test
+    public void getBinaryFile_channelIo_returnsChannelBinaryFileRepresentation() {
+        Path filePath = Paths.get("path/to/file");
+        BinaryFileStoreFsImpl binaryFileStoreFs = new BinaryFileStoreFsImpl(BASE_PATH, true,
+                BinaryFileChannelImpl.SyncPolicy.NONE, false);
+        BinaryFile binaryFile = binaryFileStoreFs.getBinaryFile(filePath);
+        assertThat(binaryFile instanceof BinaryFileChannelImpl, is(true));
+        assertThat(binaryFile.getPath(), is(BASE_PATH.resolve(filePath)));
+    }
 }
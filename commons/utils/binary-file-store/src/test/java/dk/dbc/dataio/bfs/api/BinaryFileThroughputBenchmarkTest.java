@@ -0,0 +1,128 @@
+package dk.dbc.dataio.bfs.api;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Compares write, append and read throughput of {@link BinaryFileFsImpl} and
+ * {@link BinaryFileChannelImpl}.
+ * <p>
+ * Run manually with
+ * {@code mvn test -Dtest=BinaryFileThroughputBenchmarkTest -Dbfs.benchmark=true [-Dbfs.benchmark.mb=256]}
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "bfs.benchmark", matches = "true")
+public class BinaryFileThroughputBenchmarkTest {
+    private static final int ROUNDS = 5;
+    private static final long SIZE = Long.getLong("bfs.benchmark.mb", 256) * 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void throughput() throws IOException {
+        final Path source = tempDir.resolve("source");
+        try (InputStream is = new GeneratedInputStream(SIZE)) {
+            Files.copy(is, source);
+        }
+        benchmark("stream", BinaryFileFsImpl::new, source);
+        benchmark("channel", BinaryFileChannelImpl::new, source);
+    }
+
+    private void benchmark(String name, Function<Path, BinaryFile> binaryFileFactory, Path source)
+            throws IOException {
+        final long[] writeFromStream = new long[ROUNDS];
+        final long[] writeFromFile = new long[ROUNDS];
+        final long[] append = new long[ROUNDS];
+        final long[] read = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            final Path file = tempDir.resolve(name + round);
+            final BinaryFile binaryFile = binaryFileFactory.apply(file);
+
+            long start = System.nanoTime();
+            binaryFile.write(new GeneratedInputStream(SIZE));
+            writeFromStream[round] = System.nanoTime() - start;
+            binaryFile.delete();
+
+            start = System.nanoTime();
+            try (InputStream is = new FileInputStream(source.toFile())) {
+                binaryFile.write(is);
+            }
+            writeFromFile[round] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            try (InputStream is = new FileInputStream(source.toFile())) {
+                binaryFile.append(is);
+            }
+            append[round] = System.nanoTime() - start;
+
+            final Path destination = tempDir.resolve(name + round + ".read");
+            start = System.nanoTime();
+            try (OutputStream os = new FileOutputStream(destination.toFile())) {
+                binaryFile.read(os);
+            }
+            read[round] = System.nanoTime() - start;
+
+            assertThat("size", Files.size(destination), is(2 * SIZE));
+            binaryFile.delete();
+            Files.delete(destination);
+        }
+        System.out.printf("%-8s write(stream) %8.1f MB/s  write(file) %8.1f MB/s  append(file) %8.1f MB/s  read %8.1f MB/s%n",
+                name, mbPerSecond(SIZE, writeFromStream), mbPerSecond(SIZE, writeFromFile),
+                mbPerSecond(SIZE, append), mbPerSecond(2 * SIZE, read));
+    }
+
+    /* Median throughput of rounds */
+    private static double mbPerSecond(long bytes, long[] nanos) {
+        final long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return bytes / 1024.0 / 1024.0 / (sorted[sorted.length / 2] / 1e9);
+    }
+
+    /* Input stream of the given number of bytes, which is not backed by a file */
+    private static class GeneratedInputStream extends InputStream {
+        private final byte[] block = new byte[64 * 1024];
+        private long remaining;
+
+        GeneratedInputStream(long size) {
+            remaining = size;
+            for (int i = 0; i < block.length; i++) {
+                block[i] = (byte) ('a' + i % 26);
+            }
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return 'x';
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int n = (int) Math.min(Math.min(len, block.length), remaining);
+            System.arraycopy(block, 0, b, off, n);
+            remaining -= n;
+            return n;
+        }
+    }
+}
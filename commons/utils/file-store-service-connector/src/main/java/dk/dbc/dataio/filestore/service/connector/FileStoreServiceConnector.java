@@ -19,7 +19,8 @@ import net.jodah.failsafe.RetryPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -55,7 +56,12 @@ public class FileStoreServiceConnector {
             .withDelay(Duration.ofSeconds(10))
             .withMaxRetries(6);
 
+    // Appending is not idempotent, and a stream can not be sent twice
+    private static final RetryPolicy<Response> NO_RETRY_POLICY = new RetryPolicy<Response>()
+            .withMaxRetries(0);
+
     private final FailSafeHttpClient failSafeHttpClient;
+    private final FailSafeHttpClient appendHttpClient;
     private final String baseUrl;
 
     /**
@@ -68,11 +74,25 @@ public class FileStoreServiceConnector {
      * @throws IllegalArgumentException if given empty-valued {@code baseUrl} argument
      */
     public FileStoreServiceConnector(Client httpClient, UserAgent userAgent, String baseUrl) throws NullPointerException, IllegalArgumentException {
-        this(FailSafeHttpClient.create(httpClient, userAgent, RETRY_POLICY), baseUrl);
+        this(FailSafeHttpClient.create(httpClient, userAgent, RETRY_POLICY),
+                FailSafeHttpClient.create(httpClient, userAgent, NO_RETRY_POLICY), baseUrl);
     }
 
     public FileStoreServiceConnector(FailSafeHttpClient failSafeHttpClient, String baseUrl) {
+        this(failSafeHttpClient, failSafeHttpClient, baseUrl);
+    }
+
+    /**
+     * Class constructor
+     *
+     * @param failSafeHttpClient web resources client for all requests except stream appends
+     * @param appendHttpClient   web resources client for stream appends, see {@link #appendStream(String, InputStream)}
+     * @param baseUrl            base URL for file-store service endpoint
+     */
+    public FileStoreServiceConnector(FailSafeHttpClient failSafeHttpClient, FailSafeHttpClient appendHttpClient,
+                                     String baseUrl) {
         this.failSafeHttpClient = InvariantUtil.checkNotNullOrThrow(failSafeHttpClient, "failSafeHttpClient");
+        this.appendHttpClient = InvariantUtil.checkNotNullOrThrow(appendHttpClient, "appendHttpClient");
         this.baseUrl = InvariantUtil.checkNotNullNotEmptyOrThrow(baseUrl, "baseUrl");
     }
 
@@ -123,22 +143,39 @@ public class FileStoreServiceConnector {
      */
     public void appendToFile(final String fileId, final byte[] bytes)
             throws NullPointerException, ProcessingException, FileStoreServiceConnectorUnexpectedStatusCodeException {
-        appendStream(fileId, new ByteArrayInputStream(bytes));
+        append(failSafeHttpClient, fileId, bytes);
     }
 
+    /**
+     * Appends content of given input stream to existing file in store
+     * <p>
+     * Since a retry could append the same content twice, or resend an already consumed stream,
+     * failed appends are not retried. On failure the file must be considered incomplete.
+     * </p>
+     *
+     * @param fileId ID of existing file
+     * @param is     input stream of bytes to be appended
+     * @throws ProcessingException                                    on general communication error
+     * @throws FileStoreServiceConnectorUnexpectedStatusCodeException on unexpected response status code
+     */
     public void appendStream(String fileId, InputStream is) throws ProcessingException, FileStoreServiceConnectorUnexpectedStatusCodeException {
+        append(appendHttpClient, fileId, is);
+    }
+
+    private void append(FailSafeHttpClient httpClient, String fileId, Object data)
+            throws ProcessingException, FileStoreServiceConnectorUnexpectedStatusCodeException {
         final StopWatch stopWatch = new StopWatch();
         InvariantUtil.checkNotNullNotEmptyOrThrow(fileId, "fileId");
         final PathBuilder path = new PathBuilder(FileStoreServiceConstants.FILE)
                 .bind(FileStoreServiceConstants.FILE_ID_VARIABLE, fileId);
-        try(Response response = new HttpPost(failSafeHttpClient)
+        try(Response response = new HttpPost(httpClient)
                 .withBaseUrl(baseUrl)
                 .withPathElements(path.build())
-                .withData(is, MediaType.APPLICATION_OCTET_STREAM)
+                .withData(data, MediaType.APPLICATION_OCTET_STREAM)
                 .execute()) {
                 verifyResponseStatus(Response.Status.fromStatusCode(response.getStatus()), Response.Status.OK);
         } finally {
-            log.info("appendStream({}) took {} milliseconds", fileId, stopWatch.getElapsedTime());
+            log.info("append({}) took {} milliseconds", fileId, stopWatch.getElapsedTime());
         }
     }
 
@@ -183,6 +220,88 @@ public class FileStoreServiceConnector {
         }
     }
 
+    /**
+     * Retrieves file content as stream from store starting at given byte offset
+     *
+     * @param fileId ID of file
+     * @param offset byte offset of first byte to retrieve
+     * @return file content input stream positioned at offset
+     * @throws NullPointerException                                   if given null-valued fileId argument
+     * @throws IllegalArgumentException                               if given empty-valued fileId argument or negative offset
+     * @throws ProcessingException                                    on general communication error
+     * @throws FileStoreServiceConnectorException                     on failure to extract input stream from response
+     * @throws FileStoreServiceConnectorUnexpectedStatusCodeException on unexpected response status code
+     * @see #getFile(String, long, long)
+     */
+    public InputStream getFile(final String fileId, final long offset)
+            throws NullPointerException, IllegalArgumentException, ProcessingException, FileStoreServiceConnectorException {
+        return getFile(fileId, offset, -1);
+    }
+
+    /**
+     * Retrieves a byte range of file content as stream from store
+     * <p>
+     * The range is requested through a HTTP Range header, so that the file-store
+     * only reads and sends the requested bytes. For compressed files the range is
+     * applied to the decompressed content, which the file-store can not seek in, in
+     * which case the full content is sent and the range is extracted by this method.
+     * </p>
+     * <p>
+     * Note that it is the responsibility of the caller to close the returned
+     * stream to free web client resources.
+     * </p>
+     *
+     * @param fileId ID of file
+     * @param offset byte offset of first byte to retrieve
+     * @param length number of bytes to retrieve, negative for all bytes from offset to end of file
+     * @return file content input stream of requested range
+     * @throws NullPointerException                                   if given null-valued fileId argument
+     * @throws IllegalArgumentException                               if given empty-valued fileId argument, negative offset
+     *                                                                or zero length
+     * @throws ProcessingException                                    on general communication error
+     * @throws FileStoreServiceConnectorException                     on failure to extract input stream from response
+     * @throws FileStoreServiceConnectorUnexpectedStatusCodeException on unexpected response status code,
+     *                                                                including 416 for an offset beyond end of file
+     */
+    public InputStream getFile(final String fileId, final long offset, final long length)
+            throws NullPointerException, IllegalArgumentException, ProcessingException, FileStoreServiceConnectorException {
+        log.trace("getFile({}, {}, {})", fileId, offset, length);
+        final StopWatch stopWatch = new StopWatch();
+        Response response = null;
+        try {
+            InvariantUtil.checkNotNullNotEmptyOrThrow(fileId, "fileId");
+            if (offset < 0 || length == 0) {
+                throw new IllegalArgumentException(
+                        String.format("Invalid range offset=%d length=%d", offset, length));
+            }
+            final String range = length < 0
+                    ? String.format("bytes=%d-", offset)
+                    : String.format("bytes=%d-%d", offset, offset + length - 1);
+            final PathBuilder path = new PathBuilder(FileStoreServiceConstants.FILE)
+                    .bind(FileStoreServiceConstants.FILE_ID_VARIABLE, fileId);
+            response = new HttpGet(failSafeHttpClient)
+                    .withHeader("Accept-Encoding", "") // null does not clear, even though is should
+                    .withHeader("Range", range)
+                    .withBaseUrl(baseUrl)
+                    .withPathElements(path.build())
+                    .execute();
+            final Response.Status status = Response.Status.fromStatusCode(response.getStatus());
+            if (status == Response.Status.PARTIAL_CONTENT) {
+                return readResponseEntity(response, InputStream.class);
+            }
+            verifyResponseStatus(status, Response.Status.OK);
+            // The file-store returns the full content when unable to apply the range
+            return skipToRange(readResponseEntity(response, InputStream.class), offset, length);
+        } catch (FileStoreServiceConnectorException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw e;
+        } finally {
+            log.info("getFile({}, {}, {}) took {} milliseconds", fileId, offset, length, stopWatch.getElapsedTime());
+        }
+    }
+
     /**
      * Deletes file from store
      *
@@ -333,6 +452,21 @@ public class FileStoreServiceConnector {
         return baseUrl;
     }
 
+    private static InputStream skipToRange(InputStream is, long offset, long length)
+            throws FileStoreServiceConnectorException {
+        try {
+            is.skipNBytes(offset);
+        } catch (IOException e) {
+            try {
+                is.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw new FileStoreServiceConnectorException("Unable to skip to offset " + offset, e);
+        }
+        return length < 0 ? is : new RangeInputStream(is, length);
+    }
+
     private <T> T readResponseEntity(Response response, Class<T> tClass) throws FileStoreServiceConnectorException {
         final T entity = response.readEntity(tClass);
         if (entity == null) {
@@ -401,4 +535,55 @@ public class FileStoreServiceConnector {
             throw new FileStoreServiceConnectorException("file-store communication error", e);
         }
     }
+
+    /* Input stream ending after a given number of bytes of the underlying stream */
+    private static class RangeInputStream extends FilterInputStream {
+        private long remaining;
+
+        RangeInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
 }
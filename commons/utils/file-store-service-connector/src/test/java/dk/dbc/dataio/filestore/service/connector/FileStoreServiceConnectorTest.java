@@ -13,7 +13,10 @@ import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import static dk.dbc.commons.testutil.Assert.assertThat;
 import static dk.dbc.commons.testutil.Assert.isThrowing;
@@ -21,6 +24,8 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class FileStoreServiceConnectorTest {
@@ -146,6 +151,37 @@ public class FileStoreServiceConnectorTest {
         assertThat(fileStoreServiceConnector.getFile(FILE_ID), is(is));
     }
 
+    @Test
+    public void getFile_rangeIsAppliedByService_returnsInputStream() throws FileStoreServiceConnectorException {
+        when(failSafeHttpClient.execute(new HttpGet(failSafeHttpClient)
+                .withHeader("Accept-Encoding", "")
+                .withHeader("Range", "bytes=2-4")
+                .withBaseUrl(FILE_STORE_URL)
+                .withPathElements(new PathBuilder(FileStoreServiceConstants.FILE)
+                        .bind(FileStoreServiceConstants.FILE_ID_VARIABLE, FILE_ID)
+                        .build())))
+                .thenReturn(new MockedResponse<>(Response.Status.PARTIAL_CONTENT.getStatusCode(), is));
+
+        assertThat(fileStoreServiceConnector.getFile(FILE_ID, 2, 3), is(is));
+    }
+
+    @Test
+    public void getFile_rangeIsNotAppliedByService_returnsRangeOfInputStream()
+            throws FileStoreServiceConnectorException, IOException {
+        when(failSafeHttpClient.execute(any(HttpGet.class)))
+                .thenReturn(new MockedResponse<>(Response.Status.OK.getStatusCode(),
+                        new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.UTF_8))));
+
+        try (InputStream range = fileStoreServiceConnector.getFile(FILE_ID, 2, 3)) {
+            assertThat(new String(range.readAllBytes(), StandardCharsets.UTF_8), is("234"));
+        }
+    }
+
+    @Test
+    public void getFile_negativeOffset_throws() {
+        assertThat(() -> fileStoreServiceConnector.getFile(FILE_ID, -1), isThrowing(IllegalArgumentException.class));
+    }
+
     @Test
     public void deleteFile_fileIdArgIsNull_throws() {
         assertThat(() -> fileStoreServiceConnector.deleteFile((String) null), isThrowing(NullPointerException.class));
@@ -228,4 +264,33 @@ public class FileStoreServiceConnectorTest {
 
         assertThat(fileStoreServiceConnector.getByteSize(FILE_ID), is(42L));
     }
+
+    @Test
+    public void appendStream_usesAppendClient() throws FileStoreServiceConnectorException {
+        final FailSafeHttpClient appendHttpClient = mock(FailSafeHttpClient.class);
+        when(appendHttpClient.execute(any(HttpPost.class)))
+                .thenReturn(new MockedResponse<>(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), ""));
+        final FileStoreServiceConnector connector =
+                new FileStoreServiceConnector(failSafeHttpClient, appendHttpClient, FILE_STORE_URL);
+
+        try {
+            connector.appendStream(FILE_ID, is);
+            Assertions.fail("No exception thrown");
+        } catch (FileStoreServiceConnectorUnexpectedStatusCodeException e) {
+            assertThat(e.getStatusCode(), is(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()));
+        }
+        verify(failSafeHttpClient, never()).execute(any(HttpPost.class));
+    }
+
+    @Test
+    public void appendToFile_usesRetryingClient() throws FileStoreServiceConnectorException {
+        final FailSafeHttpClient appendHttpClient = mock(FailSafeHttpClient.class);
+        when(failSafeHttpClient.execute(any(HttpPost.class)))
+                .thenReturn(new MockedResponse<>(Response.Status.OK.getStatusCode(), ""));
+        final FileStoreServiceConnector connector =
+                new FileStoreServiceConnector(failSafeHttpClient, appendHttpClient, FILE_STORE_URL);
+
+        connector.appendToFile(FILE_ID, "data".getBytes(StandardCharsets.UTF_8));
+        verify(appendHttpClient, never()).execute(any(HttpPost.class));
+    }
 }
@@ -520,6 +520,34 @@ public class FlowStoreServiceConnector {
         }
     }
 
+    /**
+     * Retrieves JSAR of the specified flow, unless it is identical to the JSAR
+     * already held by the caller as identified by its entity tag
+     *
+     * @param id   Id of the flow
+     * @param etag entity tag (content digest) of JSAR held by caller, may be null
+     * @return JSAR with its entity tag, or {@link Jsar#notModified(String)} if
+     * the JSAR of the flow matches the given entity tag
+     * @throws FlowStoreServiceConnectorUnexpectedStatusCodeException on unexpected response status code
+     */
+    public Jsar getJsar(long id, String etag) throws FlowStoreServiceConnectorUnexpectedStatusCodeException {
+        PathBuilder path = new PathBuilder(FlowStoreServiceConstants.FLOW_JSAR)
+                .bind(FlowStoreServiceConstants.ID_VARIABLE, id);
+        HttpGet httpGet = new HttpGet(failSafeHttpClient)
+                .withBaseUrl(baseUrl)
+                .withPathElements(path.build());
+        if (etag != null) {
+            httpGet.withHeader("If-None-Match", "\"" + etag + "\"");
+        }
+        try (Response response = httpGet.execute()) {
+            verifyResponseStatus(response, Status.OK, Status.NOT_MODIFIED);
+            if (response.getStatus() == Status.NOT_MODIFIED.getStatusCode()) {
+                return Jsar.notModified(etag);
+            }
+            return new Jsar(response.readEntity(byte[].class), getEntityTag(response));
+        }
+    }
+
     /**
      * Retrieves the specified flow from the flow-store
      *
@@ -1080,6 +1108,22 @@ public class FlowStoreServiceConnector {
         }
     }
 
+    private static String getEntityTag(Response response) {
+        final Object etag = response.getHeaders().getFirst("ETag");
+        if (etag == null) {
+            return null;
+        }
+        // Strip weak indicator and quotes
+        String value = etag.toString();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
     private <T> T readResponseEntity(Response response, Class<T> tClass) throws FlowStoreServiceConnectorException {
         response.bufferEntity(); // must be done in order to possibly avoid a timeout-exception from readEntity.
 
@@ -0,0 +1,51 @@
+package dk.dbc.dataio.common.utils.flowstore;
+
+/**
+ * JSAR of a flow as retrieved by {@link FlowStoreServiceConnector#getJsar(long, String)}
+ * together with its entity tag, being the SHA-256 digest of the JSAR content.
+ */
+public class Jsar {
+    private final byte[] content;
+    private final String entityTag;
+    private final boolean modified;
+
+    /**
+     * @param content   JSAR content
+     * @param entityTag entity tag of JSAR, may be null if not given by the flow-store
+     */
+    public Jsar(byte[] content, String entityTag) {
+        this(content, entityTag, true);
+    }
+
+    private Jsar(byte[] content, String entityTag, boolean modified) {
+        this.content = content;
+        this.entityTag = entityTag;
+        this.modified = modified;
+    }
+
+    /**
+     * @param entityTag entity tag of JSAR already held by the caller
+     * @return JSAR without content signalling that the JSAR held by the caller is current
+     */
+    public static Jsar notModified(String entityTag) {
+        return new Jsar(null, entityTag, false);
+    }
+
+    /**
+     * @return JSAR content, null if not modified
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    /**
+     * @return false if the JSAR held by the caller is current, otherwise true
+     */
+    public boolean isModified() {
+        return modified;
+    }
+}
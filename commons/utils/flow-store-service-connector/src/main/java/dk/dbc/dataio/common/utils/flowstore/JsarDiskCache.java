@@ -0,0 +1,166 @@
+package dk.dbc.dataio.common.utils.flowstore;
+
+import dk.dbc.dataio.commons.types.Tools;
+import dk.dbc.invariant.InvariantUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Local disk cache of flow JSARs retrieved from the flow-store.
+ * <p>
+ * JSARs are stored by their content digest as {@code <digest>.jsar}, and the
+ * digest of the JSAR last retrieved for a flow is stored as {@code <flow id>.etag}.
+ * Each retrieval revalidates the cached JSAR by a conditional request to the
+ * flow-store, so the JSAR is only transferred when it has actually changed, also
+ * across restarts of the process holding the cache.
+ * </p>
+ * <p>
+ * Files are written to a temporary file and then moved into place, so
+ * concurrent readers and writers, also in other processes sharing the
+ * directory, never see partially written files. Failures to read or write
+ * the cache are logged, and the JSAR is then retrieved in full.
+ * </p>
+ */
+public class JsarDiskCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsarDiskCache.class);
+    private static final String JSAR_SUFFIX = ".jsar";
+    private static final String ETAG_SUFFIX = ".etag";
+
+    private final FlowStoreServiceConnector flowStoreServiceConnector;
+    private final Path directory;
+    /* flow id and digest of JSARs found not to be cacheable, so each JSAR is only warned about once */
+    private final Set<String> uncacheableJsars = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Class constructor
+     *
+     * @param flowStoreServiceConnector connector used to retrieve JSARs
+     * @param directory                 cache directory, created if it does not exist
+     * @throws NullPointerException  if given null-valued argument
+     * @throws IllegalStateException if unable to create cache directory
+     */
+    public JsarDiskCache(FlowStoreServiceConnector flowStoreServiceConnector, Path directory)
+            throws NullPointerException, IllegalStateException {
+        this.flowStoreServiceConnector = InvariantUtil.checkNotNullOrThrow(
+                flowStoreServiceConnector, "flowStoreServiceConnector");
+        this.directory = InvariantUtil.checkNotNullOrThrow(directory, "directory");
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to create JSAR cache directory " + directory, e);
+        }
+    }
+
+    /**
+     * Retrieves JSAR of the specified flow, from the cache if the cached JSAR is current
+     *
+     * @param flowId Id of the flow
+     * @return JSAR content
+     * @throws FlowStoreServiceConnectorUnexpectedStatusCodeException on unexpected response status code
+     */
+    public byte[] getJsar(long flowId) throws FlowStoreServiceConnectorUnexpectedStatusCodeException {
+        final String cachedDigest = readDigest(flowId);
+        final Jsar jsar = flowStoreServiceConnector.getJsar(flowId, cachedDigest);
+        if (!jsar.isModified()) {
+            final byte[] content = readJsar(cachedDigest);
+            if (content != null) {
+                LOGGER.debug("Using cached JSAR {} of flow {}", cachedDigest, flowId);
+                return content;
+            }
+            // Removed from the cache in the meantime
+            return flowStoreServiceConnector.getJsar(flowId);
+        }
+        store(flowId, cachedDigest, jsar);
+        return jsar.getContent();
+    }
+
+    /* Returns digest of cached JSAR of flow, or null if not cached */
+    private String readDigest(long flowId) {
+        try {
+            final String digest = Files.readString(directory.resolve(flowId + ETAG_SUFFIX),
+                    StandardCharsets.US_ASCII).trim();
+            return Files.exists(directory.resolve(digest + JSAR_SUFFIX)) ? digest : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.warn("Unable to read cached JSAR digest of flow {}", flowId, e);
+            return null;
+        }
+    }
+
+    private byte[] readJsar(String digest) {
+        try {
+            return Files.readAllBytes(directory.resolve(digest + JSAR_SUFFIX));
+        } catch (IOException e) {
+            LOGGER.warn("Unable to read cached JSAR {}", digest, e);
+            return null;
+        }
+    }
+
+    private void store(long flowId, String previousDigest, Jsar jsar) {
+        final String digest = Tools.sha256(jsar.getContent());
+        if (!digest.equals(jsar.getEntityTag())) {
+            // Not tagged by its digest, so it can not be revalidated later
+            if (uncacheableJsars.add(flowId + ":" + digest)) {
+                LOGGER.warn("Not caching JSAR of flow {} with entity tag {} and digest {}",
+                        flowId, jsar.getEntityTag(), digest);
+            } else {
+                LOGGER.debug("Not caching JSAR of flow {} with entity tag {}", flowId, jsar.getEntityTag());
+            }
+            return;
+        }
+        try {
+            final Path jsarFile = directory.resolve(digest + JSAR_SUFFIX);
+            if (!Files.exists(jsarFile)) {
+                writeAtomically(jsarFile, jsar.getContent());
+            }
+            writeAtomically(directory.resolve(flowId + ETAG_SUFFIX), digest.getBytes(StandardCharsets.US_ASCII));
+            LOGGER.info("Cached JSAR {} of flow {}", digest, flowId);
+            if (previousDigest != null && !previousDigest.equals(digest)) {
+                deleteIfUnreferenced(previousDigest);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Unable to cache JSAR of flow {}", flowId, e);
+        }
+    }
+
+    private void writeAtomically(Path file, byte[] content) throws IOException {
+        final Path tmpFile = Files.createTempFile(directory, null, ".tmp");
+        try {
+            Files.write(tmpFile, content);
+            Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    /* Deletes cached JSAR unless still the current JSAR of some flow */
+    private void deleteIfUnreferenced(String digest) throws IOException {
+        try (Stream<Path> etagFiles = Files.list(directory)) {
+            final boolean referenced = etagFiles
+                    .filter(file -> file.getFileName().toString().endsWith(ETAG_SUFFIX))
+                    .anyMatch(file -> digest.equals(readQuietly(file)));
+            if (!referenced) {
+                Files.deleteIfExists(directory.resolve(digest + JSAR_SUFFIX));
+            }
+        }
+    }
+
+    private static String readQuietly(Path file) {
+        try {
+            return Files.readString(file, StandardCharsets.US_ASCII).trim();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
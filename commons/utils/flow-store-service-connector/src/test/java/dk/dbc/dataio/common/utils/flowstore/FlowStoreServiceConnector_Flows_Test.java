@@ -207,4 +207,46 @@ public class FlowStoreServiceConnector_Flows_Test {
 
         flowStoreServiceConnector.deleteFlow(id, version);
     }
+
+    // **************************************** get jsar tests ****************************************
+    @Test
+    public void getJsar_jsarModified_returnsJsarWithEntityTag() throws FlowStoreServiceConnectorException {
+        final byte[] content = "jsar".getBytes();
+        final Jsar jsar = getJsar_mockedHttpWithSpecifiedReturnErrorCode(
+                new MockedResponse<>(Response.Status.OK.getStatusCode(), content).addHeaderValue("ETag", "\"new\""),
+                "old");
+        assertThat("modified", jsar.isModified(), is(true));
+        assertThat("content", jsar.getContent(), is(content));
+        assertThat("entity tag", jsar.getEntityTag(), is("new"));
+    }
+
+    @Test
+    public void getJsar_jsarNotModified_returnsNotModified() throws FlowStoreServiceConnectorException {
+        final Jsar jsar = getJsar_mockedHttpWithSpecifiedReturnErrorCode(
+                new MockedResponse<>(Response.Status.NOT_MODIFIED.getStatusCode(), null), "old");
+        assertThat("modified", jsar.isModified(), is(false));
+        assertThat("entity tag", jsar.getEntityTag(), is("old"));
+    }
+
+    @Test
+    public void getJsar_responseWithUnexpectedStatusCode_throws() {
+        assertThat(() -> getJsar_mockedHttpWithSpecifiedReturnErrorCode(
+                        new MockedResponse<>(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), null), "old"),
+                isThrowing(FlowStoreServiceConnectorUnexpectedStatusCodeException.class));
+    }
+
+    private Jsar getJsar_mockedHttpWithSpecifiedReturnErrorCode(MockedResponse<?> response, String etag)
+            throws FlowStoreServiceConnectorException {
+        final PathBuilder path = new PathBuilder(FlowStoreServiceConstants.FLOW_JSAR)
+                .bind(FlowStoreServiceConstants.ID_VARIABLE, 42);
+
+        final HttpGet httpGet = new HttpGet(failSafeHttpClient)
+                .withBaseUrl(FLOW_STORE_URL)
+                .withPathElements(path.build())
+                .withHeader("If-None-Match", "\"" + etag + "\"");
+
+        when(failSafeHttpClient.execute(httpGet)).thenReturn(response);
+
+        return flowStoreServiceConnector.getJsar(42, etag);
+    }
 }
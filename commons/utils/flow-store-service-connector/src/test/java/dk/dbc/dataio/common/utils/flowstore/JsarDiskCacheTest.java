@@ -0,0 +1,86 @@
+package dk.dbc.dataio.common.utils.flowstore;
+
+import dk.dbc.dataio.commons.types.Tools;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JsarDiskCacheTest {
+    private static final long FLOW_ID = 42;
+    private static final byte[] JSAR = "jsar".getBytes();
+    private static final String DIGEST = Tools.sha256(JSAR);
+
+    private final FlowStoreServiceConnector flowStoreServiceConnector = mock(FlowStoreServiceConnector.class);
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    public void getJsar_notCached_retrievesAndCachesJsar() throws FlowStoreServiceConnectorException, IOException {
+        when(flowStoreServiceConnector.getJsar(FLOW_ID, null)).thenReturn(new Jsar(JSAR, DIGEST));
+
+        final JsarDiskCache jsarDiskCache = new JsarDiskCache(flowStoreServiceConnector, cacheDir);
+        assertThat("jsar", jsarDiskCache.getJsar(FLOW_ID), is(JSAR));
+        assertThat("cached jsar", Files.readAllBytes(cacheDir.resolve(DIGEST + ".jsar")), is(JSAR));
+    }
+
+    @Test
+    public void getJsar_cachedAndNotModified_returnsCachedJsar() throws FlowStoreServiceConnectorException {
+        when(flowStoreServiceConnector.getJsar(FLOW_ID, null)).thenReturn(new Jsar(JSAR, DIGEST));
+        when(flowStoreServiceConnector.getJsar(FLOW_ID, DIGEST)).thenReturn(Jsar.notModified(DIGEST));
+        new JsarDiskCache(flowStoreServiceConnector, cacheDir).getJsar(FLOW_ID);
+
+        // New instance, as after a restart
+        final JsarDiskCache jsarDiskCache = new JsarDiskCache(flowStoreServiceConnector, cacheDir);
+        assertThat(jsarDiskCache.getJsar(FLOW_ID), is(JSAR));
+        verify(flowStoreServiceConnector).getJsar(FLOW_ID, DIGEST);
+    }
+
+    @Test
+    public void getJsar_cachedAndModified_replacesCachedJsar() throws FlowStoreServiceConnectorException {
+        final byte[] updatedJsar = "updated jsar".getBytes();
+        final String updatedDigest = Tools.sha256(updatedJsar);
+        when(flowStoreServiceConnector.getJsar(FLOW_ID, null)).thenReturn(new Jsar(JSAR, DIGEST));
+        when(flowStoreServiceConnector.getJsar(FLOW_ID, DIGEST)).thenReturn(new Jsar(updatedJsar, updatedDigest));
+
+        final JsarDiskCache jsarDiskCache = new JsarDiskCache(flowStoreServiceConnector, cacheDir);
+        jsarDiskCache.getJsar(FLOW_ID);
+        assertThat("jsar", jsarDiskCache.getJsar(FLOW_ID), is(updatedJsar));
+        assertThat("updated jsar cached", Files.exists(cacheDir.resolve(updatedDigest + ".jsar")), is(true));
+        assertThat("previous jsar removed", Files.exists(cacheDir.resolve(DIGEST + ".jsar")), is(false));
+    }
+
+    @Test
+    public void getJsar_entityTagIsNotDigest_jsarIsNotCached() throws FlowStoreServiceConnectorException {
+        when(flowStoreServiceConnector.getJsar(FLOW_ID, null)).thenReturn(new Jsar(JSAR, "1"));
+
+        final JsarDiskCache jsarDiskCache = new JsarDiskCache(flowStoreServiceConnector, cacheDir);
+        assertThat("jsar", jsarDiskCache.getJsar(FLOW_ID), is(JSAR));
+        assertThat("jsar", jsarDiskCache.getJsar(FLOW_ID), is(JSAR));
+        verify(flowStoreServiceConnector, never()).getJsar(FLOW_ID, "1");
+        verify(flowStoreServiceConnector, never()).getJsar(FLOW_ID, DIGEST);
+    }
+
+    @Test
+    public void getJsar_cachedJsarRemoved_retrievesJsarUnconditionally() throws FlowStoreServiceConnectorException, IOException {
+        when(flowStoreServiceConnector.getJsar(FLOW_ID, null)).thenReturn(new Jsar(JSAR, DIGEST));
+        final JsarDiskCache jsarDiskCache = new JsarDiskCache(flowStoreServiceConnector, cacheDir);
+        jsarDiskCache.getJsar(FLOW_ID);
+
+        Files.delete(cacheDir.resolve(DIGEST + ".jsar"));
+        assertThat(jsarDiskCache.getJsar(FLOW_ID), is(JSAR));
+        verify(flowStoreServiceConnector, never()).getJsar(FLOW_ID, DIGEST);
+        verify(flowStoreServiceConnector, times(2)).getJsar(FLOW_ID, null);
+    }
+}
@@ -1,7 +1,5 @@
 package dk.dbc.dataio.dlq.errorhandler;
 
-import dk.dbc.commons.jsonb.JSONBContext;
-import dk.dbc.commons.jsonb.JSONBException;
 import dk.dbc.dataio.commons.types.Chunk;
 import dk.dbc.dataio.commons.types.ChunkItem;
 import dk.dbc.dataio.commons.types.ConsumedMessage;
@@ -26,8 +24,6 @@ public class DLQMessageConsumer extends MessageConsumerAdapter {
     private static final String QUEUE = DLQConfig.QUEUE.fqnAsQueue();
     private static final String ADDRESS = DLQConfig.QUEUE.fqnAsAddress();
 
-    JSONBContext jsonbContext = new JSONBContext();
-
     public DLQMessageConsumer(ServiceHub serviceHub) {
         super(serviceHub);
         jobStoreServiceConnector = serviceHub.jobStoreServiceConnector;
@@ -36,13 +32,11 @@ public class DLQMessageConsumer extends MessageConsumerAdapter {
 
     @Override
     public void handleConsumedMessage(ConsumedMessage consumedMessage) throws InvalidMessageException {
+        Chunk chunk = readChunk(consumedMessage);
         try {
-            Chunk chunk = jsonbContext.unmarshall(consumedMessage.getMessagePayload(), Chunk.class);
             LOGGER.info("Received dead message for chunk {} of type {} in job {}", chunk.getChunkId(), chunk.getType(), chunk.getJobId());
             Chunk deadChunk = createDeadChunk(chunk);
             jobStoreServiceConnector.addChunk(deadChunk, chunk.getJobId(), chunk.getChunkId());
-        } catch (JSONBException je) {
-            throw new InvalidMessageException(String.format("Message<%s> payload was not valid %s type", consumedMessage.getMessageId(), consumedMessage.getMessagePayload()), je);
         } catch (Exception e) {
             throw new InvalidMessageException("Message<" + consumedMessage.getMessageId() +
                     "> with jobId/chunkId<" + JMSHeader.jobId.getHeader(consumedMessage, Integer.class) +
@@ -1,9 +1,13 @@
 package dk.dbc.dataio.dlq.errorhandler;
 
+import dk.dbc.commons.jsonb.JSONBContext;
 import dk.dbc.commons.jsonb.JSONBException;
 import dk.dbc.dataio.commons.types.Chunk;
+import dk.dbc.dataio.commons.types.ChunkItem;
 import dk.dbc.dataio.commons.types.ConsumedMessage;
+import dk.dbc.dataio.commons.types.Priority;
 import dk.dbc.dataio.commons.types.exceptions.InvalidMessageException;
+import dk.dbc.dataio.commons.types.jms.ChunkBinaryCodec;
 import dk.dbc.dataio.commons.types.jms.JMSHeader;
 import dk.dbc.dataio.commons.types.jms.JmsConstants;
 import dk.dbc.dataio.commons.utils.jobstore.JobStoreServiceConnector;
@@ -17,6 +21,7 @@ import dk.dbc.dataio.registry.PrometheusMetricRegistry;
 import jakarta.jms.JMSException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import java.util.Collections;
@@ -33,6 +38,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 
 public class DmqMessageConsumerBeanTest {
+    private final JSONBContext jsonbContext = new JSONBContext();
     private Map<String, Object> headers;
     private final JobStoreServiceConnector jobStoreServiceConnector = mock(JobStoreServiceConnector.class);
     private final DLQMessageConsumer dlqMessageConsumer = new DLQMessageConsumer(new ServiceHub.Builder().withJobStoreServiceConnector(jobStoreServiceConnector).build());
@@ -76,7 +82,7 @@ public class DmqMessageConsumerBeanTest {
         MockedJmsTextMessage textMessage = new MockedJmsTextMessage();
         JMSHeader.payload.addHeader(textMessage, JMSHeader.CHUNK_PAYLOAD_TYPE);
         JMSHeader.jobId.addHeader(textMessage, 0);
-        textMessage.setText(dlqMessageConsumer.jsonbContext.marshall(originalChunk));
+        textMessage.setText(jsonbContext.marshall(originalChunk));
         dlqMessageConsumer.onMessage(textMessage);
         long rec = Metric.dataio_message_count.counter(destination.is(dlqMessageConsumer.getFQN()), redelivery.is("false")).getCount();
         long rej = Metric.dataio_message_count.counter(destination.is(dlqMessageConsumer.getFQN()), redelivery.is("false"), rejected.is("true")).getCount();
@@ -84,4 +90,18 @@ public class DmqMessageConsumerBeanTest {
         assertEquals(1, rec, "Message should be successfully consumed");
         assertEquals(0, rej, "Message should be accepted");
     }
+
+    @Test
+    public void handleConsumedMessage_deadBinaryPartitionedChunk_chunkAddedAsFailed() throws InvalidMessageException, JobStoreServiceConnectorException {
+        Chunk originalChunk = new ChunkBuilder(Chunk.Type.PARTITIONED).build();
+        ConsumedMessage consumedMessage = new ConsumedMessage("id",
+                Collections.singletonMap(JmsConstants.PAYLOAD_PROPERTY_NAME, JMSHeader.CHUNK_BINARY_PAYLOAD_TYPE),
+                ChunkBinaryCodec.encode(originalChunk), Priority.NORMAL);
+        dlqMessageConsumer.handleConsumedMessage(consumedMessage);
+        ArgumentCaptor<Chunk> deadChunk = ArgumentCaptor.forClass(Chunk.class);
+        Mockito.verify(jobStoreServiceConnector, times(1)).addChunk(deadChunk.capture(), eq(originalChunk.getJobId()), eq(originalChunk.getChunkId()));
+        assertEquals(Chunk.Type.PROCESSED, deadChunk.getValue().getType(), "dead chunk type");
+        assertEquals(originalChunk.size(), deadChunk.getValue().size(), "dead chunk size");
+        deadChunk.getValue().forEach(item -> assertEquals(ChunkItem.Status.FAILURE, item.getStatus(), "item status"));
+    }
 }
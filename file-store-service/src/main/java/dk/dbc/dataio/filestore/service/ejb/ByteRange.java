@@ -0,0 +1,97 @@
+package dk.dbc.dataio.filestore.service.ejb;
+
+import java.util.Optional;
+
+/**
+ * Single byte range of a HTTP Range request header as specified by RFC 7233,
+ * resolved against the size of the file it is applied to.
+ * <p>
+ * Only single ranges in the bytes unit are supported. Header values not
+ * in this form, or otherwise malformed, are ignored as allowed by the RFC,
+ * meaning that the full file is returned instead.
+ * </p>
+ */
+final class ByteRange {
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long first;
+    private final long last;
+
+    private ByteRange(long first, long last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * Parses value of Range header
+     *
+     * @param header value of Range header
+     * @param size   size in bytes of the file the range is applied to
+     * @return byte range, empty if header value is not a single byte range
+     * @throws IllegalArgumentException if the range can not be satisfied by a file of the given size
+     */
+    static Optional<ByteRange> parse(String header, long size) throws IllegalArgumentException {
+        if (header == null || !header.startsWith(BYTES_UNIT) || header.indexOf(',') >= 0) {
+            return Optional.empty();
+        }
+        final String spec = header.substring(BYTES_UNIT.length()).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return Optional.empty();
+        }
+        final long first;
+        final long last;
+        try {
+            if (dash == 0) {
+                // suffix range: the final N bytes
+                final long suffixLength = Long.parseLong(spec.substring(1));
+                if (suffixLength <= 0 || size == 0) {
+                    throw new IllegalArgumentException("Unsatisfiable range " + header);
+                }
+                first = Math.max(0, size - suffixLength);
+                last = size - 1;
+            } else {
+                first = Long.parseLong(spec.substring(0, dash));
+                if (dash == spec.length() - 1) {
+                    last = size - 1;
+                } else {
+                    final long lastRequested = Long.parseLong(spec.substring(dash + 1));
+                    if (lastRequested < first) {
+                        return Optional.empty();
+                    }
+                    last = Math.min(lastRequested, size - 1);
+                }
+            }
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        if (first >= size) {
+            throw new IllegalArgumentException("Unsatisfiable range " + header);
+        }
+        return Optional.of(new ByteRange(first, last));
+    }
+
+    long getOffset() {
+        return first;
+    }
+
+    long getLength() {
+        return last - first + 1;
+    }
+
+    /**
+     * @param size size in bytes of the file
+     * @return value of Content-Range header for this range
+     */
+    String toContentRange(long size) {
+        return String.format("bytes %d-%d/%d", first, last, size);
+    }
+
+    /**
+     * @param size size in bytes of the file
+     * @return value of Content-Range header for an unsatisfiable range
+     */
+    static String unsatisfied(long size) {
+        return "bytes */" + size;
+    }
+}
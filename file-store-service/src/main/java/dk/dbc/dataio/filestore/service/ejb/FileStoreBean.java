@@ -49,6 +49,20 @@ public class FileStoreBean {
      */
     @Stopwatch
     public String addFile(InputStream dataSource) throws NullPointerException {
+        return addFile(dataSource, -1);
+    }
+
+    /**
+     * Adds content of given input stream as file in store
+     *
+     * @param dataSource   input stream of bytes to be written
+     * @param expectedSize expected number of bytes to be written, negative if unknown
+     * @return ID of generated file
+     * @throws NullPointerException  if given null-valued dataSource argument
+     * @throws IllegalStateException on general failure to write data
+     */
+    @Stopwatch
+    public String addFile(InputStream dataSource, long expectedSize) throws NullPointerException {
         InvariantUtil.checkNotNullOrThrow(dataSource, "dataSource");
         final Path location = getCurrentLocation();
         FileAttributes fileAttributes = new FileAttributes(new Date(), location);
@@ -64,10 +78,11 @@ public class FileStoreBean {
             LOGGER.warn("Deleted dangling file {}", binaryFile.getPath());
             binaryFile.delete();
         }
-        binaryFile.write(wrappedDataSource);
+        binaryFile.write(wrappedDataSource, expectedSize);
 
         // Set the number of bytes read on file attributes
         fileAttributes.setByteSize(wrappedDataSource.getBytesRead());
+        fileAttributes.setCompression(binaryFile.getCompression());
 
         LOGGER.info("Wrote file {}", path.toString());
         return String.valueOf(fileAttributes.getId());
@@ -84,6 +99,8 @@ public class FileStoreBean {
         FileAttributes fileAttributes = getFileAttributesOrThrow(id);
         long size = binaryFileStore.getBinaryFile(fileAttributes.getLocation().resolve(id)).append(is);
         fileAttributes.setByteSize(size);
+        // Appending to an empty file may change its detected compression
+        fileAttributes.setCompression(null);
     }
 
     /**
@@ -121,10 +138,53 @@ public class FileStoreBean {
         InvariantUtil.checkNotNullOrThrow(dataDestination, "dataDestination");
         final FileAttributes fileAttributes = getFileAttributesOrThrow(fileId);
         final BinaryFile binaryFile = getBinaryFile(fileAttributes);
-        binaryFile.read(dataDestination, decompress);
+        binaryFile.read(dataDestination, decompress
+                ? getCompression(fileAttributes, binaryFile)
+                : BinaryFile.Compression.RAW);
         fileAttributes.setAtime(new Date());
     }
 
+    /**
+     * Retrieves a range of the bytes stored for a file into given output stream.
+     * The bytes are read as stored, meaning that no decompression takes place.
+     *
+     * @param fileId          ID of file
+     * @param dataDestination output stream to which bytes are written
+     * @param offset          byte offset of first byte to retrieve
+     * @param length          number of bytes to retrieve
+     * @return number of bytes retrieved
+     * @throws NullPointerException     if given null-valued fileId or dataDestination argument
+     * @throws IllegalArgumentException if given invalid formatted fileId argument or negative offset or length
+     * @throws IllegalStateException    on general failure to read data
+     * @throws EJBException             if no file attributes can be found for given file ID
+     */
+    @Stopwatch
+    public long getFile(String fileId, OutputStream dataDestination, long offset, long length)
+            throws NullPointerException, IllegalArgumentException, IllegalStateException, EJBException {
+        InvariantUtil.checkNotNullOrThrow(dataDestination, "dataDestination");
+        final FileAttributes fileAttributes = getFileAttributesOrThrow(fileId);
+        final long bytesRead = getBinaryFile(fileAttributes).read(dataDestination, offset, length);
+        fileAttributes.setAtime(new Date());
+        return bytesRead;
+    }
+
+    /**
+     * Retrieves the compression of a file, detecting it from the file
+     * content only if not already known
+     *
+     * @param fileId ID of file
+     * @return compression of file
+     * @throws NullPointerException     if given null-valued fileId argument
+     * @throws IllegalArgumentException if given invalid formatted fileId argument
+     * @throws EJBException             if no file attributes can be found for given file ID
+     */
+    @Stopwatch
+    public BinaryFile.Compression getCompression(String fileId)
+            throws NullPointerException, IllegalArgumentException, EJBException {
+        final FileAttributes fileAttributes = getFileAttributesOrThrow(fileId);
+        return getCompression(fileAttributes, getBinaryFile(fileAttributes));
+    }
+
     /**
      * Retrieves a list of file attributes based on a postgresql json operator select
      *
@@ -224,9 +284,11 @@ public class FileStoreBean {
     public long getByteSize(String fileId, boolean decompressed)
             throws NullPointerException, IllegalArgumentException, EJBException {
         final FileAttributes fileAttributes = getFileAttributesOrThrow(fileId);
-        final BinaryFile binaryFile = getBinaryFile(fileAttributes);
         if (decompressed) {
-            return binaryFile.size(true);
+            final BinaryFile binaryFile = getBinaryFile(fileAttributes);
+            if (getCompression(fileAttributes, binaryFile) != BinaryFile.Compression.RAW) {
+                return binaryFile.size(true);
+            }
         }
         return fileAttributes.getByteSize();
     }
@@ -273,6 +335,15 @@ public class FileStoreBean {
         }
     }
 
+    private BinaryFile.Compression getCompression(FileAttributes fileAttributes, BinaryFile binaryFile) {
+        BinaryFile.Compression compression = fileAttributes.getCompression();
+        if (compression == null) {
+            compression = binaryFile.getCompression();
+            fileAttributes.setCompression(compression);
+        }
+        return compression;
+    }
+
     private BinaryFile getBinaryFile(FileAttributes fileAttributes) {
         final Path path = fileAttributes.getLocation().resolve(String.valueOf(fileAttributes.getId()));
         return binaryFileStore.getBinaryFile(path);
@@ -2,6 +2,7 @@ package dk.dbc.dataio.filestore.service.ejb;
 
 import dk.dbc.commons.jsonb.JSONBContext;
 import dk.dbc.commons.jsonb.JSONBException;
+import dk.dbc.dataio.bfs.api.BinaryFile;
 import dk.dbc.dataio.commons.types.interceptor.Stopwatch;
 import dk.dbc.dataio.commons.types.rest.FileStoreServiceConstants;
 import dk.dbc.dataio.filestore.service.entity.FileAttributes;
@@ -47,8 +48,9 @@ public class FilesBean {
     /**
      * Creates new file in file-store containing data from the given data stream
      *
-     * @param uriInfo    application and request URI information
-     * @param dataStream binary data to be written to file
+     * @param uriInfo       application and request URI information
+     * @param contentLength value of Content-Length header, null for chunked uploads
+     * @param dataStream    binary data to be written to file
      * @return a HTTP 201 CREATED response with a Location header containing the URL value of the newly created resource,
      * a HTTP 500 INTERNAL_SERVER_ERROR response in case of general error.
      * @throws IOException if an I/O error occurs.
@@ -57,10 +59,11 @@ public class FilesBean {
     @Path(FileStoreServiceConstants.FILES_COLLECTION)
     @Consumes(MediaType.APPLICATION_OCTET_STREAM)
     @Stopwatch
-    public Response addFile(@Context UriInfo uriInfo, InputStream dataStream) throws IOException {
+    public Response addFile(@Context UriInfo uriInfo, @HeaderParam("Content-Length") Long contentLength,
+                            InputStream dataStream) throws IOException {
         LOGGER.trace("addFile() method called");
         try {
-            final String fileId = fileStore.addFile(dataStream);
+            final String fileId = fileStore.addFile(dataStream, contentLength == null ? -1 : contentLength);
             LOGGER.info("Added data to file with ID {}", fileId);
             return Response.created(getUri(uriInfo, fileId)).build();
         } finally {
@@ -98,11 +101,21 @@ public class FilesBean {
      * If HTTP header Accept-Encoding contains bzip2 or gzip and the binary file is
      * formatted using the corresponding compression algorithm, its content is
      * returned in its compressed form, otherwise it will be automatically decompressed.
+     * </p>
+     * <p>
+     * If HTTP header Range specifies a single byte range and the content is returned
+     * as stored (that is, the file is not compressed or its compressed form is
+     * accepted), only the bytes of the range are returned. The Range header is
+     * ignored for content which must be decompressed.
+     * </p>
      *
-     * @param id             ID of file
      * @param acceptEncoding value of Accept-Encoding header
+     * @param range          value of Range header
+     * @param id             ID of file
      * @return a HTTP 200 OK response with file data as binary stream
+     * a HTTP 206 PARTIAL_CONTENT response with the requested byte range as binary stream
      * a HTTP 404 NOT_FOUND response in case the id could not be found
+     * a HTTP 416 REQUESTED_RANGE_NOT_SATISFIABLE response in case the range starts beyond the end of the file
      * a HTTP 500 INTERNAL_SERVER_ERROR response in case of general error.
      */
     @GET
@@ -110,6 +123,7 @@ public class FilesBean {
     @Produces(MediaType.APPLICATION_OCTET_STREAM)
     @Stopwatch
     public Response getFile(@HeaderParam("Accept-Encoding") String acceptEncoding,
+                            @HeaderParam("Range") String range,
                             @PathParam("id") final String id) {
         if (!fileStore.fileExists(id)) {
             return Response.status(Response.Status.NOT_FOUND).build();
@@ -117,6 +131,29 @@ public class FilesBean {
         final boolean decompress = acceptEncoding == null ||
                 !(acceptEncoding.contains("bzip2") || acceptEncoding.contains("gzip"));
 
+        if (range != null && (!decompress || fileStore.getCompression(id) == BinaryFile.Compression.RAW)) {
+            final long size = fileStore.getByteSize(id, false);
+            final Optional<ByteRange> byteRange;
+            try {
+                byteRange = ByteRange.parse(range, size);
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header("Content-Range", ByteRange.unsatisfied(size))
+                        .build();
+            }
+            if (byteRange.isPresent()) {
+                final ByteRange bytes = byteRange.get();
+                final StreamingOutput stream = os ->
+                        fileStore.getFile(id, os, bytes.getOffset(), bytes.getLength());
+                return Response.status(Response.Status.PARTIAL_CONTENT)
+                        .entity(stream)
+                        .header("Accept-Ranges", "bytes")
+                        .header("Content-Range", bytes.toContentRange(size))
+                        .header("Content-Length", bytes.getLength())
+                        .build();
+            }
+        }
+
         final StreamingOutput stream = os -> fileStore.getFile(id, os, decompress);
         return Response.ok(stream).build();
     }
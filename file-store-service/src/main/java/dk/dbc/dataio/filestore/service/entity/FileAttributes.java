@@ -2,10 +2,13 @@ package dk.dbc.dataio.filestore.service.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonRawValue;
+import dk.dbc.dataio.bfs.api.BinaryFile;
 import dk.dbc.invariant.InvariantUtil;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -88,6 +91,11 @@ public class FileAttributes {
 
     private long byteSize;
 
+    /* Compression detected from file content, null until first detected */
+    @JsonIgnore
+    @Enumerated(EnumType.STRING)
+    private BinaryFile.Compression compression;
+
     @JsonRawValue
     @Column(columnDefinition = "jsonb")
     @Convert(converter = String2JSonB.class)
@@ -128,6 +136,14 @@ public class FileAttributes {
         return byteSize;
     }
 
+    public BinaryFile.Compression getCompression() {
+        return compression;
+    }
+
+    public void setCompression(BinaryFile.Compression compression) {
+        this.compression = compression;
+    }
+
     public String getMetadata() {
         return metadata;
     }
@@ -0,0 +1 @@
+ALTER TABLE file_attributes ADD COLUMN compression VARCHAR(16) DEFAULT NULL;
@@ -0,0 +1,52 @@
+package dk.dbc.dataio.filestore.service.ejb;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ByteRangeTest {
+    @Test
+    public void parse_firstAndLast() {
+        ByteRange byteRange = ByteRange.parse("bytes=10-19", 100).orElseThrow();
+        assertThat("offset", byteRange.getOffset(), is(10L));
+        assertThat("length", byteRange.getLength(), is(10L));
+        assertThat("Content-Range", byteRange.toContentRange(100), is("bytes 10-19/100"));
+    }
+
+    @Test
+    public void parse_openEnded() {
+        ByteRange byteRange = ByteRange.parse("bytes=90-", 100).orElseThrow();
+        assertThat("offset", byteRange.getOffset(), is(90L));
+        assertThat("length", byteRange.getLength(), is(10L));
+    }
+
+    @Test
+    public void parse_lastBeyondEndOfFile_isTruncated() {
+        ByteRange byteRange = ByteRange.parse("bytes=90-199", 100).orElseThrow();
+        assertThat(byteRange.toContentRange(100), is("bytes 90-99/100"));
+    }
+
+    @Test
+    public void parse_suffix() {
+        ByteRange byteRange = ByteRange.parse("bytes=-30", 100).orElseThrow();
+        assertThat("offset", byteRange.getOffset(), is(70L));
+        assertThat("length", byteRange.getLength(), is(30L));
+    }
+
+    @Test
+    public void parse_firstBeyondEndOfFile_throws() {
+        assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=100-", 100));
+    }
+
+    @Test
+    public void parse_unsupportedOrMalformed_isIgnored() {
+        assertThat("multiple ranges", ByteRange.parse("bytes=0-9,20-29", 100), is(Optional.empty()));
+        assertThat("other unit", ByteRange.parse("items=0-9", 100), is(Optional.empty()));
+        assertThat("last before first", ByteRange.parse("bytes=9-0", 100), is(Optional.empty()));
+        assertThat("not a number", ByteRange.parse("bytes=a-", 100), is(Optional.empty()));
+    }
+}
@@ -18,6 +18,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -144,6 +145,32 @@ public class FileStoreBeanTest {
         verify(entityManager).remove(fileAttributes);
     }
 
+    @Test
+    public void getCompression_notKnown_isDetectedAndCached() {
+        when(binaryFileStoreBean.getBinaryFile(any(Path.class))).thenReturn(binaryFile);
+        when(entityManager.find(eq(FileAttributes.class), any(Long.class))).thenReturn(fileAttributes);
+        when(fileAttributes.getLocation()).thenReturn(path);
+        when(path.resolve(anyString())).thenReturn(path);
+        when(binaryFile.getCompression()).thenReturn(BinaryFile.Compression.GZIP);
+
+        FileStoreBean fileStoreBean = newFileStoreBeanInstance();
+        assertThat(fileStoreBean.getCompression(fileId), is(BinaryFile.Compression.GZIP));
+        verify(fileAttributes).setCompression(BinaryFile.Compression.GZIP);
+    }
+
+    @Test
+    public void getCompression_known_isNotDetected() {
+        when(binaryFileStoreBean.getBinaryFile(any(Path.class))).thenReturn(binaryFile);
+        when(entityManager.find(eq(FileAttributes.class), any(Long.class))).thenReturn(fileAttributes);
+        when(fileAttributes.getLocation()).thenReturn(path);
+        when(path.resolve(anyString())).thenReturn(path);
+        when(fileAttributes.getCompression()).thenReturn(BinaryFile.Compression.RAW);
+
+        FileStoreBean fileStoreBean = newFileStoreBeanInstance();
+        assertThat(fileStoreBean.getCompression(fileId), is(BinaryFile.Compression.RAW));
+        verify(binaryFile, times(0)).getCompression();
+    }
+
     @Test
     public void fileExists_fileIdArgIsNull_throws() {
         FileStoreBean fileStoreBean = newFileStoreBeanInstance();
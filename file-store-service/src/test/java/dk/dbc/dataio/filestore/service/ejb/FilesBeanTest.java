@@ -1,5 +1,6 @@
 package dk.dbc.dataio.filestore.service.ejb;
 
+import dk.dbc.dataio.bfs.api.BinaryFile;
 import dk.dbc.dataio.filestore.service.entity.FileAttributes;
 import jakarta.ejb.EJBException;
 import jakarta.ws.rs.core.Response;
@@ -32,13 +33,13 @@ public class FilesBeanTest {
 
     @Test
     public void addFile_fileIsCreated_returnsStatusCreatedResponse() throws IOException {
-        when(fileStoreBean.addFile(inputStream)).thenReturn(fileId);
+        when(fileStoreBean.addFile(inputStream, 42)).thenReturn(fileId);
         when(uriInfo.getAbsolutePathBuilder()).thenReturn(uriBuilder);
         when(uriBuilder.path(fileId)).thenReturn(uriBuilder);
         when(uriBuilder.build()).thenReturn(null);
 
         FilesBean filesBean = newFilesBeanInstance();
-        Response response = filesBean.addFile(uriInfo, inputStream);
+        Response response = filesBean.addFile(uriInfo, 42L, inputStream);
         assertThat(response.getStatus(), is(Response.Status.CREATED.getStatusCode()));
     }
 
@@ -71,7 +72,7 @@ public class FilesBeanTest {
         doNothing().when(fileStoreBean).getFile(fileId, outputStream, false);
 
         FilesBean filesBean = newFilesBeanInstance();
-        Response response = filesBean.getFile(null, fileId);
+        Response response = filesBean.getFile(null, null, fileId);
         assertThat(response.getStatus(), is(Response.Status.OK.getStatusCode()));
     }
 
@@ -80,10 +81,44 @@ public class FilesBeanTest {
         when(fileStoreBean.fileExists(fileId)).thenReturn(false);
 
         FilesBean filesBean = newFilesBeanInstance();
-        Response response = filesBean.getFile(null, fileId);
+        Response response = filesBean.getFile(null, null, fileId);
         assertThat(response.getStatus(), is(Response.Status.NOT_FOUND.getStatusCode()));
     }
 
+    @Test
+    public void getFile_rangeOfRawFile_returnsStatusPartialContentResponse() {
+        when(fileStoreBean.fileExists(fileId)).thenReturn(true);
+        when(fileStoreBean.getCompression(fileId)).thenReturn(BinaryFile.Compression.RAW);
+        when(fileStoreBean.getByteSize(fileId, false)).thenReturn(100L);
+
+        FilesBean filesBean = newFilesBeanInstance();
+        Response response = filesBean.getFile(null, "bytes=10-19", fileId);
+        assertThat("status", response.getStatus(), is(Response.Status.PARTIAL_CONTENT.getStatusCode()));
+        assertThat("Content-Range", response.getHeaderString("Content-Range"), is("bytes 10-19/100"));
+    }
+
+    @Test
+    public void getFile_rangeOfCompressedFileToBeDecompressed_returnsStatusOkResponse() {
+        when(fileStoreBean.fileExists(fileId)).thenReturn(true);
+        when(fileStoreBean.getCompression(fileId)).thenReturn(BinaryFile.Compression.GZIP);
+
+        FilesBean filesBean = newFilesBeanInstance();
+        Response response = filesBean.getFile(null, "bytes=10-", fileId);
+        assertThat(response.getStatus(), is(Response.Status.OK.getStatusCode()));
+    }
+
+    @Test
+    public void getFile_rangeBeyondEndOfFile_returnsStatusRequestedRangeNotSatisfiableResponse() {
+        when(fileStoreBean.fileExists(fileId)).thenReturn(true);
+        when(fileStoreBean.getByteSize(fileId, false)).thenReturn(100L);
+
+        FilesBean filesBean = newFilesBeanInstance();
+        Response response = filesBean.getFile("gzip", "bytes=100-", fileId);
+        assertThat("status", response.getStatus(),
+                is(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE.getStatusCode()));
+        assertThat("Content-Range", response.getHeaderString("Content-Range"), is("bytes */100"));
+    }
+
     @Test
     public void getByteSize_fileAttributesNotFound_returnsStatusNotFoundResponse() throws IllegalArgumentException {
         when(fileStoreBean.getByteSize(fileId, true)).thenThrow(new EJBException());
@@ -0,0 +1,211 @@
+package dk.dbc.dataio.flowstore.ejb;
+
+import dk.dbc.commons.jsonb.JSONBContext;
+import dk.dbc.commons.jsonb.JSONBException;
+import dk.dbc.dataio.commons.types.FlowBinderContent;
+import dk.dbc.dataio.commons.types.SubmitterContent;
+import dk.dbc.dataio.flowstore.entity.FlowBinder;
+import dk.dbc.dataio.flowstore.entity.Submitter;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Singleton;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of flow binders keyed on the values used for flow binder resolution,
+ * that is (packaging, format, charset, submitter number, destination), allowing
+ * {@link FlowBindersBean#resolveFlowBinder} to resolve by hash lookup instead of a
+ * JSON containment query (plus a submitter lookup) against the database.
+ * <p>
+ * The index is built from all flow binders and submitters on first use, and is
+ * invalidated when flow binders or submitters are changed through this service
+ * instance. Since other instances of the service may change them as well, the
+ * index is also rebuilt when older than FLOW_BINDER_INDEX_TTL.
+ * </p>
+ * <p>
+ * The index holds the JSON representation of the flow binders, so a resolved
+ * flow binder is returned exactly as when read from the database.
+ * </p>
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class FlowBinderIndexBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowBinderIndexBean.class);
+
+    private final JSONBContext jsonbContext = new JSONBContext();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Index index;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Resource
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    @ConfigProperty(name = "FLOW_BINDER_INDEX_TTL", defaultValue = "PT1M")
+    Duration ttl;
+
+    /**
+     * Resolves flow binders by index lookup
+     *
+     * @param packaging       packaging of flow binder
+     * @param format          format of flow binder
+     * @param charset         charset of flow binder
+     * @param submitterNumber number of submitter attached to flow binder
+     * @param destination     destination of flow binder
+     * @return JSON representations of matching flow binders, empty if none
+     * matched or if the index could not be built
+     */
+    public List<String> resolve(String packaging, String format, String charset, long submitterNumber,
+                                String destination) {
+        final Index current = getIndex();
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        return current.resolve(new Key(packaging, format, charset, submitterNumber, destination));
+    }
+
+    /**
+     * Invalidates the index. When called within a transaction the index is
+     * invalidated again after the transaction completes, so that an index
+     * rebuilt before the changes were committed is not kept.
+     */
+    public void invalidate() {
+        invalidateNow();
+        if (transactionSynchronizationRegistry != null
+                && transactionSynchronizationRegistry.getTransactionKey() != null) {
+            transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateNow();
+                }
+            });
+        }
+    }
+
+    private void invalidateNow() {
+        generation.incrementAndGet();
+        index = null;
+    }
+
+    private Index getIndex() {
+        Index current = index;
+        if (current != null && !current.isExpired()) {
+            return current;
+        }
+        // Only one rebuild at a time, the others wait for its result
+        synchronized (this) {
+            current = index;
+            if (current == null || current.isExpired()) {
+                final long generationAtStart = generation.get();
+                try {
+                    current = build();
+                } catch (JSONBException | RuntimeException e) {
+                    LOGGER.error("Unable to build flow binder index", e);
+                    return null;
+                }
+                if (generation.get() == generationAtStart) {
+                    index = current;
+                }
+            }
+            return current;
+        }
+    }
+
+    private Index build() throws JSONBException {
+        final long start = System.currentTimeMillis();
+        final List<Submitter> submitters = entityManager
+                .createNamedQuery(Submitter.QUERY_FIND_ALL, Submitter.class)
+                .getResultList();
+        final List<FlowBinder> flowBinders = entityManager
+                .createNamedQuery(FlowBinder.FIND_ALL_QUERY_NAME, FlowBinder.class)
+                .getResultList();
+        final Index built = build(flowBinders, submitters, jsonbContext,
+                System.currentTimeMillis() + ttl.toMillis());
+        LOGGER.info("Built flow binder index of {} keys from {} flow binders in {} ms",
+                built.size(), flowBinders.size(), System.currentTimeMillis() - start);
+        return built;
+    }
+
+    static Index build(List<FlowBinder> flowBinders, List<Submitter> submitters, JSONBContext jsonbContext,
+                       long expiresAt) throws JSONBException {
+        final Map<Long, Long> submitterNumbersById = new HashMap<>();
+        final Set<Long> submitterNumbers = new HashSet<>();
+        final Set<Long> ambiguousSubmitterNumbers = new HashSet<>();
+        for (Submitter submitter : submitters) {
+            final long number = jsonbContext.unmarshall(submitter.getContent(), SubmitterContent.class).getNumber();
+            if (!submitterNumbers.add(number)) {
+                ambiguousSubmitterNumbers.add(number);
+            }
+            submitterNumbersById.put(submitter.getId(), number);
+        }
+
+        final Map<Key, List<String>> flowBindersByKey = new HashMap<>();
+        for (FlowBinder flowBinder : flowBinders) {
+            final FlowBinderContent content = jsonbContext.unmarshall(flowBinder.getContent(), FlowBinderContent.class);
+            if (content.getSubmitterIds() == null) {
+                continue;
+            }
+            final String flowBinderJson = jsonbContext.marshall(flowBinder);
+            for (Long submitterId : content.getSubmitterIds()) {
+                final Long number = submitterNumbersById.get(submitterId);
+                // Ambiguous submitter numbers are left for the database query to resolve
+                if (number != null && !ambiguousSubmitterNumbers.contains(number)) {
+                    flowBindersByKey.computeIfAbsent(new Key(content.getPackaging(), content.getFormat(),
+                                    content.getCharset(), number, content.getDestination()),
+                            key -> new ArrayList<>(1))
+                            .add(flowBinderJson);
+                }
+            }
+        }
+        return new Index(flowBindersByKey, expiresAt);
+    }
+
+    record Key(String packaging, String format, String charset, long submitterNumber, String destination) {
+    }
+
+    static class Index {
+        private final Map<Key, List<String>> flowBindersByKey;
+        private final long expiresAt;
+
+        Index(Map<Key, List<String>> flowBindersByKey, long expiresAt) {
+            this.flowBindersByKey = flowBindersByKey;
+            this.expiresAt = expiresAt;
+        }
+
+        List<String> resolve(Key key) {
+            return flowBindersByKey.getOrDefault(key, Collections.emptyList());
+        }
+
+        int size() {
+            return flowBindersByKey.size();
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
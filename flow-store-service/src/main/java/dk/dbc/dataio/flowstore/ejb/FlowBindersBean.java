@@ -66,12 +66,18 @@ public class FlowBindersBean extends AbstractResourceBean {
     private SubmittersBean submittersBean;
     @Inject
     private FlowsBean flowsBean;
+    @Inject
+    FlowBinderIndexBean flowBinderIndex;
 
     @PersistenceContext
     EntityManager entityManager;
 
     /**
      * Resolves a flow binder given key parameters
+     * <p>
+     * When all key parameters are given the flow binder is resolved through
+     * {@link FlowBinderIndexBean}, otherwise by querying the underlying data store.
+     * </p>
      *
      * @param packaging       set for the flow binder
      * @param format          set for the flow binder
@@ -94,6 +100,15 @@ public class FlowBindersBean extends AbstractResourceBean {
                                       @QueryParam(FlowBinderResolveQuery.REST_PARAMETER_DESTINATION) String destination)
             throws JSONBException {
 
+        if (packaging != null && format != null && charset != null && submitterNumber != null && destination != null) {
+            final List<String> indexedFlowBinders = flowBinderIndex.resolve(
+                    packaging, format, charset, submitterNumber, destination);
+            if (indexedFlowBinders.size() == 1) {
+                return Response.ok().entity(indexedFlowBinders.get(0)).build();
+            }
+            // Conflicts and misses are reported through the database query below
+        }
+
         List<Long> submitterNumbers = null;
         if (submitterNumber != null) {
             submitterNumbers = Collections.singletonList(submitterNumber);
@@ -173,6 +188,7 @@ public class FlowBindersBean extends AbstractResourceBean {
 
         entityManager.persist(flowBinder);
         entityManager.flush();
+        flowBinderIndex.invalidate();
 
         final String flowBinderJson = jsonbContext.marshall(flowBinder);
         return Response
@@ -245,6 +261,7 @@ public class FlowBindersBean extends AbstractResourceBean {
 
         // Update the flow binder
         updateFlowBinderEntity(flowBinderEntity, flowBinderContent, version);
+        flowBinderIndex.invalidate();
 
         // Retrieve the updated flow binder
         final FlowBinder updatedFlowBinderEntity = entityManager.find(FlowBinder.class, id);
@@ -289,6 +306,7 @@ public class FlowBindersBean extends AbstractResourceBean {
 
         entityManager.remove(versionUpdatedAndNoOptimisticLocking);
         entityManager.flush();
+        flowBinderIndex.invalidate();
 
         return Response.noContent().build();
     }
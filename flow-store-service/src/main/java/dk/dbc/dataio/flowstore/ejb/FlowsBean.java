@@ -4,6 +4,7 @@ package dk.dbc.dataio.flowstore.ejb;
 import dk.dbc.commons.jsonb.JSONBContext;
 import dk.dbc.commons.jsonb.JSONBException;
 import dk.dbc.dataio.commons.types.FlowContent;
+import dk.dbc.dataio.commons.types.Tools;
 import dk.dbc.dataio.commons.types.rest.FlowStoreServiceConstants;
 import dk.dbc.dataio.flowstore.entity.Flow;
 import dk.dbc.invariant.InvariantUtil;
@@ -28,6 +29,8 @@ import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
@@ -39,6 +42,7 @@ import java.net.URI;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -53,6 +57,7 @@ public class FlowsBean extends AbstractResourceBean {
     private static final String FLOW_CONTENT_DISPLAY_TEXT = "flowContent";
     private static final String NULL_ENTITY = "";
     private static final Map<Long, String> NAME_CACHE = new ConcurrentHashMap<>();
+    private static final Map<Long, JsarDigest> JSAR_DIGEST_CACHE = new ConcurrentHashMap<>();
 
     JSONBContext jsonbContext = new JSONBContext();
 
@@ -181,7 +186,8 @@ public class FlowsBean extends AbstractResourceBean {
     @GET
     @Path(FlowStoreServiceConstants.FLOW_JSAR)
     @Produces(MediaType.APPLICATION_OCTET_STREAM)
-    public Response getJsar(@PathParam(FlowStoreServiceConstants.ID_VARIABLE) Long id) {
+    public Response getJsar(@PathParam(FlowStoreServiceConstants.ID_VARIABLE) Long id,
+                            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
         Flow flow = entityManager.find(Flow.class, id);
         if(flow.getJsar() == null) {
             return flowstoreFallback
@@ -193,18 +199,19 @@ public class FlowsBean extends AbstractResourceBean {
                     .map(Response.ResponseBuilder::build)
                     .orElseThrow(() -> new IllegalStateException("No JSar file found for flow " + id));
         }
-        return Response.ok(flow.getJsar()).build();
+        return jsarResponse(flow, ifNoneMatch);
     }
 
     @GET
     @Path(FlowStoreServiceConstants.FLOW_NAME_JSAR)
     @Produces(MediaType.APPLICATION_OCTET_STREAM)
-    public Response getJsarByName(@PathParam(FlowStoreServiceConstants.NAME_VARIABLE) String flowName) {
+    public Response getJsarByName(@PathParam(FlowStoreServiceConstants.NAME_VARIABLE) String flowName,
+                                  @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
         TypedQuery<Flow> query = entityManager.createNamedQuery(Flow.QUERY_FIND_BY_NAME, Flow.class)
                 .setParameter(1, flowName);
         try {
             Flow flow = query.getSingleResult();
-            return Response.ok(flow.getJsar()).build();
+            return jsarResponse(flow, ifNoneMatch);
         } catch (NoResultException nre) {
             throw new NotFoundException("Found no flow with name " + flowName);
         }
@@ -216,6 +223,54 @@ public class FlowsBean extends AbstractResourceBean {
 
     // private methods
 
+    /**
+     * Creates response for JSAR of given flow tagged with the SHA-256 digest of
+     * the JSAR, so that clients can cache the JSAR by its content and revalidate
+     * it by a conditional request
+     *
+     * @param flow        flow owning the JSAR
+     * @param ifNoneMatch value of If-None-Match request header, may be null
+     * @return a HTTP 304 response if the JSAR matches any of the given entity tags,
+     * otherwise a HTTP 200 response with the JSAR as entity
+     */
+    private Response jsarResponse(Flow flow, String ifNoneMatch) {
+        if (flow.getJsar() == null) {
+            return Response.ok(null).build();
+        }
+        final EntityTag entityTag = new EntityTag(getJsarDigest(flow));
+        if (matchesAny(entityTag, ifNoneMatch)) {
+            return Response.notModified(entityTag).build();
+        }
+        return Response.ok(flow.getJsar()).tag(entityTag).build();
+    }
+
+    private String getJsarDigest(Flow flow) {
+        final JsarDigest cached = JSAR_DIGEST_CACHE.get(flow.getId());
+        if (cached != null && Objects.equals(cached.version(), flow.getVersion())) {
+            return cached.digest();
+        }
+        final JsarDigest jsarDigest = new JsarDigest(flow.getVersion(), Tools.sha256(flow.getJsar()));
+        JSAR_DIGEST_CACHE.put(flow.getId(), jsarDigest);
+        return jsarDigest.digest();
+    }
+
+    static boolean matchesAny(EntityTag entityTag, String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            final String value = tag.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            // Weak comparison as specified for If-None-Match by RFC 7232
+            final String opaque = value.startsWith("W/") ? value.substring(2) : value;
+            if (opaque.equals("\"" + entityTag.getValue() + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     /**
      * Returns list containing one flow uniquely identified by the flow name given as input
@@ -281,4 +336,7 @@ public class FlowsBean extends AbstractResourceBean {
         NAME_CACHE.remove(flowId);
         return Response.noContent().build();
     }
+
+    private record JsarDigest(Long version, String digest) {
+    }
 }
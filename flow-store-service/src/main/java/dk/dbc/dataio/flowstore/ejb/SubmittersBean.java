@@ -15,6 +15,7 @@ import dk.dbc.dataio.querylanguage.DataIOQLParser;
 import dk.dbc.dataio.querylanguage.ParseException;
 import dk.dbc.invariant.InvariantUtil;
 import jakarta.ejb.Stateless;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
@@ -59,6 +60,9 @@ public class SubmittersBean extends AbstractResourceBean {
     @PersistenceContext
     EntityManager entityManager;
 
+    @Inject
+    FlowBinderIndexBean flowBinderIndex;
+
     /**
      * Creates new submitter with data POST'ed as JSON and persists it in the
      * underlying data store
@@ -84,6 +88,7 @@ public class SubmittersBean extends AbstractResourceBean {
 
         final Submitter submitter = saveAsVersionedEntity(entityManager, Submitter.class, submitterContent);
         final String submitterJson = jsonbContext.marshall(submitter);
+        flowBinderIndex.invalidate();
         return Response
                 .created(getResourceUriOfVersionedEntity(uriInfo.getAbsolutePathBuilder(), submitter))
                 .entity(submitterJson)
@@ -187,6 +192,7 @@ public class SubmittersBean extends AbstractResourceBean {
         final Submitter updatedSubmitter = entityManager.find(Submitter.class, id);
         final String submitterJson = jsonbContext.marshall(updatedSubmitter);
         SUBCONTENT_CACHE.remove(id);
+        flowBinderIndex.invalidate();
         return Response
                 .ok()
                 .entity(submitterJson)
@@ -227,6 +233,7 @@ public class SubmittersBean extends AbstractResourceBean {
         entityManager.remove(versionUpdatedAndNoOptimisticLocking);
         entityManager.flush();
         SUBCONTENT_CACHE.remove(submitterId);
+        flowBinderIndex.invalidate();
         return Response.noContent().build();
     }
 
@@ -0,0 +1,104 @@
+package dk.dbc.dataio.flowstore.ejb;
+
+import dk.dbc.commons.jsonb.JSONBContext;
+import dk.dbc.commons.jsonb.JSONBException;
+import dk.dbc.dataio.commons.utils.test.json.FlowBinderContentJsonBuilder;
+import dk.dbc.dataio.commons.utils.test.json.SubmitterContentJsonBuilder;
+import dk.dbc.dataio.flowstore.entity.FlowBinder;
+import dk.dbc.dataio.flowstore.entity.Submitter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class FlowBinderIndexBeanTest {
+    private final JSONBContext jsonbContext = new JSONBContext();
+
+    @Test
+    public void build_flowBinderIsResolvedForEachOfItsSubmitters() throws JSONBException {
+        final Submitter submitterA = newSubmitter(1L, 123456L);
+        final Submitter submitterB = newSubmitter(2L, 654321L);
+        final FlowBinder flowBinder = newFlowBinder(10L, Arrays.asList(1L, 2L));
+
+        final FlowBinderIndexBean.Index index = FlowBinderIndexBean.build(
+                Collections.singletonList(flowBinder), Arrays.asList(submitterA, submitterB),
+                jsonbContext, Long.MAX_VALUE);
+
+        final String expectedJson = jsonbContext.marshall(flowBinder);
+        assertThat("submitter A", index.resolve(newKey(123456L)),
+                is(Collections.singletonList(expectedJson)));
+        assertThat("submitter B", index.resolve(newKey(654321L)),
+                is(Collections.singletonList(expectedJson)));
+        assertThat("size", index.size(), is(2));
+    }
+
+    @Test
+    public void build_noMatch_resolvesToEmptyList() throws JSONBException {
+        final FlowBinderIndexBean.Index index = FlowBinderIndexBean.build(
+                Collections.singletonList(newFlowBinder(10L, Collections.singletonList(1L))),
+                Collections.singletonList(newSubmitter(1L, 123456L)),
+                jsonbContext, Long.MAX_VALUE);
+
+        assertThat("unknown submitter", index.resolve(newKey(42L)).isEmpty(), is(true));
+        assertThat("unknown destination", index.resolve(new FlowBinderIndexBean.Key(
+                "packaging", "format", "charset", 123456L, "other")).isEmpty(), is(true));
+    }
+
+    @Test
+    public void build_conflictingFlowBinders_resolvesToAll() throws JSONBException {
+        final FlowBinderIndexBean.Index index = FlowBinderIndexBean.build(
+                Arrays.asList(newFlowBinder(10L, Collections.singletonList(1L)),
+                        newFlowBinder(11L, Collections.singletonList(1L))),
+                Collections.singletonList(newSubmitter(1L, 123456L)),
+                jsonbContext, Long.MAX_VALUE);
+
+        assertThat(index.resolve(newKey(123456L)).size(), is(2));
+    }
+
+    @Test
+    public void build_ambiguousSubmitterNumber_isLeftOutOfIndex() throws JSONBException {
+        final FlowBinderIndexBean.Index index = FlowBinderIndexBean.build(
+                Collections.singletonList(newFlowBinder(10L, Collections.singletonList(1L))),
+                Arrays.asList(newSubmitter(1L, 123456L), newSubmitter(2L, 123456L)),
+                jsonbContext, Long.MAX_VALUE);
+
+        assertThat(index.resolve(newKey(123456L)).isEmpty(), is(true));
+    }
+
+    @Test
+    public void isExpired() throws JSONBException {
+        final List<FlowBinder> noFlowBinders = Collections.emptyList();
+        final List<Submitter> noSubmitters = Collections.emptyList();
+        assertThat("expired", FlowBinderIndexBean.build(noFlowBinders, noSubmitters, jsonbContext,
+                System.currentTimeMillis() - 1).isExpired(), is(true));
+        assertThat("not expired", FlowBinderIndexBean.build(noFlowBinders, noSubmitters, jsonbContext,
+                Long.MAX_VALUE).isExpired(), is(false));
+    }
+
+    private Submitter newSubmitter(long id, long number) throws JSONBException {
+        final Submitter submitter = new Submitter();
+        submitter.setId(id);
+        submitter.setContent(new SubmitterContentJsonBuilder()
+                .setNumber(number)
+                .build());
+        return submitter;
+    }
+
+    private FlowBinder newFlowBinder(long id, List<Long> submitterIds) throws JSONBException {
+        final FlowBinder flowBinder = new FlowBinder();
+        flowBinder.setId(id);
+        flowBinder.setContent(new FlowBinderContentJsonBuilder()
+                .setName("flowBinder" + id)
+                .setSubmitterIds(submitterIds)
+                .build());
+        return flowBinder;
+    }
+
+    private static FlowBinderIndexBean.Key newKey(long submitterNumber) {
+        return new FlowBinderIndexBean.Key("packaging", "format", "charset", submitterNumber, "destination");
+    }
+}
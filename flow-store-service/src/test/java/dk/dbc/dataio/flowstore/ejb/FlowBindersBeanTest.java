@@ -126,6 +126,7 @@ public class FlowBindersBeanTest {
     private static FlowBindersBean newFlowBindersBeanWithMockedEntityManager() {
         FlowBindersBean flowBindersBean = new FlowBindersBean();
         flowBindersBean.entityManager = ENTITY_MANAGER;
+        flowBindersBean.flowBinderIndex = mock(FlowBinderIndexBean.class);
         return flowBindersBean;
     }
 
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import dk.dbc.commons.jsonb.JSONBContext;
 import dk.dbc.commons.jsonb.JSONBException;
 import dk.dbc.dataio.commons.types.FlowView;
+import dk.dbc.dataio.commons.types.Tools;
 import dk.dbc.dataio.commons.utils.test.json.FlowContentJsonBuilder;
 import dk.dbc.dataio.flowstore.entity.Flow;
 import jakarta.persistence.EntityManager;
@@ -95,6 +96,45 @@ public class FlowsBeanTest {
         assertThat(entityNode.get("content").get("name").textValue(), is("testFlow"));
     }
 
+    @Test
+    public void getJsar_returnsJsarTaggedWithDigest() {
+        Flow flow = newFlowWithJsar(101L, "jsar".getBytes());
+        FlowsBean flowsBean = newFlowsBeanWithMockedEntityManager();
+        when(ENTITY_MANAGER.find(Flow.class, 101L)).thenReturn(flow);
+
+        Response response = flowsBean.getJsar(101L, null);
+        assertThat("status", response.getStatus(), is(Response.Status.OK.getStatusCode()));
+        assertThat("entity", response.getEntity(), is(flow.getJsar()));
+        assertThat("ETag", response.getEntityTag().getValue(), is(Tools.sha256("jsar".getBytes())));
+    }
+
+    @Test
+    public void getJsar_ifNoneMatchesDigest_returnsNotModified() {
+        Flow flow = newFlowWithJsar(102L, "jsar".getBytes());
+        FlowsBean flowsBean = newFlowsBeanWithMockedEntityManager();
+        when(ENTITY_MANAGER.find(Flow.class, 102L)).thenReturn(flow);
+
+        String etag = "\"" + Tools.sha256("jsar".getBytes()) + "\"";
+        Response response = flowsBean.getJsar(102L, "\"other\", " + etag);
+        assertThat("status", response.getStatus(), is(Response.Status.NOT_MODIFIED.getStatusCode()));
+        assertThat("entity", response.hasEntity(), is(false));
+    }
+
+    @Test
+    public void getJsar_ifNoneMatchesOldDigest_returnsJsar() {
+        Flow flow = newFlowWithJsar(103L, "jsar".getBytes());
+        FlowsBean flowsBean = newFlowsBeanWithMockedEntityManager();
+        when(ENTITY_MANAGER.find(Flow.class, 103L)).thenReturn(flow);
+        String oldEtag = "\"" + Tools.sha256("jsar".getBytes()) + "\"";
+
+        flow.setJsar("updated jsar".getBytes());
+        flow.setVersion(DEFAULT_TEST_VERSION + 1);
+
+        Response response = flowsBean.getJsar(103L, oldEtag);
+        assertThat("status", response.getStatus(), is(Response.Status.OK.getStatusCode()));
+        assertThat("ETag", response.getEntityTag().getValue(), is(Tools.sha256("updated jsar".getBytes())));
+    }
+
     @Test
     public void findFlows_findFlowByNameFlowFound_returnsResponseWithHttpStatusOK() throws JSONBException {
         Flow flow = new Flow();
@@ -216,6 +256,14 @@ public class FlowsBeanTest {
         assertThat(response.getStatus(), is(Response.Status.NO_CONTENT.getStatusCode()));
     }
 
+    private static Flow newFlowWithJsar(long id, byte[] jsar) {
+        Flow flow = new Flow();
+        flow.setId(id);
+        flow.setVersion(DEFAULT_TEST_VERSION);
+        flow.setJsar(jsar);
+        return flow;
+    }
+
     public static FlowsBean newFlowsBeanWithMockedEntityManager() {
         FlowsBean flowsBean = new FlowsBean() {
             protected FlowsBean self() {
@@ -231,6 +231,7 @@ public class SubmittersBeanTest {
     public static SubmittersBean newSubmittersBeanWithMockedEntityManager() {
         SubmittersBean submittersBean = new SubmittersBean();
         submittersBean.entityManager = ENTITY_MANAGER;
+        submittersBean.flowBinderIndex = mock(FlowBinderIndexBean.class);
         return submittersBean;
     }
 }
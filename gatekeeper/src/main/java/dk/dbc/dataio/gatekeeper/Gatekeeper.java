@@ -11,10 +11,12 @@ import org.slf4j.LoggerFactory;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Gatekeeper {
     private static final Logger LOGGER = LoggerFactory.getLogger(Gatekeeper.class);
+    public static final int DEFAULT_WORKERS = 4;
 
     private final JobDispatcher jobDispatcher;
     public static final AtomicBoolean KEEP_RUNNING = new AtomicBoolean(true);
@@ -24,20 +26,24 @@ public class Gatekeeper {
         Path dir = Paths.get(Objects.requireNonNull(Util.CommandLineOption.GUARDED_DIR.get()));
         String jobStoreServiceUrl = Util.CommandLineOption.JOBSTORE_SERVICE.get();
         String fileStoreServiceUrl = Util.CommandLineOption.FILESTORE_SERVICE.get();
+        int workers = Optional.ofNullable(Util.CommandLineOption.WORKERS.get())
+                .map(Integer::parseInt)
+                .orElse(DEFAULT_WORKERS);
         ShutdownManager shutdownManager = new ShutdownManager();
 
         registerShutdownHook(shutdownManager);
 
-        Gatekeeper gatekeeper = new Gatekeeper(dir, fileStoreServiceUrl, jobStoreServiceUrl, shutdownManager);
+        Gatekeeper gatekeeper = new Gatekeeper(dir, fileStoreServiceUrl, jobStoreServiceUrl, shutdownManager, workers);
         while (KEEP_RUNNING.get()) {
             gatekeeper.standGuard();
         }
     }
 
-    public Gatekeeper(Path dir, String fileStoreServiceUrl, String jobStoreServiceUrl, ShutdownManager shutdownManager) {
+    public Gatekeeper(Path dir, String fileStoreServiceUrl, String jobStoreServiceUrl, ShutdownManager shutdownManager,
+                      int workers) {
         final WriteAheadLog wal = new WriteAheadLogH2();
         final ConnectorFactory connectorFactory = new ConnectorFactory(fileStoreServiceUrl, jobStoreServiceUrl);
-        jobDispatcher = new JobDispatcher(dir, wal, connectorFactory, shutdownManager);
+        jobDispatcher = new JobDispatcher(dir, wal, connectorFactory, shutdownManager, workers);
     }
 
     public void standGuard() throws ModificationLockedException {
@@ -21,20 +21,45 @@ import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static dk.dbc.dataio.gatekeeper.Metric.TAG_FAILED;
 
+/**
+ * Dispatches the modifications of complete transfiles found in the guarded
+ * directory through the write-ahead-log.
+ * <p>
+ * When configured with more than one worker, independent transfiles are
+ * processed concurrently by a pool of workers, while the modifications of
+ * any single transfile are always processed one after another in WAL order
+ * by the same worker. A transfile is never handed to more than one worker at
+ * a time, and at most twice as many transfiles as there are workers are in
+ * progress at any time, the dispatching thread blocks until a worker frees
+ * up. Should a worker fail, no new transfiles are accepted, and neither
+ * running nor queued workers take another modification. The failure is
+ * rethrown from {@link #execute()} once all workers have stopped, leaving any
+ * unprocessed modifications in the WAL to be picked up on restart.
+ * </p>
+ */
 public class JobDispatcher {
     public static final long STALLED_TRANSFILE_THRESHOLD_IN_MS = 60 * 60 * 1000L; // 1 hour
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JobDispatcher.class);
     private static final AtomicLong LIVENESS_COUNTER = new AtomicLong(0);
+    private static final AtomicInteger IN_PROGRESS_COUNTER = new AtomicInteger(0);
     private static final Set<String> TRANSFILE_EXTENSIONS = Stream.of(".trans", ".trs")
             .collect(Collectors.toCollection(HashSet::new));
 
@@ -42,16 +67,40 @@ public class JobDispatcher {
     private final WriteAheadLog wal;
     private final ConnectorFactory connectorFactory;
     private final ShutdownManager shutdownManager;
+    private final int workers;
+    private final Set<String> transfilesInProgress = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<Exception> workerFailure = new AtomicReference<>();
 
     private WatchService dirMonitor;
+    private ExecutorService workerPool;
+    private Semaphore workerSlots;
+    private volatile boolean stopping;
 
     public JobDispatcher(Path dir, WriteAheadLog wal, ConnectorFactory connectorFactory, ShutdownManager shutdownManager)
             throws NullPointerException {
+        this(dir, wal, connectorFactory, shutdownManager, 1);
+    }
+
+    /**
+     * @param dir              directory to guard
+     * @param wal              write-ahead-log
+     * @param connectorFactory factory for service connectors
+     * @param shutdownManager  shutdown manager
+     * @param workers          number of transfiles to process concurrently,
+     *                         with a single worker transfiles are processed
+     *                         by the dispatching thread itself
+     * @throws NullPointerException     if given null-valued argument
+     * @throws IllegalArgumentException if given number of workers is less than 1
+     */
+    public JobDispatcher(Path dir, WriteAheadLog wal, ConnectorFactory connectorFactory, ShutdownManager shutdownManager,
+                         int workers) throws NullPointerException, IllegalArgumentException {
         this.dir = InvariantUtil.checkNotNullOrThrow(dir, "dir");
         this.wal = InvariantUtil.checkNotNullOrThrow(wal, "wal");
         this.connectorFactory = InvariantUtil.checkNotNullOrThrow(connectorFactory, "connectorFactory");
         this.shutdownManager = InvariantUtil.checkNotNullOrThrow(shutdownManager, "shutdownManager");
+        this.workers = InvariantUtil.checkIntLowerBoundOrThrow(workers, "workers", 1);
         Metric.LIVENESS.gauge(LIVENESS_COUNTER::get);
+        Metric.TRANSFILES_IN_PROGRESS.gauge(IN_PROGRESS_COUNTER::get);
     }
 
     public void execute() throws IOException, InterruptedException, ModificationLockedException, OperationExecutionException {
@@ -59,12 +108,18 @@ public class JobDispatcher {
         reset();
         // Process any existing entries in the write-ahead-log
         processWal();
-        // Process all static completed transfiles
-        processStaticTransfiles();
-        // Process all stalled incomplete transfiles
-        processStalledTransfiles();
-        // Wait for and process file system events
-        monitorDirEvents();
+        startWorkers();
+        try {
+            // Process all static completed transfiles
+            processStaticTransfiles();
+            // Process all stalled incomplete transfiles
+            processStalledTransfiles();
+            // Wait for and process file system events
+            monitorDirEvents();
+        } finally {
+            stopWorkers();
+        }
+        checkWorkers();
     }
 
     /* Setup directory monitoring to start accumulating file system events */
@@ -103,6 +158,60 @@ public class JobDispatcher {
         }
     }
 
+    /**
+     * Starts worker pool unless configured for a single worker
+     */
+    void startWorkers() {
+        stopping = false;
+        workerFailure.set(null);
+        if (workers > 1) {
+            LOGGER.info("Starting {} workers", workers);
+            workerPool = Executors.newFixedThreadPool(workers);
+            // Bounds the number of transfiles written to the WAL ahead of the workers
+            workerSlots = new Semaphore(2 * workers);
+        }
+    }
+
+    /**
+     * Stops worker pool, waiting for the workers to finish their current
+     * modification. Queued workers do not take any modifications.
+     * Remaining modifications stay in the WAL.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void stopWorkers() throws InterruptedException {
+        stopping = true;
+        if (workerPool != null) {
+            workerPool.shutdown();
+            while (!workerPool.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOGGER.info("Waiting for workers to stop, {} transfiles in progress", transfilesInProgress.size());
+            }
+            workerPool = null;
+            workerSlots = null;
+        }
+    }
+
+    /* Rethrow failure of any worker */
+    private void checkWorkers() throws ModificationLockedException, OperationExecutionException, InterruptedException {
+        final Exception e = workerFailure.getAndSet(null);
+        if (e == null) {
+            return;
+        }
+        if (e instanceof OperationExecutionException operationExecutionException) {
+            throw operationExecutionException;
+        }
+        if (e instanceof ModificationLockedException modificationLockedException) {
+            throw modificationLockedException;
+        }
+        if (e instanceof InterruptedException interruptedException) {
+            throw interruptedException;
+        }
+        if (e instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        throw new IllegalStateException(e);
+    }
+
     /* Process all modifications currently contained in the WAL */
     private void processWal() throws ModificationLockedException, OperationExecutionException, InterruptedException {
         Modification next = wal.next();
@@ -133,6 +242,7 @@ public class JobDispatcher {
                 }
                 key.reset();
             }
+            checkWorkers();
             // Do occasional check for stalled transfiles
             processStalledTransfiles();
             LIVENESS_COUNTER.incrementAndGet();
@@ -171,7 +281,10 @@ public class JobDispatcher {
     /**
      * First stores all modifications for given transfile into the WAL,
      * and then subsequently executes their corresponding operations one
-     * after another
+     * after another, either directly or by handing the transfile to a worker.
+     * When all workers are busy and the queue of transfiles waiting for a worker
+     * is full, this method blocks until a worker frees up.
+     * Transfiles already in progress are ignored.
      *
      * @param transfile transfile for which modifications are to be added and processed
      * @throws ModificationLockedException if WAL modification is already locked
@@ -180,9 +293,121 @@ public class JobDispatcher {
      */
     void processTransfile(TransFile transfile)
             throws ModificationLockedException, OperationExecutionException, InterruptedException {
+        checkWorkers();
+        final String transfileName = transfile.getPath().getFileName().toString();
+        if (!transfilesInProgress.add(transfileName)) {
+            LOGGER.debug("Transfile {} is already in progress", transfile.getPath());
+            return;
+        }
+        IN_PROGRESS_COUNTER.incrementAndGet();
+        // A worker may have completed the transfile since it was found
+        if (!transfile.exists()) {
+            release(transfileName);
+            return;
+        }
+        if (workerPool == null) {
+            LOGGER.info("Processing transfile {}", transfile.getPath());
+            writeWalOrRelease(transfile, transfileName);
+            processTransfileModifications(transfileName);
+            return;
+        }
+        final Semaphore slots = workerSlots;
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            release(transfileName);
+            throw e;
+        }
+        // A worker may have failed while waiting for a free slot
+        if (workerFailure.get() != null) {
+            slots.release();
+            release(transfileName);
+            checkWorkers();
+            return;
+        }
         LOGGER.info("Processing transfile {}", transfile.getPath());
-        writeWal(transfile);
-        processWal();
+        try {
+            writeWalOrRelease(transfile, transfileName);
+            workerPool.execute(() -> {
+                try {
+                    processTransfileModifications(transfileName);
+                } catch (Exception e) {
+                    if (!workerFailure.compareAndSet(null, e)) {
+                        LOGGER.error("Worker failed processing transfile {}", transfileName, e);
+                    }
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    private void writeWalOrRelease(TransFile transfile, String transfileName) {
+        try {
+            writeWal(transfile);
+        } catch (RuntimeException e) {
+            release(transfileName);
+            throw e;
+        }
+    }
+
+    /**
+     * Executes the operations of all modifications in the WAL for given transfile one after another
+     * and releases the transfile afterwards. Before taking each modification, including the first,
+     * stops early if the job dispatcher is stopping or a worker failed, leaving remaining
+     * modifications in the WAL.
+     *
+     * @param transfileName name of transfile
+     * @throws ModificationLockedException if WAL modification is already locked
+     * @throws OperationExecutionException if an operation was unable to complete successfully
+     * @throws InterruptedException        if shutdown was detected before WAL could be emptied
+     */
+    void processTransfileModifications(String transfileName)
+            throws ModificationLockedException, OperationExecutionException, InterruptedException {
+        final long start = System.nanoTime();
+        final boolean completed;
+        try {
+            completed = processWal(transfileName);
+        } catch (ModificationLockedException | OperationExecutionException | InterruptedException | RuntimeException e) {
+            Metric.TRANSFILES_PROCESSED.timer(TAG_FAILED).update(Duration.ofNanos(System.nanoTime() - start));
+            throw e;
+        } finally {
+            release(transfileName);
+        }
+        if (completed) {
+            Metric.TRANSFILES_PROCESSED.timer().update(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /* Process all modifications contained in the WAL for given transfile,
+       returns false if remaining modifications were postponed */
+    private boolean processWal(String transfileName)
+            throws ModificationLockedException, OperationExecutionException, InterruptedException {
+        while (!stopping && workerFailure.get() == null) {
+            final Modification next = wal.next(transfileName);
+            if (next == null) {
+                return true;
+            }
+            processModification(next);
+        }
+        LOGGER.info("Postponing remaining modifications for transfile {}", transfileName);
+        return false;
+    }
+
+    private void release(String transfileName) {
+        if (transfilesInProgress.remove(transfileName)) {
+            IN_PROGRESS_COUNTER.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return number of transfiles currently in progress, either being processed or waiting for a worker
+     */
+    int getNumberOfTransfilesInProgress() {
+        return transfilesInProgress.size();
     }
 
     /**
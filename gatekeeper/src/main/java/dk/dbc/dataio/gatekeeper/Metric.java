@@ -5,6 +5,7 @@ import org.eclipse.microprofile.metrics.Counter;
 import org.eclipse.microprofile.metrics.Gauge;
 import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
 
 import java.util.function.Supplier;
 
@@ -13,7 +14,9 @@ public enum Metric {
     DATA_FILES_UPLOADED,
     DATA_FILES_REMOVED,
     CREATE_JOB,
-    LIVENESS;
+    LIVENESS,
+    TRANSFILES_PROCESSED,
+    TRANSFILES_IN_PROGRESS;
 
     private static final String PREFIX = "dataio_jobstore_";
     private static final MetricRegistry METRIC_REGISTRY = JMXMetricRegistry.create();
@@ -28,6 +31,10 @@ public enum Metric {
         return METRIC_REGISTRY.gauge(getName(), supplier, tags);
     }
 
+    public Timer timer(Tag... tags) {
+        return METRIC_REGISTRY.timer(getName(), tags);
+    }
+
     public String getName() {
         return PREFIX + name().toLowerCase();
     }
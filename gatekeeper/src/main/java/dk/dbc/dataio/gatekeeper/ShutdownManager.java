@@ -1,11 +1,12 @@
 package dk.dbc.dataio.gatekeeper;
 
 /**
- * Simple class used to coordinate VM shutdown sequence between two threads
+ * Simple class used to coordinate VM shutdown sequence between the shutdown
+ * hook and one or more job dispatcher workers
  */
 public class ShutdownManager {
     private boolean shutdownInProgress = false;
-    private boolean readyToExit = true;
+    private int busy = 0;
 
     /**
      * Sets internal shutdown-in-progress state to true
@@ -15,23 +16,26 @@ public class ShutdownManager {
     }
 
     /**
-     * Sets internal ready-to-exit state to false unless
-     * shutdown-in-progress is already true
+     * Registers the calling worker as busy, thereby setting internal
+     * ready-to-exit state to false, unless shutdown-in-progress is already true
      *
-     * @return true if ready-to-exit state was changed, otherwise false
+     * @return true if worker was registered as busy, otherwise false
      */
     public synchronized boolean signalBusy() {
         if (!shutdownInProgress) {
-            readyToExit = false;
+            busy++;
         }
         return !shutdownInProgress;
     }
 
     /**
-     * Sets internal ready-to-exit state to true
+     * Unregisters a busy worker, internal ready-to-exit state becomes
+     * true when no workers remain busy
      */
     public synchronized void signalReadyToExit() {
-        readyToExit = true;
+        if (busy > 0) {
+            busy--;
+        }
     }
 
     /**
@@ -45,6 +49,6 @@ public class ShutdownManager {
      * @return true if internal ready-to-exit state is true, otherwise false
      */
     public synchronized boolean isReadyToExit() {
-        return readyToExit;
+        return busy == 0;
     }
 }
@@ -23,7 +23,8 @@ public class Util {
         JOBSTORE_SERVICE("j"),
         FILESTORE_SERVICE("f"),
         FLOWSTORE_SERVICE("c"),
-        CC_MAIL_ADDRESS("m");
+        CC_MAIL_ADDRESS("m"),
+        WORKERS("w");
 
         private final String option;
 
@@ -93,6 +94,13 @@ public class Util {
                 .create("m");
         options.addOption(dbcMailAddress);
 
+        @SuppressWarnings("static-access") Option workers = OptionBuilder.withArgName("number")
+                .hasArg()
+                .withDescription("Number of transfiles processed concurrently (default " + Gatekeeper.DEFAULT_WORKERS + ")")
+                .withLongOpt("workers")
+                .create("w");
+        options.addOption(workers);
+
         return options;
     }
 
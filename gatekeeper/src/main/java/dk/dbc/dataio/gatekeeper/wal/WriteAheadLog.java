@@ -18,6 +18,16 @@ public interface WriteAheadLog {
      */
     Modification next() throws ModificationLockedException;
 
+    /**
+     * Locks and returns next modification for given transfile from the write-ahead-log,
+     * leaving modifications belonging to other transfiles untouched
+     *
+     * @param transfileName name of transfile
+     * @return next modification for transfile or null if no modifications remain for it
+     * @throws ModificationLockedException if next modification for transfile is already locked
+     */
+    Modification next(String transfileName) throws ModificationLockedException;
+
     /**
      * Deletes given modification from the write-ahead-log
      *
@@ -17,7 +17,11 @@ import static org.eclipse.persistence.config.PersistenceUnitProperties.JDBC_URL;
 import static org.eclipse.persistence.config.PersistenceUnitProperties.JDBC_USER;
 
 /**
- * WriteAheadLog implementation using a h2 database as backing store
+ * WriteAheadLog implementation using a h2 database as backing store.
+ * <p>
+ * All access goes through a single entity manager, so public methods are
+ * synchronized to allow the log to be shared by concurrent workers.
+ * </p>
  */
 public class WriteAheadLogH2 implements WriteAheadLog {
     final EntityManager entityManager;
@@ -50,7 +54,7 @@ public class WriteAheadLogH2 implements WriteAheadLog {
     }
 
     @Override
-    public void add(List<Modification> modifications) {
+    public synchronized void add(List<Modification> modifications) {
         final EntityTransaction transaction = entityManager.getTransaction();
         try {
             transaction.begin();
@@ -67,23 +71,17 @@ public class WriteAheadLogH2 implements WriteAheadLog {
     }
 
     @Override
-    public Modification next() throws ModificationLockedException {
-        final Modification modification = getNextModificationOrNull();
-        if (modification != null) {
-            if (modification.isLocked()) {
-                throw new ModificationLockedException(modification.toString());
-            } else {
-                final EntityTransaction transaction = entityManager.getTransaction();
-                transaction.begin();
-                modification.lock();
-                transaction.commit();
-            }
-        }
-        return modification;
+    public synchronized Modification next() throws ModificationLockedException {
+        return lock(getNextModificationOrNull());
+    }
+
+    @Override
+    public synchronized Modification next(String transfileName) throws ModificationLockedException {
+        return lock(getNextModificationOrNull(transfileName));
     }
 
     @Override
-    public void delete(Modification modification) {
+    public synchronized void delete(Modification modification) {
         if (modification != null) {
             final EntityTransaction transaction = entityManager.getTransaction();
             transaction.begin();
@@ -93,7 +91,7 @@ public class WriteAheadLogH2 implements WriteAheadLog {
     }
 
     @Override
-    public boolean unlock(Modification modification) {
+    public synchronized boolean unlock(Modification modification) {
         if (modification != null && modification.isLocked()) {
             final EntityTransaction transaction = entityManager.getTransaction();
             transaction.begin();
@@ -105,6 +103,20 @@ public class WriteAheadLogH2 implements WriteAheadLog {
     }
 
 
+    private Modification lock(Modification modification) throws ModificationLockedException {
+        if (modification != null) {
+            if (modification.isLocked()) {
+                throw new ModificationLockedException(modification.toString());
+            } else {
+                final EntityTransaction transaction = entityManager.getTransaction();
+                transaction.begin();
+                modification.lock();
+                transaction.commit();
+            }
+        }
+        return modification;
+    }
+
     private Modification getNextModificationOrNull() {
         @SuppressWarnings("unchecked") final List<Modification> result = entityManager
                 .createQuery("SELECT modification FROM Modification modification ORDER BY modification.id ASC")
@@ -115,4 +127,24 @@ public class WriteAheadLogH2 implements WriteAheadLog {
         }
         return result.get(0);
     }
+
+    private Modification getNextModificationOrNull(String transfileName) {
+        // transfileName is a LOB column which can not be compared in the query itself,
+        // so only ids and transfile names are selected, and the entity is loaded for
+        // the first match only. Each call thereby still reads the names of all
+        // modifications in the WAL, and the WAL is not bounded by the job dispatcher:
+        // besides the transfiles in progress it keeps the modifications of postponed
+        // transfiles and of transfiles whose worker failed until the next restart.
+        @SuppressWarnings("unchecked") final List<Object[]> result = entityManager
+                .createQuery("SELECT modification.id, modification.transfileName FROM Modification modification ORDER BY modification.id ASC")
+                .getResultList();
+        if (result == null) {
+            return null;
+        }
+        return result.stream()
+                .filter(row -> transfileName.equals(row[1]))
+                .findFirst()
+                .map(row -> entityManager.find(Modification.class, row[0]))
+                .orElse(null);
+    }
 }
@@ -20,6 +20,7 @@ import dk.dbc.dataio.jobstore.types.JobInfoSnapshot;
 import dk.dbc.dataio.jobstore.types.JobInputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
@@ -33,6 +34,7 @@ import java.nio.file.attribute.FileTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -156,6 +158,97 @@ public class JobDispatcherTest {
         assertThat("WAL modifications", wal.modificationsAddedOverTime, is(3));
     }
 
+    @Test
+    @Timeout(5)
+    public void processTransfile_withWorkers_transfilesProcessedConcurrently() throws Exception {
+        // Upload of the first datafile is blocked until the second transfile has been processed
+        final CountDownLatch secondTransfileProcessed = new CountDownLatch(1);
+        when(fileStoreServiceConnector.addFile(any(InputStream.class))).thenAnswer(invocation -> {
+            final InputStream is = invocation.getArgument(0);
+            if ("first".equals(new String(is.readAllBytes(), StandardCharsets.UTF_8))) {
+                secondTransfileProcessed.await();
+            }
+            return "fileId";
+        });
+        writeFile(dir, "820010.file", "first");
+        writeFile(dir, "820011.file", "second");
+        Path firstTransfile = writeFile(dir, "820010.trans", "b=danbib,f=820010.file,t=lin,c=latin-1,o=marc2\nslut");
+        Path secondTransfile = writeFile(dir, "820011.trans", "b=danbib,f=820011.file,t=lin,c=latin-1,o=marc2\nslut");
+
+        JobDispatcher jobDispatcher = new JobDispatcher(dir, wal, connectorFactory, shutdownManager, 2);
+        jobDispatcher.startWorkers();
+        try {
+            jobDispatcher.processTransfile(new TransFile(firstTransfile));
+            jobDispatcher.processTransfile(new TransFile(secondTransfile));
+
+            waitWhileFileExists(secondTransfile);
+            assertThat("first transfile exists", Files.exists(firstTransfile), is(true));
+            secondTransfileProcessed.countDown();
+            waitWhileFileExists(firstTransfile);
+        } finally {
+            jobDispatcher.stopWorkers();
+        }
+
+        assertThat("WAL is empty", wal.modifications.isEmpty(), is(true));
+        assertThat("WAL modifications", wal.modificationsAddedOverTime, is(6));
+        assertThat("shutdownManager.isReadyToExit()", shutdownManager.isReadyToExit(), is(true));
+    }
+
+    @Test
+    @Timeout(5)
+    public void processTransfile_workerFails_queuedTransfileLeftUntouchedInWal() throws Exception {
+        // Both workers are kept busy uploading until released, so the third transfile is queued
+        final CountDownLatch firstUploadReleased = new CountDownLatch(1);
+        final CountDownLatch secondUploadReleased = new CountDownLatch(1);
+        when(fileStoreServiceConnector.addFile(any(InputStream.class))).thenAnswer(invocation -> {
+            final InputStream is = invocation.getArgument(0);
+            final String content = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+            if ("first".equals(content)) {
+                firstUploadReleased.await();
+                throw new IllegalStateException("upload failed");
+            }
+            if ("second".equals(content)) {
+                secondUploadReleased.await();
+            }
+            return "fileId";
+        });
+        writeFile(dir, "820010.file", "first");
+        writeFile(dir, "820011.file", "second");
+        writeFile(dir, "820012.file", "third");
+        Path firstTransfile = writeFile(dir, "820010.trans", "b=danbib,f=820010.file,t=lin,c=latin-1,o=marc2\nslut");
+        Path secondTransfile = writeFile(dir, "820011.trans", "b=danbib,f=820011.file,t=lin,c=latin-1,o=marc2\nslut");
+        Path thirdTransfile = writeFile(dir, "820012.trans", "b=danbib,f=820012.file,t=lin,c=latin-1,o=marc2\nslut");
+
+        JobDispatcher jobDispatcher = new JobDispatcher(dir, wal, connectorFactory, shutdownManager, 2);
+        jobDispatcher.startWorkers();
+        try {
+            jobDispatcher.processTransfile(new TransFile(firstTransfile));
+            jobDispatcher.processTransfile(new TransFile(secondTransfile));
+            jobDispatcher.processTransfile(new TransFile(thirdTransfile));
+
+            firstUploadReleased.countDown();
+            // Wait for the failed first and the queued third transfile to be released
+            while (jobDispatcher.getNumberOfTransfilesInProgress() > 1)
+                Thread.sleep(10);
+
+            final List<Modification> thirdModifications = getModificationsForTransfile("820012.trans");
+            assertThat("third transfile modifications in WAL", thirdModifications.size(), is(3));
+            assertThat("third transfile modifications locked", thirdModifications.stream()
+                    .anyMatch(Modification::isLocked), is(false));
+            assertThat("third transfile exists", Files.exists(thirdTransfile), is(true));
+            assertThat("third datafile exists", Files.exists(dir.resolve("820012.file")), is(true));
+        } finally {
+            secondUploadReleased.countDown();
+            jobDispatcher.stopWorkers();
+        }
+
+        assertThat("first transfile modifications in WAL", getModificationsForTransfile("820010.trans").size(), is(3));
+        assertThat("second transfile modifications in WAL", getModificationsForTransfile("820011.trans").size(), is(2));
+        assertThat("second transfile exists", Files.exists(secondTransfile), is(true));
+        assertThat("third transfile modifications in WAL", getModificationsForTransfile("820012.trans").size(), is(3));
+        assertThat("shutdownManager.isReadyToExit()", shutdownManager.isReadyToExit(), is(true));
+    }
+
     @Test
     public void getCompleteTransfiles_noCompleteTransfiles_returnsEmptyList() throws IOException {
         writeFile(dir, "file.trans", "data");
@@ -314,6 +407,19 @@ public class JobDispatcherTest {
         return new JobDispatcher(dir, wal, connectorFactory, shutdownManager);
     }
 
+    private List<Modification> getModificationsForTransfile(String transfileName) {
+        synchronized (wal) {
+            return wal.modifications.stream()
+                    .filter(modification -> transfileName.equals(modification.getTransfileName()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private void waitWhileFileExists(Path file) throws InterruptedException {
+        while (Files.exists(file))
+            Thread.sleep(10);
+    }
+
     private Path writeFile(Path folder, String filename, String content) {
         try {
             return Files.write(folder.resolve(filename), content.getBytes(StandardCharsets.UTF_8),
@@ -46,4 +46,15 @@ public class ShutdownManagerTest {
         assertThat("isShutdownInProgress", shutdownManager.isShutdownInProgress(), is(false));
         assertThat("isReadyToExit", shutdownManager.isReadyToExit(), is(true));
     }
+
+    @Test
+    public void signalReadyToExit_otherWorkersStillBusy_notReadyToExit() {
+        ShutdownManager shutdownManager = new ShutdownManager();
+        shutdownManager.signalBusy();
+        shutdownManager.signalBusy();
+        shutdownManager.signalReadyToExit();
+        assertThat("isReadyToExit after first worker", shutdownManager.isReadyToExit(), is(false));
+        shutdownManager.signalReadyToExit();
+        assertThat("isReadyToExit after second worker", shutdownManager.isReadyToExit(), is(true));
+    }
 }
@@ -8,13 +8,13 @@ public class MockedWriteAheadLog implements WriteAheadLog {
     public int modificationsAddedOverTime = 0;
 
     @Override
-    public void add(List<Modification> modifications) {
+    public synchronized void add(List<Modification> modifications) {
         modificationsAddedOverTime += modifications.size();
         this.modifications.addAll(modifications);
     }
 
     @Override
-    public Modification next() throws ModificationLockedException {
+    public synchronized Modification next() throws ModificationLockedException {
         if (!modifications.isEmpty()) {
             final Modification modification = modifications.peek();
             modification.lock();
@@ -24,12 +24,28 @@ public class MockedWriteAheadLog implements WriteAheadLog {
     }
 
     @Override
-    public void delete(Modification modification) {
-        modifications.remove(modification);
+    public synchronized Modification next(String transfileName) throws ModificationLockedException {
+        for (Modification modification : modifications) {
+            if (transfileName.equals(modification.getTransfileName())) {
+                if (modification.isLocked()) {
+                    throw new ModificationLockedException(modification.toString());
+                }
+                modification.lock();
+                return modification;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized void delete(Modification modification) {
+        // Modifications created by the job dispatcher have no id and are
+        // therefore all equal, so remove by identity
+        modifications.removeIf(m -> m == modification);
     }
 
     @Override
-    public boolean unlock(Modification modification) {
+    public synchronized boolean unlock(Modification modification) {
         if (modification.isLocked()) {
             modification.unlock();
             return true;
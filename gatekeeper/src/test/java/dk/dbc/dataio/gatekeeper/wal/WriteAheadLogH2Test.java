@@ -7,6 +7,7 @@ import jakarta.persistence.Query;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -17,6 +18,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -27,6 +29,7 @@ public class WriteAheadLogH2Test {
     private final EntityManager entityManager = mock(EntityManager.class);
     private final EntityTransaction entityTransaction = mock(EntityTransaction.class);
     private final Query query = mock(Query.class);
+    private final List<Object[]> rows = new ArrayList<>();
 
     @BeforeEach
     public void setupMocks() {
@@ -105,6 +108,43 @@ public class WriteAheadLogH2Test {
         assertThrows(ModificationLockedException.class, wal::next);
     }
 
+    @Test
+    public void nextForTransfile_noModificationsForTransfile_returnsNull() throws ModificationLockedException {
+        newModification(42L, "other.trans");
+        when(query.getResultList()).thenReturn(rows);
+        WriteAheadLogH2 wal = new WriteAheadLogH2(entityManager);
+        assertThat(wal.next("file.trans"), is(nullValue()));
+        verify(entityManager, times(0)).find(eq(Modification.class), any());
+    }
+
+    @Test
+    public void nextForTransfile_returnsFirstModificationForTransfile() throws ModificationLockedException {
+        Modification other = newModification(1L, "other.trans");
+        other.lock();
+        Modification first = newModification(2L, "file.trans");
+        Modification second = newModification(3L, "file.trans");
+        when(query.getResultList()).thenReturn(rows);
+        WriteAheadLogH2 wal = new WriteAheadLogH2(entityManager);
+        Modification next = wal.next("file.trans");
+        assertThat("next", next, is(first));
+        verify(entityManager).find(Modification.class, 2L);
+        verify(entityManager, times(1)).find(eq(Modification.class), any());
+        assertThat("next.isLocked()", next.isLocked(), is(true));
+        assertThat("second.isLocked()", second.isLocked(), is(false));
+
+        verify(entityTransaction).begin();
+        verify(entityTransaction).commit();
+    }
+
+    @Test
+    public void nextForTransfile_firstModificationForTransfileIsLocked_throws() {
+        Modification modification = newModification(42L, "file.trans");
+        modification.lock();
+        when(query.getResultList()).thenReturn(rows);
+        WriteAheadLogH2 wal = new WriteAheadLogH2(entityManager);
+        assertThrows(ModificationLockedException.class, () -> wal.next("file.trans"));
+    }
+
     @Test
     public void delete_modificationArgIsNull_returns() {
         WriteAheadLogH2 wal = new WriteAheadLogH2(entityManager);
@@ -150,4 +190,13 @@ public class WriteAheadLogH2Test {
         verify(entityTransaction).begin();
         verify(entityTransaction).commit();
     }
+
+    /* Creates modification found by entity manager and selected as id/transfileName row */
+    private Modification newModification(long id, String transfileName) {
+        Modification modification = new Modification(id);
+        modification.setTransfileName(transfileName);
+        rows.add(new Object[]{id, transfileName});
+        when(entityManager.find(Modification.class, id)).thenReturn(modification);
+        return modification;
+    }
 }
@@ -44,13 +44,19 @@ import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -73,6 +79,9 @@ public class HarvestOperation implements AutoCloseable {
     private final JSONBContext jsonbContext = new JSONBContext();
     private final TaskRepo taskRepo;
     private int basedOnJob = 0;
+    private int recordFetchConcurrency = 1;
+    // Records fetched ahead of processing for the task currently being processed
+    private FetchedRecord fetchedRecord;
 
     MetricRegistry metricRegistry;
 
@@ -116,9 +125,27 @@ public class HarvestOperation implements AutoCloseable {
         this.metricRegistry = metricRegistry;
     }
 
+    /**
+     * Sets the number of records fetched concurrently from the rawrepo record service
+     * ahead of being added to jobs, 1 (the default) disables fetching ahead
+     *
+     * @param recordFetchConcurrency maximum number of records being fetched at any time
+     * @return this harvest operation
+     */
+    public HarvestOperation withRecordFetchConcurrency(int recordFetchConcurrency) {
+        this.recordFetchConcurrency = Math.max(1, recordFetchConcurrency);
+        return this;
+    }
+
     /**
      * Runs this harvest operation, creating dataIO jobs from harvested records.
      * If any non-internal error occurs a record is marked as failed.
+     * <p>
+     * When the record fetch concurrency is greater than one, records are fetched
+     * by that many concurrent requests ahead of being processed, while processing
+     * and adding records to jobs still happens one record at a time in queue order.
+     * The queue is only committed once all jobs have been built.
+     * </p>
      *
      * @return number of records processed
      * @throws HarvesterException on failure to complete harvest operation
@@ -131,18 +158,9 @@ public class HarvestOperation implements AutoCloseable {
             // Since we might (re)run batches with a size larger than the one currently configured
             final int batchSize = Math.max(configContent.getBatchSize(), recordHarvestTaskQueue.estimatedSize());
 
-            int itemsProcessed = 0;
-            RawRepoRecordHarvestTask recordHarvestTask = recordHarvestTaskQueue.poll();
-            while (recordHarvestTask != null) {
-                LOGGER.info("{} ready for harvesting", recordHarvestTask.getRecordId());
-
-                processRecordHarvestTask(recordHarvestTask);
-
-                if (++itemsProcessed == batchSize) {
-                    break;
-                }
-                recordHarvestTask = recordHarvestTaskQueue.poll();
-            }
+            final int itemsProcessed = recordFetchConcurrency > 1
+                    ? processConcurrently(recordHarvestTaskQueue, batchSize)
+                    : process(recordHarvestTaskQueue, batchSize);
             flushHarvesterJobBuilders();
 
             recordHarvestTaskQueue.commit();
@@ -159,12 +177,88 @@ public class HarvestOperation implements AutoCloseable {
         }
     }
 
+    private int process(RecordHarvestTaskQueue recordHarvestTaskQueue, int batchSize) throws HarvesterException {
+        int itemsProcessed = 0;
+        RawRepoRecordHarvestTask recordHarvestTask = recordHarvestTaskQueue.poll();
+        while (recordHarvestTask != null) {
+            LOGGER.info("{} ready for harvesting", recordHarvestTask.getRecordId());
+
+            processRecordHarvestTask(recordHarvestTask);
+
+            if (++itemsProcessed == batchSize) {
+                break;
+            }
+            recordHarvestTask = recordHarvestTaskQueue.poll();
+        }
+        return itemsProcessed;
+    }
+
+    /* Polls tasks and starts fetching their records, keeping at most recordFetchConcurrency
+       tasks in flight. Tasks are processed in the order polled as their records arrive. */
+    private int processConcurrently(RecordHarvestTaskQueue recordHarvestTaskQueue, int batchSize) throws HarvesterException {
+        final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            final Deque<FetchedRecord> inFlight = new ArrayDeque<>(recordFetchConcurrency);
+            int itemsPolled = 0;
+            RawRepoRecordHarvestTask recordHarvestTask = recordHarvestTaskQueue.poll();
+            while (recordHarvestTask != null) {
+                LOGGER.info("{} ready for harvesting", recordHarvestTask.getRecordId());
+                inFlight.addLast(fetchAhead(recordHarvestTask, executor));
+                if (inFlight.size() >= recordFetchConcurrency) {
+                    processFetchedRecord(inFlight.removeFirst());
+                }
+                if (++itemsPolled == batchSize) {
+                    break;
+                }
+                recordHarvestTask = recordHarvestTaskQueue.poll();
+            }
+            while (!inFlight.isEmpty()) {
+                processFetchedRecord(inFlight.removeFirst());
+            }
+            return itemsPolled;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private FetchedRecord fetchAhead(RawRepoRecordHarvestTask recordHarvestTask, ExecutorService executor) {
+        final CompletableFuture<RecordDTO> record = CompletableFuture.supplyAsync(() -> {
+            try {
+                return fetchRecord(recordHarvestTask.getRecordId());
+            } catch (HarvesterException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+        final CompletableFuture<Map<String, RecordDTO>> recordCollection = record.thenApplyAsync(recordData -> {
+            try {
+                if (!includeRecord(recordData.getRecordId().getAgencyId(), recordData.isDeleted() || recordHarvestTask.isForceAdd())) {
+                    return null;
+                }
+                return fetchRecordCollectionFromRecordService(recordData.getRecordId());
+            } catch (HarvesterException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+        return new FetchedRecord(recordHarvestTask, record, recordCollection);
+    }
+
+    private void processFetchedRecord(FetchedRecord fetchedRecord) throws HarvesterException {
+        this.fetchedRecord = fetchedRecord;
+        try {
+            processRecordHarvestTask(fetchedRecord.task);
+        } finally {
+            this.fetchedRecord = null;
+        }
+    }
+
     void processRecordHarvestTask(RawRepoRecordHarvestTask recordHarvestTask) throws HarvesterException {
         RecordDTO recordData = null;
         try {
             long taskStartTime = System.currentTimeMillis();
 
-            recordData = fetchRecord(recordHarvestTask.getRecordId());
+            recordData = fetchedRecord != null && fetchedRecord.task == recordHarvestTask
+                    ? fetchedRecord.getRecord()
+                    : fetchRecord(recordHarvestTask.getRecordId());
 
             DBCTrackedLogContext.setTrackingId(recordData.getTrackingId());
 
@@ -427,6 +521,17 @@ public class HarvestOperation implements AutoCloseable {
 
     Map<String, RecordDTO> fetchRecordCollection(RecordIdDTO recordId)
             throws HarvesterInvalidRecordException, HarvesterSourceException {
+        if (fetchedRecord != null) {
+            final Map<String, RecordDTO> recordCollection = fetchedRecord.getRecordCollection(recordId);
+            if (recordCollection != null) {
+                return recordCollection;
+            }
+        }
+        return fetchRecordCollectionFromRecordService(recordId);
+    }
+
+    private Map<String, RecordDTO> fetchRecordCollectionFromRecordService(RecordIdDTO recordId)
+            throws HarvesterInvalidRecordException, HarvesterSourceException {
         try {
 
             RecordServiceConnector.Params params = new RecordServiceConnector.Params()
@@ -447,4 +552,51 @@ public class HarvestOperation implements AutoCloseable {
     @Override
     public void close() {
     }
+
+    /* Record, and record collection if the record is to be harvested, being fetched for a task */
+    private static class FetchedRecord {
+        final RawRepoRecordHarvestTask task;
+        final CompletableFuture<RecordDTO> record;
+        final CompletableFuture<Map<String, RecordDTO>> recordCollection;
+
+        FetchedRecord(RawRepoRecordHarvestTask task, CompletableFuture<RecordDTO> record,
+                      CompletableFuture<Map<String, RecordDTO>> recordCollection) {
+            this.task = task;
+            this.record = record;
+            this.recordCollection = recordCollection;
+        }
+
+        RecordDTO getRecord() throws HarvesterInvalidRecordException, HarvesterSourceException {
+            return await(record);
+        }
+
+        /* Returns null if no collection was fetched for the given record ID */
+        Map<String, RecordDTO> getRecordCollection(RecordIdDTO recordId)
+                throws HarvesterInvalidRecordException, HarvesterSourceException {
+            final RecordDTO recordData = getRecord();
+            if (!recordId.equals(recordData.getRecordId())) {
+                return null;
+            }
+            return await(recordCollection);
+        }
+
+        private static <T> T await(CompletableFuture<T> future)
+                throws HarvesterInvalidRecordException, HarvesterSourceException {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof HarvesterInvalidRecordException) {
+                    throw (HarvesterInvalidRecordException) cause;
+                }
+                if (cause instanceof HarvesterSourceException) {
+                    throw (HarvesterSourceException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw e;
+            }
+        }
+    }
 }
@@ -12,6 +12,7 @@ import dk.dbc.vipcore.libraryrules.VipCoreLibraryRulesConnector;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.eclipse.microprofile.metrics.annotation.RegistryType;
 
@@ -41,9 +42,17 @@ public class HarvestOperationFactoryBean {
     @RegistryType(type = MetricRegistry.Type.APPLICATION)
     MetricRegistry metricRegistry;
 
+    @Inject
+    @ConfigProperty(name = "RECORD_FETCH_CONCURRENCY", defaultValue = "8")
+    int recordFetchConcurrency;
+
+    @Inject
+    @ConfigProperty(name = "JOB_UPLOAD_SEGMENT_SIZE", defaultValue = "0")
+    int jobUploadSegmentSize;
+
     public HarvestOperation createFor(RRHarvesterConfig config) {
         final HarvesterJobBuilderFactory harvesterJobBuilderFactory = new HarvesterJobBuilderFactory(binaryFileStoreBean,
-                fileStoreServiceConnectorBean.getConnector(), jobStoreServiceConnectorBean.getConnector());
+                fileStoreServiceConnectorBean.getConnector(), jobStoreServiceConnectorBean.getConnector(), jobUploadSegmentSize);
         try {
             switch (config.getContent().getHarvesterType()) {
                 case IMS:
@@ -57,7 +66,8 @@ public class HarvestOperationFactoryBean {
                 default:
                     return new HarvestOperation(config,
                             harvesterJobBuilderFactory, taskRepo,
-                            vipCoreLibraryRulesConnector, metricRegistry);
+                            vipCoreLibraryRulesConnector, metricRegistry)
+                            .withRecordFetchConcurrency(recordFetchConcurrency);
             }
         } catch (ConfigurationException | QueueException | SQLException e) {
             throw new IllegalStateException("ConfigurationException thrown", e);
@@ -30,6 +30,26 @@ public class HarvesterJobBuilder extends AbstractHarvesterJobBuilder {
         super(binaryFileStore, fileStoreServiceConnector, jobStoreServiceConnector, jobSpecificationTemplate);
     }
 
+    /**
+     * Class constructor
+     *
+     * @param binaryFileStore           binaryFileStore implementation for tmp file writing
+     * @param fileStoreServiceConnector file-store service connector for datafile uploads
+     * @param jobStoreServiceConnector  job-store service connector for job creation
+     * @param jobSpecificationTemplate  job specification template
+     * @param uploadSegmentSize         if greater than zero, the datafile is uploaded while
+     *                                  harvesting in segments of this number of bytes
+     * @throws NullPointerException if given null-valued argument
+     * @throws HarvesterException   on failure to create harvester data file
+     *                              backed by temporary binary file
+     */
+    public HarvesterJobBuilder(BinaryFileStore binaryFileStore, FileStoreServiceConnector fileStoreServiceConnector,
+                               JobStoreServiceConnector jobStoreServiceConnector, JobSpecification jobSpecificationTemplate,
+                               int uploadSegmentSize)
+            throws NullPointerException, HarvesterException {
+        super(binaryFileStore, fileStoreServiceConnector, jobStoreServiceConnector, jobSpecificationTemplate, uploadSegmentSize);
+    }
+
     /* Returns job specification for given file ID */
     @Override
     protected JobSpecification createJobSpecification(String fileId) {
@@ -10,17 +10,30 @@ public class HarvesterJobBuilderFactory {
     private final BinaryFileStore binaryFileStore;
     private final FileStoreServiceConnector fileStoreServiceConnector;
     private final JobStoreServiceConnector jobStoreServiceConnector;
+    private final int uploadSegmentSize;
 
     public HarvesterJobBuilderFactory(BinaryFileStore binaryFileStore,
                                       FileStoreServiceConnector fileStoreServiceConnector, JobStoreServiceConnector jobStoreServiceConnector) {
+        this(binaryFileStore, fileStoreServiceConnector, jobStoreServiceConnector, 0);
+    }
+
+    /**
+     * @param uploadSegmentSize if greater than zero, job builders upload their datafile while
+     *                          harvesting in segments of this number of bytes instead of
+     *                          writing it to a temporary file
+     */
+    public HarvesterJobBuilderFactory(BinaryFileStore binaryFileStore,
+                                      FileStoreServiceConnector fileStoreServiceConnector, JobStoreServiceConnector jobStoreServiceConnector,
+                                      int uploadSegmentSize) {
         this.binaryFileStore = binaryFileStore;
         this.fileStoreServiceConnector = fileStoreServiceConnector;
         this.jobStoreServiceConnector = jobStoreServiceConnector;
+        this.uploadSegmentSize = uploadSegmentSize;
     }
 
     public HarvesterJobBuilder newHarvesterJobBuilder(JobSpecification jobSpecificationTemplate)
             throws NullPointerException, HarvesterException {
         return new HarvesterJobBuilder(binaryFileStore, fileStoreServiceConnector, jobStoreServiceConnector,
-                jobSpecificationTemplate);
+                jobSpecificationTemplate, uploadSegmentSize);
     }
 }
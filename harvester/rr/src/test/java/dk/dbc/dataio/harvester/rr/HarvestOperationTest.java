@@ -39,7 +39,9 @@ import java.time.Instant;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static dk.dbc.commons.testutil.Assert.assertThat;
 import static dk.dbc.commons.testutil.Assert.isThrowing;
@@ -343,6 +345,57 @@ public class HarvestOperationTest {
                 .getRecordDataCollectionDataIO(any(RecordIdDTO.class), any(RecordServiceConnector.Params.class));
     }
 
+    @Test
+    public void execute_recordsFetchedConcurrently_recordsAreAddedInQueueOrder()
+            throws SQLException, RecordServiceConnectorException, HarvesterException, QueueException {
+        Map<String, RecordDTO> records = new HashMap<>();
+        for (String bibliographicRecordId : List.of("record1", "record2", "record3")) {
+            RecordIdDTO recordId = new RecordIdDTO(bibliographicRecordId, RECORD_ID.getAgencyId());
+            RecordDTO record = new RecordDTO();
+            record.setRecordId(recordId);
+            record.setCreated(Instant.now().toString());
+            record.setContent(getRecordContent(recordId).getBytes(StandardCharsets.UTF_8));
+            record.setTrackingId("tracking-" + bibliographicRecordId);
+            records.put(bibliographicRecordId, record);
+        }
+
+        when(rawRepoConnector.dequeue(anyString()))
+                .thenReturn(getQueueItem(records.get("record1").getRecordId()))
+                .thenReturn(getQueueItem(records.get("record2").getRecordId()))
+                .thenReturn(getQueueItem(records.get("record3").getRecordId()))
+                .thenReturn(null);
+        when(rawRepoRecordServiceConnector.recordFetch(any(RecordIdDTO.class))).thenAnswer(invocation -> {
+            RecordIdDTO recordId = invocation.getArgument(0);
+            if ("record1".equals(recordId.getBibliographicRecordId())) {
+                // first record in the queue is the last one fetched
+                Thread.sleep(200);
+            }
+            return records.get(recordId.getBibliographicRecordId());
+        });
+        when(rawRepoRecordServiceConnector.getRecordDataCollectionDataIO(any(RecordIdDTO.class), any(RecordServiceConnector.Params.class)))
+                .thenAnswer(invocation -> {
+                    RecordIdDTO recordId = invocation.getArgument(0);
+                    return new HashMap<>(Map.of(recordId.getBibliographicRecordId(), records.get(recordId.getBibliographicRecordId())));
+                });
+
+        HarvestOperation harvestOperation = newHarvestOperation().withRecordFetchConcurrency(4);
+        assertThat("items processed", harvestOperation.execute(), is(3));
+
+        ArgumentCaptor<AddiRecord> addiRecordCaptor = ArgumentCaptor.forClass(AddiRecord.class);
+        verify(harvesterJobBuilder, times(3)).addRecord(addiRecordCaptor.capture());
+        List<String> trackingIds = addiRecordCaptor.getAllValues().stream()
+                .map(addiRecord -> {
+                    try {
+                        return jsonbContext.unmarshall(new String(addiRecord.getMetaData(), StandardCharsets.UTF_8),
+                                AddiMetaData.class).trackingId();
+                    } catch (JSONBException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .collect(Collectors.toList());
+        assertThat("order", trackingIds, is(List.of("tracking-record1", "tracking-record2", "tracking-record3")));
+    }
+
     @Test
     public void execute_rawRepoDeleteRecordHasDbcId_recordIsSkipped()
             throws SQLException, RecordServiceConnectorException, HarvesterException, QueueException {
@@ -18,6 +18,8 @@ import jakarta.ws.rs.core.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -25,6 +27,18 @@ import java.nio.file.Paths;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Builds a dataIO job from harvested records.
+ * <p>
+ * By default records are written to a temporary file, which is uploaded to the
+ * file-store when the job is built. In streaming mode records are instead buffered
+ * in memory and uploaded to the file-store in segments while harvesting, the first
+ * segment creating the file and following segments being appended to it, so that
+ * no local disk is needed and only the last segment remains to be uploaded when
+ * the job is built. An uploaded file is removed from the file-store again if the
+ * builder is closed without the job having been built.
+ * </p>
+ */
 public abstract class AbstractHarvesterJobBuilder implements AutoCloseable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractHarvesterJobBuilder.class);
@@ -34,6 +48,7 @@ public abstract class AbstractHarvesterJobBuilder implements AutoCloseable {
     private final JobStoreServiceConnector jobStoreServiceConnector;
     private final BinaryFile tmpFile;
     private final OutputStream tmpFileOutputStream;
+    private final FileStoreUploadOutputStream uploadOutputStream;
     protected int recordsAdded = 0;
 
     /**
@@ -49,12 +64,39 @@ public abstract class AbstractHarvesterJobBuilder implements AutoCloseable {
      */
     public AbstractHarvesterJobBuilder(BinaryFileStore binaryFileStore, FileStoreServiceConnector fileStoreServiceConnector, JobStoreServiceConnector jobStoreServiceConnector, JobSpecification jobSpecificationTemplate)
             throws NullPointerException, HarvesterException {
-        this.binaryFileStore = InvariantUtil.checkNotNullOrThrow(binaryFileStore, "binaryFileStore");
+        this(binaryFileStore, fileStoreServiceConnector, jobStoreServiceConnector, jobSpecificationTemplate, 0);
+    }
+
+    /**
+     * Class constructor
+     *
+     * @param binaryFileStore           binaryFileStore implementation for tmp file writing,
+     *                                  may be null in streaming mode
+     * @param fileStoreServiceConnector file-store service connector for datafile uploads
+     * @param jobStoreServiceConnector  job-store service connector for job creation
+     * @param jobSpecificationTemplate  job specification template
+     * @param uploadSegmentSize         if greater than zero, the builder runs in streaming mode
+     *                                  uploading the datafile in segments of this number of bytes
+     * @throws NullPointerException if given null-valued argument
+     * @throws HarvesterException   on failure to create harvester data file
+     *                              backed by temporary binary file
+     */
+    public AbstractHarvesterJobBuilder(BinaryFileStore binaryFileStore, FileStoreServiceConnector fileStoreServiceConnector, JobStoreServiceConnector jobStoreServiceConnector, JobSpecification jobSpecificationTemplate, int uploadSegmentSize)
+            throws NullPointerException, HarvesterException {
         this.fileStoreServiceConnector = InvariantUtil.checkNotNullOrThrow(fileStoreServiceConnector, "fileStoreServiceConnector");
         this.jobStoreServiceConnector = InvariantUtil.checkNotNullOrThrow(jobStoreServiceConnector, "jobStoreServiceConnector");
         this.jobSpecificationTemplate = InvariantUtil.checkNotNullOrThrow(jobSpecificationTemplate, "jobSpecificationTemplate");
-        this.tmpFile = createTmpFile();
-        this.tmpFileOutputStream = openForWriting(tmpFile);
+        if (uploadSegmentSize > 0) {
+            this.binaryFileStore = binaryFileStore;
+            this.tmpFile = null;
+            this.tmpFileOutputStream = null;
+            this.uploadOutputStream = new FileStoreUploadOutputStream(uploadSegmentSize);
+        } else {
+            this.binaryFileStore = InvariantUtil.checkNotNullOrThrow(binaryFileStore, "binaryFileStore");
+            this.tmpFile = createTmpFile();
+            this.tmpFileOutputStream = openForWriting(tmpFile);
+            this.uploadOutputStream = null;
+        }
     }
 
     /**
@@ -65,6 +107,14 @@ public abstract class AbstractHarvesterJobBuilder implements AutoCloseable {
      * @throws HarvesterException on failure to upload to file-store or on failure to create job in job-store
      */
     public Optional<JobInfoSnapshot> build() throws HarvesterException {
+        if (uploadOutputStream != null) {
+            closeUpload();
+            // From here on the uploaded file is owned by the job, or removed on failure to create it
+            final Optional<String> fileId = Optional.ofNullable(uploadOutputStream.releaseFileId());
+            if (recordsAdded > 0) return fileId.map(this::createInJobStore);
+            fileId.ifPresent(this::removeFromFileStore);
+            return Optional.empty();
+        }
         closeTmpFile();
         if (recordsAdded > 0) return uploadToFileStore().map(this::createInJobStore);
         return Optional.empty();
@@ -78,9 +128,14 @@ public abstract class AbstractHarvesterJobBuilder implements AutoCloseable {
      */
     public void addRecord(AddiRecord record) throws HarvesterException {
         try {
-            tmpFileOutputStream.write(record.getBytes());
+            if (uploadOutputStream != null) {
+                uploadOutputStream.write(record.getBytes());
+            } else {
+                tmpFileOutputStream.write(record.getBytes());
+            }
         } catch (IOException e) {
-            throw new HarvesterException("Error writing harvester record to tmp", e);
+            throw new HarvesterException(uploadOutputStream != null
+                    ? "Error uploading harvester record to file-store" : "Error writing harvester record to tmp", e);
         }
         recordsAdded++;
     }
@@ -93,12 +148,21 @@ public abstract class AbstractHarvesterJobBuilder implements AutoCloseable {
     }
 
     /**
-     * Closes and deletes temporary file
+     * Closes and deletes temporary file, or in streaming mode removes any
+     * file uploaded to the file-store if the job was not built
      *
      * @throws HarvesterException if unable to close temporary file
      */
     @Override
     public void close() throws HarvesterException {
+        if (uploadOutputStream != null) {
+            uploadOutputStream.discard();
+            final String fileId = uploadOutputStream.releaseFileId();
+            if (fileId != null) {
+                removeFromFileStore(fileId);
+            }
+            return;
+        }
         closeTmpFile();
         deleteTmpFile();
     }
@@ -146,6 +210,14 @@ public abstract class AbstractHarvesterJobBuilder implements AutoCloseable {
         }
     }
 
+    private void closeUpload() throws HarvesterException {
+        try {
+            uploadOutputStream.close();
+        } catch (IOException e) {
+            throw new HarvesterException("Unable to add file to file-store", e);
+        }
+    }
+
     private OutputStream openForWriting(BinaryFile binaryFile) throws HarvesterException {
         try {
             return binaryFile.openOutputStream();
@@ -194,4 +266,80 @@ public abstract class AbstractHarvesterJobBuilder implements AutoCloseable {
             throw new HarvesterException("Unable to create job in job-store", e);
         }
     }
+
+    /* Output stream uploading harvester data file to the file-store in segments,
+       creating the file with the first segment and appending the rest */
+    private class FileStoreUploadOutputStream extends OutputStream {
+        private final int segmentSize;
+        private final ByteArrayOutputStream segment;
+        private String fileId;
+        private boolean closed;
+
+        FileStoreUploadOutputStream(int segmentSize) {
+            this.segmentSize = segmentSize;
+            this.segment = new ByteArrayOutputStream(segmentSize);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureOpen();
+            segment.write(b);
+            if (segment.size() >= segmentSize) {
+                upload();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureOpen();
+            segment.write(b, off, len);
+            if (segment.size() >= segmentSize) {
+                upload();
+            }
+        }
+
+        /* Uploads remaining buffered bytes */
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                if (segment.size() > 0) {
+                    upload();
+                }
+            }
+        }
+
+        /* Closes without uploading remaining buffered bytes */
+        void discard() {
+            closed = true;
+            segment.reset();
+        }
+
+        /* Returns ID of uploaded file, if any, and forgets about it */
+        String releaseFileId() {
+            final String released = fileId;
+            fileId = null;
+            return released;
+        }
+
+        private void ensureOpen() throws IOException {
+            if (closed) {
+                throw new IOException("Upload to file-store is closed");
+            }
+        }
+
+        private void upload() throws IOException {
+            try (InputStream is = new ByteArrayInputStream(segment.toByteArray())) {
+                if (fileId == null) {
+                    fileId = fileStoreServiceConnector.addFile(is);
+                    LOGGER.info("Added file with ID {} to file-store", fileId);
+                } else {
+                    fileStoreServiceConnector.appendStream(fileId, is);
+                }
+            } catch (FileStoreServiceConnectorException | RuntimeException e) {
+                throw new IOException("Unable to upload " + segment.size() + " bytes to file-store", e);
+            }
+            segment.reset();
+        }
+    }
 }
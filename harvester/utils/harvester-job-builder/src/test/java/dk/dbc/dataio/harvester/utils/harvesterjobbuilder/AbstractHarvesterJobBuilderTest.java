@@ -11,6 +11,7 @@ import dk.dbc.dataio.commons.utils.jobstore.JobStoreServiceConnectorException;
 import dk.dbc.dataio.commons.utils.jobstore.MockedJobStoreServiceConnector;
 import dk.dbc.dataio.filestore.service.connector.FileStoreServiceConnector;
 import dk.dbc.dataio.filestore.service.connector.FileStoreServiceConnectorException;
+import dk.dbc.dataio.filestore.service.connector.FileStoreServiceConnectorUnexpectedStatusCodeException;
 import dk.dbc.dataio.harvester.types.HarvesterException;
 import dk.dbc.dataio.jobstore.types.JobInfoSnapshot;
 import dk.dbc.dataio.jobstore.types.JobInputStream;
@@ -29,8 +30,11 @@ import static dk.dbc.commons.testutil.Assert.isThrowing;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -191,6 +195,63 @@ public class AbstractHarvesterJobBuilderTest {
                 jobSpecificationTemplate);
     }
 
+    @Test
+    public void streaming_addRecord_uploadsDataFileInSegments()
+            throws HarvesterException, FileStoreServiceConnectorException, JobStoreServiceConnectorException {
+        when(fileStoreServiceConnector.addFile(any(InputStream.class))).thenReturn(fileId);
+
+        final AbstractHarvesterJobBuilder harvesterJobBuilder = newStreamingHarvesterJobBuilder(addiRecord.getBytes().length);
+        harvesterJobBuilder.addRecord(addiRecord);
+        verify(fileStoreServiceConnector).addFile(any(InputStream.class));
+        harvesterJobBuilder.addRecord(addiRecord);
+        harvesterJobBuilder.addRecord(addiRecord);
+        verify(fileStoreServiceConnector, times(2)).appendStream(eq(fileId), any(InputStream.class));
+
+        assertThat(harvesterJobBuilder.build(), is(Optional.of(jobInfoSnapshot)));
+        harvesterJobBuilder.close();
+        verify(jobStoreServiceConnector).addJob(any(JobInputStream.class));
+        verify(fileStoreServiceConnector, never()).deleteFile(anyString());
+        verify(binaryFileStore, never()).getBinaryFile(any(Path.class));
+    }
+
+    @Test
+    public void streaming_build_uploadsRemainingBytes()
+            throws HarvesterException, FileStoreServiceConnectorException, JobStoreServiceConnectorException {
+        when(fileStoreServiceConnector.addFile(any(InputStream.class))).thenReturn(fileId);
+
+        final AbstractHarvesterJobBuilder harvesterJobBuilder = newStreamingHarvesterJobBuilder(1024);
+        harvesterJobBuilder.addRecord(addiRecord);
+        verify(fileStoreServiceConnector, never()).addFile(any(InputStream.class));
+
+        harvesterJobBuilder.build();
+        verify(fileStoreServiceConnector).addFile(any(InputStream.class));
+        verify(jobStoreServiceConnector).addJob(any(JobInputStream.class));
+    }
+
+    @Test
+    public void streaming_closeWithoutBuild_removesUploadedFile()
+            throws HarvesterException, FileStoreServiceConnectorException {
+        when(fileStoreServiceConnector.addFile(any(InputStream.class))).thenReturn(fileId);
+
+        try (AbstractHarvesterJobBuilder harvesterJobBuilder = newStreamingHarvesterJobBuilder(1)) {
+            harvesterJobBuilder.addRecord(addiRecord);
+        }
+        verify(fileStoreServiceConnector).deleteFile(fileId);
+    }
+
+    @Test
+    public void streaming_appendThrows_throws() throws HarvesterException, FileStoreServiceConnectorException {
+        when(fileStoreServiceConnector.addFile(any(InputStream.class))).thenReturn(fileId);
+        doThrow(new FileStoreServiceConnectorUnexpectedStatusCodeException("DIED", 500))
+                .when(fileStoreServiceConnector).appendStream(eq(fileId), any(InputStream.class));
+
+        final AbstractHarvesterJobBuilder harvesterJobBuilder = newStreamingHarvesterJobBuilder(1);
+        harvesterJobBuilder.addRecord(addiRecord);
+        assertThat(() -> harvesterJobBuilder.addRecord(addiRecord), isThrowing(HarvesterException.class));
+        harvesterJobBuilder.close();
+        verify(fileStoreServiceConnector).deleteFile(fileId);
+    }
+
     /*
      * private methods
      */
@@ -204,6 +265,11 @@ public class AbstractHarvesterJobBuilderTest {
         return new AbstractHarvesterJobBuilderImpl(binaryFileStore, fileStoreServiceConnector, jobStoreServiceConnector, jobSpecificationTemplate);
     }
 
+    private AbstractHarvesterJobBuilder newStreamingHarvesterJobBuilder(int uploadSegmentSize) throws HarvesterException {
+        return new AbstractHarvesterJobBuilderImpl(null, fileStoreServiceConnector, jobStoreServiceConnector,
+                jobSpecificationTemplate, uploadSegmentSize);
+    }
+
     private void verifyJobSpecification(JobSpecification jobSpecification, JobSpecification jobSpecificationTemplate) {
         assertThat("packaging", jobSpecification.getPackaging(), is(jobSpecificationTemplate.getPackaging()));
         assertThat("format", jobSpecification.getFormat(), is(jobSpecificationTemplate.getFormat()));
@@ -220,6 +286,10 @@ public class AbstractHarvesterJobBuilderTest {
             super(binaryFileStore, fileStoreServiceConnector, jobStoreServiceConnector, jobSpecificationTemplate);
         }
 
+        public AbstractHarvesterJobBuilderImpl(BinaryFileStore binaryFileStore, FileStoreServiceConnector fileStoreServiceConnector, JobStoreServiceConnector jobStoreServiceConnector, JobSpecification jobSpecificationTemplate, int uploadSegmentSize) throws NullPointerException, HarvesterException {
+            super(binaryFileStore, fileStoreServiceConnector, jobStoreServiceConnector, jobSpecificationTemplate, uploadSegmentSize);
+        }
+
         @Override
         protected JobSpecification createJobSpecification(String fileId) {
             final FileStoreUrn fileStoreUrn = FileStoreUrn.create(fileId);
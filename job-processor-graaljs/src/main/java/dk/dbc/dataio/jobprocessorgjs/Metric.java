@@ -9,5 +9,9 @@ public enum Metric implements PrometheusMetricMixin {
     dataio_flow_cache_size,
     dataio_flow_cache_fetch,
     dataio_flow_cache_fetch_time,
-    dataio_jobprocessor_chunk_failed
+    dataio_flow_cache_contexts,
+    dataio_flow_warmup,
+    dataio_flow_warmup_avoided_ms,
+    dataio_jobprocessor_chunk_failed,
+    dataio_logstore_queue_size
 }
@@ -4,17 +4,29 @@ import dk.dbc.commons.graaljs.core.JsInterop;
 import dk.dbc.commons.graaljs.core.JsarResourceFileSystem;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class GraalJsScript implements AutoCloseable {
+    private static final int MAX_SUPPLEMENT_FACTORIES = 16;
 
     private final Context context;
     private final String scriptId;
     private final String invocationMethod;
+    // Used by the one thread having checked out this script, see FlowCache
+    private final Map<String, Value> supplementFactories = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Value> eldest) {
+            return size() > MAX_SUPPLEMENT_FACTORIES;
+        }
+    };
+    private Value jsonParse;
 
     public GraalJsScript(String scriptId, String invocationMethod, byte[] jsar, Engine engine) {
         this.scriptId = scriptId;
@@ -78,6 +90,43 @@ public class GraalJsScript implements AutoCloseable {
         return context.eval("js", expression);
     }
 
+    /**
+     * Returns a new JS object for the supplementary data shared by all items of a chunk. The
+     * data is compiled once per context into a function returning the object literal, so each
+     * item still gets an object of its own (scripts may modify it) without a parse per item.
+     *
+     * @param supplementaryData supplementary data as JSON (or any JS expression)
+     * @return supplement object
+     */
+    public Object supplement(String supplementaryData) {
+        Value factory = supplementFactories.computeIfAbsent(supplementaryData,
+                data -> context.eval("js", "(function () { return (" + data + "); })"));
+        return factory.execute();
+    }
+
+    /**
+     * Converts JSON differing from item to item (e.g. ADDI metadata) into a JS object using
+     * the native {@code JSON.parse} rather than evaluating it as source, which would compile
+     * (and cache in the shared engine) a new source for every item. Input which is not strict
+     * JSON is evaluated as before.
+     *
+     * @param json item specific JSON
+     * @return JS object
+     */
+    public Object parseJson(String json) {
+        if (jsonParse == null) {
+            jsonParse = context.eval("js", "JSON.parse");
+        }
+        try {
+            return jsonParse.execute(json);
+        } catch (PolyglotException e) {
+            if (e.isHostException() || e.isCancelled() || e.isExit()) {
+                throw e;
+            }
+            return eval("(" + json + ")");
+        }
+    }
+
     public String getScriptId() {
         return scriptId;
     }
@@ -3,13 +3,21 @@ package dk.dbc.dataio.jobprocessorgjs.jms;
 import dk.dbc.commons.graaljs.core.JsInterop;
 import dk.dbc.commons.useragent.UserAgent;
 import dk.dbc.dataio.common.utils.flowstore.FlowStoreServiceConnector;
+import dk.dbc.dataio.common.utils.flowstore.JsarDiskCache;
 import dk.dbc.dataio.commons.types.Flow;
 import dk.dbc.dataio.commons.types.FlowContent;
 import dk.dbc.dataio.commons.utils.jobstore.JobStoreServiceConnector;
+import dk.dbc.dataio.commons.utils.jobstore.JobStoreServiceConnectorException;
+import dk.dbc.dataio.jobprocessorgjs.Metric;
 import dk.dbc.dataio.jobprocessorgjs.health.ProcessorHealth;
 import dk.dbc.dataio.jobprocessorgjs.logstore.LogStoreWriter;
 import dk.dbc.dataio.jobprocessorgjs.service.ChunkProcessor;
 import dk.dbc.dataio.jobprocessorgjs.service.FlowCache;
+import dk.dbc.dataio.jobprocessorgjs.service.FlowWarmer;
+import dk.dbc.dataio.jobstore.types.JobInfoSnapshot;
+import dk.dbc.dataio.jobstore.types.criteria.JobListCriteria;
+import dk.dbc.dataio.jobstore.types.criteria.ListFilter;
+import dk.dbc.dataio.jobstore.types.criteria.ListOrderBy;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
@@ -32,11 +40,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -75,6 +86,33 @@ public class ChunkConsumerBean {
     @Inject @ConfigProperty(name = "CONSUMER_THREADS", defaultValue = "1")
     private int consumerThreads;
 
+    @Inject @ConfigProperty(name = "ITEM_THREADS", defaultValue = "1")
+    private int itemThreads;
+
+    @Inject @ConfigProperty(name = "FLOW_WARMUP_ENABLED", defaultValue = "false")
+    private boolean flowWarmUpEnabled;
+
+    @Inject @ConfigProperty(name = "FLOW_WARMUP_WINDOW", defaultValue = "PT30M")
+    private String flowWarmUpWindow;
+
+    @Inject @ConfigProperty(name = "FLOW_WARMUP_MAX_FLOWS", defaultValue = "10")
+    private int flowWarmUpMaxFlows;
+
+    @Inject @ConfigProperty(name = "FLOW_WARMUP_CONTEXTS", defaultValue = "1")
+    private int flowWarmUpContexts;
+
+    @Inject @ConfigProperty(name = "JSAR_CACHE_DIR", defaultValue = "/tmp/jsar-cache")
+    private String jsarCacheDir;
+
+    @Inject @ConfigProperty(name = "LOGSTORE_BATCH_SIZE", defaultValue = "500")
+    private int logStoreBatchSize;
+
+    @Inject @ConfigProperty(name = "LOGSTORE_QUEUE_CAPACITY", defaultValue = "10000")
+    private int logStoreQueueCapacity;
+
+    @Inject @ConfigProperty(name = "LOGSTORE_FLUSH_INTERVAL", defaultValue = "PT0.2S")
+    private String logStoreFlushInterval;
+
     @Inject
     private ProcessorHealth health;
 
@@ -84,10 +122,16 @@ public class ChunkConsumerBean {
     private List<ChunkMessageConsumer> messageConsumers = List.of();
     private ConnectionFactory connectionFactory;
     private ExecutorService executor;
+    private ExecutorService itemExecutor;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private Client jobStoreClient;
     private Client flowStoreClient;
     private Engine jsEngine;
+    private FlowWarmer flowWarmer;
+    private ExecutorService flowWarmerExecutor;
+    private Future<?> flowWarmUp;
+    private JsarDiskCache jsarDiskCache;
+    private LogStoreWriter logStoreWriter = LogStoreWriter.NOOP;
 
     @PostConstruct
     @SuppressWarnings("java:S2095") // clients are closed in @PreDestroy stop()
@@ -102,43 +146,69 @@ public class ChunkConsumerBean {
         FlowStoreServiceConnector flowStoreConnector = new FlowStoreServiceConnector(
                     flowStoreClient, UserAgent.forInternalRequests(), flowstoreUrl);
 
+        // JSARs are kept on local disk by content digest and revalidated by conditional
+        // requests, so a flow cache miss or a restart does not transfer an unchanged JSAR.
+        if (!jsarCacheDir.isBlank()) {
+            try {
+                jsarDiskCache = new JsarDiskCache(flowStoreConnector, Path.of(jsarCacheDir));
+            } catch (IllegalStateException e) {
+                LOGGER.warn("JSAR disk cache disabled", e);
+            }
+        }
+
         // Single engine shared across all consumer threads and flows: it is thread-safe and
         // caches compiled JavaScript code, so the same flow compiled on different threads (or
-        // different flows) reuse cached code. Each script still gets its own thread-confined context.
+        // different flows) reuse cached code. Each script still gets its own context, which is
+        // only used by the thread having checked the script out of the flow cache.
         jsEngine = Engine.newBuilder("js").build();
 
         JsInterop.attachLogCollector();
-        LogStoreWriter logStoreWriter = logStoreDataSource == null
-                ? LogStoreWriter.NOOP
-                : new LogStoreWriter(logStoreDataSource);
         if (logStoreDataSource == null) {
             LOGGER.warn("No log-store data source available — item JavaScript logs will not be persisted");
+        } else {
+            // Item logs are inserted in batches by a writer thread of its own, see LogStoreWriter
+            logStoreWriter = new LogStoreWriter(logStoreDataSource, logStoreQueueCapacity, logStoreBatchSize,
+                    Duration.parse(logStoreFlushInterval));
+            Metric.dataio_logstore_queue_size.gauge(logStoreWriter::getQueueSize);
         }
 
         List<ChunkMessageConsumer> consumers = new ArrayList<>(consumerThreads);
-        List<FlowCache> flowCaches = new ArrayList<>(consumerThreads);
         running.set(true);
         executor = Executors.newFixedThreadPool(consumerThreads,
                 Thread.ofPlatform().name("graaljs-consumer-", 0).factory());
-        // Each consumer thread owns a thread-confined FlowCache (GraalJS contexts cannot be shared
-        // across threads), so FLOW_CACHE_SIZE is divided to make the configured value the total
-        // number of cached scripts across all threads rather than a per-thread bound.
-        int perThreadCacheSize = Math.max(1, flowCacheSize / consumerThreads);
-        Duration cacheExpiry = Duration.parse(flowCacheExpiry);
+        // One FlowCache shared by all consumer threads, each cached flow pooling the scripts
+        // checked out by the threads currently processing chunks of it (see FlowCache).
+        FlowCache flowCache = new FlowCache(Math.max(1, flowCacheSize), Duration.parse(flowCacheExpiry), jsEngine);
+        // With ITEM_THREADS > 1 the items of a chunk are fanned out over that many scripts of the
+        // flow, each script with its own context on the shared engine. The item pool is sized so
+        // every consumer thread can have all its item workers running at the same time.
+        if (itemThreads > 1) {
+            itemExecutor = Executors.newFixedThreadPool(consumerThreads * itemThreads,
+                    Thread.ofPlatform().name("graaljs-item-", 0).factory());
+        }
         for (int i = 0; i < consumerThreads; i++) {
-            FlowCache flowCache = new FlowCache(perThreadCacheSize, cacheExpiry, jsEngine);
-            flowCaches.add(flowCache);
             ChunkProcessor chunkProcessor = new ChunkProcessor(
                     health, flowCache,
                     jobId -> getFlow(jobId, jobStoreConnector, flowStoreConnector),
-                    logStoreWriter);
+                    logStoreWriter, itemExecutor, itemThreads);
             ChunkMessageConsumer consumer = new ChunkMessageConsumer(chunkProcessor, jobStoreConnector);
             consumers.add(consumer);
             executor.submit(() -> listen(consumer));
         }
-        FlowCache.registerMetrics(List.copyOf(flowCaches));
+        flowCache.registerMetrics();
+        if (flowWarmUpEnabled) {
+            Duration window = Duration.parse(flowWarmUpWindow);
+            flowWarmer = new FlowWarmer(flowCache, jobStoreConnector::getCachedFlow,
+                    flow -> withJsar(flow, flowStoreConnector),
+                    () -> listActiveJobs(jobStoreConnector, window), flowWarmUpMaxFlows, flowWarmUpContexts);
+            // Warm-ups fetch JSARs and evaluate flows, so they run on a thread of their own
+            // instead of holding the timer (and lock) of this singleton shared with checkTimeouts
+            flowWarmerExecutor = Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name("graaljs-flow-warmer").factory());
+        }
         messageConsumers = List.copyOf(consumers);
-        LOGGER.info("Started {} GraalJS chunk consumer thread(s) on queue {}", consumerThreads, queue);
+        LOGGER.info("Started {} GraalJS chunk consumer thread(s) with {} item thread(s) each on queue {}",
+                consumerThreads, Math.max(1, itemThreads), queue);
     }
 
     @PreDestroy
@@ -146,14 +216,25 @@ public class ChunkConsumerBean {
         running.set(false);
         JsInterop.detachLogCollector();
         executor.shutdownNow();
+        if (itemExecutor != null) {
+            itemExecutor.shutdownNow();
+        }
+        if (flowWarmerExecutor != null) {
+            flowWarmerExecutor.shutdownNow();
+        }
         try {
             executor.awaitTermination(10, TimeUnit.SECONDS);
+            if (itemExecutor != null) {
+                itemExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
+        // Consumer threads have stopped, so no more item logs are written; flush those queued
+        logStoreWriter.close();
         if (jsEngine != null) {
             // Consumer threads have stopped, so no context is executing; closing the engine
-            // also closes the cached contexts still open in the flow caches.
+            // also closes the cached contexts still open in the flow cache.
             try {
                 jsEngine.close();
             } catch (RuntimeException e) {
@@ -169,6 +250,14 @@ public class ChunkConsumerBean {
         messageConsumers.forEach(c -> c.checkTimeouts(health));
     }
 
+    /* Loads the flows of jobs recently active in job-store before their chunks reach this processor */
+    @Schedule(hour = "*", minute = "*", second = "15", persistent = false)
+    void warmUpFlows() {
+        if (flowWarmer != null && running.get() && (flowWarmUp == null || flowWarmUp.isDone())) {
+            flowWarmUp = flowWarmerExecutor.submit(flowWarmer::warmUp);
+        }
+    }
+
     private void listen(ChunkMessageConsumer messageConsumer) {
         try {
             while (running.get()) {
@@ -210,15 +299,31 @@ public class ChunkConsumerBean {
 
     private Flow getFlow(int jobId, JobStoreServiceConnector jobStoreConnector,
                          FlowStoreServiceConnector flowStoreConnector) throws Exception {
-        Flow flow = jobStoreConnector.getCachedFlow(jobId);
+        return withJsar(jobStoreConnector.getCachedFlow(jobId), flowStoreConnector);
+    }
+
+    private Flow withJsar(Flow flow, FlowStoreServiceConnector flowStoreConnector) throws Exception {
         if (flow.getContent().getJsar() == null && flowStoreConnector != null) {
-            byte[] jsar = flowStoreConnector.getJsar(flow.getId());
+            byte[] jsar = jsarDiskCache != null
+                    ? jsarDiskCache.getJsar(flow.getId())
+                    : flowStoreConnector.getJsar(flow.getId());
             return new Flow(flow.getId(), flow.getVersion(),
                     new FlowContent(jsar, flow.getContent().getTimeOfLastModification()));
         }
         return flow;
     }
 
+    private List<JobInfoSnapshot> listActiveJobs(JobStoreServiceConnector jobStoreConnector, Duration window)
+            throws JobStoreServiceConnectorException {
+        Date since = new Date(System.currentTimeMillis() - window.toMillis());
+        return jobStoreConnector.listJobs(new JobListCriteria()
+                .where(new ListFilter<>(JobListCriteria.Field.TIME_OF_COMPLETION, ListFilter.Op.IS_NULL))
+                .and(new ListFilter<>(JobListCriteria.Field.TIME_OF_LAST_MODIFICATION,
+                        ListFilter.Op.GREATER_THAN_OR_EQUAL_TO, since))
+                .orderBy(new ListOrderBy<>(JobListCriteria.Field.TIME_OF_LAST_MODIFICATION, ListOrderBy.Sort.DESC))
+                .limit(4 * flowWarmUpMaxFlows));
+    }
+
     private static void sleep(long millis) {
         try {
             Thread.sleep(millis);
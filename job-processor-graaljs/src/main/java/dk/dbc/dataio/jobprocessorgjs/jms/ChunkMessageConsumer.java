@@ -3,12 +3,14 @@ package dk.dbc.dataio.jobprocessorgjs.jms;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dk.dbc.dataio.commons.types.Chunk;
 import dk.dbc.dataio.commons.types.ChunkItem;
+import dk.dbc.dataio.commons.types.jms.ChunkBinaryCodec;
 import dk.dbc.dataio.commons.types.jms.JMSHeader;
 import dk.dbc.dataio.commons.utils.jobstore.JobStoreServiceConnector;
 import dk.dbc.dataio.commons.utils.jobstore.JobStoreServiceConnectorException;
 import dk.dbc.dataio.jobprocessorgjs.Metric;
 import dk.dbc.dataio.jobprocessorgjs.health.ProcessorHealth;
 import dk.dbc.dataio.jobprocessorgjs.service.ChunkProcessor;
+import jakarta.jms.BytesMessage;
 import jakarta.jms.JMSException;
 import jakarta.jms.Message;
 import jakarta.jms.TextMessage;
@@ -38,12 +40,11 @@ public class ChunkMessageConsumer {
     }
 
     public void onMessage(Message message) throws JMSException, IOException, JobStoreServiceConnectorException {
-        if (!(message instanceof TextMessage textMessage)) {
-            LOGGER.warn("Ignoring non-text JMS message {}", message.getJMSMessageID());
+        Chunk chunk = readChunk(message);
+        if (chunk == null) {
+            LOGGER.warn("Ignoring JMS message {} without chunk payload", message.getJMSMessageID());
             return;
         }
-
-        Chunk chunk = MAPPER.readValue(textMessage.getText(), Chunk.class);
         if (chunk.getType() != Chunk.Type.PARTITIONED) {
             throw new IllegalArgumentException(
                     "Unexpected chunk type " + chunk.getType() + " for chunk " + chunk.getChunkId());
@@ -74,6 +75,18 @@ public class ChunkMessageConsumer {
         }
     }
 
+    /* Reads chunk from JSON TextMessage or from BytesMessage encoded by ChunkBinaryCodec */
+    private static Chunk readChunk(Message message) throws JMSException, IOException {
+        if (message instanceof BytesMessage
+                && JMSHeader.CHUNK_BINARY_PAYLOAD_TYPE.equals(JMSHeader.payload.getHeader(message, String.class))) {
+            return ChunkBinaryCodec.decode(message.getBody(byte[].class));
+        }
+        if (message instanceof TextMessage textMessage) {
+            return MAPPER.readValue(textMessage.getText(), Chunk.class);
+        }
+        return null;
+    }
+
     public void checkTimeouts(ProcessorHealth health) {
         Instant now = Instant.now();
         processingStartTimes.entrySet().stream()
@@ -10,20 +10,39 @@ import org.slf4j.LoggerFactory;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Writes the JavaScript log events captured for a single chunk item to the log-store
  * database as one merged {@code LOGENTRY} row.
+ * <p>
+ * Rows are queued and inserted by a single writer thread in batches of up to
+ * {@code batchSize} rows, one transaction per batch, instead of one transaction per item.
+ * A batch is written when full or when {@code flushInterval} has passed since its first row.
+ * The queue is bounded: when the log-store database cannot keep up, {@link #write} blocks
+ * until there is room again, slowing processing down rather than buffering without limit.
+ * {@link #close()} flushes the rows still queued.
+ * </p>
  */
-public class LogStoreWriter {
+public class LogStoreWriter implements AutoCloseable {
     private static final Logger LOGGER = LoggerFactory.getLogger(LogStoreWriter.class);
 
     private static final StackTraceElement EMPTY_CALLER_DATA = CallerData.naInstance();
     private static final String LOG_FORMAT_WITHOUT_STACKTRACE = "%s %s %s %s%n";
     private static final String LOG_FORMAT_WITH_STACKTRACE = "%s %s %s %s%n%s%n";
 
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(200);
+    private static final long CLOSE_TIMEOUT_MS = 30_000;
+
     // LOGENTRY insert and its 1-based parameter indices. The schema is owned by log-store-service;
     // it is read back by LogStoreBean, so the column set and order must stay in sync with it.
     private static final String INSERT_SQL =
@@ -49,14 +68,38 @@ public class LogStoreWriter {
     public static final LogStoreWriter NOOP = new LogStoreWriter(null);
 
     private final DataSource dataSource;
+    private final BlockingQueue<LogRow> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Thread writerThread;
+    private volatile boolean closed;
 
     public LogStoreWriter(DataSource dataSource) {
+        this(dataSource, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * @param dataSource    log-store data source, null for a writer discarding all events
+     * @param queueCapacity max number of rows queued before {@link #write} blocks
+     * @param batchSize     max number of rows inserted in one transaction
+     * @param flushInterval max time a queued row waits for its batch to fill up
+     */
+    public LogStoreWriter(DataSource dataSource, int queueCapacity, int batchSize, Duration flushInterval) {
         this.dataSource = dataSource;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = flushInterval.toNanos();
+        if (dataSource != null) {
+            writerThread = Thread.ofPlatform().name("logstore-writer").daemon().start(this::writeBatches);
+        } else {
+            writerThread = null;
+        }
     }
 
     /**
-     * Persists the given log events for one item as a single merged log-store row.
-     * Does nothing when no data source is configured or when there are no events.
+     * Queues the given log events for one item to be persisted as a single merged log-store row.
+     * Does nothing when no data source is configured or when there are no events. Blocks while
+     * the queue is full.
      *
      * @param jobId   job ID part of the log-store tracking ID
      * @param chunkId chunk ID part of the log-store tracking ID
@@ -67,36 +110,96 @@ public class LogStoreWriter {
         if (dataSource == null || events == null || events.isEmpty()) {
             return;
         }
+        // Merged on the calling thread, the events list is reused by the caller afterwards
+        LogRow row = new LogRow(jobId, chunkId, itemId, events.get(events.size() - 1), mergeLoggingEvents(events));
+        if (closed) {
+            LOGGER.warn("Log-store writer closed, discarding log-store entry for {}/{}/{}", jobId, chunkId, itemId);
+            return;
+        }
+        try {
+            queue.put(row);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted, discarding log-store entry for {}/{}/{}", jobId, chunkId, itemId);
+        }
+    }
+
+    /**
+     * @return number of rows waiting to be written
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting rows and waits for the rows already queued to be written
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive() || !queue.isEmpty()) {
+            LOGGER.warn("Log-store writer did not flush in time, {} entries not written", queue.size());
+        }
+    }
+
+    private void writeBatches() {
+        List<LogRow> batch = new ArrayList<>(batchSize);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                LogRow first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                insert(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Log-store writer interrupted, {} entries not written", queue.size() + batch.size());
+        }
+    }
 
-        final ILoggingEvent last = events.get(events.size() - 1);
-        final String mergedMessage = mergeLoggingEvents(events);
+    private void fillBatch(List<LogRow> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || closed) {
+                return;
+            }
+            LogRow row = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (row == null) {
+                return;
+            }
+            batch.add(row);
+        }
+    }
 
+    private void insert(List<LogRow> batch) {
         try (Connection connection = dataSource.getConnection();
              PreparedStatement insertStatement = connection.prepareStatement(INSERT_SQL)) {
             connection.setAutoCommit(false);
-
-            insertStatement.setTimestamp(TIMESTAMP, new Timestamp(last.getTimeStamp()));
-            insertStatement.setString(FORMATTED_MESSAGE, mergedMessage);
-            insertStatement.setString(LOGGER_NAME, last.getLoggerName());
-            insertStatement.setString(LEVEL_STRING, last.getLevel().toString());
-            insertStatement.setString(THREAD_NAME, last.getThreadName());
-            insertStatement.setString(CALLER_FILENAME, EMPTY_CALLER_DATA.getFileName());
-            insertStatement.setString(CALLER_CLASS, EMPTY_CALLER_DATA.getClassName());
-            insertStatement.setString(CALLER_METHOD, EMPTY_CALLER_DATA.getMethodName());
-            insertStatement.setString(CALLER_LINE, Integer.toString(EMPTY_CALLER_DATA.getLineNumber()));
-            insertStatement.setString(STACK_TRACE, null);
-            insertStatement.setString(MDC, null);
-            insertStatement.setString(JOB_ID, jobId);
-            insertStatement.setLong(CHUNK_ID, chunkId);
-            insertStatement.setLong(ITEM_ID, itemId);
-
-            if (insertStatement.executeUpdate() != 1) {
-                LOGGER.warn("Failed to insert log-store entry for {}/{}/{}", jobId, chunkId, itemId);
+            for (LogRow row : batch) {
+                row.bind(insertStatement);
+                insertStatement.addBatch();
             }
+            insertStatement.executeBatch();
             connection.commit();
         } catch (Exception e) {
-            // Persisting item logs must never fail the processing of the item itself.
-            LOGGER.error("Unable to write log-store entry for {}/{}/{}", jobId, chunkId, itemId, e);
+            // Persisting item logs must never fail the processing of the items themselves.
+            LogRow first = batch.get(0);
+            LOGGER.error("Unable to write {} log-store entries starting with {}/{}/{}",
+                    batch.size(), first.jobId, first.chunkId, first.itemId, e);
         }
     }
 
@@ -156,4 +259,23 @@ public class LogStoreWriter {
 
         return sb.toString();
     }
+
+    private record LogRow(String jobId, long chunkId, long itemId, ILoggingEvent last, String mergedMessage) {
+        void bind(PreparedStatement insertStatement) throws SQLException {
+            insertStatement.setTimestamp(TIMESTAMP, new Timestamp(last.getTimeStamp()));
+            insertStatement.setString(FORMATTED_MESSAGE, mergedMessage);
+            insertStatement.setString(LOGGER_NAME, last.getLoggerName());
+            insertStatement.setString(LEVEL_STRING, last.getLevel().toString());
+            insertStatement.setString(THREAD_NAME, last.getThreadName());
+            insertStatement.setString(CALLER_FILENAME, EMPTY_CALLER_DATA.getFileName());
+            insertStatement.setString(CALLER_CLASS, EMPTY_CALLER_DATA.getClassName());
+            insertStatement.setString(CALLER_METHOD, EMPTY_CALLER_DATA.getMethodName());
+            insertStatement.setString(CALLER_LINE, Integer.toString(EMPTY_CALLER_DATA.getLineNumber()));
+            insertStatement.setString(STACK_TRACE, null);
+            insertStatement.setString(MDC, null);
+            insertStatement.setString(JOB_ID, jobId);
+            insertStatement.setLong(CHUNK_ID, chunkId);
+            insertStatement.setLong(ITEM_ID, itemId);
+        }
+    }
 }
@@ -55,10 +55,10 @@ public class ChunkItemProcessor {
                 AddiRecord addiRecord = new AddiReader(
                         new ByteArrayInputStream(chunkItem.getData())).next();
                 itemData = StringUtil.asString(addiRecord.getContentData(), chunkItem.getEncoding());
-                supplement = script.eval("(" + StringUtil.asString(addiRecord.getMetaData()) + ")");
+                supplement = script.parseJson(StringUtil.asString(addiRecord.getMetaData()));
             } else {
                 itemData = StringUtil.asString(chunkItem.getData(), chunkItem.getEncoding());
-                supplement = script.eval("(" + supplementaryData + ")");
+                supplement = script.supplement(supplementaryData);
             }
 
             LOGGER.info("process(): invoking '{}' in script '{}' for item {}/{}/{}",
@@ -5,7 +5,9 @@ import dk.dbc.dataio.commons.types.ChunkItem;
 import dk.dbc.dataio.commons.types.Diagnostic;
 import dk.dbc.dataio.commons.types.Flow;
 import dk.dbc.dataio.commons.utils.lang.StringUtil;
+import dk.dbc.dataio.jobprocessorgjs.Metric;
 import dk.dbc.dataio.jobprocessorgjs.health.ProcessorHealth;
+import dk.dbc.dataio.jobprocessorgjs.javascript.GraalJsScript;
 import dk.dbc.dataio.jobprocessorgjs.logstore.LogStoreWriter;
 import dk.dbc.log.DBCTrackedLogContext;
 import org.slf4j.Logger;
@@ -13,8 +15,13 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ChunkProcessor {
     private static final Logger LOGGER = LoggerFactory.getLogger(ChunkProcessor.class);
@@ -25,13 +32,28 @@ public class ChunkProcessor {
     private final ProcessorHealth health;
     private final FlowFetcher flowFetcher;
     private final LogStoreWriter logStoreWriter;
+    private final ExecutorService itemExecutor;
+    private final int itemThreads;
 
     public ChunkProcessor(ProcessorHealth health, FlowCache flowCache, FlowFetcher flowFetcher,
                           LogStoreWriter logStoreWriter) {
+        this(health, flowCache, flowFetcher, logStoreWriter, null, 1);
+    }
+
+    /**
+     * @param itemExecutor executor on which items of a chunk are processed in parallel, one worker
+     *                     per script checked out of the flow cache, or null to process items on the
+     *                     calling thread
+     * @param itemThreads  max number of items of a chunk processed in parallel
+     */
+    public ChunkProcessor(ProcessorHealth health, FlowCache flowCache, FlowFetcher flowFetcher,
+                          LogStoreWriter logStoreWriter, ExecutorService itemExecutor, int itemThreads) {
         this.health = health;
         this.flowCache = flowCache;
         this.flowFetcher = flowFetcher;
         this.logStoreWriter = logStoreWriter;
+        this.itemExecutor = itemExecutor;
+        this.itemThreads = Math.max(1, itemThreads);
     }
 
     public Chunk process(Chunk chunk, long flowId, long flowVersion, String additionalArgs) {
@@ -69,8 +91,7 @@ public class ChunkProcessor {
 
     private FlowCache.FlowCacheEntry getFlow(Chunk chunk, long flowId, long flowVersion)
             throws ExecutionException {
-        String key = flowId + "." + flowVersion;
-        return flowCache.get(key, () -> {
+        FlowCache.FlowCacheEntry entry = flowCache.get(FlowCache.key(flowId, flowVersion), () -> {
             try {
                 return flowFetcher.fetch(chunk.getJobId());
             } catch (Exception e) {
@@ -78,29 +99,113 @@ public class ChunkProcessor {
                         "Failed to fetch flow for job " + chunk.getJobId(), e);
             }
         });
+        if (entry.claimFirstUseAfterWarmUp()) {
+            Metric.dataio_flow_warmup_avoided_ms.counter().inc(entry.getLoadTimeMs());
+        }
+        return entry;
     }
 
     private List<ChunkItem> processItems(Chunk chunk, FlowCache.FlowCacheEntry entry,
                                          String additionalArgs) {
+        int workers = Math.min(itemThreads, chunk.size());
+        if (itemExecutor != null && workers > 1) {
+            List<GraalJsScript> scripts = entry.checkOut(workers);
+            try {
+                return processItemsInParallel(chunk, scripts, additionalArgs);
+            } finally {
+                scripts.forEach(entry::checkIn);
+            }
+        }
+        GraalJsScript script = entry.checkOut();
         ChunkItemProcessor itemProcessor = new ChunkItemProcessor(
-                chunk.getJobId(), chunk.getChunkId(), entry.script, additionalArgs, logStoreWriter);
+                chunk.getJobId(), chunk.getChunkId(), script, additionalArgs, logStoreWriter);
         List<ChunkItem> results = new ArrayList<>();
         try {
             for (ChunkItem item : chunk) {
-                DBCTrackedLogContext.setTrackingId(item.getTrackingId());
-                long start = System.currentTimeMillis();
+                results.add(processItem(chunk, itemProcessor, item));
+            }
+        } finally {
+            DBCTrackedLogContext.remove();
+            entry.checkIn(script);
+        }
+        return results;
+    }
+
+    /*
+     * Each worker owns one script (GraalJS contexts must not be entered by more than one thread
+     * at a time) and takes the next unprocessed item until none are left. Results are placed
+     * by item position, so they are returned in the same order as when processed sequentially.
+     */
+    private List<ChunkItem> processItemsInParallel(Chunk chunk, List<GraalJsScript> scripts,
+                                                   String additionalArgs) {
+        List<ChunkItem> items = chunk.getItems();
+        ChunkItem[] results = new ChunkItem[items.size()];
+        AtomicInteger nextItem = new AtomicInteger();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        List<Future<?>> workers = new ArrayList<>(scripts.size());
+        for (GraalJsScript script : scripts) {
+            ChunkItemProcessor itemProcessor = new ChunkItemProcessor(
+                    chunk.getJobId(), chunk.getChunkId(), script, additionalArgs, logStoreWriter);
+            workers.add(itemExecutor.submit(() -> {
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
                 try {
-                    results.add(itemProcessor.process(item));
+                    int i;
+                    while ((i = nextItem.getAndIncrement()) < items.size()) {
+                        results[i] = processItem(chunk, itemProcessor, items.get(i));
+                    }
                 } finally {
-                    LOGGER.info("processItems(): item {}/{}/{} took {} ms",
-                            chunk.getJobId(), chunk.getChunkId(), item.getId(),
-                            System.currentTimeMillis() - start);
+                    DBCTrackedLogContext.remove();
+                    MDC.clear();
+                }
+            }));
+        }
+        awaitWorkers(chunk, workers);
+        return Arrays.asList(results);
+    }
+
+    /* All workers are awaited before failing, since a script must not be reused while still in use */
+    private void awaitWorkers(Chunk chunk, List<Future<?>> workers) {
+        Throwable failure = null;
+        boolean interrupted = false;
+        for (Future<?> worker : workers) {
+            while (true) {
+                try {
+                    worker.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                    break;
                 }
             }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Parallel processing of items failed for chunk "
+                    + chunk.getJobId() + "/" + chunk.getChunkId(), failure);
+        }
+    }
+
+    private ChunkItem processItem(Chunk chunk, ChunkItemProcessor itemProcessor, ChunkItem item) {
+        DBCTrackedLogContext.setTrackingId(item.getTrackingId());
+        long start = System.currentTimeMillis();
+        try {
+            return itemProcessor.process(item);
         } finally {
-            DBCTrackedLogContext.remove();
+            LOGGER.info("processItems(): item {}/{}/{} took {} ms",
+                    chunk.getJobId(), chunk.getChunkId(), item.getId(),
+                    System.currentTimeMillis() - start);
         }
-        return results;
     }
 
     private List<ChunkItem> failAllItems(Chunk chunk, Throwable t) {
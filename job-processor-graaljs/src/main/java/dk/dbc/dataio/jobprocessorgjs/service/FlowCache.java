@@ -2,7 +2,6 @@ package dk.dbc.dataio.jobprocessorgjs.service;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheStats;
 import com.google.common.cache.RemovalNotification;
 import dk.dbc.dataio.commons.types.Flow;
 import dk.dbc.dataio.commons.types.FlowContent;
@@ -13,11 +12,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Cache of flows shared by all consumer threads, keyed by {@code flowId.flowVersion}.
+ * <p>
+ * GraalJS contexts must not be entered by more than one thread at a time, so each cached
+ * flow holds a pool of scripts (each with its own context on the shared engine) which
+ * threads check out for the duration of a chunk and check in again afterwards. A flow
+ * thus only holds as many contexts as have been in use at the same time, and a context
+ * warmed by one thread is reused by the next instead of being rebuilt from the JSAR.
+ * </p>
+ */
 public class FlowCache {
     private static final Logger LOGGER = LoggerFactory.getLogger(FlowCache.class);
 
@@ -34,34 +48,58 @@ public class FlowCache {
                 .build();
     }
 
-    /**
-     * Registers the flow-cache gauges once, aggregating across all per-thread caches.
-     * Each consumer thread owns its own {@link FlowCache}, so a gauge registered per instance
-     * would be silently deduplicated by metric name and report only the first cache. Registering
-     * here over the whole collection yields totals (or, for hit rate, a pooled ratio) across threads.
-     */
-    public static void registerMetrics(Collection<FlowCache> caches) {
-        Metric.dataio_flow_cache_hit_rate.gauge(() -> aggregateHitRate(caches));
-        Metric.dataio_flow_cache_size.gauge(() -> caches.stream().mapToLong(c -> c.cache.size()).sum());
-        Metric.dataio_flow_cache_fetch.gauge(() -> caches.stream().mapToLong(c -> c.cache.stats().loadCount()).sum());
-        Metric.dataio_flow_cache_fetch_time.gauge(
-                () -> caches.stream().mapToLong(c -> c.cache.stats().totalLoadTime()).sum());
+    public void registerMetrics() {
+        Metric.dataio_flow_cache_hit_rate.gauge(() -> cache.stats().hitRate());
+        Metric.dataio_flow_cache_size.gauge(cache::size);
+        Metric.dataio_flow_cache_fetch.gauge(() -> cache.stats().loadCount());
+        Metric.dataio_flow_cache_fetch_time.gauge(() -> cache.stats().totalLoadTime());
+        Metric.dataio_flow_cache_contexts.gauge(() -> cache.asMap().values().stream()
+                .mapToLong(FlowCacheEntry::getNumberOfScripts).sum());
     }
 
-    private static double aggregateHitRate(Collection<FlowCache> caches) {
-        long hits = 0;
-        long requests = 0;
-        for (FlowCache flowCache : caches) {
-            CacheStats stats = flowCache.cache.stats();
-            hits += stats.hitCount();
-            requests += stats.requestCount();
-        }
-        // Mirror Guava's CacheStats.hitRate(): a cache with no requests is reported as 100% hits.
-        return requests == 0 ? 1.0 : (double) hits / requests;
+    public static String key(long flowId, long flowVersion) {
+        return flowId + "." + flowVersion;
     }
 
     public FlowCacheEntry get(String key, Callable<Flow> loader) throws ExecutionException {
-        return cache.get(key, () -> new FlowCacheEntry(loader.call(), engine));
+        return cache.get(key, () -> {
+            long start = System.currentTimeMillis();
+            return new FlowCacheEntry(loader.call(), engine, start);
+        });
+    }
+
+    public boolean contains(String key) {
+        // Queries the map view, so a lookup is not counted in the cache statistics
+        return cache.asMap().containsKey(key);
+    }
+
+    /**
+     * Loads given flow into the cache ahead of its first chunk, unless already cached
+     *
+     * @param key      cache key of flow
+     * @param flow     flow to load
+     * @param contexts number of contexts of the flow to create ahead
+     * @return true if the flow was loaded by this call, otherwise false
+     * @throws ExecutionException if the flow could not be loaded
+     */
+    public boolean warmUp(String key, Flow flow, int contexts) throws ExecutionException {
+        if (contains(key)) {
+            return false;
+        }
+        AtomicBoolean loaded = new AtomicBoolean();
+        FlowCacheEntry entry = get(key, () -> {
+            loaded.set(true);
+            return flow;
+        });
+        if (!loaded.get()) {
+            // Loaded by a chunk in the meantime
+            return false;
+        }
+        entry.firstUsePending.set(true);
+        if (contexts > 1) {
+            entry.checkOut(contexts).forEach(entry::checkIn);
+        }
+        return true;
     }
 
     public void clear() {
@@ -71,7 +109,7 @@ public class FlowCache {
     private static void onRemoval(RemovalNotification<String, FlowCacheEntry> notification) {
         FlowCacheEntry entry = notification.getValue();
         if (entry != null) {
-            entry.script.close();
+            entry.evict();
         }
     }
 
@@ -93,11 +131,108 @@ public class FlowCache {
 
     public static class FlowCacheEntry {
         public final Flow flow;
-        public final GraalJsScript script;
+        private final Engine engine;
+        private final Deque<GraalJsScript> idle = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger numberOfScripts = new AtomicInteger();
+        private final AtomicBoolean firstUsePending = new AtomicBoolean();
+        private final long loadTimeMs;
+        private volatile boolean evicted;
 
-        FlowCacheEntry(Flow flow, Engine engine) {
+        FlowCacheEntry(Flow flow, Engine engine, long loadStart) {
             this.flow = Objects.requireNonNull(flow);
-            this.script = createScript(flow, engine);
+            this.engine = engine;
+            // Create the first script up front, so a flow failing to load is never cached
+            idle.push(newScript());
+            this.loadTimeMs = System.currentTimeMillis() - loadStart;
+        }
+
+        /**
+         * @return time spent fetching the flow and creating its first script
+         */
+        public long getLoadTimeMs() {
+            return loadTimeMs;
+        }
+
+        /**
+         * Claims the first use of a flow loaded ahead of its first chunk
+         *
+         * @return true for the first caller after the flow was warmed up, otherwise false
+         */
+        public boolean claimFirstUseAfterWarmUp() {
+            return firstUsePending.get() && firstUsePending.compareAndSet(true, false);
+        }
+
+        /**
+         * Checks out a script for exclusive use by the calling thread, creating a new one
+         * if all scripts of the flow are in use
+         *
+         * @return script, which must be returned by {@link #checkIn(GraalJsScript)}
+         */
+        public GraalJsScript checkOut() {
+            GraalJsScript script = idle.pollFirst();
+            return script != null ? script : newScript();
+        }
+
+        /**
+         * Checks out scripts for exclusive use by the calling thread
+         *
+         * @param n number of scripts
+         * @return n scripts, which must each be returned by {@link #checkIn(GraalJsScript)}
+         */
+        public List<GraalJsScript> checkOut(int n) {
+            List<GraalJsScript> scripts = new ArrayList<>(n);
+            try {
+                while (scripts.size() < n) {
+                    scripts.add(checkOut());
+                }
+            } catch (RuntimeException e) {
+                scripts.forEach(this::checkIn);
+                throw e;
+            }
+            return scripts;
+        }
+
+        /**
+         * Returns a script checked out by {@link #checkOut()}. The most recently used script
+         * is handed out first, keeping the JIT-compiled code of few contexts hot. Scripts
+         * returned after the flow was evicted from the cache are closed.
+         *
+         * @param script script no longer in use
+         */
+        public void checkIn(GraalJsScript script) {
+            if (evicted) {
+                close(script);
+                return;
+            }
+            idle.push(script);
+            // Eviction may have drained the pool in between
+            if (evicted && idle.remove(script)) {
+                close(script);
+            }
+        }
+
+        public int getNumberOfScripts() {
+            return numberOfScripts.get();
+        }
+
+        private GraalJsScript newScript() {
+            GraalJsScript script = createScript(flow, engine);
+            numberOfScripts.incrementAndGet();
+            return script;
+        }
+
+        /* Scripts checked out at eviction are closed when checked in */
+        private void evict() {
+            evicted = true;
+            GraalJsScript script;
+            while ((script = idle.pollFirst()) != null) {
+                close(script);
+            }
+        }
+
+        private void close(GraalJsScript script) {
+            numberOfScripts.decrementAndGet();
+            script.close();
         }
     }
 }
@@ -0,0 +1,134 @@
+package dk.dbc.dataio.jobprocessorgjs.service;
+
+import dk.dbc.dataio.commons.types.Flow;
+import dk.dbc.dataio.commons.types.JavaScriptEngine;
+import dk.dbc.dataio.jobprocessorgjs.Metric;
+import dk.dbc.dataio.jobstore.types.FlowStoreReferences;
+import dk.dbc.dataio.jobstore.types.JobInfoSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads the flows of jobs recently active in job-store into the {@link FlowCache} before
+ * their chunks arrive, so the first chunk of a new flow version does not pay for fetching
+ * the JSAR and evaluating its modules.
+ * <p>
+ * The engine of each candidate flow is checked using the flow cached in job-store, before
+ * its JSAR is fetched, so only flows run by this processor (that is, {@link JavaScriptEngine#GRAALJS}
+ * flows, whose chunks job-store sends to the GraalJS processor queue) are loaded. Flows not
+ * run by this processor are remembered and not checked again. When a warmed flow is used by
+ * its first chunk the time spent loading it is added to the {@code dataio_flow_warmup_avoided_ms}
+ * counter.
+ * </p>
+ */
+public class FlowWarmer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowWarmer.class);
+    private static final int MAX_IGNORED = 1000;
+
+    private final FlowCache flowCache;
+    private final ChunkProcessor.FlowFetcher flowFetcher;
+    private final FlowLoader flowLoader;
+    private final ActiveJobs activeJobs;
+    private final int maxFlows;
+    private final int contextsPerFlow;
+    private final Set<String> ignored = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param flowCache       cache to load flows into
+     * @param flowFetcher     fetches the flow of a job as cached in job-store, possibly without its JSAR
+     * @param flowLoader      completes a flow fetched by the flow fetcher with its JSAR
+     * @param activeJobs      lists jobs recently active in job-store, most recently modified first
+     * @param maxFlows        max number of flows loaded in one warm-up
+     * @param contextsPerFlow number of contexts created for each flow loaded
+     */
+    public FlowWarmer(FlowCache flowCache, ChunkProcessor.FlowFetcher flowFetcher, FlowLoader flowLoader,
+                      ActiveJobs activeJobs, int maxFlows, int contextsPerFlow) {
+        this.flowCache = flowCache;
+        this.flowFetcher = flowFetcher;
+        this.flowLoader = flowLoader;
+        this.activeJobs = activeJobs;
+        this.maxFlows = maxFlows;
+        this.contextsPerFlow = Math.max(1, contextsPerFlow);
+    }
+
+    /**
+     * Loads flows of active jobs not already cached
+     *
+     * @return number of flows loaded
+     */
+    public int warmUp() {
+        Map<String, Integer> jobByFlow = new LinkedHashMap<>();
+        try {
+            for (JobInfoSnapshot job : activeJobs.list()) {
+                flowKey(job).filter(key -> !ignored.contains(key) && !flowCache.contains(key))
+                        .ifPresent(key -> jobByFlow.putIfAbsent(key, job.getJobId()));
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Unable to list active jobs for flow warm-up", e);
+            return 0;
+        }
+        int warmed = 0;
+        for (Map.Entry<String, Integer> flowAndJob : jobByFlow.entrySet()) {
+            if (warmed >= maxFlows) {
+                break;
+            }
+            if (warmUp(flowAndJob.getKey(), flowAndJob.getValue())) {
+                warmed++;
+            }
+        }
+        if (warmed > 0) {
+            Metric.dataio_flow_warmup.counter().inc(warmed);
+            LOGGER.info("Warmed up {} flow(s) ahead of their chunks", warmed);
+        }
+        return warmed;
+    }
+
+    private boolean warmUp(String key, int jobId) {
+        try {
+            Flow flow = flowFetcher.fetch(jobId);
+            if (flow.getContent().getEngine() != JavaScriptEngine.GRAALJS) {
+                ignore(key);
+                return false;
+            }
+            flow = flowLoader.load(flow);
+            if (flow.getContent().getEngine() != JavaScriptEngine.GRAALJS) {
+                ignore(key);
+                return false;
+            }
+            return flowCache.warmUp(key, flow, contextsPerFlow);
+        } catch (Exception e) {
+            // The flow will be loaded (and any failure reported) when its first chunk arrives
+            LOGGER.warn("Unable to warm up flow {} of job {}", key, jobId, e);
+            ignore(key);
+            return false;
+        }
+    }
+
+    private void ignore(String key) {
+        if (ignored.size() >= MAX_IGNORED) {
+            ignored.clear();
+        }
+        ignored.add(key);
+    }
+
+    private static Optional<String> flowKey(JobInfoSnapshot job) {
+        return Optional.ofNullable(job.getFlowStoreReferences())
+                .map(references -> references.getReference(FlowStoreReferences.Elements.FLOW))
+                .map(flow -> FlowCache.key(flow.getId(), flow.getVersion()));
+    }
+
+    public interface ActiveJobs {
+        List<JobInfoSnapshot> list() throws Exception;
+    }
+
+    public interface FlowLoader {
+        Flow load(Flow flow) throws Exception;
+    }
+}
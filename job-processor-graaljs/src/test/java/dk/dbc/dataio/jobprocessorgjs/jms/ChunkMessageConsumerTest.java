@@ -2,10 +2,12 @@ package dk.dbc.dataio.jobprocessorgjs.jms;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dk.dbc.dataio.commons.types.Chunk;
+import dk.dbc.dataio.commons.types.jms.ChunkBinaryCodec;
 import dk.dbc.dataio.commons.types.jms.JMSHeader;
 import dk.dbc.dataio.commons.utils.jobstore.JobStoreServiceConnector;
 import dk.dbc.dataio.commons.utils.test.model.ChunkBuilder;
 import dk.dbc.dataio.jobprocessorgjs.service.ChunkProcessor;
+import jakarta.jms.BytesMessage;
 import jakarta.jms.JMSException;
 import jakarta.jms.TextMessage;
 
@@ -20,7 +22,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ChunkMessageConsumerTest {
@@ -54,6 +58,29 @@ class ChunkMessageConsumerTest {
         assertThat("flowId passed to processor", capturedFlowId.get(), is(42L));
     }
 
+    @Test
+    void onMessage_binaryChunk_processesAndForwardsToJobStore() throws Exception {
+        Chunk chunk = new ChunkBuilder(Chunk.Type.PARTITIONED).setJobId(1).setChunkId(2).build();
+        Chunk processed = new ChunkBuilder(Chunk.Type.PROCESSED).setJobId(1).setChunkId(2).build();
+
+        ChunkProcessor processor = mock(ChunkProcessor.class);
+        when(processor.process(any(), anyLong(), anyLong(), anyString())).thenReturn(processed);
+        JobStoreServiceConnector connector = mock(JobStoreServiceConnector.class);
+        ChunkMessageConsumer consumer = new ChunkMessageConsumer(processor, connector);
+
+        BytesMessage msg = mock(BytesMessage.class);
+        when(msg.getBody(byte[].class)).thenReturn(ChunkBinaryCodec.encode(chunk));
+        when(msg.getObjectProperty(JMSHeader.payload.name)).thenReturn(JMSHeader.CHUNK_BINARY_PAYLOAD_TYPE);
+        when(msg.getObjectProperty(JMSHeader.flowId.name)).thenReturn(42L);
+        when(msg.getObjectProperty(JMSHeader.flowVersion.name)).thenReturn(3L);
+        when(msg.getObjectProperty(JMSHeader.additionalArgs.name)).thenReturn("{\"format\":\"iso\"}");
+
+        consumer.onMessage(msg);
+
+        verify(processor).process(any(), eq(42L), eq(3L), anyString());
+        verify(connector).addChunkIgnoreDuplicates(processed, 1, 2L);
+    }
+
     @Test
     void onMessage_processedChunkType_throwsWithoutCallingProcessor() {
         Chunk chunk = new ChunkBuilder(Chunk.Type.PROCESSED).build();
@@ -0,0 +1,76 @@
+package dk.dbc.dataio.jobprocessorgjs.logstore;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LogStoreWriterTest {
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement insertStatement = mock(PreparedStatement.class);
+
+    @BeforeEach
+    void setupMocks() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(insertStatement);
+    }
+
+    @Test
+    void write_itemsAreInsertedInOneTransactionPerBatch() throws SQLException {
+        LogStoreWriter logStoreWriter = new LogStoreWriter(dataSource, 100, 10, Duration.ofMinutes(1));
+        for (int itemId = 0; itemId < 20; itemId++) {
+            logStoreWriter.write("1", 0, itemId, List.of(newEvent()));
+        }
+        logStoreWriter.close();
+
+        verify(insertStatement, times(20)).addBatch();
+        verify(insertStatement, times(2)).executeBatch();
+        verify(connection, times(2)).commit();
+    }
+
+    @Test
+    void close_flushesPartialBatch() throws SQLException {
+        LogStoreWriter logStoreWriter = new LogStoreWriter(dataSource, 100, 10, Duration.ofMinutes(1));
+        logStoreWriter.write("1", 0, 0, List.of(newEvent()));
+        logStoreWriter.close();
+
+        verify(insertStatement).addBatch();
+        verify(connection).commit();
+        assertThat("queue size", logStoreWriter.getQueueSize(), is(0));
+    }
+
+    @Test
+    void write_noEvents_nothingQueued() {
+        LogStoreWriter logStoreWriter = new LogStoreWriter(dataSource, 100, 10, Duration.ofMinutes(1));
+        logStoreWriter.write("1", 0, 0, List.of());
+        assertThat("queue size", logStoreWriter.getQueueSize(), is(0));
+        logStoreWriter.close();
+    }
+
+    private static ILoggingEvent newEvent() {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerName("javascript");
+        event.setLevel(Level.INFO);
+        event.setMessage("logged by item");
+        event.setThreadName("test");
+        event.setTimeStamp(System.currentTimeMillis());
+        return event;
+    }
+}
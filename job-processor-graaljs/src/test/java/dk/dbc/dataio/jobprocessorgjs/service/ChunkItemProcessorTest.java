@@ -167,6 +167,39 @@ class ChunkItemProcessorTest {
         }
     }
 
+    @Test
+    void process_supplementModifiedByScript_nextItemGetsUnmodifiedSupplement() throws IOException {
+        String js = "export function process(d, s) { s.count = (s.count || 0) + 1; return s.format + s.count; }";
+        try (GraalJsScript script = scriptWith(js)) {
+            ChunkItemProcessor processor = new ChunkItemProcessor(1, 0, script, "{\"format\":\"f\"}",
+                    LogStoreWriter.NOOP);
+            for (int itemId = 0; itemId < 3; itemId++) {
+                ChunkItem result = processor.process(new ChunkItemBuilder()
+                        .setId(itemId).setData("data").setTrackingId("t" + itemId)
+                        .build());
+                assertThat("item " + itemId, new String(result.getData(), StandardCharsets.UTF_8), is("f1"));
+            }
+        }
+    }
+
+    @Test
+    void process_addiTypeItemWithNonJsonMeta_metaEvaluatedAsSupplement() throws IOException {
+        byte[] meta = "{format: 'test-format'}".getBytes(StandardCharsets.UTF_8);
+        byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+        ChunkItem input = ChunkItem.successfulChunkItem()
+                .withId(1)
+                .withType(ChunkItem.Type.ADDI, ChunkItem.Type.BYTES)
+                .withData(new AddiRecord(meta, content).getBytes())
+                .withTrackingId("t1");
+
+        String js = "export function process(data, supplement) { return supplement.format + ':' + data; }";
+        try (GraalJsScript script = scriptWith(js)) {
+            ChunkItem result = processor(script).process(input);
+            assertThat(result.getStatus(), is(ChunkItem.Status.SUCCESS));
+            assertThat(new String(result.getData(), StandardCharsets.UTF_8), is("test-format:hello"));
+        }
+    }
+
     @Test
     void process_successItem_writesItemLogToLogStore() throws IOException {
         ChunkItem input = new ChunkItemBuilder()
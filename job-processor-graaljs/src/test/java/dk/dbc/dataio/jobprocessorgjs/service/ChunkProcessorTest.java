@@ -0,0 +1,109 @@
+package dk.dbc.dataio.jobprocessorgjs.service;
+
+import dk.dbc.dataio.commons.types.Chunk;
+import dk.dbc.dataio.commons.types.ChunkItem;
+import dk.dbc.dataio.commons.types.Flow;
+import dk.dbc.dataio.commons.types.FlowContent;
+import dk.dbc.dataio.commons.utils.test.model.ChunkItemBuilder;
+import dk.dbc.dataio.jobprocessorgjs.health.ProcessorHealth;
+import dk.dbc.dataio.jobprocessorgjs.logstore.LogStoreWriter;
+import org.graalvm.polyglot.Engine;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ChunkProcessorTest {
+    private static final String SCRIPT_ID = "main.js";
+    private static final String FUNCTION = "process";
+    private static final int NUMBER_OF_ITEMS = 25;
+
+    private static Engine engine;
+    private static ExecutorService itemExecutor;
+
+    @BeforeAll
+    static void setup() {
+        engine = Engine.newBuilder("js").build();
+        itemExecutor = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterAll
+    static void teardown() {
+        itemExecutor.shutdownNow();
+        engine.close();
+    }
+
+    @Test
+    void process_parallel_itemsReturnedInItemOrder() throws IOException {
+        Flow flow = flowWith("export function process(d, s) { if (d === 'item7') throw 'boom'; return d.toUpperCase(); }");
+        ChunkProcessor chunkProcessor = new ChunkProcessor(new ProcessorHealth(),
+                new FlowCache(1, Duration.ofMinutes(1), engine), jobId -> flow, LogStoreWriter.NOOP, itemExecutor, 3);
+
+        Chunk result = chunkProcessor.process(newChunk(), flow.getId(), flow.getVersion(), "{}");
+
+        assertThat("ids", result.getItems().stream().map(ChunkItem::getId).collect(Collectors.toList()),
+                is(itemIds()));
+        for (ChunkItem item : result.getItems()) {
+            if (item.getId() == 7) {
+                assertThat("item 7 status", item.getStatus(), is(ChunkItem.Status.FAILURE));
+            } else {
+                assertThat("item " + item.getId() + " data", new String(item.getData(), StandardCharsets.UTF_8),
+                        is("ITEM" + item.getId()));
+            }
+        }
+    }
+
+    @Test
+    void process_noItemExecutor_processesSequentially() throws IOException {
+        Flow flow = flowWith("export function process(d, s) { return d.toUpperCase(); }");
+        ChunkProcessor chunkProcessor = new ChunkProcessor(new ProcessorHealth(),
+                new FlowCache(1, Duration.ofMinutes(1), engine), jobId -> flow, LogStoreWriter.NOOP);
+
+        Chunk result = chunkProcessor.process(newChunk(), flow.getId(), flow.getVersion(), "{}");
+
+        assertThat("ids", result.getItems().stream().map(ChunkItem::getId).collect(Collectors.toList()),
+                is(itemIds()));
+        assertThat("last item data", new String(result.getItems().get(NUMBER_OF_ITEMS - 1).getData(),
+                StandardCharsets.UTF_8), is("ITEM" + (NUMBER_OF_ITEMS - 1)));
+    }
+
+    private static List<Long> itemIds() {
+        return IntStream.range(0, NUMBER_OF_ITEMS).mapToObj(i -> (long) i).collect(Collectors.toList());
+    }
+
+    private static Chunk newChunk() {
+        Chunk chunk = new Chunk(1, 0, Chunk.Type.PARTITIONED);
+        for (int i = 0; i < NUMBER_OF_ITEMS; i++) {
+            chunk.insertItem(new ChunkItemBuilder()
+                    .setId(i).setData("item" + i).setTrackingId("t" + i)
+                    .build());
+        }
+        return chunk;
+    }
+
+    private static Flow flowWith(String jsSource) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            zos.putNextEntry(new ZipEntry(SCRIPT_ID));
+            zos.write(jsSource.getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+        }
+        return new Flow(1, 1, new FlowContent("flow", "test flow", SCRIPT_ID, FUNCTION, null,
+                baos.toByteArray(), new Date()));
+    }
+}
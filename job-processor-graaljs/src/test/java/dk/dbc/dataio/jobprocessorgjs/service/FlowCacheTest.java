@@ -0,0 +1,88 @@
+package dk.dbc.dataio.jobprocessorgjs.service;
+
+import dk.dbc.dataio.commons.types.Flow;
+import dk.dbc.dataio.commons.types.FlowContent;
+import dk.dbc.dataio.jobprocessorgjs.javascript.GraalJsScript;
+import org.graalvm.polyglot.Engine;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FlowCacheTest {
+    private static final String SCRIPT_ID = "main.js";
+
+    private static Engine engine;
+
+    @BeforeAll
+    static void createEngine() {
+        engine = Engine.newBuilder("js").build();
+    }
+
+    @AfterAll
+    static void closeEngine() {
+        engine.close();
+    }
+
+    @Test
+    void checkOut_scriptsAreReusedAndOnlyCreatedWhenAllAreInUse() throws IOException, ExecutionException {
+        Flow flow = newFlow();
+        FlowCache.FlowCacheEntry entry = new FlowCache(1, Duration.ofMinutes(1), engine).get("1.1", () -> flow);
+        assertThat("scripts after load", entry.getNumberOfScripts(), is(1));
+
+        GraalJsScript first = entry.checkOut();
+        GraalJsScript second = entry.checkOut();
+        assertThat("scripts when two are in use", entry.getNumberOfScripts(), is(2));
+
+        entry.checkIn(first);
+        entry.checkIn(second);
+        assertThat("most recently used script is reused", entry.checkOut(), is(sameInstance(second)));
+        assertThat("scripts after reuse", entry.getNumberOfScripts(), is(2));
+    }
+
+    @Test
+    void get_sameEntryForAllCallers() throws IOException, ExecutionException {
+        Flow flow = newFlow();
+        FlowCache flowCache = new FlowCache(1, Duration.ofMinutes(1), engine);
+        assertThat(flowCache.get("1.1", () -> flow), is(sameInstance(flowCache.get("1.1", () -> flow))));
+    }
+
+    @Test
+    void checkIn_afterEviction_closesScript() throws IOException, ExecutionException {
+        Flow flow = newFlow();
+        FlowCache flowCache = new FlowCache(1, Duration.ofMinutes(1), engine);
+        FlowCache.FlowCacheEntry entry = flowCache.get("1.1", () -> flow);
+        GraalJsScript script = entry.checkOut();
+
+        flowCache.clear();
+        assertThat("checked out script is still usable", script.invoke(new Object[]{"data"}), is("data"));
+
+        entry.checkIn(script);
+        assertThat("scripts", entry.getNumberOfScripts(), is(0));
+        assertThrows(IllegalStateException.class, () -> script.invoke(new Object[]{"data"}));
+    }
+
+    private static Flow newFlow() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            zos.putNextEntry(new ZipEntry(SCRIPT_ID));
+            zos.write("export function process(d) { return d; }".getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+        }
+        return new Flow(1, 1, new FlowContent("flow", "test flow", SCRIPT_ID, "process", null,
+                baos.toByteArray(), new Date()));
+    }
+}
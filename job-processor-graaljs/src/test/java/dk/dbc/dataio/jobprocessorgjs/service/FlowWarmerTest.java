@@ -0,0 +1,126 @@
+package dk.dbc.dataio.jobprocessorgjs.service;
+
+import dk.dbc.dataio.commons.types.Flow;
+import dk.dbc.dataio.commons.types.FlowContent;
+import dk.dbc.dataio.commons.types.JavaScriptEngine;
+import dk.dbc.dataio.jobstore.types.FlowStoreReference;
+import dk.dbc.dataio.jobstore.types.FlowStoreReferences;
+import dk.dbc.dataio.jobstore.types.JobInfoSnapshot;
+import org.graalvm.polyglot.Engine;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class FlowWarmerTest {
+    private static final String SCRIPT_ID = "main.js";
+
+    private static Engine engine;
+
+    @BeforeAll
+    static void createEngine() {
+        engine = Engine.newBuilder("js").build();
+    }
+
+    @AfterAll
+    static void closeEngine() {
+        engine.close();
+    }
+
+    @Test
+    void warmUp_loadsFlowsOfActiveJobsOnce() throws IOException, ExecutionException {
+        Flow flow = newFlow(JavaScriptEngine.GRAALJS);
+        FlowCache flowCache = new FlowCache(10, Duration.ofMinutes(1), engine);
+        AtomicInteger fetches = new AtomicInteger();
+        FlowWarmer flowWarmer = new FlowWarmer(flowCache, jobId -> {
+            fetches.incrementAndGet();
+            return flow;
+        }, f -> f, () -> List.of(newJob(1), newJob(2)), 10, 2);
+
+        assertThat("flows warmed up", flowWarmer.warmUp(), is(1));
+        assertThat("fetches", fetches.get(), is(1));
+        assertThat("flow cached", flowCache.contains(FlowCache.key(1, 1)), is(true));
+
+        FlowCache.FlowCacheEntry entry = flowCache.get(FlowCache.key(1, 1), () -> flow);
+        assertThat("contexts created ahead", entry.getNumberOfScripts(), is(2));
+        assertThat("first use claimed", entry.claimFirstUseAfterWarmUp(), is(true));
+        assertThat("first use only claimed once", entry.claimFirstUseAfterWarmUp(), is(false));
+
+        assertThat("flows warmed up when already cached", flowWarmer.warmUp(), is(0));
+        assertThat("fetches when already cached", fetches.get(), is(1));
+    }
+
+    @Test
+    void warmUp_flowNotForGraalJs_isFetchedOnlyOnceAndNeverLoaded() throws IOException {
+        Flow flow = newFlow(JavaScriptEngine.NASHORN);
+        FlowCache flowCache = new FlowCache(10, Duration.ofMinutes(1), engine);
+        AtomicInteger fetches = new AtomicInteger();
+        AtomicInteger loads = new AtomicInteger();
+        FlowWarmer flowWarmer = new FlowWarmer(flowCache, jobId -> {
+            fetches.incrementAndGet();
+            return flow;
+        }, f -> {
+            loads.incrementAndGet();
+            return f;
+        }, () -> List.of(newJob(1)), 10, 1);
+
+        assertThat("1st warm-up", flowWarmer.warmUp(), is(0));
+        assertThat("2nd warm-up", flowWarmer.warmUp(), is(0));
+        assertThat("fetches", fetches.get(), is(1));
+        assertThat("loads", loads.get(), is(0));
+        assertThat("flow cached", flowCache.contains(FlowCache.key(1, 1)), is(false));
+    }
+
+    @Test
+    void warmUp_flowLoadedByChunk_isNotClaimedAsWarmedUp() throws IOException, ExecutionException {
+        Flow flow = newFlow(JavaScriptEngine.GRAALJS);
+        FlowCache flowCache = new FlowCache(10, Duration.ofMinutes(1), engine);
+        FlowCache.FlowCacheEntry entry = flowCache.get(FlowCache.key(1, 1), () -> flow);
+
+        assertThat("warmed up", flowCache.warmUp(FlowCache.key(1, 1), flow, 1), is(false));
+        assertThat("first use claimed", entry.claimFirstUseAfterWarmUp(), is(false));
+    }
+
+    @Test
+    void warmUp_listingFails_warmsUpNothing() {
+        FlowCache flowCache = new FlowCache(10, Duration.ofMinutes(1), engine);
+        FlowWarmer flowWarmer = new FlowWarmer(flowCache, jobId -> {
+            throw new IllegalStateException("not expected");
+        }, f -> f, () -> {
+            throw new IllegalStateException("job-store unavailable");
+        }, 10, 1);
+
+        assertThat(flowWarmer.warmUp(), is(0));
+    }
+
+    private static JobInfoSnapshot newJob(int jobId) {
+        return new JobInfoSnapshot()
+                .withJobId(jobId)
+                .withFlowStoreReferences(new FlowStoreReferences()
+                        .withReference(FlowStoreReferences.Elements.FLOW, new FlowStoreReference(1, 1, "flow")));
+    }
+
+    private static Flow newFlow(JavaScriptEngine jsEngine) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            zos.putNextEntry(new ZipEntry(SCRIPT_ID));
+            zos.write("export function process(d) { return d; }".getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+        }
+        return new Flow(1, 1, new FlowContent("flow", "test flow", SCRIPT_ID, "process", jsEngine,
+                baos.toByteArray(), new Date()));
+    }
+}
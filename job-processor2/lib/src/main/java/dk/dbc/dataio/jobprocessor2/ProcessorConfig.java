@@ -7,7 +7,8 @@ public enum ProcessorConfig implements EnvConfig {
     FLOW_CACHE_SIZE("100"),
     FLOW_CACHE_EXPIRY("PT10m"),
     SHARE_FLOWS("false"),
-    FLOWSTORE_URL;
+    FLOWSTORE_URL,
+    JSAR_CACHE_DIR("/tmp/jsar-cache");
 
     private final String defaultValue;
 
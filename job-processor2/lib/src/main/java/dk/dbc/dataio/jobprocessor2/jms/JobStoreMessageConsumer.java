@@ -1,9 +1,9 @@
 package dk.dbc.dataio.jobprocessor2.jms;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import dk.dbc.commons.useragent.UserAgent;
 import dk.dbc.dataio.common.utils.flowstore.FlowStoreServiceConnector;
 import dk.dbc.dataio.common.utils.flowstore.FlowStoreServiceConnectorUnexpectedStatusCodeException;
+import dk.dbc.dataio.common.utils.flowstore.JsarDiskCache;
 import dk.dbc.dataio.commons.types.Chunk;
 import dk.dbc.dataio.commons.types.ChunkItem;
 import dk.dbc.dataio.commons.types.ConsumedMessage;
@@ -27,6 +27,7 @@ import org.glassfish.jersey.jackson.JacksonFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
@@ -42,6 +43,7 @@ public class JobStoreMessageConsumer extends MessageConsumerAdapter {
 
     private final JobStoreServiceConnector jobStoreServiceConnector;
     private final FlowStoreServiceConnector flowStoreServiceConnector;
+    private final JsarDiskCache jsarDiskCache;
     private final ChunkProcessor chunkProcessor;
     private final HealthService healthService;
     private static final Map<WatchKey, Instant> scriptStartTimes = new ConcurrentHashMap<>();
@@ -54,6 +56,7 @@ public class JobStoreMessageConsumer extends MessageConsumerAdapter {
         jobStoreServiceConnector = serviceHub.jobStoreServiceConnector;
         flowStoreServiceConnector = ProcessorConfig.FLOWSTORE_URL.asOptionalString().map(fs -> new FlowStoreServiceConnector(
                 ClientBuilder.newClient().register(new JacksonFeature()), UserAgent.forInternalRequests(), fs)).orElse(null);
+        jsarDiskCache = createJsarDiskCache(flowStoreServiceConnector);
         chunkProcessor = new ChunkProcessor(healthService, this::getFlow);
         Metric.dataio_jobprocessor_chunk_duration_ms.gauge(this::getLongestRunningChunkDuration);
         zombieWatch.addCheck("script-check" , this::scriptRuntimeCheck);
@@ -63,7 +66,9 @@ public class JobStoreMessageConsumer extends MessageConsumerAdapter {
         Flow flow = jobStoreServiceConnector.getCachedFlow(jobId);
         if(flow.getContent().getJsar() == null) {
             try {
-                byte[] jsar = flowStoreServiceConnector.getJsar(flow.getId());
+                byte[] jsar = jsarDiskCache != null
+                        ? jsarDiskCache.getJsar(flow.getId())
+                        : flowStoreServiceConnector.getJsar(flow.getId());
                 return new Flow(flow.getId(), flow.getVersion(), new FlowContent(jsar, flow.getContent().getTimeOfLastModification()));
             } catch (Exception e) {
                 LOGGER.warn("Unable to retrieve jsar flow {}", flow.getId(), e);
@@ -72,6 +77,20 @@ public class JobStoreMessageConsumer extends MessageConsumerAdapter {
         return flow;
     }
 
+    /* JSARs are kept on local disk by content digest and revalidated by conditional requests */
+    private static JsarDiskCache createJsarDiskCache(FlowStoreServiceConnector flowStoreServiceConnector) {
+        String directory = ProcessorConfig.JSAR_CACHE_DIR.asOptionalString().orElse(null);
+        if (flowStoreServiceConnector == null || directory == null) {
+            return null;
+        }
+        try {
+            return new JsarDiskCache(flowStoreServiceConnector, Path.of(directory));
+        } catch (IllegalStateException e) {
+            LOGGER.warn("JSAR disk cache disabled", e);
+            return null;
+        }
+    }
+
     /**
      * Processes Chunk received in consumed message
      *
@@ -121,14 +140,9 @@ public class JobStoreMessageConsumer extends MessageConsumerAdapter {
     }
 
     protected Chunk extractChunkFromConsumedMessage(ConsumedMessage consumedMessage) throws InvalidMessageException {
-        try {
-            Chunk chunk = MAPPER.readValue(consumedMessage.getMessagePayload(), Chunk.class);
-            confirmLegalChunkTypeOrThrow(chunk, Chunk.Type.PARTITIONED);
-            return chunk;
-        } catch (JsonProcessingException e) {
-            throw new InvalidMessageException(String.format("Message<%s> payload was not valid Chunk type %s",
-                    consumedMessage.getMessageId(), JMSHeader.payload.getHeader(consumedMessage, String.class)), e);
-        }
+        Chunk chunk = readChunk(consumedMessage);
+        confirmLegalChunkTypeOrThrow(chunk, Chunk.Type.PARTITIONED);
+        return chunk;
     }
 
     private Chunk processChunk(Chunk chunk, long flowId, long flowVersion, String additionalArgs) {
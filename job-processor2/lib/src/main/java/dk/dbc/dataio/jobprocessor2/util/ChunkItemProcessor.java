@@ -10,6 +10,7 @@ import dk.dbc.dataio.jobprocessor2.javascript.Script;
 import dk.dbc.dataio.logstore.types.LogStoreTrackingId;
 import dk.dbc.javascript.recordprocessing.FailRecord;
 import dk.dbc.javascript.recordprocessing.IgnoreRecord;
+import org.openjdk.nashorn.api.scripting.JSObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -23,6 +24,8 @@ public class ChunkItemProcessor {
     private final long chunkId;
     private final List<Script> scripts;
     private final String supplementaryData;
+    private JSObject supplementFactory;
+    private JSObject jsonParse;
 
     public ChunkItemProcessor(long jobId, long chunkId, List<Script> scripts, String supplementaryData) {
         this.jobId = jobId;
@@ -64,7 +67,7 @@ public class ChunkItemProcessor {
 
             final String logstoreTrackingId = logstoreMdcPut(chunkItem);
 
-            final ScriptArguments arguments = new ScriptArguments(scripts.get(0), chunkItem, supplementaryData);
+            final ScriptArguments arguments = new ScriptArguments(scripts.get(0), chunkItem);
             String scriptResult = arguments.getItemData();
             for (Script script : scripts) {
                 scriptResult = invokeScript(script, scriptResult, arguments.getSupplement(), logstoreTrackingId);
@@ -162,18 +165,56 @@ public class ChunkItemProcessor {
         return (String) result;
     }
 
-    private static class ScriptArguments {
+    /* Returns a new supplement object for a non-ADDI item. The supplementary data is the same
+       for all items of the chunk, so it is compiled once into a function returning the object
+       literal, giving each item an object of its own without evaluating the data per item. */
+    private Object newSupplement(Script script) throws Throwable {
+        if (supplementFactory == null) {
+            final Object factory = evalSupplement(script, "function () { return (" + supplementaryData + "); }");
+            if (!(factory instanceof JSObject) || !((JSObject) factory).isFunction()) {
+                return evalSupplement(script, supplementaryData);
+            }
+            supplementFactory = (JSObject) factory;
+        }
+        return supplementFactory.call(null);
+    }
+
+    /* Converts the metadata of an ADDI item with the native JSON.parse instead of compiling it
+       as a script, falling back to evaluation for metadata not being strict JSON. */
+    private Object parseMetaData(Script script, String metaData) throws Throwable {
+        if (jsonParse == null) {
+            final Object parse = script.eval("JSON.parse");
+            if (!(parse instanceof JSObject)) {
+                return evalSupplement(script, metaData);
+            }
+            jsonParse = (JSObject) parse;
+        }
+        try {
+            return jsonParse.call(null, metaData);
+        } catch (RuntimeException e) {
+            return evalSupplement(script, metaData);
+        }
+    }
+
+    private static Object evalSupplement(Script script, String supp) throws Throwable {
+        // Something about why you need parentheses in the string around the json
+        // when trying to evaluate the json in javascript (rhino):
+        // https://rayfd.wordpress.com/2007/03/28/why-wont-eval-eval-my-json-or-json-object-object-literal/
+        return script.eval("(" + supp + ")"); // notice the parentheses!
+    }
+
+    private class ScriptArguments {
         private final String itemData;
         private final Object supplement;
 
-        ScriptArguments(Script script, ChunkItem chunkItem, String nonAddiTypeSupplement) throws Throwable {
+        ScriptArguments(Script script, ChunkItem chunkItem) throws Throwable {
             if (chunkItem.isTyped() && chunkItem.getType().get(0) == ChunkItem.Type.ADDI) {
                 final AddiRecord addiRecord = new AddiReader(new ByteArrayInputStream(chunkItem.getData())).next();
                 itemData = StringUtil.asString(addiRecord.getContentData(), chunkItem.getEncoding());
-                supplement = evalSupplement(script, StringUtil.asString(addiRecord.getMetaData()));
+                supplement = parseMetaData(script, StringUtil.asString(addiRecord.getMetaData()));
             } else {
                 itemData = StringUtil.asString(chunkItem.getData(), chunkItem.getEncoding());
-                supplement = evalSupplement(script, nonAddiTypeSupplement);
+                supplement = newSupplement(script);
             }
         }
 
@@ -184,12 +225,5 @@ public class ChunkItemProcessor {
         Object getSupplement() {
             return supplement;
         }
-
-        private Object evalSupplement(Script script, String supp) throws Throwable {
-            // Something about why you need parentheses in the string around the json
-            // when trying to evaluate the json in javascript (rhino):
-            // https://rayfd.wordpress.com/2007/03/28/why-wont-eval-eval-my-json-or-json-object-object-literal/
-            return script.eval("(" + supp + ")"); // notice the parentheses!
-        }
     }
 }
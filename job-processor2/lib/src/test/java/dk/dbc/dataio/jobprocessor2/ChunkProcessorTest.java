@@ -314,6 +314,66 @@ public class ChunkProcessorTest {
                 is(SUBMITTER_ID + " test " + FORMAT));
     }
 
+    @Test
+    void chunkItemsOfTypeAddi_eachScriptCalledWithItsOwnAddiMetadata() {
+        Chunk inputChunk = new ChunkBuilder(Chunk.Type.PARTITIONED)
+                .setJobId(JOB_ID)
+                .setItems(List.of(
+                        getAddiChunkItem(0, "{\"submitter\":1,\"format\":\"a\"}", "test0"),
+                        getAddiChunkItem(1, "{\"submitter\":2,\"format\":\"b\"}", "test1")))
+                .build();
+
+        Flow flow = getFlow(ENTRYPOINT_SCRIPT, FUNCTION_CONCAT, SIMPLE_JSAR);
+
+        ChunkProcessor chunkProcessor = getChunkProcessor(flow);
+        Chunk outputChunk = chunkProcessor.process(inputChunk, flow.getId(), flow.getVersion(), "{}");
+
+        assertChunk(outputChunk, JOB_ID, inputChunk.getChunkId(), 2);
+        assertThat("Chunk item[0] data", getString(outputChunk.getItems().get(0).getData()),
+                is("1 test0 a"));
+        assertThat("Chunk item[1] data", getString(outputChunk.getItems().get(1).getData()),
+                is("2 test1 b"));
+    }
+
+    @Test
+    void chunkItemIsOfTypeAddi_addiMetadataNotStrictJson_scriptArgumentsAreEvaluatedFromAddiMetadata() {
+        Chunk inputChunk = new ChunkBuilder(Chunk.Type.PARTITIONED)
+                .setJobId(JOB_ID)
+                .setItems(Collections.singletonList(
+                        getAddiChunkItem(0, "{submitter: " + SUBMITTER_ID + ", format: '" + FORMAT + "'}", "test")))
+                .build();
+
+        Flow flow = getFlow(ENTRYPOINT_SCRIPT, FUNCTION_CONCAT, SIMPLE_JSAR);
+
+        ChunkProcessor chunkProcessor = getChunkProcessor(flow);
+        Chunk outputChunk = chunkProcessor.process(inputChunk, flow.getId(), flow.getVersion(), "{}");
+
+        assertChunk(outputChunk, JOB_ID, inputChunk.getChunkId(), 1);
+        ChunkItem chunkItem = outputChunk.getItems().get(0);
+        assertThat("Chunk item[0] status", chunkItem.getStatus(),
+                is(ChunkItem.Status.SUCCESS));
+        assertThat("Chunk item[0] data", getString(chunkItem.getData()),
+                is(SUBMITTER_ID + " test " + FORMAT));
+    }
+
+    @Test
+    void ScriptCalledWithAdditionalArgsForEachItem() {
+        Flow flow = getFlow(ENTRYPOINT_SCRIPT, FUNCTION_CONCAT, SIMPLE_JSAR);
+        Chunk inputChunk = new ChunkBuilder(Chunk.Type.PARTITIONED)
+                .setJobId(JOB_ID)
+                .setItems(getChunkItems("test0", "test1"))
+                .build();
+
+        ChunkProcessor chunkProcessor = getChunkProcessor(flow);
+        Chunk outputChunk = chunkProcessor.process(inputChunk, flow.getId(), flow.getVersion(), ADDITIONAL_ARGS);
+
+        assertChunk(outputChunk, JOB_ID, inputChunk.getChunkId(), 2);
+        assertThat("Chunk item[0] data", getString(outputChunk.getItems().get(0).getData()),
+                is(SUBMITTER_ID + " test0 " + FORMAT));
+        assertThat("Chunk item[1] data", getString(outputChunk.getItems().get(1).getData()),
+                is(SUBMITTER_ID + " test1 " + FORMAT));
+    }
+
     @Test
     void cachesFlow() {
         Flow flow = getFlow(ENTRYPOINT_SCRIPT, FUNCTION_TO_UPPER_CASE, SIMPLE_JSAR);
@@ -353,6 +413,16 @@ public class ChunkProcessorTest {
         return items;
     }
 
+    private static ChunkItem getAddiChunkItem(long id, String metaData, String content) {
+        AddiRecord addiRecord = new AddiRecord(
+                metaData.getBytes(StandardCharsets.UTF_8),
+                content.getBytes(StandardCharsets.UTF_8));
+        return ChunkItem.successfulChunkItem()
+                .withId(id)
+                .withType(ChunkItem.Type.ADDI, ChunkItem.Type.BYTES)
+                .withData(addiRecord.getBytes());
+    }
+
     private static Flow getFlow(String entrypointScript, String entrypointFunction, byte[] jsar) {
         return new FlowBuilder()
                 .setContent(new FlowContentBuilder()
@@ -1,11 +1,9 @@
 package dk.dbc.dataio.jobprocessor2.jms;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import dk.dbc.dataio.commons.types.Chunk;
 import dk.dbc.dataio.commons.types.ChunkItem;
 import dk.dbc.dataio.commons.types.ConsumedMessage;
 import dk.dbc.dataio.commons.types.exceptions.InvalidMessageException;
-import dk.dbc.dataio.commons.types.jms.JMSHeader;
 import dk.dbc.dataio.jse.artemis.common.EnvConfig;
 import dk.dbc.dataio.jse.artemis.common.service.ServiceHub;
 import org.slf4j.Logger;
@@ -32,19 +30,14 @@ public class NoOpMessageConsumer extends  JobStoreMessageConsumer {
 
     @Override
     public void handleConsumedMessage(ConsumedMessage consumedMessage) throws InvalidMessageException {
-        try {
-            Chunk chunk = MAPPER.readValue(consumedMessage.getMessagePayload(), Chunk.class);
-            LOGGER.info("Received chunk {} for job {} (returned with nodata items)", chunk.getChunkId(), chunk.getJobId());
-            List<ChunkItem> items = chunk.getItems().stream()
-                    .map(chunkItem -> chunkItem.withData("(no data: just testing)".getBytes()))
-                    .collect(Collectors.toList());
-            Chunk.Type stage = Chunk.Type.valueOf(Config.STAGE.asString());
-            Chunk done = new Chunk(chunk.getJobId(), chunk.getChunkId(), stage);
-            done.addAllItems(items, items);
-            sendResultToJobStore(done);
-        } catch (JsonProcessingException e) {
-            throw new InvalidMessageException(String.format("Message<%s> payload was not valid Chunk type %s",
-                    consumedMessage.getMessageId(), JMSHeader.payload.getHeader(consumedMessage, String.class)), e);
-        }
+        Chunk chunk = readChunk(consumedMessage);
+        LOGGER.info("Received chunk {} for job {} (returned with nodata items)", chunk.getChunkId(), chunk.getJobId());
+        List<ChunkItem> items = chunk.getItems().stream()
+                .map(chunkItem -> chunkItem.withData("(no data: just testing)".getBytes()))
+                .collect(Collectors.toList());
+        Chunk.Type stage = Chunk.Type.valueOf(Config.STAGE.asString());
+        Chunk done = new Chunk(chunk.getJobId(), chunk.getChunkId(), stage);
+        done.addAllItems(items, items);
+        sendResultToJobStore(done);
     }
 }
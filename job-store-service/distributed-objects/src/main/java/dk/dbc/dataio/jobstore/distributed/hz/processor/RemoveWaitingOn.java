@@ -21,7 +21,7 @@ public class RemoveWaitingOn implements EntryProcessor<TrackingKey, DependencyTr
     @Override
     public StatusChangeEvent process(Map.Entry<TrackingKey, DependencyTracking> entry) {
         DependencyTracking dt = entry.getValue();
-        dt.getWaitingOn().remove(key);
+        if(dt == null || !dt.getWaitingOn().remove(key)) return null;
         if(dt.getStatus() == ChunkSchedulingStatus.BLOCKED && dt.getWaitingOn().isEmpty()) {
             dt.setStatus(ChunkSchedulingStatus.READY_FOR_DELIVERY);
             entry.setValue(dt);
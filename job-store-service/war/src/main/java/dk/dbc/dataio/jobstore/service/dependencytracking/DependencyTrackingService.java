@@ -70,6 +70,11 @@ public class DependencyTrackingService {
     private final IMap<TrackingKey, DependencyTracking> dependencyTracker = Hazelcast.Objects.DEPENDENCY_TRACKING.get();
     private final IMap<Integer, Map<ChunkSchedulingStatus, Integer>> countersMap = Hazelcast.Objects.SINK_STATUS.get();
     private final IMap<WaitFor, TrackingKey> lastTracker = Hazelcast.Objects.LAST_TRACKER.get();
+    private final SinkStatusNearCache sinkStatusCache = new SinkStatusNearCache(countersMap);
+    private final WaitingOnIndex waitingOnIndex = new WaitingOnIndex(Hazelcast.Objects.WAITING_ON_INDEX.get(),
+            Hazelcast.Objects.WAITING_ON_INDEX_STATE.get(), Hazelcast::waitingOnIndexMembers);
+    private final RemovedBlockerQueue removedBlockers = new RemovedBlockerQueue(dependencyTracker);
+    private static final int RELEASE_BATCH_SIZE = 1000;
     @Inject
     @ConfigProperty(name = "WAIT_FOR_TRACKING_ENABLED", defaultValue = "false")
     private boolean enableWaitForTracking;
@@ -84,6 +89,8 @@ public class DependencyTrackingService {
 
     @PreDestroy
     public void shutdown() {
+        sinkStatusCache.stop();
+        removedBlockers.stop();
         LOGGER.info("Commence Hazelcast node shutdown");
         Hazelcast.shutdownNode();
         LOGGER.info("Hazelcast node shutdown completed");
@@ -96,7 +103,10 @@ public class DependencyTrackingService {
     public DependencyTrackingService init(boolean enableWaitForTracking) {
         this.enableWaitForTracking = enableWaitForTracking;
         if(enableWaitForTracking && Hazelcast.isMaster()) lastTracker.putAll(rebuildTrackerMap());
+        if(Hazelcast.isMaster()) waitingOnIndex.rebuild(dependencyTracker);
         recountSinkStatus(Set.of());
+        sinkStatusCache.start();
+        removedBlockers.start();
         return this;
     }
 
@@ -106,8 +116,12 @@ public class DependencyTrackingService {
         Set<TrackingKey> waitingOn = entity.getWaitingOn();
         TrackingKey key = entity.getKey();
         dependencyTracker.set(key, entity);
-        countersMap.putIfAbsent(sinkId, new EnumMap<>(ChunkSchedulingStatus.class));
-        countersMap.executeOnKey(entity.getSinkId(), new UpdateCounter(entity.getStatus(), 1));
+        waitingOnIndex.add(key, waitingOn);
+        if(!sinkStatusCache.contains(sinkId)) {
+            countersMap.putIfAbsent(sinkId, new EnumMap<>(ChunkSchedulingStatus.class));
+            sinkStatusCache.putIfAbsent(sinkId);
+        }
+        updateCounters(sinkId, Map.of(entity.getStatus(), 1));
         removeDeadWOs(key, waitingOn);
         return key;
     }
@@ -120,10 +134,15 @@ public class DependencyTrackingService {
         boostPriorities(dt.getKey().getJobId(), chunksToWaitFor, dt.getPriority(), new HashSet<>());
     }
 
+    /**
+     * Remaining capacity of given status for given sink as seen by this member.
+     * Counters are read from a member local near-cache, so the result may lag
+     * changes made by other members by the latency of entry events.
+     */
     @Timed
     public int capacity(int sinkId, ChunkSchedulingStatus status) {
         if(status.getMax() == null) throw new IllegalArgumentException("This status does not have a capacity");
-        return status.getMax() - getCount(sinkId, status);
+        return status.getMax() - sinkStatusCache.getCount(sinkId, status);
     }
 
     public boolean isEmpty() {
@@ -139,13 +158,15 @@ public class DependencyTrackingService {
                 return;
             }
             ChunkSchedulingStatus oldStatus = entity.getStatus();
+            Set<TrackingKey> oldWaitingOn = Set.copyOf(entity.getWaitingOn());
             consumer.accept(entity);
             ChunkSchedulingStatus status = entity.getStatus();
             if(oldStatus != status) {
-                countersMap.executeOnKey(entity.getSinkId(), new UpdateCounter(Map.of(oldStatus, -1, status, 1)));
+                updateCounters(entity.getSinkId(), Map.of(oldStatus, -1, status, 1));
             }
             entity.updateLastModified();
             dependencyTracker.set(key, entity);
+            waitingOnIndex.add(key, entity.getWaitingOn().stream().filter(k -> !oldWaitingOn.contains(k)).collect(Collectors.toSet()));
             removeDeadWOs(key, entity.getWaitingOn());
         } catch (InterruptedException ignored) {
             Thread.currentThread().interrupt();
@@ -191,7 +212,10 @@ public class DependencyTrackingService {
     @Timed
     @SuppressWarnings("unchecked")
     public void removeJobId(int jobId) {
-        remove(Predicates.newPredicateBuilder().getEntryObject().key().get(JOB_ID).equal(jobId));
+        Predicate<TrackingKey, DependencyTracking> predicate = Predicates.newPredicateBuilder().getEntryObject().key().get(JOB_ID).equal(jobId);
+        Set<TrackingKey> keys = dependencyTracker.keySet(predicate);
+        remove(predicate);
+        waitingOnIndex.removeBlockers(keys);
         if(enableWaitForTracking) lastTracker.removeAll(Predicates.newPredicateBuilder().getEntryObject().get(JOB_ID).equal(jobId));
     }
 
@@ -199,15 +223,28 @@ public class DependencyTrackingService {
     public void addToChunksToWaitFor(TrackingKey key, Set<TrackingKey> chunksToWaitFor) {
         Set<DependencyTrackingRO> allWOs = chunksToWaitFor.stream().filter(k -> !key.equals(k)).map(this::get).filter(Objects::nonNull).collect(Collectors.toSet());
         Set<TrackingKey> reducedWOs = optimizeDependencies(allWOs);
+        waitingOnIndex.add(key, reducedWOs);
         StatusChangeEvent changeEvent = dependencyTracker.executeOnKey(key, new AddTerminationWaitingOn(reducedWOs));
         updateCounters(Stream.of(changeEvent));
         removeDeadWOs(key, reducedWOs);
     }
 
+    /**
+     * Removes given key from the waitingOn set of all chunks waiting on it
+     *
+     * @param key key of chunk no longer blocking
+     * @return keys of chunks having been unblocked
+     */
     @Timed(name = "removeWaitingOn")
     public Set<TrackingKey> removeFromWaitingOn(TrackingKey key) {
-        RemoveWaitingOn processor = new RemoveWaitingOn(key);
-        Map<TrackingKey, StatusChangeEvent> map = dependencyTracker.executeOnEntries(processor, Predicates.equal("waitingOn[any]", key));
+        Set<TrackingKey> waiting = waitingOnIndex.removeBlocker(key);
+        Map<TrackingKey, StatusChangeEvent> map;
+        if(waitingOnIndex.isComplete()) {
+            if(waiting.isEmpty()) return Set.of();
+            map = dependencyTracker.executeOnKeys(waiting, new RemoveWaitingOn(key));
+        } else {
+            map = dependencyTracker.executeOnEntries(new RemoveWaitingOn(key), Predicates.equal("waitingOn[any]", key));
+        }
         updateCounters(map.values().stream());
         return map.entrySet().stream()
                 .filter(e -> e.getValue() != null)
@@ -215,6 +252,23 @@ public class DependencyTrackingService {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Releases chunks waiting on trackers removed since last call, as collected by
+     * this member. Chunks already released by the remover are not processed again,
+     * since the waitingOn index no longer holds relations for their blocker.
+     *
+     * @return keys of chunks having been unblocked
+     */
+    @Timed
+    public Set<TrackingKey> releaseRemovedBlockers() {
+        Set<TrackingKey> unblocked = new HashSet<>();
+        List<TrackingKey> removed;
+        while(!(removed = removedBlockers.drain(RELEASE_BATCH_SIZE)).isEmpty()) {
+            removed.forEach(key -> unblocked.addAll(removeFromWaitingOn(key)));
+        }
+        return unblocked;
+    }
+
     @Timed
     public StatusChangeEvent setStatus(TrackingKey key, ChunkSchedulingStatus status) {
         return setStatus(key, status, false);
@@ -238,7 +292,7 @@ public class DependencyTrackingService {
     public void remove(TrackingKey key) {
         DependencyTracking removed = dependencyTracker.remove(key);
         if(removed == null) return;
-        countersMap.executeOnKey(removed.getSinkId(), new UpdateCounter(removed.getStatus(), -1));
+        updateCounters(removed.getSinkId(), Map.of(removed.getStatus(), -1));
         if(enableWaitForTracking) {
             PredicateBuilder.EntryObject o = Predicates.newPredicateBuilder().getEntryObject();
             lastTracker.removeAll(o.get("jobId").equal(key.getJobId()).and(o.get("chunkId").equal(key.getChunkId())));
@@ -269,8 +323,18 @@ public class DependencyTrackingService {
         return lastTracker.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 
+    /**
+     * Reconciles the waitingOn index after cluster membership changes, since
+     * members not maintaining the index may have added trackers. Until then
+     * chunks waiting on a chunk are found by querying the dependency tracking map.
+     */
+    public void reconcileWaitingOnIndex() {
+        waitingOnIndex.reconcile(dependencyTracker);
+    }
+
     public void reload() {
         dependencyTracker.loadAll(true);
+        waitingOnIndex.rebuild(dependencyTracker);
         recountSinkStatus(Set.of());
     }
 
@@ -279,6 +343,7 @@ public class DependencyTrackingService {
         if(sinkIds.isEmpty()) countersMap.clear();
         else sinkIds.forEach(countersMap::remove);
         countersMap.putAll(map);
+        sinkStatusCache.reload();
         LOGGER.info("Completed status map recount for {}", sinkIds);
     }
 
@@ -331,7 +396,17 @@ public class DependencyTrackingService {
 
     @Timed
     public List<TrackingKey> findChunksWaitingForMe(TrackingKey key, int sinkId) {
-        return dependencyTracker.keySet(new WaitingOn(sinkId, key)).stream()
+        WaitingOn waitingOn = new WaitingOn(sinkId, key);
+        if(!waitingOnIndex.isComplete()) {
+            return dependencyTracker.keySet(waitingOn).stream()
+                    .sorted(Comparator.comparing(TrackingKey::getJobId).thenComparing(TrackingKey::getChunkId))
+                    .collect(Collectors.toList());
+        }
+        Set<TrackingKey> waiting = waitingOnIndex.getWaiting(key);
+        if(waiting.isEmpty()) return List.of();
+        return dependencyTracker.getAll(waiting).entrySet().stream()
+                .filter(waitingOn::apply)
+                .map(Map.Entry::getKey)
                 .sorted(Comparator.comparing(TrackingKey::getJobId).thenComparing(TrackingKey::getChunkId))
                 .collect(Collectors.toList());
     }
@@ -360,6 +435,13 @@ public class DependencyTrackingService {
         return dependencyTracker.containsKey(new TrackingKey(chunkEntity.getKey().getJobId(), chunkEntity.getKey().getId()));
     }
 
+    /**
+     * Full scan of all blocked chunks, releasing those waiting on chunks no longer tracked.
+     * Blocked chunks are normally released incrementally as their blockers are removed,
+     * see {@link #releaseRemovedBlockers()}, so this is merely a consistency check.
+     *
+     * @return keys of chunks having been released
+     */
     @Stopwatch
     public Set<TrackingKey> recheckBlocks() {
         Collection<DependencyTracking> deps = findDependencies(ChunkSchedulingStatus.BLOCKED, null, null);
@@ -427,8 +509,11 @@ public class DependencyTrackingService {
     }
 
     private void removeDeadWOs(TrackingKey key, Set<TrackingKey> waitingOn) {
+        if(waitingOn == null || waitingOn.isEmpty()) return;
+        // A single batched lookup instead of a containsKey round trip per key
+        Set<TrackingKey> alive = dependencyTracker.getAll(waitingOn).keySet();
         Stream<StatusChangeEvent> changes = waitingOn.stream()
-                .filter(k -> !dependencyTracker.containsKey(k))
+                .filter(k -> !alive.contains(k))
                 .map(k -> dependencyTracker.executeOnKey(key, new RemoveWaitingOn(k)));
         updateCounters(changes);
     }
@@ -441,6 +526,11 @@ public class DependencyTrackingService {
     private void updateCounters(Integer sinkId, List<StatusChangeEvent> statusChangeEvents) {
         EnumMap<ChunkSchedulingStatus, Integer> deltas = new EnumMap<>(ChunkSchedulingStatus.class);
         statusChangeEvents.forEach(e -> e.apply(deltas));
+        updateCounters(sinkId, deltas);
+    }
+
+    private void updateCounters(int sinkId, Map<ChunkSchedulingStatus, Integer> deltas) {
         countersMap.executeOnKey(sinkId, new UpdateCounter(deltas));
+        sinkStatusCache.apply(sinkId, deltas);
     }
 }
@@ -14,15 +14,19 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @WebListener
 public class Hazelcast implements ServletContextListener {
     private static final Logger LOGGER = LoggerFactory.getLogger(Hazelcast.class);
     private static HazelcastInstance INSTANCE;
     private static final AtomicBoolean STOPPING = new AtomicBoolean(false);
+    /* Member attribute set by members maintaining the waitingOn index */
+    public static final String WAITING_ON_INDEX_ATTRIBUTE = "waiting.on.index";
 
     private static HazelcastInstance startInstance() {
         String configFile = Optional.ofNullable(System.getenv("JOBSTORE_HZ_CONFIG"))
@@ -41,6 +45,7 @@ public class Hazelcast implements ServletContextListener {
         Config config = new XmlConfigBuilder(configStream).build();
         config.setInstanceName(System.getenv("HOSTNAME"));
         config.setClassLoader(Hazelcast.class.getClassLoader());
+        config.getMemberAttributeConfig().setAttribute(WAITING_ON_INDEX_ATTRIBUTE, "true");
         return config;
     }
 
@@ -73,6 +78,16 @@ public class Hazelcast implements ServletContextListener {
         return !isMaster();
     }
 
+    /**
+     * @return identification of the current cluster members, or null if any
+     * member does not maintain the waitingOn index, e.g. during a rolling deploy
+     */
+    public static String waitingOnIndexMembers() {
+        Set<Member> members = getInstance().getCluster().getMembers();
+        if(members.stream().anyMatch(m -> m.getAttribute(WAITING_ON_INDEX_ATTRIBUTE) == null)) return null;
+        return members.stream().map(m -> m.getUuid().toString()).sorted().collect(Collectors.joining(","));
+    }
+
     public static boolean isReady() {
         return !STOPPING.get() && Hazelcast.getInstance().getLifecycleService().isRunning() && Hazelcast.getInstance().getPartitionService().isClusterSafe();
     }
@@ -86,6 +101,8 @@ public class Hazelcast implements ServletContextListener {
     public enum Objects {
         DEPENDENCY_TRACKING(() -> getInstance().getMap("dependencies")),
         LAST_TRACKER(() -> getInstance().getMap("last.tracker")),
+        WAITING_ON_INDEX(() -> getInstance().getMultiMap("waiting.on.index")),
+        WAITING_ON_INDEX_STATE(() -> getInstance().getMap("waiting.on.index.state")),
         ABORTED_JOBS(() -> getInstance().getSet("aborted.jobs")),
         SINK_STATUS(() -> getInstance().getMap("status.map"));
 
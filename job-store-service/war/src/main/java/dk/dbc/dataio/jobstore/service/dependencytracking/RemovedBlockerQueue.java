@@ -0,0 +1,69 @@
+package dk.dbc.dataio.jobstore.service.dependencytracking;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.query.Predicates;
+import dk.dbc.dataio.jobstore.distributed.DependencyTracking;
+import dk.dbc.dataio.jobstore.distributed.TrackingKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects keys of trackers removed from the dependency tracking map, so chunks
+ * waiting on them can be released incrementally instead of by scanning all blocked
+ * chunks.
+ * <p>
+ * The listener is registered as a local entry listener, meaning each member only
+ * receives removals of the entries it owns, and every removal is thus queued once
+ * in the cluster. Hazelcast event threads must not block, so keys are merely queued
+ * here and processed by {@link DependencyTrackingService#releaseRemovedBlockers()}.
+ * </p>
+ */
+public class RemovedBlockerQueue implements EntryRemovedListener<TrackingKey, DependencyTracking> {
+    private final IMap<TrackingKey, DependencyTracking> dependencyTracker;
+    private final ConcurrentLinkedQueue<TrackingKey> removed = new ConcurrentLinkedQueue<>();
+    private UUID listenerId;
+
+    public RemovedBlockerQueue(IMap<TrackingKey, DependencyTracking> dependencyTracker) {
+        this.dependencyTracker = dependencyTracker;
+    }
+
+    public synchronized void start() {
+        if (listenerId == null) {
+            listenerId = dependencyTracker.addLocalEntryListener(this, Predicates.alwaysTrue(), false);
+        }
+    }
+
+    public synchronized void stop() {
+        if (listenerId != null) {
+            dependencyTracker.removeEntryListener(listenerId);
+            listenerId = null;
+        }
+    }
+
+    /**
+     * @param max maximum number of keys to take
+     * @return keys of removed trackers in order of removal, and no longer queued
+     */
+    public List<TrackingKey> drain(int max) {
+        List<TrackingKey> keys = new ArrayList<>();
+        TrackingKey key;
+        while (keys.size() < max && (key = removed.poll()) != null) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    public int size() {
+        return removed.size();
+    }
+
+    @Override
+    public void entryRemoved(EntryEvent<TrackingKey, DependencyTracking> event) {
+        removed.add(event.getKey());
+    }
+}
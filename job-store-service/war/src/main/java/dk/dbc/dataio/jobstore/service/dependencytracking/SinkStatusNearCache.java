@@ -0,0 +1,129 @@
+package dk.dbc.dataio.jobstore.service.dependencytracking;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.MapEvent;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.map.listener.MapClearedListener;
+import dk.dbc.dataio.jobstore.distributed.ChunkSchedulingStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Member local copy of the distributed sink status counters map.
+ * <p>
+ * The copy is kept up to date by entry events from the distributed map, each carrying
+ * the authoritative counters of a sink, so reading counters never leaves the member.
+ * Counter changes made by this member are applied locally right away, and are
+ * subsequently superseded by the event of the distributed update.
+ * </p>
+ */
+public class SinkStatusNearCache implements EntryAddedListener<Integer, Map<ChunkSchedulingStatus, Integer>>,
+        EntryUpdatedListener<Integer, Map<ChunkSchedulingStatus, Integer>>,
+        EntryRemovedListener<Integer, Map<ChunkSchedulingStatus, Integer>>,
+        MapClearedListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SinkStatusNearCache.class);
+
+    private final IMap<Integer, Map<ChunkSchedulingStatus, Integer>> countersMap;
+    private final Map<Integer, Map<ChunkSchedulingStatus, Integer>> counters = new ConcurrentHashMap<>();
+    private UUID listenerId;
+
+    public SinkStatusNearCache(IMap<Integer, Map<ChunkSchedulingStatus, Integer>> countersMap) {
+        this.countersMap = countersMap;
+    }
+
+    /**
+     * Starts listening for changes and (re)loads all counters from the distributed map
+     */
+    public synchronized void start() {
+        if (listenerId == null) {
+            listenerId = countersMap.addEntryListener(this, true);
+        }
+        reload();
+    }
+
+    public synchronized void stop() {
+        if (listenerId != null) {
+            countersMap.removeEntryListener(listenerId);
+            listenerId = null;
+        }
+    }
+
+    public void reload() {
+        counters.clear();
+        countersMap.forEach(this::put);
+        LOGGER.info("Loaded status counters for {} sinks", counters.size());
+    }
+
+    public boolean contains(int sinkId) {
+        return counters.containsKey(sinkId);
+    }
+
+    /**
+     * Adds empty counters for given sink unless already known, for use when
+     * this member has just created the counters in the distributed map
+     *
+     * @param sinkId ID of sink
+     */
+    public void putIfAbsent(int sinkId) {
+        counters.putIfAbsent(sinkId, Collections.unmodifiableMap(new EnumMap<>(ChunkSchedulingStatus.class)));
+    }
+
+    public int getCount(int sinkId, ChunkSchedulingStatus status) {
+        return Optional.ofNullable(counters.get(sinkId)).map(m -> m.get(status)).orElse(0);
+    }
+
+    /**
+     * Applies counter changes made by this member ahead of the corresponding entry event
+     *
+     * @param sinkId ID of sink
+     * @param deltas counter changes
+     */
+    public void apply(int sinkId, Map<ChunkSchedulingStatus, Integer> deltas) {
+        counters.computeIfPresent(sinkId, (id, current) -> {
+            Map<ChunkSchedulingStatus, Integer> updated = new EnumMap<>(ChunkSchedulingStatus.class);
+            updated.putAll(current);
+            deltas.forEach((status, delta) -> updated.merge(status, delta, Integer::sum));
+            return Collections.unmodifiableMap(updated);
+        });
+    }
+
+    @Override
+    public void entryAdded(EntryEvent<Integer, Map<ChunkSchedulingStatus, Integer>> event) {
+        put(event.getKey(), event.getValue());
+    }
+
+    @Override
+    public void entryUpdated(EntryEvent<Integer, Map<ChunkSchedulingStatus, Integer>> event) {
+        put(event.getKey(), event.getValue());
+    }
+
+    @Override
+    public void entryRemoved(EntryEvent<Integer, Map<ChunkSchedulingStatus, Integer>> event) {
+        counters.remove(event.getKey());
+    }
+
+    @Override
+    public void mapCleared(MapEvent event) {
+        counters.clear();
+    }
+
+    private void put(Integer sinkId, Map<ChunkSchedulingStatus, Integer> value) {
+        if (value == null) {
+            counters.remove(sinkId);
+        } else {
+            Map<ChunkSchedulingStatus, Integer> copy = new EnumMap<>(ChunkSchedulingStatus.class);
+            copy.putAll(value);
+            counters.put(sinkId, Collections.unmodifiableMap(copy));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package dk.dbc.dataio.jobstore.service.dependencytracking;
+
+import com.hazelcast.map.IMap;
+import com.hazelcast.multimap.MultiMap;
+import dk.dbc.dataio.jobstore.distributed.DependencyTracking;
+import dk.dbc.dataio.jobstore.distributed.TrackingKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Reverse index of the waitingOn relation of the dependency tracking map, mapping
+ * each blocking chunk to the chunks waiting on it.
+ * <p>
+ * The index is a multimap keyed by the blocking chunk, so all dependents of a chunk
+ * live in the partition of that chunk and are looked up in a single operation.
+ * The index is allowed to hold more relations than currently present in the
+ * dependency tracking map (removed trackers are not purged as waiters), but
+ * never fewer, so consumers must verify the relation against the tracker itself.
+ * </p>
+ * <p>
+ * Members of an older version may add trackers without maintaining the index, so
+ * the index is only complete once it has been rebuilt or reconciled for the current
+ * cluster members, all of them maintaining the index. Until then, see
+ * {@link #isComplete()}, consumers must fall back to querying the dependency
+ * tracking map itself. The master reconciles the index after membership changes.
+ * </p>
+ */
+public class WaitingOnIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WaitingOnIndex.class);
+
+    private static final String RECONCILED_MEMBERS = "reconciled.members";
+
+    private final MultiMap<TrackingKey, TrackingKey> index;
+    private final IMap<String, String> state;
+    private final Supplier<String> members;
+    private volatile String confirmedMembers;
+
+    /**
+     * @param index   multimap holding the index
+     * @param state   map holding the members the index was last completed for
+     * @param members supplier of the identification of the current cluster members,
+     *                supplying null if any member does not maintain the index
+     */
+    public WaitingOnIndex(MultiMap<TrackingKey, TrackingKey> index, IMap<String, String> state, Supplier<String> members) {
+        this.index = index;
+        this.state = state;
+        this.members = members;
+    }
+
+    /**
+     * @return true if the index holds all relations of the dependency tracking map,
+     * false if it may be missing relations
+     */
+    public boolean isComplete() {
+        String current = members.get();
+        if (current == null) return false;
+        if (current.equals(confirmedMembers)) return true;
+        if (current.equals(state.get(RECONCILED_MEMBERS))) {
+            confirmedMembers = current;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds relations from given waiting chunk to all of given blocking chunks
+     *
+     * @param waiting   key of waiting chunk
+     * @param blockedBy keys of blocking chunks
+     */
+    public void add(TrackingKey waiting, Collection<TrackingKey> blockedBy) {
+        if (blockedBy == null || blockedBy.isEmpty()) return;
+        Map<TrackingKey, Collection<? extends TrackingKey>> relations = new HashMap<>();
+        blockedBy.stream()
+                .filter(blocker -> !blocker.equals(waiting))
+                .forEach(blocker -> relations.put(blocker, Set.of(waiting)));
+        if (!relations.isEmpty()) index.putAllAsync(relations).toCompletableFuture().join();
+    }
+
+    /**
+     * @param blocker key of blocking chunk
+     * @return keys of chunks (possibly) waiting on given chunk
+     */
+    public Set<TrackingKey> getWaiting(TrackingKey blocker) {
+        return new HashSet<>(index.get(blocker));
+    }
+
+    /**
+     * Removes a blocking chunk from the index
+     *
+     * @param blocker key of blocking chunk
+     * @return keys of chunks (possibly) waiting on given chunk
+     */
+    public Set<TrackingKey> removeBlocker(TrackingKey blocker) {
+        return new HashSet<>(index.remove(blocker));
+    }
+
+    public void removeBlockers(Collection<TrackingKey> blockers) {
+        blockers.forEach(index::delete);
+    }
+
+    /**
+     * Rebuilds the entire index from given dependency tracking map
+     *
+     * @param dependencyTracker dependency tracking map
+     */
+    public void rebuild(IMap<TrackingKey, DependencyTracking> dependencyTracker) {
+        String current = members.get();
+        index.clear();
+        LOGGER.info("Rebuilt waitingOn index with {} relations", addAll(dependencyTracker));
+        markComplete(current);
+    }
+
+    /**
+     * Adds any relations of given dependency tracking map missing from the index,
+     * unless the index is already complete for the current cluster members. Unlike
+     * {@link #rebuild(IMap)} the index is never emptied, so lookups keep finding the
+     * relations already present while reconciling.
+     *
+     * @param dependencyTracker dependency tracking map
+     * @return true if reconciled, false if not needed or not yet possible
+     */
+    public boolean reconcile(IMap<TrackingKey, DependencyTracking> dependencyTracker) {
+        String current = members.get();
+        if (current == null || current.equals(state.get(RECONCILED_MEMBERS))) return false;
+        LOGGER.info("Reconciled waitingOn index with {} relations for members {}", addAll(dependencyTracker), current);
+        markComplete(current);
+        return true;
+    }
+
+    private int addAll(IMap<TrackingKey, DependencyTracking> dependencyTracker) {
+        int relations = 0;
+        for (DependencyTracking dt : dependencyTracker.values()) {
+            Set<TrackingKey> waitingOn = dt.getWaitingOn();
+            if (waitingOn != null && !waitingOn.isEmpty()) {
+                add(dt.getKey(), waitingOn);
+                relations += waitingOn.size();
+            }
+        }
+        return relations;
+    }
+
+    private void markComplete(String current) {
+        if (current != null) state.set(RECONCILED_MEMBERS, current);
+    }
+}
@@ -1,16 +1,24 @@
 package dk.dbc.dataio.jobstore.service.ejb;
 
+import dk.dbc.commons.jsonb.JSONBContext;
+import dk.dbc.commons.jsonb.JSONBException;
+import dk.dbc.dataio.commons.types.Chunk;
+import dk.dbc.dataio.commons.types.jms.ChunkBinaryCodec;
 import dk.dbc.dataio.commons.types.jms.JMSHeader;
 import dk.dbc.dataio.jobstore.service.entity.JobEntity;
 import dk.dbc.dataio.jobstore.types.JobStoreException;
+import jakarta.ejb.EJB;
 import jakarta.ejb.TransactionAttribute;
 import jakarta.ejb.TransactionAttributeType;
-import jakarta.jms.ConnectionFactory;
+import jakarta.inject.Inject;
+import jakarta.jms.BytesMessage;
 import jakarta.jms.JMSContext;
 import jakarta.jms.JMSException;
 import jakarta.jms.JMSProducer;
+import jakarta.jms.Message;
 import jakarta.jms.Queue;
 import jakarta.jms.TextMessage;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,7 +27,14 @@ import java.util.function.Function;
 public abstract class AbstractMessageProducer {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractMessageProducer.class);
     protected Function<JobEntity, String> queueNameFromJob;
-    protected ConnectionFactory connectionFactory;
+
+    @EJB
+    protected JmsSessionPool sessionPool;
+
+    /* Consumers accept both chunk payload formats, so binary chunks can be enabled once all are deployed */
+    @Inject
+    @ConfigProperty(name = "JMS_BINARY_CHUNKS", defaultValue = "false")
+    boolean binaryChunks;
 
     protected AbstractMessageProducer(Function<JobEntity, String> queueNameFromJob) {
         this.queueNameFromJob = queueNameFromJob;
@@ -28,18 +43,46 @@ public abstract class AbstractMessageProducer {
     @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
     public void sendAbort(JobEntity job) throws JobStoreException {
         String queueName = queueNameFromJob.apply(job);
-        try(JMSContext context = connectionFactory.createContext()) {
+        try(JmsSessionPool.Session session = sessionPool.acquire()) {
+            JMSContext context = session.getContext();
             TextMessage message = context.createTextMessage();
             JMSHeader.payload.addHeader(message, JMSHeader.ABORT_PAYLOAD_TYPE);
             JMSHeader.abortId.addHeader(message, job.getId());
             LOGGER.warn("Sending abort for job {} to queue {}", job.getId(), queueName);
             send(context, message, job, 9);
+            session.commit();
         } catch (JMSException e) {
             throw new JobStoreException("Unable to send job abort for " + job.getId() +  " to queue " + queueName, e);
         }
     }
 
-    protected void send(JMSContext context, TextMessage message, JobEntity job, int priority) {
+    /**
+     * Creates message with given chunk as payload, either as JSON in a TextMessage
+     * with payload type {@value JMSHeader#CHUNK_PAYLOAD_TYPE} or, when binary chunk
+     * messages are enabled, encoded by {@link ChunkBinaryCodec} in a BytesMessage with
+     * payload type {@value JMSHeader#CHUNK_BINARY_PAYLOAD_TYPE}
+     *
+     * @param context      active JMS context
+     * @param chunk        chunk to be added as payload
+     * @param jsonbContext JSON binding context used for JSON payloads
+     * @return message with payload header set
+     * @throws JSONBException when unable to marshall chunk to JSON
+     * @throws JMSException   when unable to create JMS message
+     */
+    protected Message createChunkMessage(JMSContext context, Chunk chunk, JSONBContext jsonbContext)
+            throws JSONBException, JMSException {
+        if (binaryChunks) {
+            BytesMessage message = context.createBytesMessage();
+            message.writeBytes(ChunkBinaryCodec.encode(chunk));
+            JMSHeader.payload.addHeader(message, JMSHeader.CHUNK_BINARY_PAYLOAD_TYPE);
+            return message;
+        }
+        TextMessage message = context.createTextMessage(jsonbContext.marshall(chunk));
+        JMSHeader.payload.addHeader(message, JMSHeader.CHUNK_PAYLOAD_TYPE);
+        return message;
+    }
+
+    protected void send(JMSContext context, Message message, JobEntity job, int priority) {
         String qname = queueNameFromJob.apply(job);
         Queue queue = context.createQueue(qname.contains("::") ? qname : qname + "::" + qname);
         JMSProducer producer = context.createProducer();
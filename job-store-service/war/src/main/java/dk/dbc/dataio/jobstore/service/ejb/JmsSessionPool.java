@@ -0,0 +1,162 @@
+package dk.dbc.dataio.jobstore.service.ejb;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Singleton;
+import jakarta.inject.Inject;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSContext;
+import jakarta.jms.JMSRuntimeException;
+import org.apache.activemq.artemis.jms.client.ActiveMQXAConnectionFactory;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of long-lived transacted JMS sessions shared by the job-store message producers,
+ * so that sending a message does not pay for setting up a new connection and session.
+ * <p>
+ * A session is acquired for the duration of a send and must be committed before it is
+ * closed, at which point it is returned to the pool. Sessions returned while
+ * {@code JMS_SESSION_POOL_SIZE} sessions are already idle are discarded.
+ * Acquiring never blocks, when no idle session is available a new one is created.
+ * </p>
+ * <p>
+ * Sessions closed without a commit, e.g. because sending failed, are assumed to be
+ * broken. Since this is typically caused by the broker having been restarted, which
+ * leaves all idle sessions broken as well, the whole pool is discarded, so that the
+ * retries of the caller are not spent on dead sessions. For the same reason the pool
+ * is discarded when the connection of any session reports an exception.
+ * </p>
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class JmsSessionPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JmsSessionPool.class);
+
+    @Inject
+    @ConfigProperty(name = "ARTEMIS_MQ_HOST")
+    String artemisHost;
+
+    @Inject
+    @ConfigProperty(name = "JMS_SESSION_POOL_SIZE", defaultValue = "16")
+    int maxIdleSessions;
+
+    ConnectionFactory connectionFactory;
+
+    private final Deque<JMSContext> idleSessions = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger numberOfIdleSessions = new AtomicInteger();
+
+    public JmsSessionPool() {
+    }
+
+    JmsSessionPool(ConnectionFactory connectionFactory, int maxIdleSessions) {
+        this.connectionFactory = connectionFactory;
+        this.maxIdleSessions = maxIdleSessions;
+    }
+
+    @PostConstruct
+    public void init() {
+        connectionFactory = new ActiveMQXAConnectionFactory("tcp://" + artemisHost + ":61616");
+    }
+
+    @PreDestroy
+    public void close() {
+        discardIdleSessions();
+    }
+
+    /**
+     * Acquires a transacted session from the pool, or creates a new one if none are idle
+     *
+     * @return pooled session, to be committed and closed by the caller
+     * @throws JMSRuntimeException if unable to create new session
+     */
+    public Session acquire() throws JMSRuntimeException {
+        JMSContext context = idleSessions.pollFirst();
+        if (context != null) {
+            numberOfIdleSessions.decrementAndGet();
+        } else {
+            context = connectionFactory.createContext(JMSContext.SESSION_TRANSACTED);
+            context.setExceptionListener(e -> {
+                LOGGER.warn("JMS connection failed, discarding idle sessions", e);
+                discardIdleSessions();
+            });
+        }
+        return new Session(context);
+    }
+
+    public int getNumberOfIdleSessions() {
+        return numberOfIdleSessions.get();
+    }
+
+    private void release(JMSContext context) {
+        if (numberOfIdleSessions.incrementAndGet() > maxIdleSessions) {
+            numberOfIdleSessions.decrementAndGet();
+            closeQuietly(context);
+        } else {
+            idleSessions.offerFirst(context);
+        }
+    }
+
+    private void discardIdleSessions() {
+        JMSContext context;
+        while ((context = idleSessions.pollFirst()) != null) {
+            numberOfIdleSessions.decrementAndGet();
+            closeQuietly(context);
+        }
+    }
+
+    private static void closeQuietly(JMSContext context) {
+        try {
+            context.close();
+        } catch (JMSRuntimeException e) {
+            LOGGER.warn("Unable to close JMS session", e);
+        }
+    }
+
+    /**
+     * Transacted JMS session acquired from the pool
+     */
+    public class Session implements AutoCloseable {
+        private final JMSContext context;
+        private boolean committed;
+
+        private Session(JMSContext context) {
+            this.context = context;
+        }
+
+        public JMSContext getContext() {
+            return context;
+        }
+
+        /**
+         * Commits all messages sent in this session
+         *
+         * @throws JMSRuntimeException if unable to commit
+         */
+        public void commit() throws JMSRuntimeException {
+            context.commit();
+            committed = true;
+        }
+
+        /**
+         * Returns this session to the pool if committed, otherwise it is discarded
+         * along with all idle sessions, and any messages sent in it are never delivered
+         */
+        @Override
+        public void close() {
+            if (committed) {
+                release(context);
+            } else {
+                closeQuietly(context);
+                discardIdleSessions();
+            }
+        }
+    }
+}
@@ -26,15 +26,15 @@ import jakarta.inject.Inject;
 import jakarta.jms.JMSContext;
 import jakarta.jms.JMSException;
 import jakarta.jms.JMSRuntimeException;
-import jakarta.jms.TextMessage;
+import jakarta.jms.Message;
 import net.jodah.failsafe.Failsafe;
 import net.jodah.failsafe.RetryPolicy;
-import org.apache.activemq.artemis.jms.client.ActiveMQXAConnectionFactory;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 @LocalBean
@@ -43,10 +43,6 @@ public class JobProcessorMessageProducerBean extends AbstractMessageProducer imp
     private static final Logger LOGGER = LoggerFactory.getLogger(JobProcessorMessageProducerBean.class);
     private final RetryPolicy<?> retryPolicy;
     JSONBContext jsonbContext = new JSONBContext();
-    @Inject
-    @ConfigProperty(name = "ARTEMIS_MQ_HOST")
-    private String artemisHost;
-
     @Inject
     @ConfigProperty(name = "PROCESSOR_NASHORN_QUEUE", defaultValue = "processor::business")
     private String nashornQueue;
@@ -67,7 +63,6 @@ public class JobProcessorMessageProducerBean extends AbstractMessageProducer imp
 
     @PostConstruct
     public void init() {
-        connectionFactory = new ActiveMQXAConnectionFactory("tcp://" + artemisHost + ":61616");
         queueNameFromJob = this::resolveProcessorQueue;
     }
 
@@ -81,7 +76,7 @@ public class JobProcessorMessageProducerBean extends AbstractMessageProducer imp
     }
 
     /**
-     * Sends given Chunk instance as JMS message with JSON payload to processor queue destination
+     * Sends given Chunk instance as JMS message to processor queue destination
      *
      * @param chunk     chunk instance to be inserted as message payload
      * @param jobEntity instance to deduct which processor shard should be inserted as message payload
@@ -93,9 +88,11 @@ public class JobProcessorMessageProducerBean extends AbstractMessageProducer imp
     public void send(Chunk chunk, JobEntity jobEntity, int priority) throws NullPointerException, JobStoreException {
         LOGGER.info("Sending chunk {}/{} with trackingId {}", chunk.getJobId(), chunk.getChunkId(), chunk.getTrackingId());
         Failsafe.with(retryPolicy).run(() -> {
-            try (JMSContext context = connectionFactory.createContext()) {
-                TextMessage message = createMessage(context, chunk, jobEntity);
+            try (JmsSessionPool.Session session = sessionPool.acquire()) {
+                JMSContext context = session.getContext();
+                Message message = createMessage(context, chunk, jobEntity);
                 send(context, message, jobEntity, priority);
+                session.commit();
             } catch (JSONBException | JMSException e) {
                 String errorMessage = String.format("Exception caught while queueing chunk %s for job %s with trackingId %s", chunk.getChunkId(), chunk.getJobId(), chunk.getTrackingId());
                 throw new JobStoreException(errorMessage, e);
@@ -103,21 +100,49 @@ public class JobProcessorMessageProducerBean extends AbstractMessageProducer imp
         });
     }
 
-
+    /**
+     * Sends given chunks as JMS messages to their processor queue destinations in a
+     * single JMS transaction, so that either all or none of the chunks are enqueued.
+     * On failure the whole batch is retried.
+     *
+     * @param chunks chunks to send, typically all scheduled for the same sink
+     * @throws NullPointerException when given null-valued argument
+     * @throws JobStoreException    when unable to send given chunks to destination
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRED)
+    public void send(List<ScheduledChunk> chunks) throws NullPointerException, JobStoreException {
+        if (chunks.isEmpty()) return;
+        LOGGER.info("Sending batch of {} chunks starting with {}/{}", chunks.size(),
+                chunks.get(0).chunk().getJobId(), chunks.get(0).chunk().getChunkId());
+        Failsafe.with(retryPolicy).run(() -> {
+            try (JmsSessionPool.Session session = sessionPool.acquire()) {
+                JMSContext context = session.getContext();
+                for (ScheduledChunk scheduledChunk : chunks) {
+                    Message message = createMessage(context, scheduledChunk.chunk(), scheduledChunk.job());
+                    send(context, message, scheduledChunk.job(), scheduledChunk.priority());
+                }
+                session.commit();
+            } catch (JSONBException | JMSException e) {
+                String errorMessage = String.format("Exception caught while queueing batch of %d chunks starting with chunk %s for job %s",
+                        chunks.size(), chunks.get(0).chunk().getChunkId(), chunks.get(0).chunk().getJobId());
+                throw new JobStoreException(errorMessage, e);
+            }
+        });
+    }
 
     /**
-     * Creates new TextMessage with given chunk instance as JSON payload
+     * Creates new message with given chunk instance as payload, see
+     * {@link AbstractMessageProducer#createChunkMessage(JMSContext, Chunk, JSONBContext)}
      *
      * @param context   active JMS context
      * @param chunk     chunk instance to be added as payload
      * @param jobEntity to where the chunk instance belongs
-     * @return TextMessage instance
+     * @return Message instance
      * @throws JSONBException when unable to marshall chunk instance to JSON
      * @throws JMSException   when unable to create JMS message
      */
-    public TextMessage createMessage(JMSContext context, Chunk chunk, JobEntity jobEntity) throws JMSException, JSONBException {
-        TextMessage message = context.createTextMessage(jsonbContext.marshall(chunk));
-        JMSHeader.payload.addHeader(message, JMSHeader.CHUNK_PAYLOAD_TYPE);
+    public Message createMessage(JMSContext context, Chunk chunk, JobEntity jobEntity) throws JMSException, JSONBException {
+        Message message = createChunkMessage(context, chunk, jsonbContext);
         String sink = Optional.ofNullable(jobEntity.getCachedSink()).map(SinkCacheEntity::getSink).map(Sink::getContent).map(SinkContent::getName).orElse(null);
         if(sink != null) JMSHeader.sink.addHeader(message, sink);
 
@@ -140,4 +165,14 @@ public class JobProcessorMessageProducerBean extends AbstractMessageProducer imp
         JobSpecification jobSpecification = jobEntity.getSpecification();
         return String.format("{\"format\":\"%s\",\"submitter\":%s}", jobSpecification.getFormat(), jobSpecification.getSubmitterId());
     }
+
+    /**
+     * Chunk to be sent to processing as part of a batch
+     *
+     * @param chunk    chunk instance to be inserted as message payload
+     * @param job      job to which the chunk belongs
+     * @param priority message priority
+     */
+    public record ScheduledChunk(Chunk chunk, JobEntity job, int priority) {
+    }
 }
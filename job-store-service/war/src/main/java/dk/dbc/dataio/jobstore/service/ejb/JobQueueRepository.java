@@ -92,6 +92,45 @@ public class JobQueueRepository extends RepositoryBase {
         return Optional.of(e.withState(JobQueueEntity.State.IN_PROGRESS));
     }
 
+    /**
+     * Finds the entries eligible for {@link #seizeIfWaiting(Sink, int)}, that is the oldest
+     * waiting entry of each submitter not already having a job in progress for given {@link Sink}
+     *
+     * @param sink {@link Sink} for which candidates are to be found
+     * @return list of candidate entries in queue order
+     */
+    @Stopwatch
+    public List<JobQueueEntity> findSeizeCandidates(Sink sink) {
+        return entityManager.createNamedQuery(JobQueueEntity.NQ_FIND_SEIZE_CANDIDATES_BY_SINK, JobQueueEntity.class)
+                .setParameter(JobQueueEntity.FIELD_SINK_ID, sink.getId())
+                .getResultList();
+    }
+
+    /**
+     * Exclusively seizes given entry of queue for given {@link Sink} if it is still
+     * eligible as head of queue for its submitter and updates it to
+     * {@link dk.dbc.dataio.jobstore.service.entity.JobQueueEntity.State#IN_PROGRESS}
+     *
+     * @param sink {@link Sink} of entry
+     * @param id   ID of entry to seize
+     * @return {@link JobQueueEntity} if the entry was seized, empty if not
+     */
+    @Stopwatch
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public Optional<JobQueueEntity> seizeIfWaiting(Sink sink, int id) {
+        final List rs = entityManager.createNamedQuery(JobQueueEntity.NQ_FIND_BY_SINK_AND_ID_IF_AVAILABLE,
+                        JobQueueEntity.class)
+                .setParameter(JobQueueEntity.FIELD_SINK_ID, sink.getId())
+                .setParameter(JobQueueEntity.FIELD_ID, id)
+                .getResultList();
+        final JobQueueEntity e = rs.isEmpty() ? null : (JobQueueEntity) rs.get(0);
+        if (e == null || e.getState() != JobQueueEntity.State.WAITING) {
+            return Optional.empty();
+        }
+        LOGGER.info("seizeIfWaiting seized job {}", e.getJob().getId());
+        return Optional.of(e.withState(JobQueueEntity.State.IN_PROGRESS));
+    }
+
     /**
      * @return list of job queue entries currently marked as being in-progress
      */
@@ -31,6 +31,7 @@ import jakarta.ejb.TransactionAttributeType;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.ws.rs.ProcessingException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.metrics.Gauge;
 import org.eclipse.microprofile.metrics.MetricID;
 import org.eclipse.microprofile.metrics.MetricRegistry;
@@ -39,6 +40,7 @@ import org.eclipse.microprofile.metrics.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -104,6 +106,9 @@ public class JobSchedulerBean {
     FlowStoreServiceConnectorBean flowStore;
     @Inject
     DependencyTrackingService dependencyTrackingService;
+    @Inject
+    @ConfigProperty(name = "JMS_SEND_BATCH_SIZE", defaultValue = "20")
+    int sendBatchSize = 20;
 
     private static final Map<String, Integer> blockedCounts = new ConcurrentHashMap<>();
     private static final Map<Integer, Long> maxDeliveryDurations = new ConcurrentHashMap<>();
@@ -367,6 +372,35 @@ public class JobSchedulerBean {
         maxDeliveryDurations.merge(chunkDoneSinkId, thisDuration, Math::max);
     }
 
+    /**
+     * Attempts to deliver chunks released because chunks they were waiting on
+     * have been removed from dependency tracking by other means than delivery,
+     * e.g. when jobs are deleted or have their trackers purged.
+     *
+     * @return number of chunks released
+     */
+    @Asynchronous
+    @Stopwatch
+    @TransactionAttribute(TransactionAttributeType.REQUIRED)
+    public Future<Integer> releaseRemovedBlockers() {
+        int released = 0;
+        try {
+            Set<TrackingKey> unblocked = dependencyTrackingService.releaseRemovedBlockers();
+            if (!unblocked.isEmpty()) {
+                LOGGER.info("releaseRemovedBlockers: unblocked {} chunks", unblocked.size());
+            }
+            for (TrackingKey chunkBlockedKey : unblocked) {
+                if(!JobsBean.isAborted(chunkBlockedKey.getJobId())) {
+                    jobSchedulerTransactionsBean.attemptToUnblockChunk(chunkBlockedKey);
+                    released++;
+                }
+            }
+        } catch (Exception ex) {
+            LOGGER.error("Error releasing chunks waiting on removed trackers", ex);
+        }
+        return new AsyncResult<>(released);
+    }
+
     @Asynchronous
     @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
     public Future<Integer> bulkScheduleToProcessingForSink(int sinkId) {
@@ -377,15 +411,21 @@ public class JobSchedulerBean {
                 Collection<DependencyTracking> chunks = dependencyTrackingService.findDependencies(SCHEDULED_FOR_PROCESSING, sinkId, spaceLeftInQueue);
 
                 if(!chunks.isEmpty()) LOGGER.info("bulk scheduling for processing - found {} chunks ready for processing for sink {}", chunks.size(), sinkId);
+                // Chunks are sent in batches, each enqueued in a single JMS transaction
+                List<DependencyTracking> batch = new ArrayList<>(Math.max(1, sendBatchSize));
                 for (DependencyTracking toSchedule : chunks) {
                     if(!JobsBean.isAborted(toSchedule.getKey().getJobId())) {
-                        TrackingKey toScheduleKey = toSchedule.getKey();
-                        LOGGER.info("bulk scheduling for processing - chunk {} to be scheduled for processing for sink {}", toScheduleKey, sinkId);
-                        ChunkEntity chunk = entityManager.find(ChunkEntity.class, new ChunkEntity.Key(toScheduleKey.getChunkId(), toScheduleKey.getJobId()));
-                        jobSchedulerTransactionsBean.submitToProcessing(chunk, toSchedule.getPriority());
-                        chunksPushedToQueue++;
+                        LOGGER.info("bulk scheduling for processing - chunk {} to be scheduled for processing for sink {}", toSchedule.getKey(), sinkId);
+                        batch.add(toSchedule);
+                        if (batch.size() >= sendBatchSize) {
+                            chunksPushedToQueue += jobSchedulerTransactionsBean.submitToProcessing(batch);
+                            batch.clear();
+                        }
                     }
                 }
+                if (!batch.isEmpty()) {
+                    chunksPushedToQueue += jobSchedulerTransactionsBean.submitToProcessing(batch);
+                }
             } else LOGGER.info("bulk scheduling for processing - sink {} capacity={}", sinkId, spaceLeftInQueue);
         } catch (Exception ex) {
             LOGGER.error("Error in bulk scheduling for processing for sink {}", sinkId, ex);
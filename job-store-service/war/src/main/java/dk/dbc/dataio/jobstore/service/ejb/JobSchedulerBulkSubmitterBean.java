@@ -34,6 +34,7 @@ public class JobSchedulerBulkSubmitterBean {
     @Inject
     DependencyTrackingService dependencyTrackingService;
     private final Map<BulkSchedulerKey, Future<Integer>> bulkFutures = new ConcurrentHashMap<>();
+    private Future<Integer> releaseRemovedBlockersFuture;
 
     @EJB
     JobSchedulerBean jobSchedulerBean;
@@ -67,6 +68,20 @@ public class JobSchedulerBulkSubmitterBean {
         });
     }
 
+    /**
+     * Releases chunks waiting on removed trackers owned by this member,
+     * hence runs on all members and not only on the master. The release is
+     * handed off asynchronously, like the bulk scheduling, so that it never
+     * holds the lock of this bean, and at most one release runs at a time.
+     */
+    @Schedule(second = "*/1", minute = "*", hour = "*", persistent = false)
+    @Stopwatch
+    public void releaseRemovedBlockers() {
+        if (releaseRemovedBlockersFuture == null || releaseRemovedBlockersFuture.isDone()) {
+            releaseRemovedBlockersFuture = jobSchedulerBean.releaseRemovedBlockers();
+        }
+    }
+
     private void doBulkJmsQueueSubmit(Integer sinkId, ChunkSchedulingStatus phase) {
         BulkSchedulerKey key = new BulkSchedulerKey(sinkId, phase);
         Future<Integer> future = bulkFutures.get(key);
@@ -20,6 +20,10 @@ import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static dk.dbc.dataio.jobstore.distributed.ChunkSchedulingStatus.QUEUED_FOR_DELIVERY;
@@ -129,6 +133,44 @@ public class JobSchedulerTransactionsBean {
 
     }
 
+    /**
+     * Sends chunks to processing in a single JMS transaction. If sending fails, none
+     * of the chunks are enqueued and they are all scheduled for processing again.
+     *
+     * @param toSchedule trackers of the chunks to send
+     * @return number of chunks sent
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    @Stopwatch
+    public int submitToProcessing(List<? extends DependencyTrackingRO> toSchedule) {
+        Map<Integer, JobEntity> jobEntities = new HashMap<>();
+        List<JobProcessorMessageProducerBean.ScheduledChunk> batch = new ArrayList<>(toSchedule.size());
+        for (DependencyTrackingRO dependencyTracking : toSchedule) {
+            TrackingKey key = dependencyTracking.getKey();
+            StatusChangeEvent changeEvent = dependencyTrackingService.setValidatedStatus(key, QUEUED_FOR_PROCESSING);
+            if(changeEvent == null) {
+                LOGGER.error("Tracker state could not be set to QUEUED_FOR_PROCESSING: {}", key);
+                continue;
+            }
+            JobEntity jobEntity = jobEntities.computeIfAbsent(key.getJobId(), jobId -> entityManager.find(JobEntity.class, jobId));
+            Chunk chunk = jobStoreRepository.getChunk(Chunk.Type.PARTITIONED, key.getJobId(), key.getChunkId());
+            batch.add(new JobProcessorMessageProducerBean.ScheduledChunk(chunk, jobEntity, dependencyTracking.getPriority()));
+        }
+        try {
+            jobProcessorMessageProducerBean.send(batch);
+            LOGGER.info("submitToProcessing: batch of {} chunks queued for processing", batch.size());
+            return batch.size();
+        } catch (JobStoreException e) {
+            LOGGER.error("submitToProcessing: unable to send batch of {} chunks to JMS queue - chunks have been scheduled for processing",
+                    batch.size(), e);
+            for (JobProcessorMessageProducerBean.ScheduledChunk scheduledChunk : batch) {
+                Chunk chunk = scheduledChunk.chunk();
+                dependencyTrackingService.setStatus(new TrackingKey(chunk.getJobId(), (int) chunk.getChunkId()), SCHEDULED_FOR_PROCESSING);
+            }
+            return 0;
+        }
+    }
+
     /**
      * Send JMS message to Sink with chunk.
      *
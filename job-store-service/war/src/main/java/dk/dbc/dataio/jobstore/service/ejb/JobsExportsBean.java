@@ -14,11 +14,11 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.StreamingOutput;
 
-import java.io.ByteArrayOutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
@@ -166,16 +166,19 @@ public class JobsExportsBean {
 
     private Response exportFailedItemsFromPhase(int jobId, State.Phase phase, ChunkItem.Type format)
             throws JobStoreException {
-        try {
-            final ByteArrayOutputStream byteArrayOutputStream = jobStoreRepository.exportFailedItems(
-                    jobId, phase, format, StandardCharsets.UTF_8);
-            final StreamingOutput streamingOutput = os -> os.write(byteArrayOutputStream.toByteArray());
-            return Response.ok(streamingOutput).build();
-        } catch (JobStoreException e) {
-            if (!jobStoreRepository.jobExists(jobId)) {
-                return Response.status(Response.Status.NO_CONTENT).build();
-            }
-            throw e;
+        if (!jobStoreRepository.jobExists(jobId)) {
+            return Response.status(Response.Status.NO_CONTENT).build();
         }
+        // Items are exported directly from a database cursor into the response
+        // entity stream while it is being written, so the export is never held
+        // in memory in its entirety.
+        final StreamingOutput streamingOutput = os -> {
+            try {
+                jobStoreRepository.exportFailedItems(jobId, phase, format, StandardCharsets.UTF_8, os);
+            } catch (JobStoreException e) {
+                throw new WebApplicationException(e);
+            }
+        };
+        return Response.ok(streamingOutput).build();
     }
 }
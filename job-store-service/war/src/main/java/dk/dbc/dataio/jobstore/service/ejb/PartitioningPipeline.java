@@ -0,0 +1,259 @@
+package dk.dbc.dataio.jobstore.service.ejb;
+
+import dk.dbc.dataio.commons.partioner.DataPartitioner;
+import dk.dbc.dataio.commons.types.Constants;
+import dk.dbc.dataio.commons.types.Diagnostic;
+import dk.dbc.dataio.commons.types.SinkContent;
+import dk.dbc.dataio.jobstore.service.dependencytracking.KeyGenerator;
+import dk.dbc.dataio.jobstore.service.entity.ChunkEntity;
+import dk.dbc.dataio.jobstore.service.entity.JobEntity;
+import dk.dbc.dataio.jobstore.service.param.PartitioningParam;
+import dk.dbc.dataio.jobstore.types.JobStoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partitions a job into chunks in three overlapping stages linked by bounded queues
+ * <ol>
+ *     <li>the calling thread reads and parses records into batches of chunks using the data partitioner</li>
+ *     <li>a second thread persists each batch of chunks in its own transaction</li>
+ *     <li>a third thread adds persisted chunks to dependency tracking and schedules them for processing</li>
+ * </ol>
+ * <p>
+ * Chunks are persisted and scheduled in chunk id order, exactly as when partitioning
+ * sequentially, so resuming an interrupted partitioning works the same way: job counters
+ * are only updated for persisted batches, and persisted chunks not yet scheduled are
+ * found as missing dependencies. When a stage fails, the preceding stages stop and
+ * the succeeding stages complete the work already handed to them.
+ * </p>
+ */
+class PartitioningPipeline {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitioningPipeline.class);
+    private static final long OFFER_TIMEOUT_MS = 500;
+
+    private final PgJobStoreRepository jobStoreRepository;
+    private final JobSchedulerBean jobSchedulerBean;
+    private final Executor executor;
+    private final int batchSize;
+    private final int queueSize;
+
+    PartitioningPipeline(PgJobStoreRepository jobStoreRepository, JobSchedulerBean jobSchedulerBean,
+                         Executor executor, int batchSize, int queueSize) {
+        this.jobStoreRepository = jobStoreRepository;
+        this.jobSchedulerBean = jobSchedulerBean;
+        this.executor = executor;
+        this.batchSize = Math.max(1, batchSize);
+        this.queueSize = Math.max(1, queueSize);
+    }
+
+    /**
+     * Partitions remaining data of given job
+     *
+     * @param job               job being partitioned
+     * @param firstChunkId      id of first chunk to create
+     * @param partitioningParam partitioning parameters of job
+     * @param abortDiagnostics  receives diagnostics of a chunk failing fatally, ending the partitioning
+     * @return number of chunks in job after partitioning
+     * @throws JobStoreException on failure to persist chunks
+     */
+    int run(JobEntity job, int firstChunkId, PartitioningParam partitioningParam, List<Diagnostic> abortDiagnostics)
+            throws JobStoreException {
+        final BlockingQueue<Batch> toPersist = new ArrayBlockingQueue<>(queueSize);
+        final BlockingQueue<List<ChunkEntity>> toSchedule = new ArrayBlockingQueue<>(queueSize);
+        final Scheduler scheduler = new Scheduler(job, firstChunkId, toSchedule, abortDiagnostics);
+        final CompletableFuture<Void> scheduling = CompletableFuture.runAsync(scheduler, executor);
+        final CompletableFuture<Void> persisting = CompletableFuture.runAsync(
+                new Persister(job, partitioningParam.getKeyGenerator(), toPersist, toSchedule, scheduling), executor);
+        final boolean completed;
+        try {
+            completed = read(job, firstChunkId, partitioningParam.getDataPartitioner(), toPersist, persisting);
+        } finally {
+            offer(toPersist, Batch.END, persisting);
+            awaitQuietly(persisting);
+            awaitQuietly(scheduling);
+        }
+        join(persisting);
+        join(scheduling);
+        if (!completed) {
+            throw new IllegalStateException("Pipeline stopped prematurely while partitioning job " + job.getId());
+        }
+        return scheduler.numberOfChunks;
+    }
+
+    /* Returns false if reading was stopped by a failing stage */
+    private boolean read(JobEntity job, int firstChunkId, DataPartitioner dataPartitioner,
+                         BlockingQueue<Batch> toPersist, Future<?> persisting) {
+        final long submitterId = job.getSpecification().getSubmitterId();
+        final SinkContent.SequenceAnalysisOption sequenceAnalysisOption =
+                job.getCachedSink().getSink().getContent().getSequenceAnalysisOption();
+        int chunkId = firstChunkId;
+        while (true) {
+            final Batch batch = new Batch(chunkId, new ArrayList<>(batchSize));
+            boolean exhausted = false;
+            while (batch.chunks.size() < batchSize) {
+                final PgJobStoreRepository.ChunkItemEntities chunk = PgJobStoreRepository.readChunkItemEntities(
+                        submitterId, job.getId(), chunkId, Constants.CHUNK_MAX_SIZE,
+                        dataPartitioner, sequenceAnalysisOption);
+                if (chunk.size() == 0) {
+                    exhausted = true;
+                    break;
+                }
+                batch.chunks.add(chunk);
+                chunkId++;
+                if (chunk.hasFatalDiagnostic()) {
+                    exhausted = true;
+                    break;
+                }
+            }
+            batch.skipped = dataPartitioner.getAndResetSkippedCount();
+            if (!batch.chunks.isEmpty() && !offer(toPersist, batch, persisting)) {
+                return false;
+            }
+            if (exhausted) {
+                return true;
+            }
+        }
+    }
+
+    /* Hands element to the next stage unless that stage has stopped */
+    private static <T> boolean offer(BlockingQueue<T> queue, T element, Future<?> nextStage) {
+        try {
+            while (!queue.offer(element, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                if (nextStage.isDone()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void awaitQuietly(CompletableFuture<Void> stage) {
+        try {
+            stage.join();
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    private static void join(CompletableFuture<Void> stage) throws JobStoreException {
+        try {
+            stage.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof StageException) {
+                throw (JobStoreException) e.getCause().getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class Batch {
+        static final Batch END = new Batch(-1, List.of());
+
+        final int firstChunkId;
+        final List<PgJobStoreRepository.ChunkItemEntities> chunks;
+        int skipped;
+
+        Batch(int firstChunkId, List<PgJobStoreRepository.ChunkItemEntities> chunks) {
+            this.firstChunkId = firstChunkId;
+            this.chunks = chunks;
+        }
+    }
+
+    /* Carries checked exceptions out of a stage */
+    private static class StageException extends RuntimeException {
+        StageException(JobStoreException cause) {
+            super(cause);
+        }
+    }
+
+    private class Persister implements Runnable {
+        private final JobEntity job;
+        private final KeyGenerator keyGenerator;
+        private final BlockingQueue<Batch> toPersist;
+        private final BlockingQueue<List<ChunkEntity>> toSchedule;
+        private final Future<?> scheduling;
+
+        Persister(JobEntity job, KeyGenerator keyGenerator, BlockingQueue<Batch> toPersist,
+                  BlockingQueue<List<ChunkEntity>> toSchedule, Future<?> scheduling) {
+            this.job = job;
+            this.keyGenerator = keyGenerator;
+            this.toPersist = toPersist;
+            this.toSchedule = toSchedule;
+            this.scheduling = scheduling;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Batch batch;
+                while ((batch = toPersist.take()) != Batch.END) {
+                    final List<ChunkEntity> chunkEntities = jobStoreRepository.persistChunkEntities(job.getId(),
+                            batch.firstChunkId, batch.chunks, batch.skipped, keyGenerator,
+                            job.getSpecification().getDataFile());
+                    if (!offer(toSchedule, chunkEntities, scheduling)) {
+                        LOGGER.warn("Scheduling of chunks stopped while partitioning job {}", job.getId());
+                        return;
+                    }
+                }
+            } catch (JobStoreException e) {
+                throw new StageException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while partitioning job " + job.getId(), e);
+            } finally {
+                offer(toSchedule, List.of(), scheduling);
+            }
+        }
+    }
+
+    private class Scheduler implements Runnable {
+        private final JobEntity job;
+        private final BlockingQueue<List<ChunkEntity>> toSchedule;
+        private final List<Diagnostic> abortDiagnostics;
+        private int numberOfChunks;
+
+        Scheduler(JobEntity job, int numberOfChunks, BlockingQueue<List<ChunkEntity>> toSchedule,
+                  List<Diagnostic> abortDiagnostics) {
+            this.job = job;
+            this.numberOfChunks = numberOfChunks;
+            this.toSchedule = toSchedule;
+            this.abortDiagnostics = abortDiagnostics;
+        }
+
+        @Override
+        public void run() {
+            try {
+                List<ChunkEntity> chunkEntities;
+                while (!(chunkEntities = toSchedule.take()).isEmpty()) {
+                    for (ChunkEntity chunkEntity : chunkEntities) {
+                        ++numberOfChunks;
+                        if (chunkEntity.getState().fatalDiagnosticExists()) {
+                            // Partitioning resulted in unrecoverable error - set diagnostic to force job abortion
+                            abortDiagnostics.addAll(chunkEntity.getState().getDiagnostics());
+                            return;
+                        }
+                        jobSchedulerBean.scheduleChunk(chunkEntity, job);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while partitioning job " + job.getId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package dk.dbc.dataio.jobstore.service.ejb;
+
+import dk.dbc.dataio.jobstore.service.entity.JobEntity;
+import dk.dbc.dataio.jobstore.service.entity.JobQueueEntity;
+import jakarta.ejb.Singleton;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bounds the number of jobs being partitioned concurrently for each sink and decides
+ * in which order submitters waiting in the job queue of a sink are served.
+ * <p>
+ * Submitters are served by weighted round-robin: each submitter is charged the number
+ * of items partitioned for it, divided by the priority of its jobs, and the submitter
+ * charged the least goes first. Thus a submitter queueing many or big jobs does not
+ * starve submitters queueing small jobs for the same sink. Charges are forgotten once
+ * a submitter no longer has jobs waiting.
+ * </p>
+ * <p>
+ * Jobs of the same submitter are still partitioned one at a time in queue order, since
+ * the job queue only offers the oldest entry of each submitter not already in progress.
+ * </p>
+ */
+@Singleton
+public class PartitioningWorkers {
+    @Inject
+    @ConfigProperty(name = "PARTITIONING_WORKERS_PER_SINK", defaultValue = "4")
+    int workersPerSink = 4;
+
+    private final Map<Integer, Integer> activeWorkers = new HashMap<>();
+    private final Set<Integer> pendingRequests = new HashSet<>();
+    private final Map<Integer, Map<Long, Long>> servedItems = new HashMap<>();
+
+    /**
+     * Acquires a partitioning worker for given sink. If all workers are busy, the
+     * request is remembered and reported back when a worker is released.
+     *
+     * @param sinkId ID of sink
+     * @return true if a worker was acquired, otherwise false
+     */
+    public boolean tryAcquire(int sinkId) {
+        final int active = activeWorkers.getOrDefault(sinkId, 0);
+        if (active >= Math.max(1, workersPerSink)) {
+            pendingRequests.add(sinkId);
+            return false;
+        }
+        activeWorkers.put(sinkId, active + 1);
+        return true;
+    }
+
+    /**
+     * Releases a partitioning worker previously acquired for given sink
+     *
+     * @param sinkId ID of sink
+     * @return true if a request for a worker was turned down while this one was busy
+     */
+    public boolean release(int sinkId) {
+        activeWorkers.computeIfPresent(sinkId, (id, active) -> active > 1 ? active - 1 : null);
+        return pendingRequests.remove(sinkId);
+    }
+
+    public int getActiveWorkers(int sinkId) {
+        return activeWorkers.getOrDefault(sinkId, 0);
+    }
+
+    /**
+     * Orders job queue entries waiting for given sink in the order they should be served
+     *
+     * @param sinkId     ID of sink
+     * @param candidates job queue entries, one per submitter, eligible for partitioning
+     * @return candidates ordered by weighted charge of their submitter, then queue order
+     */
+    public List<JobQueueEntity> order(int sinkId, List<JobQueueEntity> candidates) {
+        final Map<Long, Long> served = servedItems.computeIfAbsent(sinkId, id -> new HashMap<>());
+        final Set<Long> submitters = candidates.stream()
+                .map(entry -> entry.getJob().getSpecification().getSubmitterId())
+                .collect(Collectors.toSet());
+        served.keySet().retainAll(submitters);
+        return candidates.stream()
+                .sorted(Comparator.<JobQueueEntity>comparingDouble(entry -> charge(served, entry.getJob()))
+                        .thenComparingInt(JobQueueEntity::getId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Charges the submitter of given job for the items partitioned
+     *
+     * @param sinkId ID of sink
+     * @param job    partitioned job
+     */
+    public void served(int sinkId, JobEntity job) {
+        servedItems.computeIfAbsent(sinkId, id -> new HashMap<>())
+                .merge(job.getSpecification().getSubmitterId(), (long) Math.max(1, job.getNumberOfItems()), Long::sum);
+    }
+
+    private static double charge(Map<Long, Long> served, JobEntity job) {
+        return (double) served.getOrDefault(job.getSpecification().getSubmitterId(), 0L)
+                / job.getPriority().getValue();
+    }
+}
@@ -41,6 +41,7 @@ import dk.dbc.dataio.jobstore.types.WorkflowNote;
 import dk.dbc.invariant.InvariantUtil;
 import jakarta.annotation.Resource;
 import jakarta.ejb.Asynchronous;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
 import jakarta.ejb.EJB;
 import jakarta.ejb.SessionContext;
 import jakarta.ejb.Stateless;
@@ -51,6 +52,7 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
 import net.jodah.failsafe.Failsafe;
 import net.jodah.failsafe.RetryPolicy;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -102,9 +104,30 @@ public class PgJobStore {
     @Inject
     DependencyTrackingService dependencyTrackingService;
 
+    @EJB
+    PartitioningWorkers partitioningWorkers;
+
     @Resource
     SessionContext sessionContext;
 
+    /* Number of chunks created in each partitioning transaction */
+    @Inject
+    @ConfigProperty(name = "PARTITIONING_CHUNK_BATCH_SIZE", defaultValue = "10")
+    int partitioningChunkBatchSize = 10;
+
+    /* Overlaps reading, persisting and scheduling of chunks, see PartitioningPipeline */
+    @Inject
+    @ConfigProperty(name = "PARTITIONING_PIPELINE_ENABLED", defaultValue = "false")
+    boolean partitioningPipelineEnabled = false;
+
+    /* Number of chunk batches buffered between the stages of the partitioning pipeline */
+    @Inject
+    @ConfigProperty(name = "PARTITIONING_PIPELINE_QUEUE_SIZE", defaultValue = "2")
+    int partitioningPipelineQueueSize = 2;
+
+    @Resource
+    ManagedExecutorService managedExecutorService;
+
     @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
     public Stream<JobEntity> abortJob(int jobId, Set<Integer> loopDetection) {
         JobEntity jobEntity = entityManager.find(JobEntity.class, jobId);
@@ -224,61 +247,92 @@ public class PgJobStore {
 
     /**
      * Attempts to partition next job in line for a given {@link Sink}
+     * <p>
+     * Up to PARTITIONING_WORKERS_PER_SINK jobs are partitioned concurrently for each sink,
+     * of which at most one per submitter. Whenever a job is seized another worker is requested,
+     * so jobs waiting behind a big job of another submitter are not held back by it.
+     * </p>
      *
      * @param sink {@link Sink} for which a job is to be partitioned
      */
     @Stopwatch
     @Asynchronous
     public void partitionNextJobForSinkIfAvailable(Sink sink) {
-        final Optional<JobQueueEntity> nextToPartition = jobQueueRepository.seizeHeadOfQueueIfWaiting(sink);
-        if (nextToPartition.isPresent()) {
-            final JobQueueEntity jobQueueEntity = nextToPartition.get();
-            try {
-                BitSet includeFilter;
-                if (jobQueueEntity.getIncludeFilter() != null) {
-                    includeFilter = BitSet.valueOf(jobQueueEntity.getIncludeFilter());
-                    JobRerunnerBean.logBitSet(jobQueueEntity.getJob().getId(), includeFilter);
-                } else includeFilter = null;
-                Failsafe.with(PARTITION_RETRY_POLICY).run(() -> {
-                    final PartitioningParam param = new PartitioningParam(jobQueueEntity.getJob(),
-                            fileStoreServiceConnectorBean.getConnector(), flowStoreServiceConnectorBean.getConnector(),
-                            entityManager, jobQueueEntity.getTypeOfDataPartitioner(), includeFilter);
-
-                    if (!param.getDiagnostics().isEmpty()) {
-                        abortJob(entityManager.merge(jobQueueEntity.getJob()), param.getDiagnostics());
-                        jobQueueRepository.remove(jobQueueEntity);
-                    } else {
-                        final Partitioning partitioning = handlePartitioning(param);
-                        if (partitioning.hasFailedUnexpectedly()) {
-                            if (partitioning.hasKnownFailure(Partitioning.KnownFailure.PREMATURE_END_OF_DATA)
-                                    // Data partitioners may throw PrematureEndOfDataException without cause,
-                                    // but a lost connection will always include an IOException.
-                                    && partitioning.getFailure().getCause() != null
-                                    && jobQueueEntity.getRetries() < MAX_NUMBER_OF_JOB_RETRIES) {
-                                // Partitioning may have failed because of a lost filestore connection.
-                                jobQueueRepository.retry(jobQueueEntity);
-                            } else if (partitioning.hasKnownFailure(Partitioning.KnownFailure.TRANSACTION_ROLLED_BACK_LOCAL)) {
-                                LOGGER.error("Lost current transaction while partitioning job {}, rescheduling and restarting",
-                                        jobQueueEntity.getJob().getId(), partitioning.getFailure());
-                                jobSchedulerBean.ensureLastChunkIsScheduled(jobQueueEntity.getJob().getId());
-                                jobQueueRepository.retry(jobQueueEntity);
-                            } else {
-                                abortJobDueToUnforeseenFailuresDuringPartitioning(jobQueueEntity, partitioning.getFailure());
-                            }
+        if (!partitioningWorkers.tryAcquire(sink.getId())) {
+            return;
+        }
+        Optional<JobQueueEntity> nextToPartition = Optional.empty();
+        try {
+            nextToPartition = seizeNextJob(sink);
+            if (nextToPartition.isPresent()) {
+                self().partitionNextJobForSinkIfAvailable(sink);
+                partitionQueuedJob(sink, nextToPartition.get());
+            }
+        } finally {
+            final boolean requested = partitioningWorkers.release(sink.getId());
+            if (nextToPartition.isPresent() || requested) {
+                self().partitionNextJobForSinkIfAvailable(sink);
+            }
+        }
+    }
+
+    /* Seizes the first available job queue entry for given sink in the order decided by the partitioning workers */
+    private Optional<JobQueueEntity> seizeNextJob(Sink sink) {
+        final List<JobQueueEntity> candidates = jobQueueRepository.findSeizeCandidates(sink);
+        for (JobQueueEntity candidate : partitioningWorkers.order(sink.getId(), candidates)) {
+            final Optional<JobQueueEntity> seized = jobQueueRepository.seizeIfWaiting(sink, candidate.getId());
+            if (seized.isPresent()) {
+                return seized;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void partitionQueuedJob(Sink sink, JobQueueEntity jobQueueEntity) {
+        try {
+            BitSet includeFilter;
+            if (jobQueueEntity.getIncludeFilter() != null) {
+                includeFilter = BitSet.valueOf(jobQueueEntity.getIncludeFilter());
+                JobRerunnerBean.logBitSet(jobQueueEntity.getJob().getId(), includeFilter);
+            } else includeFilter = null;
+            Failsafe.with(PARTITION_RETRY_POLICY).run(() -> {
+                final PartitioningParam param = new PartitioningParam(jobQueueEntity.getJob(),
+                        fileStoreServiceConnectorBean.getConnector(), flowStoreServiceConnectorBean.getConnector(),
+                        entityManager, jobQueueEntity.getTypeOfDataPartitioner(), includeFilter);
+
+                if (!param.getDiagnostics().isEmpty()) {
+                    abortJob(entityManager.merge(jobQueueEntity.getJob()), param.getDiagnostics());
+                    jobQueueRepository.remove(jobQueueEntity);
+                } else {
+                    final Partitioning partitioning = handlePartitioning(param);
+                    if (partitioning.hasFailedUnexpectedly()) {
+                        if (partitioning.hasKnownFailure(Partitioning.KnownFailure.PREMATURE_END_OF_DATA)
+                                // Data partitioners may throw PrematureEndOfDataException without cause,
+                                // but a lost connection will always include an IOException.
+                                && partitioning.getFailure().getCause() != null
+                                && jobQueueEntity.getRetries() < MAX_NUMBER_OF_JOB_RETRIES) {
+                            // Partitioning may have failed because of a lost filestore connection.
+                            jobQueueRepository.retry(jobQueueEntity);
+                        } else if (partitioning.hasKnownFailure(Partitioning.KnownFailure.TRANSACTION_ROLLED_BACK_LOCAL)) {
+                            LOGGER.error("Lost current transaction while partitioning job {}, rescheduling and restarting",
+                                    jobQueueEntity.getJob().getId(), partitioning.getFailure());
+                            jobSchedulerBean.ensureLastChunkIsScheduled(jobQueueEntity.getJob().getId());
+                            jobQueueRepository.retry(jobQueueEntity);
                         } else {
-                            jobQueueRepository.remove(jobQueueEntity);
+                            abortJobDueToUnforeseenFailuresDuringPartitioning(jobQueueEntity, partitioning.getFailure());
                         }
+                    } else {
+                        jobQueueRepository.remove(jobQueueEntity);
+                        partitioningWorkers.served(sink.getId(), partitioning.getJobEntity());
                     }
-                });
-            } catch (Throwable e) {
-                if (e instanceof PrematureEndOfDataException
-                        && jobQueueEntity.getRetries() < MAX_NUMBER_OF_JOB_RETRIES) {
-                    jobQueueRepository.retry(jobQueueEntity);
-                } else {
-                    abortJobDueToUnforeseenFailuresDuringPartitioning(jobQueueEntity, e);
                 }
-            } finally {
-                self().partitionNextJobForSinkIfAvailable(sink);
+            });
+        } catch (Throwable e) {
+            if (e instanceof PrematureEndOfDataException
+                    && jobQueueEntity.getRetries() < MAX_NUMBER_OF_JOB_RETRIES) {
+                jobQueueRepository.retry(jobQueueEntity);
+            } else {
+                abortJobDueToUnforeseenFailuresDuringPartitioning(jobQueueEntity, e);
             }
         }
     }
@@ -424,37 +478,20 @@ public class PgJobStore {
             LOGGER.info("Partitioning job {}", job.getId());
 
             int chunkId = 0;
-            ChunkEntity chunkEntity;
 
             if (job.getNumberOfChunks() > 0) {
-                LOGGER.info("Resuming Partition of Job {} after {} chunks", job.getId(), job.getNumberOfChunks());
                 chunkId = job.getNumberOfChunks();
-                partitioningParam.getDataPartitioner().drainItems(job.getNumberOfItems() + job.getSkipped());
+                resumePartitioning(job, partitioningParam);
                 addMissingDependencies(job, chunkId);
             }
 
-            long submitterId = partitioningParam.getJobEntity().getSpecification().getSubmitterId();
-            do {
-                // Creates each chunk entity (and associated item entities) in its own
-                // transactional scope to enable external visibility of job creation progress
-                chunkEntity = jobStoreRepository.createChunkEntity(submitterId, job.getId(), chunkId, Constants.CHUNK_MAX_SIZE,
-                        partitioningParam.getDataPartitioner(),
-                        partitioningParam.getKeyGenerator(),
-                        job.getSpecification().getDataFile());
-
-                if (chunkEntity == null) { // no more chunks
-                    break;
-                }
-                ++chunkId;
-
-                if (chunkEntity.getState().fatalDiagnosticExists()) {
-                    // Partitioning resulted in unrecoverable error - set diagnostic to force job abortion
-                    abortDiagnostics.addAll(chunkEntity.getState().getDiagnostics());
-                    break;
-                }
-                jobSchedulerBean.scheduleChunk(chunkEntity, job);
-
-            } while (true);
+            if (partitioningPipelineEnabled) {
+                chunkId = new PartitioningPipeline(jobStoreRepository, jobSchedulerBean, managedExecutorService,
+                        partitioningChunkBatchSize, partitioningPipelineQueueSize)
+                        .run(job, chunkId, partitioningParam, abortDiagnostics);
+            } else {
+                chunkId = partitionSequentially(job, chunkId, partitioningParam, abortDiagnostics);
+            }
 
             if (!abortDiagnostics.isEmpty()) {
                 job = abortJob(job, abortDiagnostics);
@@ -467,6 +504,53 @@ public class PgJobStore {
         return job;
     }
 
+    /* Positions the data partitioner after the records of the chunks already created, preferably
+       by reading the data file from the byte offset following the last chunk instead of reading
+       and parsing all records before it again */
+    private void resumePartitioning(JobEntity job, PartitioningParam partitioningParam) {
+        final int positionInDatafile = job.getNumberOfItems() + job.getSkipped();
+        final ChunkEntity lastChunk = entityManager.find(ChunkEntity.class,
+                new ChunkEntity.Key(job.getNumberOfChunks() - 1, job.getId()));
+        if (lastChunk != null && lastChunk.getDataFileOffset() != null
+                && partitioningParam.resumeFrom(lastChunk.getDataFileOffset(), positionInDatafile)) {
+            LOGGER.info("Resuming Partition of Job {} after {} chunks from byte offset {}",
+                    job.getId(), job.getNumberOfChunks(), lastChunk.getDataFileOffset());
+        } else {
+            LOGGER.info("Resuming Partition of Job {} after {} chunks", job.getId(), job.getNumberOfChunks());
+            partitioningParam.getDataPartitioner().drainItems(positionInDatafile);
+        }
+    }
+
+    private int partitionSequentially(JobEntity job, int chunkId, PartitioningParam partitioningParam,
+                                      List<Diagnostic> abortDiagnostics) throws JobStoreException {
+        long submitterId = partitioningParam.getJobEntity().getSpecification().getSubmitterId();
+        partitioning:
+        do {
+            // Creates each batch of chunk entities (and associated item entities) in its own
+            // transactional scope to enable external visibility of job creation progress
+            final List<ChunkEntity> chunkEntities = jobStoreRepository.createChunkEntities(submitterId, job.getId(),
+                    chunkId, Math.max(1, partitioningChunkBatchSize), Constants.CHUNK_MAX_SIZE,
+                    partitioningParam.getDataPartitioner(),
+                    partitioningParam.getKeyGenerator(),
+                    job.getSpecification().getDataFile());
+
+            if (chunkEntities.isEmpty()) { // no more chunks
+                break;
+            }
+            for (ChunkEntity chunkEntity : chunkEntities) {
+                ++chunkId;
+
+                if (chunkEntity.getState().fatalDiagnosticExists()) {
+                    // Partitioning resulted in unrecoverable error - set diagnostic to force job abortion
+                    abortDiagnostics.addAll(chunkEntity.getState().getDiagnostics());
+                    break partitioning;
+                }
+                jobSchedulerBean.scheduleChunk(chunkEntity, job);
+            }
+        } while (true);
+        return chunkId;
+    }
+
     private void addMissingDependencies(JobEntity job, int chunkId) {
         findMissingDependencies(job, chunkId).forEach(chunk -> jobSchedulerBean.scheduleChunk(chunk, job));
     }
@@ -61,7 +61,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.profiler.Profiler;
 
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.CoderMalfunctionError;
 import java.nio.charset.StandardCharsets;
@@ -69,9 +69,11 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -146,7 +148,7 @@ public class PgJobStoreRepository extends RepositoryBase {
     public List<ItemInfoSnapshot> listItems(String query)
             throws NullPointerException, IllegalArgumentException {
         InvariantUtil.checkNotNullNotEmptyOrThrow(query, "query");
-        final List<ItemEntity> itemEntities = new ItemListQuery(entityManager).execute(query);
+        final List<ItemEntity> itemEntities = newItemInfoSnapshotQuery().execute(query);
         final List<ItemInfoSnapshot> itemInfoSnapshots = new ArrayList<>(itemEntities.size());
         itemInfoSnapshots.addAll(itemEntities.stream()
                 .map(ItemEntity::toItemInfoSnapshot)
@@ -168,12 +170,19 @@ public class PgJobStoreRepository extends RepositoryBase {
      */
     public List<ItemInfoSnapshot> listItems(ItemListCriteria criteria) throws NullPointerException {
         InvariantUtil.checkNotNullOrThrow(criteria, "criteria");
-        final List<ItemEntity> itemEntities = new ItemListQuery(entityManager).execute(criteria);
+        final List<ItemEntity> itemEntities = newItemInfoSnapshotQuery().execute(criteria);
         final List<ItemInfoSnapshot> itemInfoSnapshots = new ArrayList<>(itemEntities.size());
         itemInfoSnapshots.addAll(itemEntities.stream().map(ItemEntity::toItemInfoSnapshot).collect(Collectors.toList()));
         return itemInfoSnapshots;
     }
 
+    /* Item info snapshots only need the tracking ID of the partitioning outcome */
+    private ItemListQuery newItemInfoSnapshotQuery() {
+        return new ItemListQuery(entityManager)
+                .withAllOutcomes(ItemListQuery.Payload.NONE)
+                .withOutcome(ItemListQuery.Outcome.PARTITIONING, ItemListQuery.Payload.HEADER);
+    }
+
     public List<Timestamp> listTimeOfChunkCompletion(int jobId) {
         TypedQuery<Timestamp> query = entityManager.createQuery("select c.timeOfCompletion from ChunkEntity c where c.key.jobId = :id", Timestamp.class);
         query.setParameter("id", jobId);
@@ -187,14 +196,14 @@ public class PgJobStoreRepository extends RepositoryBase {
      * @param fromPhase specified phase
      * @param type      of export
      * @param encodedAs specified encoding
-     * @return byteArrayOutputStream containing the requested items.
+     * @param out       output stream to which the requested items are written
      * @throws JobStoreException on general failure to write output stream
      */
-    public ByteArrayOutputStream exportFailedItems(int jobId, State.Phase fromPhase, ChunkItem.Type type,
-                                                   Charset encodedAs) throws JobStoreException {
-        return new JobExporter(entityManager)
-                .exportFailedItemsContent(jobId, Collections.singletonList(fromPhase), type, encodedAs)
-                .getContent();
+    @Stopwatch
+    public void exportFailedItems(int jobId, State.Phase fromPhase, ChunkItem.Type type,
+                                  Charset encodedAs, OutputStream out) throws JobStoreException {
+        new JobExporter(entityManager)
+                .exportFailedItems(jobId, Collections.singletonList(fromPhase), type, encodedAs, out);
     }
 
     /**
@@ -328,14 +337,7 @@ public class PgJobStoreRepository extends RepositoryBase {
         final ChunkItemEntities chunkItemEntities =
                 createChunkItemEntities(submitterId, jobId, chunkId, maxChunkSize, dataPartitioner);
         if (chunkItemEntities.size() > 0) {
-            chunkEntity.setNumberOfItems(chunkItemEntities.size());
-            chunkEntity.setSequenceAnalysisData(getSequenceAnalysisData(keyGenerator, chunkItemEntities));
-
-            final State chunkState = chunkItemEntities.getChunkState();
-            chunkEntity.setState(chunkState);
-            if (chunkState.fatalDiagnosticExists()) {
-                chunkEntity.setTimeOfCompletion(new Timestamp(System.currentTimeMillis()));
-            }
+            populateChunkEntity(chunkEntity, chunkItemEntities, keyGenerator);
 
             // update job (with exclusive lock)
             final JobEntity jobEntity = getExclusiveAccessFor(JobEntity.class, jobId);
@@ -350,6 +352,123 @@ public class PgJobStoreRepository extends RepositoryBase {
         return chunkEntity;
     }
 
+    /**
+     * Creates a batch of new chunks and associated data item entities in a single transaction
+     * and updates the state of the containing job once for the entire batch.
+     * <p>
+     * All item rows of the batch are written on a single flush, allowing the JDBC batch writing
+     * of the persistence provider to combine them into as few round-trips as possible, and the
+     * containing job is only locked once per batch instead of once per chunk.
+     * </p>
+     * <p>
+     * The batch is cut short when the data partitioner is exhausted or when a chunk
+     * with a fatal diagnostic is created, the latter being the last chunk in the returned list.
+     * </p>
+     * <p>
+     * CAVEAT: Even though this method is publicly available it is <b>NOT</b>
+     * intended for use outside of this class - accessibility is only so defined
+     * to allow the method to be called internally as an EJB business method.
+     * </p>
+     *
+     * @param submitterId     submitter number
+     * @param jobId           id of job for which the chunks are to be created
+     * @param firstChunkId    id of the first chunk to be created
+     * @param maxChunks       maximum number of chunks to create in this batch
+     * @param maxChunkSize    maximum number of items to be associated to each chunk
+     * @param dataPartitioner data partitioner used for item data extraction
+     * @param keyGenerator    dependency tracking key generator
+     * @param dataFileId      id of data file from where the items of the chunks originated
+     * @return list of created chunk entities (managed) in chunk id order, empty if no chunk was created
+     * as a result of data exhaustion
+     * @throws JobStoreException on referenced entities not found
+     */
+    @Stopwatch
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    @Timed
+    public List<ChunkEntity> createChunkEntities(long submitterId, int jobId, int firstChunkId, int maxChunks,
+                                                 short maxChunkSize, DataPartitioner dataPartitioner,
+                                                 KeyGenerator keyGenerator, String dataFileId)
+            throws JobStoreException {
+        final SinkContent.SequenceAnalysisOption sequenceAnalysisOption = getSequenceAnalysisOption(jobId);
+        final List<ChunkItemEntities> chunks = new ArrayList<>(maxChunks);
+        for (int chunkId = firstChunkId; chunkId < firstChunkId + maxChunks; chunkId++) {
+            final ChunkItemEntities chunkItemEntities = readChunkItemEntities(
+                    submitterId, jobId, chunkId, maxChunkSize, dataPartitioner, sequenceAnalysisOption);
+            if (chunkItemEntities.size() == 0) {
+                break;
+            }
+            chunks.add(chunkItemEntities);
+            if (chunkItemEntities.hasFatalDiagnostic()) {
+                break;
+            }
+        }
+        return persistChunks(jobId, firstChunkId, chunks, dataPartitioner.getAndResetSkippedCount(),
+                keyGenerator, dataFileId);
+    }
+
+    /**
+     * Persists a batch of chunks, whose item entities have already been read by
+     * {@link #readChunkItemEntities(long, int, int, short, DataPartitioner, SinkContent.SequenceAnalysisOption)},
+     * in a single transaction and updates the state of the containing job once for the entire batch.
+     * <p>
+     * This allows reading of the next batch of chunks to overlap the persisting of the current one.
+     * </p>
+     * <p>
+     * CAVEAT: Even though this method is publicly available it is <b>NOT</b>
+     * intended for use outside of this class - accessibility is only so defined
+     * to allow the method to be called internally as an EJB business method.
+     * </p>
+     *
+     * @param jobId        id of job for which the chunks are to be created
+     * @param firstChunkId id of the first chunk in the batch
+     * @param chunks       item entities of each chunk in chunk id order
+     * @param skipped      number of records skipped by the data partitioner while reading the batch
+     * @param keyGenerator dependency tracking key generator
+     * @param dataFileId   id of data file from where the items of the chunks originated
+     * @return list of created chunk entities in chunk id order
+     * @throws JobStoreException on referenced entities not found
+     */
+    @Stopwatch
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    @Timed
+    public List<ChunkEntity> persistChunkEntities(int jobId, int firstChunkId, List<ChunkItemEntities> chunks,
+                                                  int skipped, KeyGenerator keyGenerator, String dataFileId)
+            throws JobStoreException {
+        return persistChunks(jobId, firstChunkId, chunks, skipped, keyGenerator, dataFileId);
+    }
+
+    private List<ChunkEntity> persistChunks(int jobId, int firstChunkId, List<ChunkItemEntities> chunks,
+                                            int skipped, KeyGenerator keyGenerator, String dataFileId)
+            throws JobStoreException {
+        final List<ChunkEntity> chunkEntities = new ArrayList<>(chunks.size());
+        final StateChange jobStateChange = new StateChange().setPhase(State.Phase.PARTITIONING);
+        int numberOfItems = 0;
+
+        int chunkId = firstChunkId;
+        for (ChunkItemEntities chunkItemEntities : chunks) {
+            final ChunkEntity chunkEntity = persistChunk(jobId, chunkId++, dataFileId);
+            chunkItemEntities.entities.forEach(entityManager::persist);
+            populateChunkEntity(chunkEntity, chunkItemEntities, keyGenerator);
+            chunkEntities.add(chunkEntity);
+
+            numberOfItems += chunkEntity.getNumberOfItems();
+            jobStateChange
+                    .incSucceeded(chunkItemEntities.chunkStateChange.getSucceeded())
+                    .incFailed(chunkItemEntities.chunkStateChange.getFailed())
+                    .incIgnored(chunkItemEntities.chunkStateChange.getIgnored());
+        }
+
+        if (!chunkEntities.isEmpty()) {
+            // update job once for the entire batch (with exclusive lock)
+            final JobEntity jobEntity = getExclusiveAccessFor(JobEntity.class, jobId);
+            jobEntity.setNumberOfChunks(jobEntity.getNumberOfChunks() + chunkEntities.size());
+            jobEntity.setNumberOfItems(jobEntity.getNumberOfItems() + numberOfItems);
+            jobEntity.setSkipped(jobEntity.getSkipped() + skipped);
+            updateJobEntityState(jobEntity, jobStateChange);
+        }
+        return chunkEntities;
+    }
+
     /**
      * Creates new chunk Job Termination ChunkEntity and associated data item entities and updates the state of the containing job
      * <p>
@@ -525,7 +644,15 @@ public class PgJobStoreRepository extends RepositoryBase {
                     .orderBy(new ListOrderBy<>(ItemListCriteria.Field.ITEM_ID, ListOrderBy.Sort.ASC));
 
             profiler.start("execute Query");
-            final List<ItemEntity> itemEntities = new ItemListQuery(entityManager).execute(criteria);
+            final ItemListQuery itemListQuery = new ItemListQuery(entityManager)
+                    .withAllOutcomes(ItemListQuery.Payload.NONE);
+            if (PROCESSED == type) {
+                itemListQuery.withOutcome(ItemListQuery.Outcome.PROCESSING, ItemListQuery.Payload.FULL)
+                        .withOutcome(ItemListQuery.Outcome.NEXT_PROCESSING, ItemListQuery.Payload.FULL);
+            } else {
+                itemListQuery.withOutcome(ItemListQuery.Outcome.of(phase), ItemListQuery.Payload.FULL);
+            }
+            final List<ItemEntity> itemEntities = itemListQuery.execute(criteria);
             profiler.stop();
             if (!itemEntities.isEmpty()) {
                 profiler.start("Loop itemEntities");
@@ -600,6 +727,10 @@ public class PgJobStoreRepository extends RepositoryBase {
         final PgJobStoreRepository.ChunkItemEntities chunkItemEntities = new PgJobStoreRepository.ChunkItemEntities();
         chunkItemEntities.chunkStateChange.setPhase(phase);
 
+        // Loads all items of the chunk in a single round-trip, the resulting
+        // updates are written back as one JDBC batch when the transaction commits.
+        final Map<Short, ItemEntity> itemEntitiesById = findItemEntities(chunk.getJobId(), (int) chunk.getChunkId());
+
         final Iterator<ChunkItem> nextIterator = chunk.nextIterator();
         try {
             for (ChunkItem chunkItem : chunk) {
@@ -608,7 +739,7 @@ public class PgJobStoreRepository extends RepositoryBase {
                 LOGGER.debug("updateChunkItemEntities: updating {} chunk item {}/{}/{}",
                         chunk.getType(), chunk.getJobId(), chunk.getChunkId(), chunkItem.getId());
                 final ItemEntity.Key itemKey = new ItemEntity.Key(chunk.getJobId(), (int) chunk.getChunkId(), (short) chunkItem.getId());
-                final ItemEntity itemEntity = entityManager.find(ItemEntity.class, itemKey);
+                final ItemEntity itemEntity = itemEntitiesById.get(itemKey.getId());
                 if (itemEntity == null) {
                     throwInvalidInputException(format("ItemEntity.%s could not be found", itemKey), JobError.Code.INVALID_ITEM_IDENTIFIER);
                 }
@@ -643,6 +774,26 @@ public class PgJobStoreRepository extends RepositoryBase {
         return chunkItemEntities;
     }
 
+    /**
+     * Finds all item entities belonging to given chunk
+     *
+     * @param jobId   id of job containing chunk
+     * @param chunkId id of chunk
+     * @return map of item entities (managed) keyed by item id
+     */
+    Map<Short, ItemEntity> findItemEntities(int jobId, int chunkId) {
+        final List<ItemEntity> itemEntities = entityManager
+                .createNamedQuery(ItemEntity.FIND_BY_CHUNK_QUERY_NAME, ItemEntity.class)
+                .setParameter(ItemEntity.FIELD_JOB_ID, jobId)
+                .setParameter(ItemEntity.FIELD_CHUNK_ID, chunkId)
+                .getResultList();
+        final Map<Short, ItemEntity> itemEntitiesById = new HashMap<>(itemEntities.size());
+        for (ItemEntity itemEntity : itemEntities) {
+            itemEntitiesById.put(itemEntity.getKey().getId(), itemEntity);
+        }
+        return itemEntitiesById;
+    }
+
     /**
      * Adds Flow instance to job-store cache if not already cached
      *
@@ -693,12 +844,32 @@ public class PgJobStoreRepository extends RepositoryBase {
     @Stopwatch
     ChunkItemEntities createChunkItemEntities(long submitterId, int jobId, int chunkId, short maxChunkSize,
                                               DataPartitioner dataPartitioner) {
+        final ChunkItemEntities chunkItemEntities = readChunkItemEntities(submitterId, jobId, chunkId,
+                maxChunkSize, dataPartitioner, getSequenceAnalysisOption(jobId));
+        chunkItemEntities.entities.forEach(entityManager::persist);
+        return chunkItemEntities;
+    }
+
+    /**
+     * Reads item entities for given chunk using data extracted via given data partitioner
+     * without persisting them, so that reading never touches the persistence context
+     *
+     * @param submitterId            submitter number
+     * @param jobId                  id of job containing chunk
+     * @param chunkId                id of chunk for which items are to be read
+     * @param maxChunkSize           maximum number of items to be associated to the chunk
+     * @param dataPartitioner        data partitioner used for item data extraction
+     * @param sequenceAnalysisOption sequence analysis option of the sink of the job
+     * @return item entities compound object
+     */
+    public static ChunkItemEntities readChunkItemEntities(long submitterId, int jobId, int chunkId, short maxChunkSize,
+                                                          DataPartitioner dataPartitioner,
+                                                          SinkContent.SequenceAnalysisOption sequenceAnalysisOption) {
         Date nextItemBegin = new Date();
         short itemCounter = 0;
         final ChunkItemEntities chunkItemEntities = new ChunkItemEntities();
         chunkItemEntities.chunkStateChange.setPhase(State.Phase.PARTITIONING);
         try {
-            final SinkContent.SequenceAnalysisOption sequenceAnalysisOption = getSequenceAnalysisOption(jobId);
             for (DataPartitionerResult dataPartitionerResult : dataPartitioner) {
                 if(JobsBean.isAborted(jobId)) throw new JobAborted(jobId);
                 if (dataPartitionerResult == null || dataPartitionerResult.isEmpty()) {
@@ -742,7 +913,6 @@ public class PgJobStoreRepository extends RepositoryBase {
                         .withPartitioningOutcome(chunkItem)
                         .withRecordInfo(dataPartitionerResult.getRecordInfo())
                         .withPositionInDatafile(dataPartitionerResult.getPositionInDatafile());
-                entityManager.persist(itemEntity);
                 chunkItemEntities.entities.add(itemEntity);
 
                 if (dataPartitionerResult.getRecordInfo() != null) {
@@ -754,6 +924,9 @@ public class PgJobStoreRepository extends RepositoryBase {
                 }
                 nextItemBegin = new Date();
             }
+            if (dataPartitioner.isResumableFromByteOffset()) {
+                chunkItemEntities.dataFileOffset = dataPartitioner.getBytesRead();
+            }
         } catch (PrematureEndOfDataException e) {
             throw e;
         } catch (RuntimeException | CoderMalfunctionError e) {
@@ -778,7 +951,6 @@ public class PgJobStoreRepository extends RepositoryBase {
             final ItemEntity itemEntity = new ItemEntity()
                     .withKey(new ItemEntity.Key(jobId, chunkId, itemCounter))
                     .withState(itemState);
-            entityManager.persist(itemEntity);
             chunkItemEntities.entities.add(itemEntity);
             chunkItemEntities.chunkStateChange.incFailed(1);
         } finally {
@@ -834,6 +1006,18 @@ public class PgJobStoreRepository extends RepositoryBase {
         return chunkEntity;
     }
 
+    private void populateChunkEntity(ChunkEntity chunkEntity, ChunkItemEntities chunkItemEntities, KeyGenerator keyGenerator) {
+        chunkEntity.setNumberOfItems(chunkItemEntities.size());
+        chunkEntity.setDataFileOffset(chunkItemEntities.dataFileOffset);
+        chunkEntity.setSequenceAnalysisData(getSequenceAnalysisData(keyGenerator, chunkItemEntities));
+
+        final State chunkState = chunkItemEntities.getChunkState();
+        chunkEntity.setState(chunkState);
+        if (chunkState.fatalDiagnosticExists()) {
+            chunkEntity.setTimeOfCompletion(new Timestamp(System.currentTimeMillis()));
+        }
+    }
+
     // // TODO: 4/4/17 deprecate this method - use persistChunk() + local changes instead
     private ChunkEntity initializeChunkEntityAndSetValues(int jobId, int chunkId, String dataFileId, ChunkItemEntities chunkItemEntities, SequenceAnalysisData sequenceAnalysisData, State chunkState) {
         ChunkEntity chunkEntity;
@@ -849,7 +1033,7 @@ public class PgJobStoreRepository extends RepositoryBase {
         return chunkEntity;
     }
 
-    private void setItemStateOnChunkItemFromStatus(PgJobStoreRepository.ChunkItemEntities chunkItemEntities, ChunkItem chunkItem, StateChange itemStateChange) {
+    private static void setItemStateOnChunkItemFromStatus(PgJobStoreRepository.ChunkItemEntities chunkItemEntities, ChunkItem chunkItem, StateChange itemStateChange) {
         switch (chunkItem.getStatus()) {
             case FAILURE:
                 itemStateChange.setFailed(1);
@@ -918,6 +1102,8 @@ public class PgJobStoreRepository extends RepositoryBase {
         public final List<ItemEntity> entities;
         public final StateChange chunkStateChange;
         public final List<String> keys;
+        /* Byte offset in the data file following the last item, null if not resumable from it */
+        public Long dataFileOffset;
 
         public ChunkItemEntities() {
             entities = new ArrayList<>();
@@ -930,6 +1116,10 @@ public class PgJobStoreRepository extends RepositoryBase {
             return (short) entities.size();
         }
 
+        public boolean hasFatalDiagnostic() {
+            return entities.stream().anyMatch(itemEntity -> itemEntity.getState().fatalDiagnosticExists());
+        }
+
         public State getChunkState() {
             final State chunkState = createChunkStateFromItemDiagnostics();
             chunkState.updateState(chunkStateChange.setEndDate(new Date()));
@@ -10,18 +10,14 @@ import dk.dbc.dataio.jobstore.service.entity.JobEntity;
 import dk.dbc.dataio.jobstore.types.FlowStoreReference;
 import dk.dbc.dataio.jobstore.types.FlowStoreReferences;
 import dk.dbc.dataio.jobstore.types.JobStoreException;
-import jakarta.annotation.PostConstruct;
 import jakarta.ejb.LocalBean;
 import jakarta.ejb.Stateless;
-import jakarta.inject.Inject;
 import jakarta.jms.JMSContext;
 import jakarta.jms.JMSException;
 import jakarta.jms.JMSRuntimeException;
-import jakarta.jms.TextMessage;
+import jakarta.jms.Message;
 import net.jodah.failsafe.Failsafe;
 import net.jodah.failsafe.RetryPolicy;
-import org.apache.activemq.artemis.jms.client.ActiveMQXAConnectionFactory;
-import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,10 +33,6 @@ public class SinkMessageProducerBean extends AbstractMessageProducer implements
     private static final Logger LOGGER = LoggerFactory.getLogger(SinkMessageProducerBean.class);
     private final RetryPolicy<?> retryPolicy;
     JSONBContext jsonbContext = new JSONBContext();
-    @Inject
-    @ConfigProperty(name = "ARTEMIS_MQ_HOST")
-    private String artemisHost;
-
     public SinkMessageProducerBean() {
         this(new RetryPolicy<>().handle(JMSRuntimeException.class).withDelay(Duration.ofSeconds(30)).withMaxRetries(10)
                 .onFailedAttempt(attempt -> LOGGER.warn("Unable to send message to sink", attempt.getLastFailure())));
@@ -51,13 +43,8 @@ public class SinkMessageProducerBean extends AbstractMessageProducer implements
         this.retryPolicy = retryPolicy;
     }
 
-    @PostConstruct
-    public void init() {
-        connectionFactory = new ActiveMQXAConnectionFactory("tcp://" + artemisHost + ":61616");
-    }
-
     /**
-     * Sends given processed chunk as JMS message with JSON payload to sink queue destination
+     * Sends given processed chunk as JMS message to sink queue destination
      *
      * @param chunk    processed chunk to be inserted as JSON string message payload
      * @param job      job to which the chunk belongs
@@ -67,10 +54,12 @@ public class SinkMessageProducerBean extends AbstractMessageProducer implements
     public void send(Chunk chunk, JobEntity job, int priority) throws JobStoreException {
         FlowStoreReferences flowStoreReferences = job.getFlowStoreReferences();
         Failsafe.with(retryPolicy).run(() -> {
-            try (JMSContext context = connectionFactory.createContext()) {
-                TextMessage message = createMessage(context, chunk, flowStoreReferences);
+            try (JmsSessionPool.Session session = sessionPool.acquire()) {
+                JMSContext context = session.getContext();
+                Message message = createMessage(context, chunk, flowStoreReferences);
                 LOGGER.info("Sending chunk {}/{} to queue {} with unique id {}", chunk.getJobId(), chunk.getChunkId(), job.getSinkQueue(), chunk.getTrackingId());
                 send(context, message, job, priority);
+                session.commit();
             } catch (JSONBException | JMSException e) {
                 String errorMessage = String.format(
                         "Exception caught while sending processed chunk %d in job %s with trackingId %s",
@@ -83,10 +72,11 @@ public class SinkMessageProducerBean extends AbstractMessageProducer implements
     }
 
     /**
-     * Creates new TextMessage with given processor result instance as JSON payload with
+     * Creates new message with given processor result instance as payload, see
+     * {@link AbstractMessageProducer#createChunkMessage(JMSContext, Chunk, JSONBContext)}, with
      * header properties:
      * <pre>
-     *   {@value JmsConstants#PAYLOAD_PROPERTY_NAME}={@value JmsConstants#CHUNK_PAYLOAD_TYPE}
+     *   {@value JmsConstants#PAYLOAD_PROPERTY_NAME}=[{@value JMSHeader#CHUNK_PAYLOAD_TYPE} or {@value JMSHeader#CHUNK_BINARY_PAYLOAD_TYPE}]
      *   {@value JmsConstants#RESOURCE_PROPERTY_NAME}=[the resource value contained in given Sink instance]
      *   {@value JmsConstants#SINK_ID_PROPERTY_NAME}=[sink ID]
      *   {@value JmsConstants#SINK_VERSION_PROPERTY_NAME}=[sink version]
@@ -95,18 +85,17 @@ public class SinkMessageProducerBean extends AbstractMessageProducer implements
      * </pre>
      *
      * @param context             active JMS context
-     * @param chunk               processed chunk to be added as JSON string payload
+     * @param chunk               processed chunk to be added as payload
      * @param flowStoreReferences flow-store references for the job to which the given chunk belongs
-     * @return TextMessage instance
+     * @return Message instance
      * @throws JSONBException when unable to marshall processor result instance to JSON
      * @throws JMSException   when unable to create JMS message
      */
     @SuppressWarnings("deprecation")
-    public TextMessage createMessage(JMSContext context, Chunk chunk, FlowStoreReferences flowStoreReferences) throws JMSException, JSONBException {
+    public Message createMessage(JMSContext context, Chunk chunk, FlowStoreReferences flowStoreReferences) throws JMSException, JSONBException {
         FlowStoreReference sinkReference = flowStoreReferences.getReference(FlowStoreReferences.Elements.SINK);
         FlowStoreReference flowBinderReference = flowStoreReferences.getReference(FlowStoreReferences.Elements.FLOW_BINDER);
-        TextMessage message = context.createTextMessage(jsonbContext.marshall(chunk));
-        JMSHeader.payload.addHeader(message, JMSHeader.CHUNK_PAYLOAD_TYPE);
+        Message message = createChunkMessage(context, chunk, jsonbContext);
         JMSHeader.sinkId.addHeader(message, sinkReference.getId());
         JMSHeader.sinkVersion.addHeader(message, sinkReference.getVersion());
         addIdentifiers(message, chunk);
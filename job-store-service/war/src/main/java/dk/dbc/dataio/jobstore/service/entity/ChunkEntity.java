@@ -34,6 +34,10 @@ public class ChunkEntity {
     @Column(nullable = false)
     private short numberOfItems;
 
+    /* Byte offset in the data file following the last record of this chunk,
+       null if partitioning can not be resumed from a byte offset */
+    private Long dataFileOffset;
+
     private Timestamp timeOfCreation;
     private Timestamp timeOfLastModification;
     private Timestamp timeOfCompletion;
@@ -70,6 +74,14 @@ public class ChunkEntity {
         this.numberOfItems = numberOfItems;
     }
 
+    public Long getDataFileOffset() {
+        return dataFileOffset;
+    }
+
+    public void setDataFileOffset(Long dataFileOffset) {
+        this.dataFileOffset = dataFileOffset;
+    }
+
     public Timestamp getTimeOfCreation() {
         return timeOfCreation;
     }
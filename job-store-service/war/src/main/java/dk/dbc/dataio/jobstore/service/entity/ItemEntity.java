@@ -14,6 +14,8 @@ import jakarta.persistence.Convert;
 import jakarta.persistence.Embeddable;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.Table;
 
 import java.io.Serializable;
@@ -23,7 +25,18 @@ import java.util.Optional;
 
 @Entity
 @Table(name = "item")
+@NamedQueries({
+        @NamedQuery(name = ItemEntity.FIND_BY_CHUNK_QUERY_NAME,
+                query = "SELECT item FROM ItemEntity item" +
+                        " WHERE item.key.jobId = :" + ItemEntity.FIELD_JOB_ID +
+                        " AND item.key.chunkId = :" + ItemEntity.FIELD_CHUNK_ID +
+                        " ORDER BY item.key.id ASC"),
+})
 public class ItemEntity {
+    public static final String FIND_BY_CHUNK_QUERY_NAME = "ItemEntity.findByChunk";
+    public static final String FIELD_JOB_ID = "jobId";
+    public static final String FIELD_CHUNK_ID = "chunkId";
+
     /* Be advised that updating the internal state of a 'json' column
        will not mark the field as dirty and therefore not result in a
        database update. The only way to achieve an update is to replace
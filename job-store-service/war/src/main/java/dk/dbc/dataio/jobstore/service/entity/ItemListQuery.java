@@ -1,5 +1,6 @@
 package dk.dbc.dataio.jobstore.service.entity;
 
+import dk.dbc.dataio.jobstore.types.State;
 import dk.dbc.dataio.jobstore.types.criteria.ItemListCriteria;
 import dk.dbc.dataio.querylanguage.DataIOQLParser;
 import dk.dbc.dataio.querylanguage.ParseException;
@@ -7,15 +8,79 @@ import dk.dbc.invariant.InvariantUtil;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceException;
 import jakarta.persistence.Query;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Item listing ListQuery implementation
+ * <p>
+ * By default all chunk item outcome columns are selected in full. Since chunk
+ * items dominate the size of item rows, callers only needing some of them (or
+ * only their metadata) should narrow the selection using
+ * {@link #withOutcome(Outcome, Payload)}. Entities resulting from a narrowed
+ * selection are partial and are therefore never registered in the persistence
+ * context or the shared cache.
+ * </p>
  */
 public class ItemListQuery extends ListQuery<ItemListCriteria, ItemListCriteria.Field, ItemEntity> {
+    /**
+     * Chunk item outcome columns of the item table
+     */
+    public enum Outcome {
+        PARTITIONING("partitioningoutcome"),
+        PROCESSING("processingoutcome"),
+        NEXT_PROCESSING("nextprocessingoutcome"),
+        DELIVERING("deliveringoutcome");
+
+        private final String column;
+
+        Outcome(String column) {
+            this.column = column;
+        }
+
+        String getColumn() {
+            return column;
+        }
+
+        /**
+         * @param phase job phase
+         * @return outcome column holding the result of given phase
+         */
+        public static Outcome of(State.Phase phase) {
+            switch (phase) {
+                case PARTITIONING:
+                    return PARTITIONING;
+                case PROCESSING:
+                    return PROCESSING;
+                case DELIVERING:
+                    return DELIVERING;
+                default:
+                    throw new IllegalStateException(String.format("Unknown phase: '%s'", phase));
+            }
+        }
+    }
+
+    /**
+     * Selection mode of an outcome column
+     */
+    public enum Payload {
+        /* Complete chunk item */
+        FULL,
+        /* Chunk item with empty data - the data is stripped server side for
+           JSON columns and left undecoded for binary columns */
+        HEADER,
+        /* No chunk item at all */
+        NONE
+    }
+
     public List<ItemEntity> execute(String query) throws IllegalArgumentException {
         return getQuery(query).getResultList();
     }
@@ -38,8 +103,11 @@ public class ItemListQuery extends ListQuery<ItemListCriteria, ItemListCriteria.
     private Query getQuery(String query) {
         final DataIOQLParser dataIOQLParser = new DataIOQLParser();
         try {
-            final String sql = dataIOQLParser.parse(query);
-            return entityManager.createNativeQuery(sql, ItemEntity.class);
+            String sql = dataIOQLParser.parse(query);
+            if (isProjected() && sql.startsWith(IOQL_SELECT_PREFIX)) {
+                sql = getSelectClause() + " FROM " + sql.substring(IOQL_SELECT_PREFIX.length());
+            }
+            return createItemQuery(sql);
         } catch (ParseException e) {
             throw new IllegalArgumentException("Unable to parse '" + query + "'", e);
         }
@@ -56,9 +124,14 @@ public class ItemListQuery extends ListQuery<ItemListCriteria, ItemListCriteria.
     static final String QUERY_BASE = "SELECT * FROM item";
     static final String QUERY_COUNT_BASE = "SELECT count(*) FROM item";
 
+    private static final String IOQL_SELECT_PREFIX = "SELECT * FROM ";
+    private static final String NON_OUTCOME_COLUMNS = "id, chunkid, jobid, timeofcreation, timeofcompletion, " +
+            "timeoflastmodification, state, workflownote, recordinfo, positionindatafile";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(ItemListQuery.class);
 
     private final EntityManager entityManager;
+    private final Map<Outcome, Payload> projection = new EnumMap<>(Outcome.class);
 
     /*
      * Constructor
@@ -78,6 +151,35 @@ public class ItemListQuery extends ListQuery<ItemListCriteria, ItemListCriteria.
         fieldMap.put(ItemListCriteria.Field.DELIVERY_FAILED, new VerbatimField("state->'states'->'DELIVERING'->>'failed' != '0'"));
         fieldMap.put(ItemListCriteria.Field.STATE_IGNORED, new VerbatimField("(state->'states'->'PARTITIONING'->>'ignored' != '0' OR state->'states'->'PROCESSING'->>'ignored' != '0' OR state->'states'->'DELIVERING'->>'ignored' != '0')"));
         fieldMap.put(ItemListCriteria.Field.RECORD_ID, new BooleanOpField("(recordinfo->>'id')", new ListQuery.StringValue()));
+        for (Outcome outcome : Outcome.values()) {
+            projection.put(outcome, Payload.FULL);
+        }
+    }
+
+    /**
+     * Sets selection mode for given outcome column
+     *
+     * @param outcome outcome column
+     * @param payload selection mode
+     * @return this query
+     */
+    public ItemListQuery withOutcome(Outcome outcome, Payload payload) {
+        projection.put(InvariantUtil.checkNotNullOrThrow(outcome, "outcome"),
+                InvariantUtil.checkNotNullOrThrow(payload, "payload"));
+        return this;
+    }
+
+    /**
+     * Sets selection mode for all outcome columns
+     *
+     * @param payload selection mode
+     * @return this query
+     */
+    public ItemListQuery withAllOutcomes(Payload payload) {
+        for (Outcome outcome : Outcome.values()) {
+            withOutcome(outcome, payload);
+        }
+        return this;
     }
 
     /**
@@ -123,10 +225,48 @@ public class ItemListQuery extends ListQuery<ItemListCriteria, ItemListCriteria.
     }
 
     private Query getListQuery(ItemListCriteria criteria) {
-        final String queryString = buildQueryString(QUERY_BASE, criteria);
+        final String queryString = buildQueryString(getSelectClause() + " FROM item", criteria);
         LOGGER.debug("query = {}", queryString);
-        final Query query = entityManager.createNativeQuery(queryString, ItemEntity.class);
+        final Query query = createItemQuery(queryString);
         setParameters(query, criteria);
         return query;
     }
+
+    private Query createItemQuery(String sql) {
+        final Query query = entityManager.createNativeQuery(sql, ItemEntity.class);
+        if (isProjected()) {
+            // Partial entities must never be mistaken for complete ones
+            query.setHint(QueryHints.MAINTAIN_CACHE, HintValues.FALSE);
+        }
+        return query;
+    }
+
+    private boolean isProjected() {
+        return projection.values().stream().anyMatch(payload -> payload != Payload.FULL);
+    }
+
+    String getSelectClause() {
+        if (!isProjected()) {
+            return "SELECT *";
+        }
+        return "SELECT " + Stream.concat(Stream.of(NON_OUTCOME_COLUMNS),
+                        projection.entrySet().stream().map(entry -> toSelectExpression(entry.getKey(), entry.getValue())))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String toSelectExpression(Outcome outcome, Payload payload) {
+        final String column = outcome.getColumn();
+        switch (payload) {
+            case HEADER:
+                // JSON columns get their data replaced by the empty string,
+                // binary columns are handed over to header-only decoding
+                return "CASE WHEN " + column + "->>'binary' IS NULL"
+                        + " THEN " + column + " || jsonb_build_object('data', '')"
+                        + " ELSE jsonb_build_object('binaryHeader', " + column + "->'binary') END AS " + column;
+            case NONE:
+                return "NULL AS " + column;
+            default:
+                return column;
+        }
+    }
 }
@@ -74,6 +74,18 @@ import java.sql.Timestamp;
                         // other seizes; they skip to a different submitter's head or return empty.
                         "FOR UPDATE OF jq SKIP LOCKED;",
                 resultClass = JobQueueEntity.class),
+        // Lists the entries NQ_FIND_BY_SINK_AND_AVAILABLE_SUBMITTER would choose from, that is
+        // the head entry of each submitter not already in progress for the sink, without locking.
+        @NamedNativeQuery(name = JobQueueEntity.NQ_FIND_SEIZE_CANDIDATES_BY_SINK, query =
+                JobQueueEntity.AVAILABLE_HEADS_BY_SINK + "ORDER BY jq.id ASC;",
+                resultClass = JobQueueEntity.class),
+        // Locks a specific entry found by NQ_FIND_SEIZE_CANDIDATES_BY_SINK, re-checking all three
+        // predicates of NQ_FIND_BY_SINK_AND_AVAILABLE_SUBMITTER under the same locking rules.
+        @NamedNativeQuery(name = JobQueueEntity.NQ_FIND_BY_SINK_AND_ID_IF_AVAILABLE, query =
+                JobQueueEntity.AVAILABLE_HEADS_BY_SINK +
+                        "AND jq.id = ?" + JobQueueEntity.FIELD_ID + " " +
+                        "FOR UPDATE OF jq SKIP LOCKED;",
+                resultClass = JobQueueEntity.class),
 })
 public class JobQueueEntity {
     public static final String NQ_FIND_BY_STATE = "NQ_FIND_BY_STATE";
@@ -133,8 +145,25 @@ public class JobQueueEntity {
     //
     // The original NOT IN subquery is now logically redundant but kept as belt-and-braces defence.
     public static final String NQ_FIND_BY_SINK_AND_AVAILABLE_SUBMITTER = "NQ_FIND_BY_SINK_AND_AVAILABLE_SUBMITTER";
+    public static final String NQ_FIND_SEIZE_CANDIDATES_BY_SINK = "NQ_FIND_SEIZE_CANDIDATES_BY_SINK";
+    public static final String NQ_FIND_BY_SINK_AND_ID_IF_AVAILABLE = "NQ_FIND_BY_SINK_AND_ID_IF_AVAILABLE";
     public static final String DELETE_BY_JOBID = "JobQueueEntity.deleteByJobId";
 
+    // Predicates (1) to (3) of NQ_FIND_BY_SINK_AND_AVAILABLE_SUBMITTER, shared by the queries
+    // seizing a job chosen by the partitioning workers
+    static final String AVAILABLE_HEADS_BY_SINK =
+            "SELECT jq.* FROM jobqueue jq INNER JOIN job ON jq.jobid = job.id " +
+                    "WHERE jq.sinkId = ?" + JobQueueEntity.FIELD_SINK_ID + " " +
+                    "AND jq.state = 'WAITING' " +
+                    "AND NOT EXISTS (" +
+                    "SELECT 1 FROM jobqueue prior INNER JOIN job pjob ON prior.jobid = pjob.id " +
+                    "WHERE prior.sinkid = jq.sinkid AND prior.id < jq.id " +
+                    "AND pjob.specification->>'submitterId' = job.specification->>'submitterId') " +
+                    "AND job.specification->>'submitterId' NOT IN (" +
+                    "SELECT specification->>'submitterId' FROM jobqueue jq_join INNER JOIN job ON jq_join.jobid = job.id " +
+                    "WHERE jq_join.state = 'IN_PROGRESS' AND jq_join.sinkId = ?" + JobQueueEntity.FIELD_SINK_ID + ") ";
+
+    public static final String FIELD_ID = "id";
     public static final String FIELD_SINK_ID = "sinkId";
     public static final String FIELD_STATE = "state";
 
@@ -53,6 +53,7 @@ public class PartitioningParam {
     private String dataFileId;
     private KeyGenerator keyGenerator;
     private RecordSplitter recordSplitterType;
+    private BitSet includeFilter;
     private boolean previewOnly;
 
     public PartitioningParam(
@@ -79,6 +80,7 @@ public class PartitioningParam {
             this.recordSplitterType = InvariantUtil.checkNotNullOrThrow(recordSplitterType, "recordSplitterType");
             this.keyGenerator = new DefaultKeyGenerator();
             this.dataFileId = extractDataFileIdFromURN();
+            this.includeFilter = includeFilter;
             this.dataFileInputStream = newDataFileInputStream();
             this.dataPartitioner = createDataPartitioner(includeFilter);
             previewOnly = jobEntity.getSpecification().getType().canBePreview() && isSubmitterDisabled();
@@ -119,6 +121,34 @@ public class PartitioningParam {
         }
     }
 
+    /**
+     * Replaces the data partitioner with one reading the data file from the given byte offset,
+     * if the data partitioner supports resuming from a byte offset
+     * (see {@link DataPartitioner#isResumableFromByteOffset()})
+     *
+     * @param byteOffset         byte offset in the data file following the last record already partitioned
+     * @param positionInDatafile position in data file of the record at the byte offset
+     * @return true if the data partitioner was replaced, false if the data file must be read
+     * from the beginning, draining the records already partitioned
+     */
+    public boolean resumeFrom(long byteOffset, int positionInDatafile) {
+        if (dataPartitioner == null || !dataPartitioner.isResumableFromByteOffset()) {
+            return false;
+        }
+        final InputStream resumedInputStream;
+        try {
+            resumedInputStream = fileStoreServiceConnector.getFile(dataFileId, byteOffset);
+        } catch (FileStoreServiceConnectorException | ProcessingException e) {
+            LOGGER.warn("Unable to read data file {} from byte offset {}", dataFileId, byteOffset, e);
+            return false;
+        }
+        closeDataFile();
+        dataFileInputStream = resumedInputStream;
+        dataPartitioner = createDataPartitioner(includeFilter);
+        dataPartitioner.resumeFrom(byteOffset, positionInDatafile);
+        return true;
+    }
+
     private InputStream newDataFileInputStream() {
         if (dataFileId != null && !dataFileId.isEmpty()) {
             try {
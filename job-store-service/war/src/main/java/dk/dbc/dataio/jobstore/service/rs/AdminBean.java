@@ -100,6 +100,13 @@ public class AdminBean {
     private static final Map<String, AtomicInteger> staleChunks = new ConcurrentHashMap<>();
     private final org.glassfish.jersey.internal.guava.Cache<Integer, Sink> sinkMap = CacheBuilder.newBuilder().expireAfterAccess(5, TimeUnit.MINUTES).build();
 
+    @SuppressWarnings("unused")
+    @Schedule(minute = "*", hour = "*", persistent = false)
+    public void reconcileWaitingOnIndex() {
+        if(Hazelcast.isSlave()) return;
+        dependencyTrackingService.reconcileWaitingOnIndex();
+    }
+
     @SuppressWarnings("unused")
     @Schedule(minute = "*", hour = "*", persistent = false)
     public void updateStaleChunks() {
@@ -123,7 +130,7 @@ public class AdminBean {
     }
 
     @Schedule(minute = "10", hour = "*", persistent = false)
-    public void recheckBlocks() {
+    public void removeFinishedJobTrackers() {
         if(Hazelcast.isSlave()) return;
         Set<Integer> trackedJobIds = dependencyTrackingService.getAllJobIs();
         for (Integer jobId : trackedJobIds) {
@@ -133,8 +140,20 @@ public class AdminBean {
                 LOGGER.info("Trackers for finished Job id: {} was removed", jobId);
             }
         }
+    }
+
+    /**
+     * Chunks are released as their blockers are removed, so this full scan
+     * of blocked chunks serves as a consistency check. It is the only recovery
+     * for releases missed by the incremental path, e.g. when a member dies
+     * before releasing the waiters of trackers it removed, so a chunk stays
+     * BLOCKED for at most about 15 minutes after its last blocker is gone.
+     */
+    @Schedule(minute = "5/15", hour = "*", persistent = false)
+    public void recheckBlocks() {
+        if(Hazelcast.isSlave()) return;
         Set<TrackingKey> keys = dependencyTrackingService.recheckBlocks();
-        if(!keys.isEmpty()) LOGGER.info("Hourly blocked check has released {}", keys);
+        if(!keys.isEmpty()) LOGGER.warn("Blocked consistency check has released {}", keys);
     }
 
     @Schedule(minute = "15", hour = "*", persistent = false)
@@ -17,9 +17,10 @@ import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.Collections;
 import java.util.Iterator;
@@ -60,22 +61,57 @@ public class JobExporter {
         if (asType == null) {
             asType = getExportType(jobId, fromPhases);
         }
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final boolean hasFatalItems = writeFailedItems(jobId, fromPhases, asType, encodedAs, buffer);
+        return new FailedItemsContent(asType, buffer, hasFatalItems);
+    }
+
+    /**
+     * Exports from a job all chunk items which have failed in specific phases
+     * directly to given output stream, keeping at most a single exported item
+     * in memory at any time
+     *
+     * @param jobId      id of job from which failed chunk items are to be exported
+     * @param fromPhases list of phases from which failed chunk items are to be exported
+     * @param asType     type of export, if null the type is determined from the job items
+     * @param encodedAs  export encoding
+     * @param out        destination of export in which chunk items are ordered by ascending
+     *                   chunk ids and item ids respectively
+     * @throws JobStoreException on general failure to write content
+     */
+    public void exportFailedItems(int jobId, List<State.Phase> fromPhases, ChunkItem.Type asType,
+                                  Charset encodedAs, OutputStream out) throws JobStoreException {
+        if (asType == null) {
+            asType = getExportType(jobId, fromPhases);
+        }
+        writeFailedItems(jobId, fromPhases, asType, encodedAs, out);
+    }
 
+    private boolean writeFailedItems(int jobId, List<State.Phase> fromPhases, ChunkItem.Type asType,
+                                     Charset encodedAs, OutputStream out) throws JobStoreException {
         LOGGER.info("Exporting failed items for job {} from phases {} as {} encoded as {}",
                 jobId, fromPhases, asType, encodedAs);
 
+        // Data is only exported from the partitioning outcome, or from the processing
+        // outcome for items failed during delivery, all other outcomes only contribute
+        // diagnostics.
         final JobExportQuery exportQuery = new JobExportQuery(entityManager, jobId)
+                .withAllOutcomes(ItemListQuery.Payload.HEADER)
+                .withOutcome(ItemListQuery.Outcome.PARTITIONING, ItemListQuery.Payload.FULL)
+                .withOutcome(ItemListQuery.Outcome.NEXT_PROCESSING, ItemListQuery.Payload.NONE)
                 .where(new ListFilter<>(phaseToPhaseFailedCriteriaField(fromPhases.get(0))));
+        if (fromPhases.contains(State.Phase.DELIVERING)) {
+            exportQuery.withOutcome(ItemListQuery.Outcome.PROCESSING, ItemListQuery.Payload.FULL);
+        }
         fromPhases.stream().skip(1).forEach(
                 phase -> exportQuery.or(new ListFilter<>(phaseToPhaseFailedCriteriaField(phase))));
 
         boolean hasFatalItems = false;
-        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
         try (JobExport<ItemEntity> export = exportQuery.execute(item -> item)) {
             for (ItemEntity item : export) {
                 try {
                     final ExportableFailedItem exportableFailedItem = ExportableFailedItem.of(item);
-                    buffer.write(exportFailedItem(exportableFailedItem, asType, encodedAs));
+                    out.write(exportFailedItem(exportableFailedItem, asType, encodedAs));
                     if (exportableFailedItem.hasFatalDiagnostic()) {
                         hasFatalItems = true;
                     }
@@ -87,52 +123,51 @@ public class JobExporter {
                 }
             }
         }
-        return new FailedItemsContent(asType, buffer, hasFatalItems);
+        return hasFatalItems;
     }
 
     /**
      * Exports all successful chunk items for given phase for given job to file in file-store
+     * <p>
+     * Item data is streamed from a database cursor directly into a single upload, so
+     * only the data of the item currently being uploaded is held in memory.
+     * </p>
      *
      * @param jobId                     id of job to be exported
      * @param fromPhase                 phase from which chunk items are to be exported
      * @param fileStoreServiceConnector file-store service connector
-     * @return file-store URL of export
+     * @return file-store URL of export or null if the job has no successful items for given phase
      * @throws JobStoreException on failure to export content
      */
     public String exportItemsDataToFileStore(int jobId, State.Phase fromPhase,
                                              FileStoreServiceConnector fileStoreServiceConnector)
             throws JobStoreException {
         LOGGER.info("Exporting items for job {} from phase {}", jobId, fromPhase);
-        String fileStoreUrl = null;
-        final JobExportQuery exportQuery = new JobExportQuery(entityManager, jobId);
-        try (JobExport<ItemEntity> export = exportQuery.execute(item -> item)) {
+        final JobExportQuery exportQuery = new JobExportQuery(entityManager, jobId)
+                .withAllOutcomes(ItemListQuery.Payload.NONE)
+                .withOutcome(ItemListQuery.Outcome.of(fromPhase), ItemListQuery.Payload.FULL);
+        try (JobExport<byte[]> export = exportQuery.execute(item -> {
+            final ChunkItem chunkItem = item.getChunkItemForPhase(fromPhase);
+            return chunkItem.getStatus() == ChunkItem.Status.SUCCESS ? chunkItem.getData() : null;
+        })) {
+            final ItemsDataInputStream itemsData = new ItemsDataInputStream(export.iterator());
+            if (!itemsData.hasData()) {
+                return null;
+            }
             String fileId = null;
-            for (ItemEntity item : export) {
-                final ChunkItem chunkItem = item.getChunkItemForPhase(fromPhase);
-                if (chunkItem.getStatus() == ChunkItem.Status.SUCCESS) {
-                    final byte[] itemData = chunkItem.getData();
-                    try {
-                        if (fileStoreUrl == null) {
-                            // Create file on first item
-                            fileId = fileStoreServiceConnector.addFile(new ByteArrayInputStream(itemData));
-                            fileStoreServiceConnector.addMetadata(fileId, FILE_STORE_METADATA);
-                            fileStoreUrl = String.join("/", fileStoreServiceConnector.getBaseUrl(), "files", fileId);
-                        } else {
-                            // Append to existing file on subsequent items
-                            fileStoreServiceConnector.appendToFile(fileId, itemData);
-                        }
-                    } catch (RuntimeException | FileStoreServiceConnectorException e) {
-                        if (fileId != null) {
-                            deleteFile(fileStoreServiceConnector, fileId);
-                        }
-                        throw new JobStoreException(String.format(
-                                "Exception caught during export to file-store for job %d chunk %d item %d",
-                                item.getKey().getJobId(), item.getKey().getChunkId(), item.getKey().getId()), e);
-                    }
+            try {
+                fileId = fileStoreServiceConnector.addFile(itemsData);
+                fileStoreServiceConnector.addMetadata(fileId, FILE_STORE_METADATA);
+                return String.join("/", fileStoreServiceConnector.getBaseUrl(), "files", fileId);
+            } catch (RuntimeException | FileStoreServiceConnectorException e) {
+                if (fileId != null) {
+                    deleteFile(fileStoreServiceConnector, fileId);
                 }
+                throw new JobStoreException(String.format(
+                        "Exception caught during export to file-store for job %d after %d bytes",
+                        jobId, itemsData.getBytesRead()), e);
             }
         }
-        return fileStoreUrl;
     }
 
     private void deleteFile(FileStoreServiceConnector fileStoreServiceConnector, String fileId) {
@@ -151,7 +186,8 @@ public class JobExporter {
      * @return export of bibliographic record IDs (may contain null values)
      */
     public JobExport<RecordInfo> exportItemsRecordInfo(int jobId) {
-        return extractRecordInfo(new JobExportQuery(entityManager, jobId));
+        return extractRecordInfo(new JobExportQuery(entityManager, jobId)
+                .withAllOutcomes(ItemListQuery.Payload.NONE));
     }
 
     /**
@@ -162,6 +198,7 @@ public class JobExporter {
      */
     public JobExport<RecordInfo> exportFailedItemsRecordInfo(int jobId) {
         return extractRecordInfo(new JobExportQuery(entityManager, jobId)
+                .withAllOutcomes(ItemListQuery.Payload.NONE)
                 .where(new ListFilter<>(phaseToPhaseFailedCriteriaField(State.Phase.PARTITIONING)))
                 .or(new ListFilter<>(phaseToPhaseFailedCriteriaField(State.Phase.PROCESSING)))
                 .or(new ListFilter<>(phaseToPhaseFailedCriteriaField(State.Phase.DELIVERING))));
@@ -186,7 +223,9 @@ public class JobExporter {
      * @return export of {@link ItemEntity.Key}
      */
     public JobExport<ItemEntity.Key> exportItemsKeys(int jobId) {
-        return new JobExportQuery(entityManager, jobId).execute(ItemEntity::getKey);
+        return new JobExportQuery(entityManager, jobId)
+                .withAllOutcomes(ItemListQuery.Payload.NONE)
+                .execute(ItemEntity::getKey);
     }
 
     /**
@@ -197,6 +236,7 @@ public class JobExporter {
      */
     public JobExport<ItemEntity.Key> exportFailedItemsKeys(int jobId) {
         return new JobExportQuery(entityManager, jobId)
+                .withAllOutcomes(ItemListQuery.Payload.NONE)
                 .where(new ListFilter<>(phaseToPhaseFailedCriteriaField(State.Phase.PARTITIONING)))
                 .or(new ListFilter<>(phaseToPhaseFailedCriteriaField(State.Phase.PROCESSING)))
                 .or(new ListFilter<>(phaseToPhaseFailedCriteriaField(State.Phase.DELIVERING)))
@@ -210,7 +250,9 @@ public class JobExporter {
      * @return export of {@link Integer} positions (may contain null values)
      */
     public JobExport<Integer> exportItemsPositionsInDatafile(int jobId) {
-        return new JobExportQuery(entityManager, jobId).execute(ItemEntity::getPositionInDatafile);
+        return new JobExportQuery(entityManager, jobId)
+                .withAllOutcomes(ItemListQuery.Payload.NONE)
+                .execute(ItemEntity::getPositionInDatafile);
     }
 
     /**
@@ -221,6 +263,7 @@ public class JobExporter {
      */
     public JobExport<Integer> exportFailedItemsPositionsInDatafile(int jobId) {
         return new JobExportQuery(entityManager, jobId)
+                .withAllOutcomes(ItemListQuery.Payload.NONE)
                 .where(new ListFilter<>(phaseToPhaseFailedCriteriaField(State.Phase.PARTITIONING)))
                 .or(new ListFilter<>(phaseToPhaseFailedCriteriaField(State.Phase.PROCESSING)))
                 .or(new ListFilter<>(phaseToPhaseFailedCriteriaField(State.Phase.DELIVERING)))
@@ -282,17 +325,27 @@ public class JobExporter {
     }
 
     private static class JobExportQuery {
-        private final EntityManager entityManager;
+        private final ItemListQuery itemListQuery;
         private final ItemListCriteria itemListCriteria;
 
         JobExportQuery(EntityManager entityManager, int jobId) {
-            this.entityManager = entityManager;
+            this.itemListQuery = new ItemListQuery(entityManager);
             itemListCriteria = new ItemListCriteria()
                     .orderBy(new ListOrderBy<>(ItemListCriteria.Field.CHUNK_ID, ListOrderBy.Sort.ASC))
                     .orderBy(new ListOrderBy<>(ItemListCriteria.Field.ITEM_ID, ListOrderBy.Sort.ASC))
                     .where(new ListFilter<>(ItemListCriteria.Field.JOB_ID, ListFilter.Op.EQUAL, jobId));
         }
 
+        public JobExportQuery withOutcome(ItemListQuery.Outcome outcome, ItemListQuery.Payload payload) {
+            itemListQuery.withOutcome(outcome, payload);
+            return this;
+        }
+
+        public JobExportQuery withAllOutcomes(ItemListQuery.Payload payload) {
+            itemListQuery.withAllOutcomes(payload);
+            return this;
+        }
+
         public JobExportQuery where(ListFilter<ItemListCriteria.Field> filter) {
             itemListCriteria.where(filter);
             return this;
@@ -314,7 +367,7 @@ public class JobExporter {
         private final ItemEntityConverter<V> converter;
 
         JobExport(JobExportQuery query, ItemEntityConverter<V> converter) {
-            this.resultSet = new ItemListQuery(query.entityManager).stream(query.itemListCriteria);
+            this.resultSet = query.itemListQuery.stream(query.itemListCriteria);
             this.resultSetIterator = resultSet.iterator();
             this.converter = converter;
         }
@@ -342,6 +395,58 @@ public class JobExporter {
         }
     }
 
+    /* Concatenates the data of a sequence of items into a single stream,
+       null elements of the sequence are skipped */
+    static class ItemsDataInputStream extends InputStream {
+        private final Iterator<byte[]> itemsData;
+        private byte[] current;
+        private int position;
+        private long bytesRead;
+
+        ItemsDataInputStream(Iterator<byte[]> itemsData) {
+            this.itemsData = itemsData;
+        }
+
+        boolean hasData() {
+            while (current == null || position == current.length) {
+                if (!itemsData.hasNext()) {
+                    return false;
+                }
+                current = itemsData.next();
+                position = 0;
+            }
+            return true;
+        }
+
+        long getBytesRead() {
+            return bytesRead;
+        }
+
+        @Override
+        public int read() {
+            if (!hasData()) {
+                return -1;
+            }
+            bytesRead++;
+            return current[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!hasData()) {
+                return -1;
+            }
+            final int n = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, n);
+            position += n;
+            bytesRead += n;
+            return n;
+        }
+    }
+
     public static class FailedItemsContent {
         private final ChunkItem.Type type;
         private final ByteArrayOutputStream content;
@@ -0,0 +1 @@
+alter table chunk add datafileoffset bigint;
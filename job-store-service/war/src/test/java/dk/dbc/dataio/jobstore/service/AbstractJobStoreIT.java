@@ -334,6 +334,18 @@ public class AbstractJobStoreIT extends JetTestSupport implements PostgresContai
                                                  DataPartitioner dataPartitioner, KeyGenerator keyGenerator, String dataFileId) throws JobStoreException {
                 return handleRequiresNew(() -> super.createChunkEntity(submitterId, jobId, chunkId, maxChunkSize, dataPartitioner, keyGenerator, dataFileId));
             }
+
+            @Override
+            public List<ChunkEntity> createChunkEntities(long submitterId, int jobId, int firstChunkId, int maxChunks, short maxChunkSize,
+                                                         DataPartitioner dataPartitioner, KeyGenerator keyGenerator, String dataFileId) throws JobStoreException {
+                return handleRequiresNew(() -> super.createChunkEntities(submitterId, jobId, firstChunkId, maxChunks, maxChunkSize, dataPartitioner, keyGenerator, dataFileId));
+            }
+
+            @Override
+            public List<ChunkEntity> persistChunkEntities(int jobId, int firstChunkId, List<ChunkItemEntities> chunks, int skipped,
+                                                          KeyGenerator keyGenerator, String dataFileId) throws JobStoreException {
+                return handleRequiresNew(() -> super.persistChunkEntities(jobId, firstChunkId, chunks, skipped, keyGenerator, dataFileId));
+            }
         }
         .withEntityManager(entityManager);
     }
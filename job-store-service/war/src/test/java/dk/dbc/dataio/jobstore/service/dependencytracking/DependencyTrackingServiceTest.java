@@ -99,6 +99,58 @@ public class DependencyTrackingServiceTest extends JetTestSupport implements Pos
                 LastTrackerKeySet.stream().noneMatch(wf -> wf.sinkId() == 0 && wf.submitter() == 0));
     }
 
+    @org.junit.Test
+    public void testFindChunksWaitingForMe() {
+        DependencyTrackingService service = new DependencyTrackingService().init(true);
+        List<TestSet> trackers = makeTestSet();
+        trackers.forEach(tracker -> service.addAndBuildDependencies(tracker.dt, null));
+        Assert.assertEquals("T2_1 and T2_4 should be waiting on T1_1",
+                List.of(T2_1.dt.getKey(), T2_4.dt.getKey()), service.findChunksWaitingForMe(T1_1.dt.getKey(), 0));
+        Assert.assertEquals("No chunks of another sink should be waiting on T1_1",
+                List.of(), service.findChunksWaitingForMe(T1_1.dt.getKey(), 1));
+        service.removeFromWaitingOn(T1_1.dt.getKey());
+        Assert.assertEquals("No chunks should be waiting on T1_1 when completed",
+                List.of(), service.findChunksWaitingForMe(T1_1.dt.getKey(), 0));
+        Assert.assertEquals("T2_1 should still be waiting on T1_2", wo(T1_2), service.get(T2_1.dt.getKey()).getWaitingOn());
+    }
+
+    @org.junit.Test
+    public void testFindChunksWaitingForMe_trackerNotInIndex() throws IOException {
+        DependencyTrackingService service = new DependencyTrackingService().init(true);
+        makeTestSet(T1_1, T2_4);
+        service.addAndBuildDependencies(T1_1.dt, null);
+        // A member joins, and a tracker is added without maintaining the index,
+        // as done by members of an older version during a rolling deploy
+        HazelcastInstance member = createHazelcastInstance(newConfig());
+        T2_4.dt.setWaitingOn(wo(T1_1));
+        hz.<TrackingKey, DependencyTracking>getMap("dependencies").set(T2_4.dt.getKey(), T2_4.dt);
+        Assert.assertEquals("T2_4 should be found waiting on T1_1 until the index is reconciled",
+                List.of(T2_4.dt.getKey()), service.findChunksWaitingForMe(T1_1.dt.getKey(), 0));
+        service.reconcileWaitingOnIndex();
+        Assert.assertEquals("T2_4 should be found waiting on T1_1 through the reconciled index",
+                List.of(T2_4.dt.getKey()), service.findChunksWaitingForMe(T1_1.dt.getKey(), 0));
+        service.removeFromWaitingOn(T1_1.dt.getKey());
+        Assert.assertTrue("When T1_1 completed, T2_4 should have an empty waitingOn", service.get(T2_4.dt.getKey()).getWaitingOn().isEmpty());
+        member.shutdown();
+    }
+
+    @org.junit.Test
+    public void testReleaseRemovedBlockers() throws InterruptedException {
+        DependencyTrackingService service = new DependencyTrackingService().init(true);
+        List<TestSet> trackers = makeTestSet(T1_1, T2_4);
+        trackers.forEach(tracker -> service.addAndBuildDependencies(tracker.dt, null));
+        service.setStatus(T2_4.dt.getKey(), ChunkSchedulingStatus.BLOCKED);
+        service.removeJobId(1);
+        Set<TrackingKey> released = new HashSet<>();
+        for(int i = 0; i < 50 && released.isEmpty(); i++) {
+            Thread.sleep(100);
+            released.addAll(service.releaseRemovedBlockers());
+        }
+        Assert.assertEquals("T2_4 should be released when job 1 is removed", wo(T2_4), released);
+        Assert.assertEquals(ChunkSchedulingStatus.READY_FOR_DELIVERY, service.get(T2_4.dt.getKey()).getStatus());
+        Assert.assertTrue("A consistency check should find nothing left to release", service.recheckBlocks().isEmpty());
+    }
+
     @org.junit.Test
     public void testBarrierKey() {
         DependencyTrackingService service = new DependencyTrackingService().init(true);
@@ -205,16 +257,23 @@ public class DependencyTrackingServiceTest extends JetTestSupport implements Pos
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
-        try(InputStream is = getClass().getClassLoader().getResourceAsStream("hz-data.xml")) {
-            Config config = Hazelcast.makeConfig(is);
-            config.getMapConfig("dependencies");
-            hz = createHazelcastInstance(config);
+        try {
+            hz = createHazelcastInstance(newConfig());
             Hazelcast.testInstance(hz);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private Config newConfig() throws IOException {
+        try(InputStream is = getClass().getClassLoader().getResourceAsStream("hz-data.xml")) {
+            Config config = Hazelcast.makeConfig(is);
+            // Instance names must be unique when running more than one member
+            config.setInstanceName(null);
+            return config;
+        }
+    }
+
     @After
     public void stopHazelcast() {
         hz.shutdown();
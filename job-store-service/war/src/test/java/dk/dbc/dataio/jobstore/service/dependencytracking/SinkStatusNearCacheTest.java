@@ -0,0 +1,60 @@
+package dk.dbc.dataio.jobstore.service.dependencytracking;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.map.IMap;
+import dk.dbc.dataio.jobstore.distributed.ChunkSchedulingStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SinkStatusNearCacheTest {
+    @SuppressWarnings("unchecked")
+    private final IMap<Integer, Map<ChunkSchedulingStatus, Integer>> countersMap = mock(IMap.class);
+    private final SinkStatusNearCache cache = new SinkStatusNearCache(countersMap);
+
+    @Test
+    public void entryEventsReplaceCounters() {
+        cache.entryAdded(event(1, Map.of(ChunkSchedulingStatus.QUEUED_FOR_PROCESSING, 3)));
+        assertThat("added", cache.getCount(1, ChunkSchedulingStatus.QUEUED_FOR_PROCESSING), is(3));
+
+        cache.entryUpdated(event(1, Map.of(ChunkSchedulingStatus.QUEUED_FOR_PROCESSING, 5)));
+        assertThat("updated", cache.getCount(1, ChunkSchedulingStatus.QUEUED_FOR_PROCESSING), is(5));
+
+        cache.entryRemoved(event(1, null));
+        assertThat("removed", cache.contains(1), is(false));
+        assertThat("count of unknown sink", cache.getCount(1, ChunkSchedulingStatus.QUEUED_FOR_PROCESSING), is(0));
+    }
+
+    @Test
+    public void localChangesAreAppliedAheadOfEvents() {
+        cache.putIfAbsent(1);
+        cache.apply(1, Map.of(ChunkSchedulingStatus.QUEUED_FOR_PROCESSING, 2));
+        cache.apply(1, Map.of(ChunkSchedulingStatus.QUEUED_FOR_PROCESSING, -1, ChunkSchedulingStatus.QUEUED_FOR_DELIVERY, 1));
+        assertThat("processing", cache.getCount(1, ChunkSchedulingStatus.QUEUED_FOR_PROCESSING), is(1));
+        assertThat("delivery", cache.getCount(1, ChunkSchedulingStatus.QUEUED_FOR_DELIVERY), is(1));
+
+        // The authoritative value of the distributed map always wins
+        cache.entryUpdated(event(1, Map.of(ChunkSchedulingStatus.QUEUED_FOR_PROCESSING, 7)));
+        assertThat("processing after event", cache.getCount(1, ChunkSchedulingStatus.QUEUED_FOR_PROCESSING), is(7));
+        assertThat("delivery after event", cache.getCount(1, ChunkSchedulingStatus.QUEUED_FOR_DELIVERY), is(0));
+    }
+
+    @Test
+    public void localChangesToUnknownSinkAreIgnored() {
+        cache.apply(2, Map.of(ChunkSchedulingStatus.QUEUED_FOR_PROCESSING, 1));
+        assertThat(cache.contains(2), is(false));
+    }
+
+    @SuppressWarnings("unchecked")
+    private EntryEvent<Integer, Map<ChunkSchedulingStatus, Integer>> event(int sinkId, Map<ChunkSchedulingStatus, Integer> value) {
+        EntryEvent<Integer, Map<ChunkSchedulingStatus, Integer>> event = mock(EntryEvent.class);
+        when(event.getKey()).thenReturn(sinkId);
+        when(event.getValue()).thenReturn(value);
+        return event;
+    }
+}
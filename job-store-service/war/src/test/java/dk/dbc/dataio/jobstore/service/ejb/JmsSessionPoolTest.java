@@ -0,0 +1,113 @@
+package dk.dbc.dataio.jobstore.service.ejb;
+
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.ExceptionListener;
+import jakarta.jms.JMSContext;
+import jakarta.jms.JMSException;
+import jakarta.jms.JMSRuntimeException;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JmsSessionPoolTest {
+    private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+    private final JMSContext context1 = mock(JMSContext.class);
+    private final JMSContext context2 = mock(JMSContext.class);
+    private final JMSContext context3 = mock(JMSContext.class);
+
+    {
+        when(connectionFactory.createContext(JMSContext.SESSION_TRANSACTED)).thenReturn(context1, context2, context3);
+    }
+
+    @Test
+    public void acquire_afterCommittedSessionIsClosed_reusesSession() {
+        JmsSessionPool pool = new JmsSessionPool(connectionFactory, 1);
+        try (JmsSessionPool.Session session = pool.acquire()) {
+            session.commit();
+        }
+        assertThat("idle sessions", pool.getNumberOfIdleSessions(), is(1));
+
+        try (JmsSessionPool.Session session = pool.acquire()) {
+            assertThat("context", session.getContext(), is(context1));
+        }
+        verify(context1, never()).close();
+    }
+
+    @Test
+    public void close_uncommittedSession_discardsSession() {
+        JmsSessionPool pool = new JmsSessionPool(connectionFactory, 1);
+        try (JmsSessionPool.Session ignored = pool.acquire()) {
+            // simulates failure before commit
+        }
+        verify(context1).close();
+        assertThat("idle sessions", pool.getNumberOfIdleSessions(), is(0));
+
+        try (JmsSessionPool.Session session = pool.acquire()) {
+            assertThat("context", session.getContext(), is(not(context1)));
+        }
+    }
+
+    @Test
+    public void close_poolIsFull_closesSession() {
+        JmsSessionPool pool = new JmsSessionPool(connectionFactory, 1);
+        JmsSessionPool.Session session1 = pool.acquire();
+        JmsSessionPool.Session session2 = pool.acquire();
+        session1.commit();
+        session2.commit();
+        session1.close();
+        session2.close();
+
+        assertThat("idle sessions", pool.getNumberOfIdleSessions(), is(1));
+        verify(context1, never()).close();
+        verify(context2).close();
+    }
+
+    @Test
+    public void close_brokenIdleSession_discardsAllIdleSessions() {
+        JmsSessionPool pool = new JmsSessionPool(connectionFactory, 2);
+        JmsSessionPool.Session session1 = pool.acquire();
+        JmsSessionPool.Session session2 = pool.acquire();
+        session2.commit();
+        session2.close();
+        session1.commit();
+        session1.close();
+        assertThat("idle sessions", pool.getNumberOfIdleSessions(), is(2));
+
+        // simulates a broker restart having left the idle sessions broken
+        doThrow(new JMSRuntimeException("connection lost")).when(context1).commit();
+        try (JmsSessionPool.Session session = pool.acquire()) {
+            assertThat("context", session.getContext(), is(context1));
+            assertThrows(JMSRuntimeException.class, session::commit);
+        }
+        verify(context1).close();
+        verify(context2).close();
+        assertThat("idle sessions", pool.getNumberOfIdleSessions(), is(0));
+
+        try (JmsSessionPool.Session session = pool.acquire()) {
+            assertThat("context", session.getContext(), is(context3));
+        }
+    }
+
+    @Test
+    public void connectionException_discardsAllIdleSessions() {
+        JmsSessionPool pool = new JmsSessionPool(connectionFactory, 1);
+        try (JmsSessionPool.Session session = pool.acquire()) {
+            session.commit();
+        }
+        ArgumentCaptor<ExceptionListener> exceptionListener = ArgumentCaptor.forClass(ExceptionListener.class);
+        verify(context1).setExceptionListener(exceptionListener.capture());
+
+        exceptionListener.getValue().onException(new JMSException("connection lost"));
+        verify(context1).close();
+        assertThat("idle sessions", pool.getNumberOfIdleSessions(), is(0));
+    }
+}
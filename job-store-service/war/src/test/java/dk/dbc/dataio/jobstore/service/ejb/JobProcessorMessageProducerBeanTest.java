@@ -24,7 +24,7 @@ import jakarta.jms.JMSProducer;
 import jakarta.jms.JMSRuntimeException;
 import jakarta.jms.Message;
 import jakarta.jms.Queue;
-import jakarta.jms.TextMessage;
+import jakarta.jms.Message;
 import net.jodah.failsafe.RetryPolicy;
 import org.junit.Assert;
 import org.junit.jupiter.api.BeforeEach;
@@ -32,6 +32,7 @@ import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
 import java.time.Duration;
+import java.util.List;
 
 import static dk.dbc.commons.testutil.Assert.assertThat;
 import static dk.dbc.commons.testutil.Assert.isThrowing;
@@ -40,6 +41,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -55,7 +57,7 @@ public class JobProcessorMessageProducerBeanTest {
 
     @BeforeEach
     public void setupMocks() {
-        when(jmsConnectionFactory.createContext()).thenReturn(jmsContext);
+        when(jmsConnectionFactory.createContext(JMSContext.SESSION_TRANSACTED)).thenReturn(jmsContext);
         when(jmsContext.createProducer()).thenReturn(jmsProducer);
         when(jmsContext.createQueue(any(String.class))).thenReturn(mock(Queue.class));
         when(jmsContext.createTextMessage(any(String.class))).thenReturn(new MockedJmsTextMessage());
@@ -78,6 +80,23 @@ public class JobProcessorMessageProducerBeanTest {
         jobProcessorMessageProducerBean.send(new ChunkBuilder(Chunk.Type.PARTITIONED).build(),
                 buildJobEntity(), Priority.NORMAL.getValue());
         verify(jmsProducer).setPriority(Priority.NORMAL.getValue());
+        verify(jmsContext).commit();
+    }
+
+    @Test
+    public void send_batch_sendsAllChunksInSingleTransaction() throws JobStoreException {
+        JobEntity jobEntity = buildJobEntity();
+        jobProcessorMessageProducerBean.send(List.of(
+                new JobProcessorMessageProducerBean.ScheduledChunk(
+                        new ChunkBuilder(Chunk.Type.PARTITIONED).setChunkId(0).build(), jobEntity, Priority.NORMAL.getValue()),
+                new JobProcessorMessageProducerBean.ScheduledChunk(
+                        new ChunkBuilder(Chunk.Type.PARTITIONED).setChunkId(1).build(), jobEntity, Priority.HIGH.getValue())));
+
+        verify(jmsProducer, times(2)).send(any(Queue.class), any(Message.class));
+        verify(jmsProducer).setPriority(Priority.NORMAL.getValue());
+        verify(jmsProducer).setPriority(Priority.HIGH.getValue());
+        verify(jmsContext).commit();
+        verify(jmsConnectionFactory).createContext(JMSContext.SESSION_TRANSACTED);
     }
 
     @Test
@@ -86,7 +105,7 @@ public class JobProcessorMessageProducerBeanTest {
 
         // Subject under test
         Chunk chunk = new ChunkBuilder(Chunk.Type.PARTITIONED).setJobId(jobEntity.getId()).build();
-        TextMessage message = jobProcessorMessageProducerBean.createMessage(jmsContext, chunk, jobEntity);
+        Message message = jobProcessorMessageProducerBean.createMessage(jmsContext, chunk, jobEntity);
 
         // Verification
         assertThat(JMSHeader.payload.getHeader(message), is(JMSHeader.CHUNK_PAYLOAD_TYPE));
@@ -111,6 +130,8 @@ public class JobProcessorMessageProducerBeanTest {
         Chunk chunk = new ChunkBuilder(Chunk.Type.PARTITIONED).setJobId(jobEntity.getId()).build();
         Assert.assertThrows(JMSRuntimeException.class, () -> producerBean.send(chunk, jobEntity, 1));
         verify(jmsProducer, times(4)).send(any(Queue.class), any(Message.class));
+        verify(jmsContext, never()).commit();
+        verify(jmsContext, times(4)).close();
     }
 
     @Test
@@ -161,7 +182,7 @@ public class JobProcessorMessageProducerBeanTest {
     private JobProcessorMessageProducerBean getInitializedBean() throws Exception {
         RetryPolicy<Object> retryPolicy = new RetryPolicy<>().withDelay(Duration.ofMillis(1)).withMaxRetries(3);
         JobProcessorMessageProducerBean bean = new JobProcessorMessageProducerBean(retryPolicy);
-        bean.connectionFactory = jmsConnectionFactory;
+        bean.sessionPool = new JmsSessionPool(jmsConnectionFactory, 1);
         bean.jsonbContext = new JSONBContext();
         setField(bean, "nashornQueue", "processor::business");
         setField(bean, "graaljsQueue", "processor-graaljs::main");
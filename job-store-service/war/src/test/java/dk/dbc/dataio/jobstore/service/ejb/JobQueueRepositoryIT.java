@@ -284,6 +284,66 @@ public class JobQueueRepositoryIT extends AbstractJobStoreIT {
         assertThat("head of queue for sink is now in-progress", seized.getState(), is(JobQueueEntity.State.IN_PROGRESS));
     }
 
+    /**
+     * Given: a job queue with waiting entries for two submitters on the same sink
+     * When : seize candidates are requested and the later candidate is seized by id
+     * Then : only the oldest entry of each submitter is a candidate, and once seized
+     *        the submitter no longer offers a candidate
+     */
+    @org.junit.Test
+    public void findSeizeCandidatesAndSeizeIfWaiting() {
+        final SinkCacheEntity sinkCacheEntity = newPersistedSinkCacheEntity();
+        final JobEntity job1 = newPersistedJobEntity(123);
+        final JobEntity job2 = newPersistedJobEntity(123);
+        final JobEntity job3 = newPersistedJobEntity(456);
+
+        persistenceContext.run(() -> {
+            job1.setCachedSink(sinkCacheEntity);
+            job2.setCachedSink(sinkCacheEntity);
+            job3.setCachedSink(sinkCacheEntity);
+        });
+
+        final Sink sink = sinkCacheEntity.getSink();
+        final JobQueueEntity jobQueueEntity1 = new JobQueueEntity()
+                .withJob(job1)
+                .withSinkId(sink.getId())
+                .withState(JobQueueEntity.State.WAITING)
+                .withTypeOfDataPartitioner(RecordSplitter.XML);
+        final JobQueueEntity jobQueueEntity2 = new JobQueueEntity()
+                .withJob(job2)
+                .withSinkId(sink.getId())
+                .withState(JobQueueEntity.State.WAITING)
+                .withTypeOfDataPartitioner(RecordSplitter.XML);
+        final JobQueueEntity jobQueueEntity3 = new JobQueueEntity()
+                .withJob(job3)
+                .withSinkId(sink.getId())
+                .withState(JobQueueEntity.State.WAITING)
+                .withTypeOfDataPartitioner(RecordSplitter.XML);
+
+        persist(jobQueueEntity1);
+        persist(jobQueueEntity2);
+        persist(jobQueueEntity3);
+
+        final JobQueueRepository jobQueueRepository = newJobQueueRepository();
+        final List<JobQueueEntity> candidates = jobQueueRepository.findSeizeCandidates(sink);
+        assertThat("number of candidates", candidates.size(), is(2));
+        assertThat("candidates", Arrays.asList(candidates.get(0).getId(), candidates.get(1).getId()),
+                is(Arrays.asList(jobQueueEntity1.getId(), jobQueueEntity3.getId())));
+
+        assertThat("later entry of submitter cannot be seized",
+                persistenceContext.run(() -> jobQueueRepository.seizeIfWaiting(sink, jobQueueEntity2.getId())).isPresent(),
+                is(false));
+
+        final JobQueueEntity seized = persistenceContext.run(() ->
+                jobQueueRepository.seizeIfWaiting(sink, jobQueueEntity3.getId())).orElse(null);
+        assertThat("seized entry returned", seized, is(notNullValue()));
+        assertThat("seized entry is now in-progress", seized.getState(), is(JobQueueEntity.State.IN_PROGRESS));
+
+        final List<JobQueueEntity> remaining = jobQueueRepository.findSeizeCandidates(sink);
+        assertThat("number of remaining candidates", remaining.size(), is(1));
+        assertThat("remaining candidate", remaining.get(0).getId(), is(jobQueueEntity1.getId()));
+    }
+
     /**
      * Given: a non-empty job queue with a queue entry with state IN_PROGRESS
      * When : retry is called for the job queue entry
@@ -5,6 +5,7 @@ import dk.dbc.dataio.filestore.service.connector.FileStoreServiceConnector;
 import dk.dbc.dataio.filestore.service.connector.ejb.FileStoreServiceConnectorBean;
 import dk.dbc.dataio.jobstore.types.JobStoreException;
 import dk.dbc.dataio.jobstore.types.State;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.StreamingOutput;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,12 +13,17 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -74,12 +80,13 @@ public class JobsExportsBeanTest {
     public void exportItemsFailedDuringPartitioning() throws JobStoreException, IOException {
         final int jobId = 42;
         final String data = "exported data for item failed during partitioning";
-        final ByteArrayOutputStream export = new ByteArrayOutputStream();
-        export.write(data.getBytes());
+        doAnswer(invocation -> {
+            invocation.getArgument(4, OutputStream.class).write(data.getBytes());
+            return null;
+        }).when(jobsExportsBean.jobStoreRepository).exportFailedItems(
+                eq(jobId), eq(State.Phase.PARTITIONING), eq(ChunkItem.Type.BYTES), eq(StandardCharsets.UTF_8), any(OutputStream.class));
 
-        when(jobsExportsBean.jobStoreRepository.exportFailedItems(
-                jobId, State.Phase.PARTITIONING, ChunkItem.Type.BYTES, StandardCharsets.UTF_8))
-                .thenReturn(export);
+        when(jobsExportsBean.jobStoreRepository.jobExists(jobId)).thenReturn(true);
 
         final Response response = jobsExportsBean.exportItemsFailedDuringPartitioning(jobId, ChunkItem.Type.BYTES);
         assertThat("Response status", response.getStatus(), is(Response.Status.OK.getStatusCode()));
@@ -89,10 +96,6 @@ public class JobsExportsBeanTest {
     @Test
     public void exportItemsFailedDuringPartitioning_jobNotFound() throws JobStoreException {
         final int jobId = 42;
-        when(jobsExportsBean.jobStoreRepository.exportFailedItems(
-                jobId, State.Phase.PARTITIONING, ChunkItem.Type.BYTES, StandardCharsets.UTF_8))
-                .thenThrow(new JobStoreException("job not found"));
-
         when(jobsExportsBean.jobStoreRepository.jobExists(jobId)).thenReturn(false);
 
         final Response response = jobsExportsBean.exportItemsFailedDuringPartitioning(jobId, ChunkItem.Type.BYTES);
@@ -102,13 +105,13 @@ public class JobsExportsBeanTest {
     @Test
     public void exportItemsFailedDuringPartitioning_internalServerError() throws JobStoreException {
         final int jobId = 42;
-        when(jobsExportsBean.jobStoreRepository.exportFailedItems(
-                jobId, State.Phase.PARTITIONING, ChunkItem.Type.BYTES, StandardCharsets.UTF_8))
-                .thenThrow(new JobStoreException("died"));
+        doThrow(new JobStoreException("died")).when(jobsExportsBean.jobStoreRepository).exportFailedItems(
+                eq(jobId), eq(State.Phase.PARTITIONING), eq(ChunkItem.Type.BYTES), eq(StandardCharsets.UTF_8), any(OutputStream.class));
 
         when(jobsExportsBean.jobStoreRepository.jobExists(jobId)).thenReturn(true);
 
-        assertThrows(JobStoreException.class, () -> jobsExportsBean.exportItemsFailedDuringPartitioning(jobId, ChunkItem.Type.BYTES));
+        final Response response = jobsExportsBean.exportItemsFailedDuringPartitioning(jobId, ChunkItem.Type.BYTES);
+        assertThrows(WebApplicationException.class, () -> getStreamingOutputFromResponse(response));
     }
 
     @Test
@@ -153,12 +156,13 @@ public class JobsExportsBeanTest {
     public void exportItemsFailedDuringProcessing() throws JobStoreException, IOException {
         final int jobId = 42;
         final String data = "exported data for item failed during processing";
-        final ByteArrayOutputStream export = new ByteArrayOutputStream();
-        export.write(data.getBytes());
+        doAnswer(invocation -> {
+            invocation.getArgument(4, OutputStream.class).write(data.getBytes());
+            return null;
+        }).when(jobsExportsBean.jobStoreRepository).exportFailedItems(
+                eq(jobId), eq(State.Phase.PROCESSING), eq(ChunkItem.Type.BYTES), eq(StandardCharsets.UTF_8), any(OutputStream.class));
 
-        when(jobsExportsBean.jobStoreRepository.exportFailedItems(
-                jobId, State.Phase.PROCESSING, ChunkItem.Type.BYTES, StandardCharsets.UTF_8))
-                .thenReturn(export);
+        when(jobsExportsBean.jobStoreRepository.jobExists(jobId)).thenReturn(true);
 
         final Response response = jobsExportsBean.exportItemsFailedDuringProcessing(jobId, ChunkItem.Type.BYTES);
         assertThat("Response status", response.getStatus(), is(Response.Status.OK.getStatusCode()));
@@ -168,10 +172,6 @@ public class JobsExportsBeanTest {
     @Test
     public void exportItemsFailedDuringProcessing_jobNotFound() throws JobStoreException {
         final int jobId = 42;
-        when(jobsExportsBean.jobStoreRepository.exportFailedItems(
-                jobId, State.Phase.PROCESSING, ChunkItem.Type.BYTES, StandardCharsets.UTF_8))
-                .thenThrow(new JobStoreException("job not found"));
-
         when(jobsExportsBean.jobStoreRepository.jobExists(jobId)).thenReturn(false);
 
         final Response response = jobsExportsBean.exportItemsFailedDuringProcessing(jobId, ChunkItem.Type.BYTES);
@@ -181,13 +181,13 @@ public class JobsExportsBeanTest {
     @Test
     public void exportItemsFailedDuringProcessing_internalServerError() throws JobStoreException {
         final int jobId = 42;
-        when(jobsExportsBean.jobStoreRepository.exportFailedItems(
-                jobId, State.Phase.PROCESSING, ChunkItem.Type.BYTES, StandardCharsets.UTF_8))
-                .thenThrow(new JobStoreException("died"));
+        doThrow(new JobStoreException("died")).when(jobsExportsBean.jobStoreRepository).exportFailedItems(
+                eq(jobId), eq(State.Phase.PROCESSING), eq(ChunkItem.Type.BYTES), eq(StandardCharsets.UTF_8), any(OutputStream.class));
 
         when(jobsExportsBean.jobStoreRepository.jobExists(jobId)).thenReturn(true);
 
-        assertThrows(JobStoreException.class, () -> jobsExportsBean.exportItemsFailedDuringProcessing(jobId, ChunkItem.Type.BYTES));
+        final Response response = jobsExportsBean.exportItemsFailedDuringProcessing(jobId, ChunkItem.Type.BYTES);
+        assertThrows(WebApplicationException.class, () -> getStreamingOutputFromResponse(response));
     }
 
     @Test
@@ -232,12 +232,13 @@ public class JobsExportsBeanTest {
     public void exportItemsFailedDuringDelivery() throws JobStoreException, IOException {
         final int jobId = 42;
         final String data = "exported data for item failed during delivery";
-        final ByteArrayOutputStream export = new ByteArrayOutputStream();
-        export.write(data.getBytes());
+        doAnswer(invocation -> {
+            invocation.getArgument(4, OutputStream.class).write(data.getBytes());
+            return null;
+        }).when(jobsExportsBean.jobStoreRepository).exportFailedItems(
+                eq(jobId), eq(State.Phase.DELIVERING), eq(ChunkItem.Type.BYTES), eq(StandardCharsets.UTF_8), any(OutputStream.class));
 
-        when(jobsExportsBean.jobStoreRepository.exportFailedItems(
-                jobId, State.Phase.DELIVERING, ChunkItem.Type.BYTES, StandardCharsets.UTF_8))
-                .thenReturn(export);
+        when(jobsExportsBean.jobStoreRepository.jobExists(jobId)).thenReturn(true);
 
         final Response response = jobsExportsBean.exportItemsFailedDuringDelivery(jobId, ChunkItem.Type.BYTES);
         assertThat("Response status", response.getStatus(), is(Response.Status.OK.getStatusCode()));
@@ -247,10 +248,6 @@ public class JobsExportsBeanTest {
     @Test
     public void exportItemsFailedDuringDelivery_jobNotFound() throws JobStoreException {
         final int jobId = 42;
-        when(jobsExportsBean.jobStoreRepository.exportFailedItems(
-                jobId, State.Phase.DELIVERING, ChunkItem.Type.BYTES, StandardCharsets.UTF_8))
-                .thenThrow(new JobStoreException("job not found"));
-
         when(jobsExportsBean.jobStoreRepository.jobExists(jobId)).thenReturn(false);
 
         final Response response = jobsExportsBean.exportItemsFailedDuringDelivery(jobId, ChunkItem.Type.BYTES);
@@ -260,13 +257,13 @@ public class JobsExportsBeanTest {
     @Test
     public void exportItemsFailedDuringDelivery_internalServerError() throws JobStoreException {
         final int jobId = 42;
-        when(jobsExportsBean.jobStoreRepository.exportFailedItems(
-                jobId, State.Phase.DELIVERING, ChunkItem.Type.BYTES, StandardCharsets.UTF_8))
-                .thenThrow(new JobStoreException("died"));
+        doThrow(new JobStoreException("died")).when(jobsExportsBean.jobStoreRepository).exportFailedItems(
+                eq(jobId), eq(State.Phase.DELIVERING), eq(ChunkItem.Type.BYTES), eq(StandardCharsets.UTF_8), any(OutputStream.class));
 
         when(jobsExportsBean.jobStoreRepository.jobExists(jobId)).thenReturn(true);
 
-        assertThrows(JobStoreException.class, () -> jobsExportsBean.exportItemsFailedDuringDelivery(jobId, ChunkItem.Type.BYTES));
+        final Response response = jobsExportsBean.exportItemsFailedDuringDelivery(jobId, ChunkItem.Type.BYTES);
+        assertThrows(WebApplicationException.class, () -> getStreamingOutputFromResponse(response));
     }
 
     private String getStreamingOutputFromResponse(Response response) throws IOException {
@@ -0,0 +1,93 @@
+package dk.dbc.dataio.jobstore.service.ejb;
+
+import dk.dbc.dataio.commons.types.Diagnostic;
+import dk.dbc.dataio.commons.utils.test.model.SinkBuilder;
+import dk.dbc.dataio.jobstore.service.entity.ChunkEntity;
+import dk.dbc.dataio.jobstore.service.entity.JobEntity;
+import dk.dbc.dataio.jobstore.service.entity.SinkCacheEntity;
+import dk.dbc.dataio.jobstore.service.param.PartitioningParam;
+import dk.dbc.dataio.jobstore.types.JobStoreException;
+import dk.dbc.dataio.jobstore.types.State;
+import org.mockito.InOrder;
+import types.TestableJobEntityBuilder;
+import types.TestablePartitioningParamBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PartitioningPipelineTest extends PgJobStoreBaseTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final JobSchedulerBean jobSchedulerBean = mock(JobSchedulerBean.class);
+    private final JobEntity jobEntity = new TestableJobEntityBuilder()
+            .setSinkCacheEntity(SinkCacheEntity.create(new SinkBuilder().build()))
+            .build();
+
+    @org.junit.After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @org.junit.Test
+    public void chunksArePersistedAndScheduledInOrder() throws JobStoreException {
+        when(mockedJobStoreRepository.persistChunkEntities(anyInt(), anyInt(), anyList(), anyInt(), any(), anyString()))
+                .thenAnswer(invocation -> toChunkEntities(invocation.getArgument(1), invocation.getArgument(2)));
+
+        final List<Diagnostic> abortDiagnostics = new ArrayList<>();
+        final int numberOfChunks = new PartitioningPipeline(mockedJobStoreRepository, jobSchedulerBean, executor, 1, 1)
+                .run(jobEntity, 0, newPartitioningParam(), abortDiagnostics);
+
+        assertThat("number of chunks", numberOfChunks, is(2));
+        assertThat("abort diagnostics", abortDiagnostics.isEmpty(), is(true));
+        final InOrder inOrder = inOrder(jobSchedulerBean);
+        inOrder.verify(jobSchedulerBean).scheduleChunk(argThat(chunk -> chunk.getKey().getId() == 0), any());
+        inOrder.verify(jobSchedulerBean).scheduleChunk(argThat(chunk -> chunk.getKey().getId() == 1), any());
+    }
+
+    @org.junit.Test
+    public void failureToPersistIsPropagated() throws JobStoreException {
+        final JobStoreException failure = new JobStoreException("persist failed");
+        when(mockedJobStoreRepository.persistChunkEntities(anyInt(), anyInt(), anyList(), anyInt(), any(), anyString()))
+                .thenThrow(failure);
+
+        final JobStoreException e = assertThrows(JobStoreException.class, () ->
+                new PartitioningPipeline(mockedJobStoreRepository, jobSchedulerBean, executor, 1, 1)
+                        .run(jobEntity, 0, newPartitioningParam(), new ArrayList<>()));
+
+        assertThat("exception", e, is(failure));
+        verify(jobSchedulerBean, never()).scheduleChunk(any(), any());
+    }
+
+    private PartitioningParam newPartitioningParam() {
+        return new TestablePartitioningParamBuilder().setJobEntity(jobEntity).build();
+    }
+
+    private static List<ChunkEntity> toChunkEntities(int firstChunkId, List<PgJobStoreRepository.ChunkItemEntities> chunks) {
+        return IntStream.range(0, chunks.size())
+                .mapToObj(i -> {
+                    final ChunkEntity chunkEntity = new ChunkEntity();
+                    chunkEntity.setKey(new ChunkEntity.Key(firstChunkId + i, 0));
+                    chunkEntity.setNumberOfItems(chunks.get(i).size());
+                    chunkEntity.setState(new State());
+                    return chunkEntity;
+                })
+                .collect(Collectors.toList());
+    }
+}
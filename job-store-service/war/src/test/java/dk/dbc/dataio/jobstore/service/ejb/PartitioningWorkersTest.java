@@ -0,0 +1,87 @@
+package dk.dbc.dataio.jobstore.service.ejb;
+
+import dk.dbc.dataio.commons.types.JobSpecification;
+import dk.dbc.dataio.commons.types.Priority;
+import dk.dbc.dataio.jobstore.service.entity.JobEntity;
+import dk.dbc.dataio.jobstore.service.entity.JobQueueEntity;
+import org.junit.jupiter.api.Test;
+import types.TestableJobEntityBuilder;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PartitioningWorkersTest {
+    private static final int SINK_ID = 42;
+
+    @Test
+    public void tryAcquire_boundedPerSink() {
+        final PartitioningWorkers partitioningWorkers = new PartitioningWorkers();
+        partitioningWorkers.workersPerSink = 2;
+
+        assertThat("1st", partitioningWorkers.tryAcquire(SINK_ID), is(true));
+        assertThat("2nd", partitioningWorkers.tryAcquire(SINK_ID), is(true));
+        assertThat("3rd", partitioningWorkers.tryAcquire(SINK_ID), is(false));
+        assertThat("other sink", partitioningWorkers.tryAcquire(SINK_ID + 1), is(true));
+        assertThat("active workers", partitioningWorkers.getActiveWorkers(SINK_ID), is(2));
+
+        assertThat("release reports turned down request", partitioningWorkers.release(SINK_ID), is(true));
+        assertThat("release with no turned down request", partitioningWorkers.release(SINK_ID), is(false));
+        assertThat("active workers after release", partitioningWorkers.getActiveWorkers(SINK_ID), is(0));
+    }
+
+    @Test
+    public void order_leastServedSubmitterFirst() {
+        final PartitioningWorkers partitioningWorkers = new PartitioningWorkers();
+        final JobQueueEntity big = newJobQueueEntity(1, 111, Priority.NORMAL, 10000);
+        final JobQueueEntity small = newJobQueueEntity(2, 222, Priority.NORMAL, 10);
+
+        assertThat("queue order when nothing served", ids(partitioningWorkers.order(SINK_ID, List.of(big, small))),
+                is(List.of(1, 2)));
+
+        partitioningWorkers.served(SINK_ID, big.getJob());
+        final JobQueueEntity nextBig = newJobQueueEntity(3, 111, Priority.NORMAL, 10000);
+        assertThat("small submitter before big submitter", ids(partitioningWorkers.order(SINK_ID, List.of(nextBig, small))),
+                is(List.of(2, 3)));
+    }
+
+    @Test
+    public void order_weightedByPriority() {
+        final PartitioningWorkers partitioningWorkers = new PartitioningWorkers();
+        partitioningWorkers.served(SINK_ID, newJobQueueEntity(1, 111, Priority.HIGH, 700).getJob());
+        partitioningWorkers.served(SINK_ID, newJobQueueEntity(2, 222, Priority.NORMAL, 500).getJob());
+
+        final JobQueueEntity high = newJobQueueEntity(3, 111, Priority.HIGH, 10);
+        final JobQueueEntity normal = newJobQueueEntity(4, 222, Priority.NORMAL, 10);
+        assertThat(ids(partitioningWorkers.order(SINK_ID, List.of(normal, high))), is(List.of(3, 4)));
+    }
+
+    @Test
+    public void order_forgetsSubmittersNoLongerWaiting() {
+        final PartitioningWorkers partitioningWorkers = new PartitioningWorkers();
+        partitioningWorkers.served(SINK_ID, newJobQueueEntity(1, 111, Priority.NORMAL, 10000).getJob());
+        partitioningWorkers.order(SINK_ID, List.of(newJobQueueEntity(2, 222, Priority.NORMAL, 10)));
+
+        final JobQueueEntity returning = newJobQueueEntity(3, 111, Priority.NORMAL, 10);
+        final JobQueueEntity other = newJobQueueEntity(4, 222, Priority.NORMAL, 10);
+        assertThat(ids(partitioningWorkers.order(SINK_ID, List.of(other, returning))), is(List.of(3, 4)));
+    }
+
+    private static JobQueueEntity newJobQueueEntity(int id, long submitterId, Priority priority, int numberOfItems) {
+        final JobEntity job = new TestableJobEntityBuilder()
+                .setJobSpecification(new JobSpecification().withSubmitterId(submitterId))
+                .setNumberOfItems(numberOfItems)
+                .build();
+        job.setPriority(priority);
+        return new JobQueueEntity()
+                .withId(id)
+                .withJob(job)
+                .withSinkId(SINK_ID);
+    }
+
+    private static List<Integer> ids(List<JobQueueEntity> entries) {
+        return entries.stream().map(JobQueueEntity::getId).collect(Collectors.toList());
+    }
+}
@@ -132,6 +132,7 @@ public abstract class PgJobStoreBaseTest extends JetTestSupport {
         pgJobStore.jobQueueRepository = mockedJobQueueReposity;
         pgJobStore.jobNotificationRepository = mockedJobNotificationRepository;
         pgJobStore.jobSchedulerBean = jobSchedulerBean;
+        pgJobStore.partitioningWorkers = new PartitioningWorkers();
         pgJobStore.jobStoreRepository.entityManager = entityManager;
         pgJobStore.fileStoreServiceConnectorBean = mockedFileStoreServiceConnectorBean;
         pgJobStore.flowStoreServiceConnectorBean = mockedFlowStoreServiceConnectorBean;
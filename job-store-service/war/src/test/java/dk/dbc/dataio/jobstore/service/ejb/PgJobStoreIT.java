@@ -1149,6 +1149,8 @@ public class PgJobStoreIT extends AbstractJobStoreIT {
         pgJobStore.jobNotificationRepository = new JobNotificationRepository();
         pgJobStore.jobNotificationRepository.entityManager = entityManager;
 
+        pgJobStore.partitioningWorkers = new PartitioningWorkers();
+
         // Mocks
         pgJobStore.jobSchedulerBean = JOB_SCHEDULER_BEAN;
         pgJobStore.flowStoreServiceConnectorBean = mockedFlowStoreServiceConnectorBean;
@@ -23,6 +23,8 @@ import dk.dbc.dataio.jobstore.types.RecordInfo;
 import dk.dbc.dataio.jobstore.types.State;
 import dk.dbc.dataio.jobstore.types.WorkflowNote;
 import jakarta.persistence.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
@@ -43,6 +45,8 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertNotNull;
 
 public class PgJobStoreRepositoryIT extends PgJobStoreRepositoryAbstractIT {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PgJobStoreRepositoryIT.class);
+
     /**
      * Given: a job repository containing one job and one chunk
      * When : the item entity is created
@@ -215,6 +219,91 @@ public class PgJobStoreRepositoryIT extends PgJobStoreRepositoryAbstractIT {
         assertThat("skipped", jobEntity.getSkipped(), is(73));
     }
 
+    /**
+     * Given: a job repository containing one job
+     * When : creating chunks in batches
+     * Then : each batch creates at most the requested number of chunks
+     * And  : the job counters are updated with the totals of each batch
+     */
+    @org.junit.Test
+    public void createChunkEntities() {
+        final JobEntity jobEntity = newPersistedJobEntityWithSinkAndFlowCache();
+        final long submitter = jobEntity.getSpecification().getSubmitterId();
+        final String dataFileId = jobEntity.getSpecification().getDataFile();
+        final KeyGenerator keyGenerator = new DefaultKeyGenerator();
+        final DataPartitioner dataPartitioner = getDanMarc2LineFormatDataPartitioner("/test-records-74-danmarc2.lin");
+
+        final List<ChunkEntity> firstBatch = persistenceContext.run(() -> pgJobStoreRepository.createChunkEntities(
+                submitter, jobEntity.getId(), 0, 5, (short) 10, dataPartitioner, keyGenerator, dataFileId));
+        assertThat("first batch size", firstBatch.size(), is(5));
+        assertThat("first batch last chunk id", firstBatch.get(4).getKey().getId(), is(4));
+        entityManager.refresh(jobEntity);
+        assertThat("number of chunks after first batch", jobEntity.getNumberOfChunks(), is(5));
+        assertThat("number of items after first batch", jobEntity.getNumberOfItems(), is(50));
+
+        final List<ChunkEntity> secondBatch = persistenceContext.run(() -> pgJobStoreRepository.createChunkEntities(
+                submitter, jobEntity.getId(), 5, 5, (short) 10, dataPartitioner, keyGenerator, dataFileId));
+        assertThat("second batch size", secondBatch.size(), is(3));
+        assertThat("second batch last chunk number of items", secondBatch.get(2).getNumberOfItems(), is((short) 4));
+        entityManager.refresh(jobEntity);
+        assertThat("number of chunks after second batch", jobEntity.getNumberOfChunks(), is(8));
+        assertThat("number of items after second batch", jobEntity.getNumberOfItems(), is(74));
+        assertThat("partitioning succeeded", jobEntity.getState().getPhase(State.Phase.PARTITIONING).getSucceeded(), is(74));
+
+        final List<ChunkEntity> thirdBatch = persistenceContext.run(() -> pgJobStoreRepository.createChunkEntities(
+                submitter, jobEntity.getId(), 8, 5, (short) 10, dataPartitioner, keyGenerator, dataFileId));
+        assertThat("third batch", thirdBatch, is(empty()));
+        assertThat("number of chunks in store", findAllChunks().size(), is(8));
+        assertThat("number of items in store", findAllItems().size(), is(74));
+    }
+
+    /**
+     * Compares item insertion throughput of chunk-by-chunk partitioning against batched partitioning
+     */
+    @org.junit.Test
+    public void createChunkEntities_throughput() {
+        final JobEntity chunkByChunkJob = newPersistedJobEntityWithSinkAndFlowCache();
+        final JobEntity batchedJob = newPersistedJobEntityWithSinkAndFlowCache();
+        final KeyGenerator keyGenerator = new DefaultKeyGenerator();
+
+        final DataPartitioner chunkByChunkPartitioner = getDanMarc2LineFormatDataPartitioner("/test-records-74-danmarc2.lin");
+        long start = System.nanoTime();
+        int chunkId = 0;
+        while (true) {
+            final int id = chunkId++;
+            if (persistenceContext.run(() -> pgJobStoreRepository.createChunkEntity(
+                    chunkByChunkJob.getSpecification().getSubmitterId(), chunkByChunkJob.getId(), id, (short) 1,
+                    chunkByChunkPartitioner, keyGenerator, chunkByChunkJob.getSpecification().getDataFile())) == null) {
+                break;
+            }
+        }
+        final long chunkByChunkNanos = System.nanoTime() - start;
+
+        final DataPartitioner batchedPartitioner = getDanMarc2LineFormatDataPartitioner("/test-records-74-danmarc2.lin");
+        start = System.nanoTime();
+        chunkId = 0;
+        while (true) {
+            final int firstChunkId = chunkId;
+            final List<ChunkEntity> chunkEntities = persistenceContext.run(() -> pgJobStoreRepository.createChunkEntities(
+                    batchedJob.getSpecification().getSubmitterId(), batchedJob.getId(), firstChunkId, 25, (short) 1,
+                    batchedPartitioner, keyGenerator, batchedJob.getSpecification().getDataFile()));
+            if (chunkEntities.isEmpty()) {
+                break;
+            }
+            chunkId += chunkEntities.size();
+        }
+        final long batchedNanos = System.nanoTime() - start;
+
+        entityManager.refresh(chunkByChunkJob);
+        entityManager.refresh(batchedJob);
+        assertThat("number of items", batchedJob.getNumberOfItems(), is(chunkByChunkJob.getNumberOfItems()));
+        assertThat("number of chunks", batchedJob.getNumberOfChunks(), is(chunkByChunkJob.getNumberOfChunks()));
+
+        LOGGER.info("createChunkEntity: {} rows/sec, createChunkEntities: {} rows/sec",
+                rowsPerSecond(chunkByChunkJob.getNumberOfItems(), chunkByChunkNanos),
+                rowsPerSecond(batchedJob.getNumberOfItems(), batchedNanos));
+    }
+
     /**
      * Given: a job store where a job exists
      * When : requesting a flow bundle for the existing job
@@ -433,6 +522,10 @@ public class PgJobStoreRepositoryIT extends PgJobStoreRepositoryAbstractIT {
         return jobEntity;
     }
 
+    private static long rowsPerSecond(int rows, long nanos) {
+        return rows * 1_000_000_000L / Math.max(1, nanos);
+    }
+
     private DanMarc2LineFormatDataPartitioner getDanMarc2LineFormatDataPartitioner(String resourceName) {
         return DanMarc2LineFormatDataPartitioner.newInstance(getClass().getResourceAsStream(resourceName), "latin1");
     }
@@ -31,6 +31,7 @@ import dk.dbc.dataio.jobstore.types.SequenceAnalysisData;
 import dk.dbc.dataio.jobstore.types.State;
 import dk.dbc.dataio.jobstore.types.StateChange;
 import dk.dbc.dataio.jobstore.types.StateElement;
+import jakarta.persistence.TypedQuery;
 import org.junit.jupiter.api.Assertions;
 import types.TestableJobEntityBuilder;
 
@@ -60,7 +61,9 @@ import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 public class PgJobStore_ChunksTest extends PgJobStoreBaseTest {
@@ -389,7 +392,7 @@ public class PgJobStore_ChunksTest extends PgJobStoreBaseTest {
     public void updateChunkItemEntities_itemsCanNotBeFound_throws() throws JobStoreException {
         Chunk chunk = new ChunkBuilder(PROCESSED).build();
 
-        when(entityManager.find(eq(ItemEntity.class), any(ItemEntity.Key.class))).thenReturn(null);
+        setItemEntityQueryExpectations(Collections.emptyList());
 
         PgJobStore pgJobStore = newPgJobStore(newPgJobStoreReposity());
         try {
@@ -405,9 +408,10 @@ public class PgJobStore_ChunksTest extends PgJobStoreBaseTest {
     public void updateChunkItemEntities_itemsForPartitioningPhase_throws() throws JobStoreException {
         Chunk chunk = new ChunkBuilder(PARTITIONED).build();
         ItemEntity itemEntity = new ItemEntity();
+        itemEntity.setKey(new ItemEntity.Key(chunk.getJobId(), (int) chunk.getChunkId(), (short) 0));
         itemEntity.setState(new State());
 
-        when(entityManager.find(eq(ItemEntity.class), any(ItemEntity.Key.class))).thenReturn(itemEntity);
+        setItemEntityQueryExpectations(Collections.singletonList(itemEntity));
 
         PgJobStore pgJobStore = newPgJobStore(newPgJobStoreReposity());
         try {
@@ -589,17 +593,18 @@ public class PgJobStore_ChunksTest extends PgJobStoreBaseTest {
             ItemEntity itemEntity = getItemEntity(chunk.getJobId(), (int) chunk.getChunkId(), (short) chunkItem.getId(), phasesDone);
             entities.add(itemEntity);
         }
-        ItemEntity[] expectations = entities.toArray(new ItemEntity[entities.size()]);
-        if (expectations.length > 1) {
-            when(entityManager.find(eq(ItemEntity.class), any(ItemEntity.Key.class)))
-                    .thenReturn(expectations[0], Arrays.copyOfRange(expectations, 1, expectations.length));
-        } else {
-            when(entityManager.find(eq(ItemEntity.class), any(ItemEntity.Key.class)))
-                    .thenReturn(expectations[0]);
-        }
+        setItemEntityQueryExpectations(entities);
         return entities;
     }
 
+    @SuppressWarnings("unchecked")
+    private void setItemEntityQueryExpectations(List<ItemEntity> entities) {
+        TypedQuery<ItemEntity> query = mock(TypedQuery.class);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.getResultList()).thenReturn(entities);
+        when(entityManager.createNamedQuery(ItemEntity.FIND_BY_CHUNK_QUERY_NAME, ItemEntity.class)).thenReturn(query);
+    }
+
     private ItemEntity getItemEntity(int jobId, int chunkId, short itemId, List<State.Phase> phasesDone) {
         ItemEntity.Key itemKey = new ItemEntity.Key(jobId, chunkId, itemId);
         ItemEntity itemEntity = new ItemEntity();
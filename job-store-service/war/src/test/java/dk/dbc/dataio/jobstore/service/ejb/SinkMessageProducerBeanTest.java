@@ -4,6 +4,8 @@ import dk.dbc.commons.jsonb.JSONBException;
 import dk.dbc.dataio.commons.types.Chunk;
 import dk.dbc.dataio.commons.types.Priority;
 import dk.dbc.dataio.commons.types.Sink;
+import dk.dbc.dataio.commons.types.jms.ChunkBinaryCodec;
+import dk.dbc.dataio.commons.types.jms.JMSHeader;
 import dk.dbc.dataio.commons.types.jms.JmsConstants;
 import dk.dbc.dataio.commons.utils.test.jms.MockedJmsTextMessage;
 import dk.dbc.dataio.commons.utils.test.model.ChunkBuilder;
@@ -13,11 +15,12 @@ import dk.dbc.dataio.jobstore.service.entity.SinkCacheEntity;
 import dk.dbc.dataio.jobstore.types.FlowStoreReference;
 import dk.dbc.dataio.jobstore.types.FlowStoreReferences;
 import dk.dbc.dataio.jobstore.types.JobStoreException;
+import jakarta.jms.BytesMessage;
 import jakarta.jms.ConnectionFactory;
 import jakarta.jms.JMSContext;
 import jakarta.jms.JMSException;
 import jakarta.jms.JMSProducer;
-import jakarta.jms.TextMessage;
+import jakarta.jms.Message;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -58,7 +61,7 @@ public class SinkMessageProducerBeanTest {
 
     @BeforeEach
     public void setupExpectations() {
-        when(jmsConnectionFactory.createContext()).thenReturn(jmsContext);
+        when(jmsConnectionFactory.createContext(JMSContext.SESSION_TRANSACTED)).thenReturn(jmsContext);
         when(jmsContext.createProducer()).thenReturn(jmsProducer);
         when(sinkCacheEntity.getSink()).thenReturn(sink);
         when(jmsContext.createTextMessage(any(String.class))).thenReturn(new MockedJmsTextMessage());
@@ -80,12 +83,13 @@ public class SinkMessageProducerBeanTest {
     public void send_setsMessagePriority() throws JobStoreException {
         sinkMessageProducerBean.send(chunk, jobEntity, Priority.NORMAL.getValue());
         verify(jmsProducer).setPriority(Priority.NORMAL.getValue());
+        verify(jmsContext).commit();
     }
 
     @Test
     public void createMessage_chunkArgIsValid_returnsMessageWithHeaderProperties() throws JMSException, JSONBException {
         // Subject Under Test
-        TextMessage message = sinkMessageProducerBean.createMessage(jmsContext, chunk, flowStoreReferences);
+        Message message = sinkMessageProducerBean.createMessage(jmsContext, chunk, flowStoreReferences);
 
         // Verifications
         FlowStoreReference sinkReference = flowStoreReferences.getReference(FlowStoreReferences.Elements.SINK);
@@ -97,9 +101,22 @@ public class SinkMessageProducerBeanTest {
         assertThat("Message flowBinderVersion property", message.getLongProperty(JmsConstants.FLOW_BINDER_VERSION_PROPERTY_NAME), is(flowBinderReference.getVersion()));
     }
 
+    @Test
+    public void createMessage_binaryChunksEnabled_returnsBytesMessageWithBinaryChunk() throws JMSException, JSONBException {
+        BytesMessage bytesMessage = mock(BytesMessage.class);
+        when(jmsContext.createBytesMessage()).thenReturn(bytesMessage);
+        sinkMessageProducerBean.binaryChunks = true;
+
+        Message message = sinkMessageProducerBean.createMessage(jmsContext, chunk, flowStoreReferences);
+
+        assertThat("message", message, is(bytesMessage));
+        verify(bytesMessage).writeBytes(ChunkBinaryCodec.encode(chunk));
+        verify(bytesMessage).setStringProperty(JMSHeader.payload.name, JMSHeader.CHUNK_BINARY_PAYLOAD_TYPE);
+    }
+
     private SinkMessageProducerBean getInitializedBean() {
         SinkMessageProducerBean sinkMessageProducerBean = new SinkMessageProducerBean();
-        sinkMessageProducerBean.connectionFactory = jmsConnectionFactory;
+        sinkMessageProducerBean.sessionPool = new JmsSessionPool(jmsConnectionFactory, 1);
         return sinkMessageProducerBean;
     }
 }
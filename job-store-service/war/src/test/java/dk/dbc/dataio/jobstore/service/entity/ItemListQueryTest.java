@@ -3,6 +3,8 @@ package dk.dbc.dataio.jobstore.service.entity;
 import dk.dbc.dataio.jobstore.types.criteria.ItemListCriteria;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
@@ -13,7 +15,10 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ItemListQueryTest {
@@ -62,4 +67,42 @@ public class ItemListQueryTest {
         assertThat("List<ItemEntity>.get(0).getKey()", itemEntities.get(0).getKey(), is(itemEntity1.getKey()));
         assertThat("List<ItemEntity>.get(1).getKey()", itemEntities.get(1).getKey(), is(itemEntity2.getKey()));
     }
+
+    @Test
+    public void getSelectClause_noOutcomesNarrowed_selectsAllColumns() {
+        ItemListQuery itemListQuery = new ItemListQuery(ENTITY_MANAGER);
+        assertThat(itemListQuery.getSelectClause() + " FROM item", is(ItemListQuery.QUERY_BASE));
+    }
+
+    @Test
+    public void getSelectClause_outcomesNarrowed_projectsOutcomeColumns() {
+        ItemListQuery itemListQuery = new ItemListQuery(ENTITY_MANAGER)
+                .withAllOutcomes(ItemListQuery.Payload.NONE)
+                .withOutcome(ItemListQuery.Outcome.PARTITIONING, ItemListQuery.Payload.HEADER)
+                .withOutcome(ItemListQuery.Outcome.DELIVERING, ItemListQuery.Payload.FULL);
+
+        String selectClause = itemListQuery.getSelectClause();
+        assertThat("partitioningoutcome", selectClause.contains(
+                "CASE WHEN partitioningoutcome->>'binary' IS NULL"
+                        + " THEN partitioningoutcome || jsonb_build_object('data', '')"
+                        + " ELSE jsonb_build_object('binaryHeader', partitioningoutcome->'binary')"
+                        + " END AS partitioningoutcome"), is(true));
+        assertThat("processingoutcome", selectClause.contains("NULL AS processingoutcome"), is(true));
+        assertThat("nextprocessingoutcome", selectClause.contains("NULL AS nextprocessingoutcome"), is(true));
+        assertThat("deliveringoutcome", selectClause.endsWith(", deliveringoutcome"), is(true));
+    }
+
+    @Test
+    public void execute_outcomesNarrowed_bypassesCache() {
+        EntityManager entityManager = mock(EntityManager.class);
+        Query query = mock(Query.class);
+        when(entityManager.createNativeQuery(anyString(), eq(ItemEntity.class))).thenReturn(query);
+        when(query.getResultList()).thenReturn(Collections.emptyList());
+
+        new ItemListQuery(entityManager)
+                .withOutcome(ItemListQuery.Outcome.PROCESSING, ItemListQuery.Payload.NONE)
+                .execute(new ItemListCriteria());
+
+        verify(query).setHint(QueryHints.MAINTAIN_CACHE, HintValues.FALSE);
+    }
 }
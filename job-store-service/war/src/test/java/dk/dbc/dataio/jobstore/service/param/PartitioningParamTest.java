@@ -45,7 +45,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class PartitioningParamTest extends ParamBaseTest {
@@ -198,6 +200,30 @@ public class PartitioningParamTest extends ParamBaseTest {
                         instanceof Iso2709DataPartitioner, is(true));
     }
 
+    @Test
+    public void resumeFrom_iso2709_replacesDataPartitioner() throws FileStoreServiceConnectorException {
+        when(fileStoreServiceConnector.getFile(anyString(), eq(10L))).thenReturn(mock(InputStream.class));
+        JobEntity jobEntity = newJobEntity(jobSpecification);
+        PartitioningParam partitioningParam = newPartitioningParamForIso2709(jobEntity);
+        DataPartitioner dataPartitioner = partitioningParam.getDataPartitioner();
+
+        assertThat("resumed", partitioningParam.resumeFrom(10, 2), is(true));
+        verify(fileStoreServiceConnector).getFile(anyString(), eq(10L));
+        assertThat("new data partitioner", partitioningParam.getDataPartitioner() != dataPartitioner, is(true));
+        assertThat("bytes read", partitioningParam.getDataPartitioner().getBytesRead(), is(10L));
+    }
+
+    @Test
+    public void resumeFrom_iso2709Reordering_isNotResumed() {
+        JobSpecification.Ancestry ancestry = new JobSpecification.Ancestry().withTransfile("file");
+        JobEntity jobEntity = newJobEntity(jobSpecification.withAncestry(ancestry));
+        PartitioningParam partitioningParam = newPartitioningParamForIso2709(jobEntity);
+        DataPartitioner dataPartitioner = partitioningParam.getDataPartitioner();
+
+        assertThat("resumed", partitioningParam.resumeFrom(10, 2), is(false));
+        assertThat("same data partitioner", partitioningParam.getDataPartitioner() == dataPartitioner, is(true));
+    }
+
     @Test
     public void isPreviewOnly_whenSubmitterIsEnabled_isFalse() {
         JobEntity jobEntity = newJobEntity(jobSpecification.withType(JobSpecification.Type.PERSISTENT));
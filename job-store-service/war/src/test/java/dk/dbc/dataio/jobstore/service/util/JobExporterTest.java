@@ -14,6 +14,7 @@ import jakarta.persistence.Query;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
@@ -207,4 +208,22 @@ public class JobExporterTest {
                 .incFailed(1);
         itemEntity.getState().updateState(stateChange);
     }
+
+    @Test
+    public void itemsDataInputStream_concatenatesItemsDataSkippingNulls() throws IOException {
+        final JobExporter.ItemsDataInputStream itemsData = new JobExporter.ItemsDataInputStream(Arrays.asList(
+                "first".getBytes(StandardCharsets.UTF_8), null, new byte[0], "second".getBytes(StandardCharsets.UTF_8))
+                .iterator());
+        assertThat("hasData", itemsData.hasData(), is(true));
+        assertThat("content", new String(itemsData.readAllBytes(), StandardCharsets.UTF_8), is("firstsecond"));
+        assertThat("bytes read", itemsData.getBytesRead(), is(11L));
+        assertThat("end of stream", itemsData.read(), is(-1));
+    }
+
+    @Test
+    public void itemsDataInputStream_noItemsData() {
+        final JobExporter.ItemsDataInputStream itemsData = new JobExporter.ItemsDataInputStream(
+                Arrays.asList((byte[]) null, null).iterator());
+        assertThat(itemsData.hasData(), is(false));
+    }
 }